@@ -100,6 +100,7 @@ public class KDERunner {
 
   private int minSplits = -1;
   private int maxSplits = -1;
+  private boolean singlePass = false;
 
   public KDERunner() {}
 
@@ -226,19 +227,25 @@ public class KDERunner {
             new NoDataMergeStrategy());
     outputDataStore.createDataStore().addType(adapter, outputPrimaryIndex);
 
-    // The following "inner" variables are created to give access to member
-    // variables within lambda
-    // expressions
-    final int innerTileSize = 1;// tileSize;
-    final String innerCoverageName = coverageName;
+    if (singlePass) {
+      runSinglePass(
+          adapter,
+          outputPrimaryIndex,
+          kdeOpts,
+          xMin,
+          xMax,
+          yMin,
+          yMax,
+          inputCrsCode,
+          outputCrsCode);
+      return;
+    }
     for (int level = minLevel; level <= maxLevel; level++) {
-      final int numXTiles = (int) Math.pow(2, level + 1);
-      final int numYTiles = (int) Math.pow(2, level);
-      final int numXPosts = numXTiles; // * tileSize;
-      final int numYPosts = numYTiles; // * tileSize;
+      final int numXPosts = (int) Math.pow(2, level + 1);
+      final int numYPosts = (int) Math.pow(2, level);
       final GeoWaveRDD kdeRDD =
           GeoWaveRDDLoader.loadRDD(session.sparkContext(), inputDataStore, kdeOpts);
-      JavaPairRDD<Double, Long> cells =
+      final JavaPairRDD<Long, Double> cells =
           kdeRDD.getRawRDD().flatMapToPair(
               new GeoWaveCellMapper(
                   numXPosts,
@@ -248,59 +255,13 @@ public class KDERunner {
                   yMin,
                   yMax,
                   inputCrsCode,
-                  outputCrsCode)).combineByKey(identity, sum, sum).mapToPair(item -> item.swap());
-      cells =
-          cells.partitionBy(
-              new RangePartitioner(
-                  cells.getNumPartitions(),
-                  cells.rdd(),
-                  true,
-                  scala.math.Ordering.Double$.MODULE$,
-                  scala.reflect.ClassTag$.MODULE$.apply(Double.class))).sortByKey(false).cache();
-      final long count = cells.count();
-      if (count == 0) {
-        LOGGER.warn("No cells produced by KDE");
+                  outputCrsCode)).combineByKey(identity, sum, sum);
+      final List<JavaPairRDD<Double, Long>> cachedCells = new ArrayList<>();
+      JavaRDD<GridCoverage> rdd =
+          toCoverages(cells, level, xMin, xMax, yMin, yMax, cachedCells);
+      if (rdd == null) {
         continue;
       }
-      final double max = cells.first()._1;
-
-      JavaRDD<GridCoverage> rdd = cells.zipWithIndex().map(t -> {
-        final TileInfo tileInfo =
-            fromCellIndexToTileInfo(
-                t._1._2,
-                numXPosts,
-                numYPosts,
-                numXTiles,
-                numYTiles,
-                xMin,
-                xMax,
-                yMin,
-                yMax,
-                innerTileSize);
-        final WritableRaster raster = RasterUtils.createRasterTypeDouble(NUM_BANDS, innerTileSize);
-
-        final double normalizedValue = t._1._1 / max;
-        // because we are using a Double as the key, the ordering
-        // isn't always completely reproducible as Double equals does not
-        // take into account an epsilon
-
-        final double percentile = (count - t._2) / ((double) count);
-        raster.setSample(tileInfo.x, tileInfo.y, 0, t._1._1);
-        raster.setSample(tileInfo.x, tileInfo.y, 1, normalizedValue);
-
-        raster.setSample(tileInfo.x, tileInfo.y, 2, percentile);
-        return RasterUtils.createCoverageTypeDouble(
-            innerCoverageName,
-            tileInfo.tileWestLon,
-            tileInfo.tileEastLon,
-            tileInfo.tileSouthLat,
-            tileInfo.tileNorthLat,
-            MINS_PER_BAND,
-            MAXES_PER_BAND,
-            NAME_PER_BAND,
-            raster,
-            GeometryUtils.DEFAULT_CRS_STR);
-      });
       LOGGER.debug("Writing results to output store...");
       if (tileSize > 1) {
         // byte[] adapterBytes = PersistenceUtils.toBinary(adapter);
@@ -310,12 +271,161 @@ public class KDERunner {
                 new MergeOverlappingTiles(adapter, outputPrimaryIndex));
       }
       RDDUtils.writeRasterToGeoWave(jsc.sc(), outputPrimaryIndex, outputDataStore, adapter, rdd);
+      for (final JavaPairRDD<Double, Long> cached : cachedCells) {
+        cached.unpersist();
+      }
 
       LOGGER.debug("Results successfully written!");
     }
 
   }
 
+  /**
+   * Scans the input once and computes the cell weights for every level in a single shuffle. Each
+   * level is then normalized independently and all levels are written to the output store in one
+   * job.
+   */
+  private void runSinglePass(
+      final RasterDataAdapter adapter,
+      final Index outputPrimaryIndex,
+      final RDDOptions kdeOpts,
+      final double xMin,
+      final double xMax,
+      final double yMin,
+      final double yMax,
+      final String inputCrsCode,
+      final String outputCrsCode) throws IOException {
+    final Function<Double, Double> identity = x -> x;
+
+    final Function2<Double, Double, Double> sum = (final Double x, final Double y) -> {
+      return x + y;
+    };
+    final GeoWaveRDD kdeRDD =
+        GeoWaveRDDLoader.loadRDD(session.sparkContext(), inputDataStore, kdeOpts);
+    final JavaPairRDD<Tuple2<Integer, Long>, Double> levelCells =
+        kdeRDD.getRawRDD().flatMapToPair(
+            new GeoWaveMultiLevelCellMapper(
+                minLevel,
+                maxLevel,
+                xMin,
+                xMax,
+                yMin,
+                yMax,
+                inputCrsCode,
+                outputCrsCode)).combineByKey(identity, sum, sum).cache();
+    // the sorted cells of each level stay cached until all levels have been written
+    final List<JavaPairRDD<Double, Long>> cachedCells = new ArrayList<>();
+    JavaRDD<GridCoverage> rdd = null;
+    for (int level = minLevel; level <= maxLevel; level++) {
+      final int innerLevel = level;
+      final JavaPairRDD<Long, Double> cells =
+          levelCells.filter(t -> t._1._1 == innerLevel).mapToPair(
+              t -> new Tuple2<>(t._1._2, t._2));
+      final JavaRDD<GridCoverage> levelRdd =
+          toCoverages(cells, level, xMin, xMax, yMin, yMax, cachedCells);
+      if (levelRdd != null) {
+        rdd = rdd == null ? levelRdd : rdd.union(levelRdd);
+      }
+    }
+    if (rdd == null) {
+      levelCells.unpersist();
+      return;
+    }
+    LOGGER.debug("Writing results for all levels to output store...");
+    if (tileSize > 1) {
+      rdd =
+          rdd.flatMapToPair(new TransformTileSize(adapter, outputPrimaryIndex)).groupByKey().map(
+              new MergeOverlappingTiles(adapter, outputPrimaryIndex));
+    }
+    RDDUtils.writeRasterToGeoWave(jsc.sc(), outputPrimaryIndex, outputDataStore, adapter, rdd);
+    for (final JavaPairRDD<Double, Long> cached : cachedCells) {
+      cached.unpersist();
+    }
+    levelCells.unpersist();
+    LOGGER.debug("Results successfully written!");
+  }
+
+  /**
+   * Sorts the cell weights of a single level and converts them into coverages with the weight,
+   * normalized and percentile bands. Returns null if the level has no cells.
+   *
+   * @param cachedCells the sorted cells stay cached until the coverages have been written, so their
+   *        RDD is added to this list for the caller to unpersist afterwards
+   */
+  private JavaRDD<GridCoverage> toCoverages(
+      final JavaPairRDD<Long, Double> levelCells,
+      final int level,
+      final double xMin,
+      final double xMax,
+      final double yMin,
+      final double yMax,
+      final List<JavaPairRDD<Double, Long>> cachedCells) {
+    // The following "inner" variables are created to give access to member
+    // variables within lambda
+    // expressions
+    final int innerTileSize = 1;// tileSize;
+    final String innerCoverageName = coverageName;
+    final int numXTiles = (int) Math.pow(2, level + 1);
+    final int numYTiles = (int) Math.pow(2, level);
+    final int numXPosts = numXTiles; // * tileSize;
+    final int numYPosts = numYTiles; // * tileSize;
+    JavaPairRDD<Double, Long> cells = levelCells.mapToPair(item -> item.swap());
+    cells =
+        cells.partitionBy(
+            new RangePartitioner(
+                cells.getNumPartitions(),
+                cells.rdd(),
+                true,
+                scala.math.Ordering.Double$.MODULE$,
+                scala.reflect.ClassTag$.MODULE$.apply(Double.class))).sortByKey(false).cache();
+    final long count = cells.count();
+    if (count == 0) {
+      LOGGER.warn("No cells produced by KDE");
+      cells.unpersist();
+      return null;
+    }
+    cachedCells.add(cells);
+    final double max = cells.first()._1;
+
+    return cells.zipWithIndex().map(t -> {
+      final TileInfo tileInfo =
+          fromCellIndexToTileInfo(
+              t._1._2,
+              numXPosts,
+              numYPosts,
+              numXTiles,
+              numYTiles,
+              xMin,
+              xMax,
+              yMin,
+              yMax,
+              innerTileSize);
+      final WritableRaster raster = RasterUtils.createRasterTypeDouble(NUM_BANDS, innerTileSize);
+
+      final double normalizedValue = t._1._1 / max;
+      // because we are using a Double as the key, the ordering
+      // isn't always completely reproducible as Double equals does not
+      // take into account an epsilon
+
+      final double percentile = (count - t._2) / ((double) count);
+      raster.setSample(tileInfo.x, tileInfo.y, 0, t._1._1);
+      raster.setSample(tileInfo.x, tileInfo.y, 1, normalizedValue);
+
+      raster.setSample(tileInfo.x, tileInfo.y, 2, percentile);
+      return RasterUtils.createCoverageTypeDouble(
+          innerCoverageName,
+          tileInfo.tileWestLon,
+          tileInfo.tileEastLon,
+          tileInfo.tileSouthLat,
+          tileInfo.tileNorthLat,
+          MINS_PER_BAND,
+          MAXES_PER_BAND,
+          NAME_PER_BAND,
+          raster,
+          GeometryUtils.DEFAULT_CRS_STR);
+    });
+  }
+
   private static class PartitionAndSortKey implements Serializable {
     private static final long serialVersionUID = 1L;
     byte[] partitionKey;
@@ -450,39 +560,37 @@ public class KDERunner {
     this.coverageName = coverageName;
   }
 
+  public void setSinglePass(final boolean singlePass) {
+    this.singlePass = singlePass;
+  }
+
   public void setSplits(final int min, final int max) {
     minSplits = min;
     maxSplits = max;
   }
 
-  protected static class GeoWaveCellMapper implements
-      PairFlatMapFunction<Tuple2<GeoWaveInputKey, SimpleFeature>, Long, Double> {
+  protected abstract static class AbstractCellMapper<K> implements
+      PairFlatMapFunction<Tuple2<GeoWaveInputKey, SimpleFeature>, K, Double> {
 
     /**
      *
      */
     private static final long serialVersionUID = 1L;
-    private final int numXPosts;
-    private final int numYPosts;
-    private final double minX;
-    private final double maxX;
-    private final double minY;
-    private final double maxY;
+    protected final double minX;
+    protected final double maxX;
+    protected final double minY;
+    protected final double maxY;
     private final String inputCrsCode;
     private final String outputCrsCode;
     private MathTransform transform = null;
 
-    protected GeoWaveCellMapper(
-        final int numXPosts,
-        final int numYPosts,
+    protected AbstractCellMapper(
         final double minX,
         final double maxX,
         final double minY,
         final double maxY,
         final String inputCrsCode,
         final String outputCrsCode) {
-      this.numXPosts = numXPosts;
-      this.numYPosts = numYPosts;
       this.minX = minX;
       this.maxX = maxX;
       this.minY = minY;
@@ -491,11 +599,7 @@ public class KDERunner {
       this.outputCrsCode = outputCrsCode;
     }
 
-    @Override
-    public Iterator<Tuple2<Long, Double>> call(final Tuple2<GeoWaveInputKey, SimpleFeature> t)
-        throws Exception {
-      final List<Tuple2<Long, Double>> cells = new ArrayList<>();
-
+    protected Point getCentroid(final Tuple2<GeoWaveInputKey, SimpleFeature> t) {
       Point pt = null;
       if ((t != null) && (t._2 != null)) {
         final Object geomObj = t._2.getDefaultGeometry();
@@ -526,6 +630,98 @@ public class KDERunner {
                   e);
             }
           }
+        }
+      }
+      return pt;
+    }
+  }
+
+  protected static class GeoWaveCellMapper extends AbstractCellMapper<Long> {
+
+    /**
+     *
+     */
+    private static final long serialVersionUID = 1L;
+    private final int numXPosts;
+    private final int numYPosts;
+
+    protected GeoWaveCellMapper(
+        final int numXPosts,
+        final int numYPosts,
+        final double minX,
+        final double maxX,
+        final double minY,
+        final double maxY,
+        final String inputCrsCode,
+        final String outputCrsCode) {
+      super(minX, maxX, minY, maxY, inputCrsCode, outputCrsCode);
+      this.numXPosts = numXPosts;
+      this.numYPosts = numYPosts;
+    }
+
+    @Override
+    public Iterator<Tuple2<Long, Double>> call(final Tuple2<GeoWaveInputKey, SimpleFeature> t)
+        throws Exception {
+      final List<Tuple2<Long, Double>> cells = new ArrayList<>();
+      final Point pt = getCentroid(t);
+      if (pt != null) {
+        GaussianFilter.incrementPtFast(
+            pt.getX(),
+            pt.getY(),
+            minX,
+            maxX,
+            minY,
+            maxY,
+            new CellCounter() {
+              @Override
+              public void increment(final long cellId, final double weight) {
+                cells.add(new Tuple2<>(cellId, weight));
+
+              }
+            },
+            numXPosts,
+            numYPosts);
+      }
+      return cells.iterator();
+    }
+  }
+
+  /**
+   * Emits the cell weights of a feature for every level from min to max level, keyed by level and
+   * cell ID, so that all levels can be computed from a single scan of the input.
+   */
+  protected static class GeoWaveMultiLevelCellMapper extends
+      AbstractCellMapper<Tuple2<Integer, Long>> {
+
+    /**
+     *
+     */
+    private static final long serialVersionUID = 1L;
+    private final int minLevel;
+    private final int maxLevel;
+
+    protected GeoWaveMultiLevelCellMapper(
+        final int minLevel,
+        final int maxLevel,
+        final double minX,
+        final double maxX,
+        final double minY,
+        final double maxY,
+        final String inputCrsCode,
+        final String outputCrsCode) {
+      super(minX, maxX, minY, maxY, inputCrsCode, outputCrsCode);
+      this.minLevel = minLevel;
+      this.maxLevel = maxLevel;
+    }
+
+    @Override
+    public Iterator<Tuple2<Tuple2<Integer, Long>, Double>> call(
+        final Tuple2<GeoWaveInputKey, SimpleFeature> t) throws Exception {
+      final List<Tuple2<Tuple2<Integer, Long>, Double>> cells = new ArrayList<>();
+      final Point pt = getCentroid(t);
+      if (pt != null) {
+        for (int level = minLevel; level <= maxLevel; level++) {
+          final Integer currentLevel = level;
           GaussianFilter.incrementPtFast(
               pt.getX(),
               pt.getY(),
@@ -536,12 +732,11 @@ public class KDERunner {
               new CellCounter() {
                 @Override
                 public void increment(final long cellId, final double weight) {
-                  cells.add(new Tuple2<>(cellId, weight));
-
+                  cells.add(new Tuple2<>(new Tuple2<>(currentLevel, cellId), weight));
                 }
               },
-              numXPosts,
-              numYPosts);
+              (int) Math.pow(2, level + 1),
+              (int) Math.pow(2, level));
         }
       }
       return cells.iterator();
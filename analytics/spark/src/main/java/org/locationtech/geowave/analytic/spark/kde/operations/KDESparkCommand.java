@@ -79,6 +79,7 @@ public class KDESparkCommand extends ServiceEnabledCommand<Void> implements Comm
     runner.setMinLevel(kdeSparkOptions.getMinLevel());
     runner.setMaxLevel(kdeSparkOptions.getMaxLevel());
     runner.setTileSize((int) Math.sqrt(kdeSparkOptions.getTileSize()));
+    runner.setSinglePass(kdeSparkOptions.isSinglePass());
 
     if ((kdeSparkOptions.getOutputIndex() != null)
         && !kdeSparkOptions.getOutputIndex().trim().isEmpty()) {
@@ -9,6 +9,7 @@
 package org.locationtech.geowave.analytic.spark.sparksql.udf;
 
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
 
 public class GeomContains extends GeomFunction {
 
@@ -21,4 +22,14 @@ public class GeomContains extends GeomFunction {
   public boolean apply(final Geometry geom1, final Geometry geom2) {
     return geom1.contains(geom2);
   }
+
+  @Override
+  public boolean requiresEnvelopeIntersection() {
+    return true;
+  }
+
+  @Override
+  public boolean apply(final PreparedGeometry geom1, final Geometry geom2) {
+    return geom1.contains(geom2);
+  }
 }
@@ -20,4 +20,9 @@ public class GeomEquals extends GeomFunction {
   public boolean apply(final Geometry geom1, final Geometry geom2) {
     return geom1.equals(geom2);
   }
+
+  @Override
+  public boolean requiresEnvelopeIntersection() {
+    return true;
+  }
 }
@@ -11,6 +11,7 @@ package org.locationtech.geowave.analytic.spark.sparksql.udf;
 import org.apache.spark.sql.api.java.UDF2;
 import org.locationtech.geowave.analytic.spark.sparksql.util.GeomReader;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 @SuppressFBWarnings
@@ -34,6 +35,23 @@ public abstract class GeomFunction implements UDF2<Geometry, Geometry, Boolean>,
 
   public abstract boolean apply(Geometry geom1, Geometry geom2);
 
+  /**
+   * Applies this predicate using a prepared first geometry. Predicates that have a prepared
+   * equivalent should override this, otherwise the unprepared geometry is used.
+   */
+  public boolean apply(final PreparedGeometry geom1, final Geometry geom2) {
+    return apply(geom1.getGeometry(), geom2);
+  }
+
+  /**
+   * @return true if this predicate can only be satisfied when the envelopes of both geometries,
+   *         expanded by the buffer amount, intersect. This allows joins to discard pairs by
+   *         envelope before evaluating the predicate.
+   */
+  public boolean requiresEnvelopeIntersection() {
+    return false;
+  }
+
   public String getRegisterName() {
     return this.getClass().getSimpleName();
   }
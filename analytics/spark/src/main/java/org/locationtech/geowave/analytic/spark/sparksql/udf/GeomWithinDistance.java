@@ -43,4 +43,9 @@ public class GeomWithinDistance extends GeomFunction {
   public boolean apply(final Geometry geom1, final Geometry geom2) {
     return geom1.distance(geom2) <= radius;
   }
+
+  @Override
+  public boolean requiresEnvelopeIntersection() {
+    return true;
+  }
 }
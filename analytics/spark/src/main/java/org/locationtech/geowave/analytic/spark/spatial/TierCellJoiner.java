@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.analytic.spark.spatial;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.List;
+import org.apache.spark.SparkContext;
+import org.apache.spark.util.AccumulatorV2;
+import org.apache.spark.util.LongAccumulator;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomFunction;
+import org.locationtech.geowave.mapreduce.input.GeoWaveInputKey;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+import com.google.common.collect.Lists;
+import scala.Tuple2;
+
+/**
+ * Compares the left and right geometries that were cogrouped into a single tier cell. When the
+ * predicate can only match geometries with intersecting envelopes, the right side is packed into an
+ * STRtree so that each left geometry is only tested against the candidates that overlap its
+ * (buffered) envelope, and left geometries with several candidates are prepared before the
+ * predicate is evaluated. Geometries are only prepared for predicates that don't override
+ * {@link GeomFunction#call(Geometry, Geometry)}, as a prepared geometry bypasses it.
+ */
+public class TierCellJoiner {
+  // cells with fewer candidate pairs than this are compared with a nested loop as building the
+  // tree would cost more than it saves
+  private static final int MIN_INDEXED_PAIRS = 64;
+  private static final int MIN_PREPARED_CANDIDATES = 2;
+
+  public static HashSet<GeoWaveInputKey> join(
+      final Iterable<Tuple2<GeoWaveInputKey, Geometry>> leftCell,
+      final Iterable<Tuple2<GeoWaveInputKey, Geometry>> rightCell,
+      final GeomFunction predicate,
+      final CellJoinStatistics stats) throws Exception {
+    final List<Tuple2<GeoWaveInputKey, Geometry>> left = Lists.newArrayList(leftCell);
+    final List<Tuple2<GeoWaveInputKey, Geometry>> right = Lists.newArrayList(rightCell);
+    final long pairs = (long) left.size() * right.size();
+    final HashSet<GeoWaveInputKey> results = new HashSet<>();
+    long evaluated = 0;
+    if (!predicate.requiresEnvelopeIntersection()) {
+      for (final Tuple2<GeoWaveInputKey, Geometry> leftTuple : left) {
+        for (final Tuple2<GeoWaveInputKey, Geometry> rightTuple : right) {
+          if (predicate.call(leftTuple._2, rightTuple._2)) {
+            results.add(leftTuple._1);
+            results.add(rightTuple._1);
+          }
+        }
+      }
+      evaluated = pairs;
+    } else if (pairs < MIN_INDEXED_PAIRS) {
+      final double buffer = predicate.getBufferAmount();
+      for (final Tuple2<GeoWaveInputKey, Geometry> leftTuple : left) {
+        final Envelope leftEnvelope = getSearchEnvelope(leftTuple._2, buffer);
+        for (final Tuple2<GeoWaveInputKey, Geometry> rightTuple : right) {
+          if (leftEnvelope.intersects(rightTuple._2.getEnvelopeInternal())) {
+            evaluated++;
+            if (predicate.call(leftTuple._2, rightTuple._2)) {
+              results.add(leftTuple._1);
+              results.add(rightTuple._1);
+            }
+          }
+        }
+      }
+    } else {
+      evaluated = indexedJoin(left, right, predicate, results);
+    }
+    if (stats != null) {
+      stats.update(pairs, evaluated);
+    }
+    return results;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static long indexedJoin(
+      final List<Tuple2<GeoWaveInputKey, Geometry>> left,
+      final List<Tuple2<GeoWaveInputKey, Geometry>> right,
+      final GeomFunction predicate,
+      final HashSet<GeoWaveInputKey> results) throws Exception {
+    final STRtree tree = new STRtree();
+    for (final Tuple2<GeoWaveInputKey, Geometry> rightTuple : right) {
+      tree.insert(rightTuple._2.getEnvelopeInternal(), rightTuple);
+    }
+    tree.build();
+    final double buffer = predicate.getBufferAmount();
+    final PreparedGeometryFactory preparedFactory = new PreparedGeometryFactory();
+    final boolean prepare = !overridesCall(predicate);
+    long evaluated = 0;
+    for (final Tuple2<GeoWaveInputKey, Geometry> leftTuple : left) {
+      final List<Tuple2<GeoWaveInputKey, Geometry>> candidates =
+          tree.query(getSearchEnvelope(leftTuple._2, buffer));
+      if (candidates.isEmpty()) {
+        continue;
+      }
+      evaluated += candidates.size();
+      if (prepare && (candidates.size() >= MIN_PREPARED_CANDIDATES)) {
+        final PreparedGeometry prepared = preparedFactory.create(leftTuple._2);
+        for (final Tuple2<GeoWaveInputKey, Geometry> rightTuple : candidates) {
+          if (predicate.apply(prepared, rightTuple._2)) {
+            results.add(leftTuple._1);
+            results.add(rightTuple._1);
+          }
+        }
+      } else {
+        for (final Tuple2<GeoWaveInputKey, Geometry> rightTuple : candidates) {
+          if (predicate.call(leftTuple._2, rightTuple._2)) {
+            results.add(leftTuple._1);
+            results.add(rightTuple._1);
+          }
+        }
+      }
+    }
+    return evaluated;
+  }
+
+  private static boolean overridesCall(final GeomFunction predicate) {
+    try {
+      return !GeomFunction.class.equals(
+          predicate.getClass().getMethod(
+              "call",
+              Geometry.class,
+              Geometry.class).getDeclaringClass());
+    } catch (final NoSuchMethodException e) {
+      return true;
+    }
+  }
+
+  private static Envelope getSearchEnvelope(final Geometry geometry, final double buffer) {
+    final Envelope envelope = new Envelope(geometry.getEnvelopeInternal());
+    if (buffer > 0) {
+      envelope.expandBy(buffer);
+    }
+    return envelope;
+  }
+
+  /**
+   * Spark accumulators tracking how much work each tier cell required, used to identify skew in
+   * the join.
+   */
+  public static class CellJoinStatistics implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final LongAccumulator cells;
+    private final LongAccumulator candidatePairs;
+    private final LongAccumulator evaluatedPairs;
+    private final MaxAccumulator largestCell;
+
+    public CellJoinStatistics(final SparkContext sc) {
+      cells = sc.longAccumulator("Joined Tier Cells");
+      candidatePairs = sc.longAccumulator("Tier Cell Candidate Pairs");
+      evaluatedPairs = sc.longAccumulator("Tier Cell Evaluated Pairs");
+      largestCell = new MaxAccumulator();
+      sc.register(largestCell, "Largest Tier Cell Pairs");
+    }
+
+    private void update(final long pairs, final long evaluated) {
+      cells.add(1);
+      candidatePairs.add(pairs);
+      evaluatedPairs.add(evaluated);
+      largestCell.add(pairs);
+    }
+
+    public long getCells() {
+      return cells.value();
+    }
+
+    public long getCandidatePairs() {
+      return candidatePairs.value();
+    }
+
+    public long getEvaluatedPairs() {
+      return evaluatedPairs.value();
+    }
+
+    public long getLargestCell() {
+      return largestCell.value();
+    }
+
+    @Override
+    public String toString() {
+      final long cellCount = getCells();
+      return "CellJoinStatistics [cells="
+          + cellCount
+          + ", candidatePairs="
+          + getCandidatePairs()
+          + ", evaluatedPairs="
+          + getEvaluatedPairs()
+          + ", largestCell="
+          + getLargestCell()
+          + ", averageCell="
+          + (cellCount > 0 ? getCandidatePairs() / cellCount : 0)
+          + "]";
+    }
+  }
+
+  private static class MaxAccumulator extends AccumulatorV2<Long, Long> {
+    private static final long serialVersionUID = 1L;
+    private long max = 0;
+
+    @Override
+    public boolean isZero() {
+      return max == 0;
+    }
+
+    @Override
+    public AccumulatorV2<Long, Long> copy() {
+      final MaxAccumulator copy = new MaxAccumulator();
+      copy.max = max;
+      return copy;
+    }
+
+    @Override
+    public void reset() {
+      max = 0;
+    }
+
+    @Override
+    public void add(final Long v) {
+      max = Math.max(max, v);
+    }
+
+    @Override
+    public void merge(final AccumulatorV2<Long, Long> other) {
+      max = Math.max(max, other.value());
+    }
+
+    @Override
+    public Long value() {
+      return max;
+    }
+  }
+}
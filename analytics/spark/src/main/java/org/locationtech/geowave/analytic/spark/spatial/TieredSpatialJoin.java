@@ -32,6 +32,7 @@ import org.locationtech.geowave.analytic.spark.GeoWaveRDD;
 import org.locationtech.geowave.analytic.spark.RDDUtils;
 import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomFunction;
 import org.locationtech.geowave.analytic.spark.spatial.JoinOptions.BuildSide;
+import org.locationtech.geowave.analytic.spark.spatial.TierCellJoiner.CellJoinStatistics;
 import org.locationtech.geowave.core.geotime.index.SpatialDimensionalityTypeProvider;
 import org.locationtech.geowave.core.geotime.index.SpatialTemporalDimensionalityTypeProvider;
 import org.locationtech.geowave.core.geotime.index.SpatialTemporalOptions;
@@ -139,6 +140,7 @@ public class TieredSpatialJoin extends JoinStrategy {
         (Broadcast<TieredSFCIndexStrategy>) RDDUtils.broadcastIndexStrategy(sc, tieredStrategy);
 
     final Broadcast<GeomFunction> geomPredicate = javaSC.broadcast(predicate);
+    final CellJoinStatistics cellStats = new CellJoinStatistics(sc);
 
     // If needed reindex one of the strategies we will wrap the buffer operation into the reindex
     // operation
@@ -265,7 +267,13 @@ public class TieredSpatialJoin extends JoinStrategy {
             rightIndex.filter(t -> t._1().getBytes()[0] == leftTierId);
 
         final JavaPairRDD<GeoWaveInputKey, ByteArray> finalMatches =
-            joinAndCompareTiers(leftTier, rightTier, geomPredicate, highestPartCount, partitioner);
+            joinAndCompareTiers(
+                leftTier,
+                rightTier,
+                geomPredicate,
+                highestPartCount,
+                partitioner,
+                cellStats);
         addMatches(finalMatches);
       }
 
@@ -296,7 +304,8 @@ public class TieredSpatialJoin extends JoinStrategy {
                 reprojected,
                 geomPredicate,
                 highestPartCount,
-                partitioner);
+                partitioner,
+                cellStats);
 
         addMatches(finalMatches);
       }
@@ -335,7 +344,13 @@ public class TieredSpatialJoin extends JoinStrategy {
               partitioner);
 
       finalMatches =
-          joinAndCompareTiers(reprojected, rightTier, geomPredicate, highestPartCount, partitioner);
+          joinAndCompareTiers(
+              reprojected,
+              rightTier,
+              geomPredicate,
+              highestPartCount,
+              partitioner,
+              cellStats);
 
       addMatches(finalMatches);
     }
@@ -356,6 +371,7 @@ public class TieredSpatialJoin extends JoinStrategy {
     // Wish there was a better way to force evaluation of rdd safely.
     // isEmpty() triggers take(1) which shouldn't involve a shuffle.
     combinedResults.isEmpty();
+    LOGGER.debug("Tier cell join: " + cellStats);
 
     // Join against original dataset to give final joined rdds on each side, and cache results so we
     // don't recalculate
@@ -515,7 +531,8 @@ public class TieredSpatialJoin extends JoinStrategy {
       final JavaPairRDD<ByteArray, Tuple2<GeoWaveInputKey, Geometry>> rightTier,
       final Broadcast<GeomFunction> geomPredicate,
       final int highestPartitionCount,
-      final HashPartitioner partitioner) {
+      final HashPartitioner partitioner,
+      final CellJoinStatistics stats) {
     // Cogroup groups on same tier ByteArrayId and pairs them into Iterable
     // sets.
     JavaPairRDD<ByteArray, Tuple2<Iterable<Tuple2<GeoWaveInputKey, Geometry>>, Iterable<Tuple2<GeoWaveInputKey, Geometry>>>> joinedTiers =
@@ -523,8 +540,8 @@ public class TieredSpatialJoin extends JoinStrategy {
 
     // Filter only the pairs that have data on both sides, bucket strategy
     // should have been accounted for by this point.
-    // We need to go through the pairs and test each feature against each
-    // other
+    // We need to go through the pairs and test each feature against the
+    // candidates on the other side of its cell
     // End with a combined RDD for that tier.
     joinedTiers =
         joinedTiers.filter(t -> t._2._1.iterator().hasNext() && t._2._2.iterator().hasNext());
@@ -532,18 +549,7 @@ public class TieredSpatialJoin extends JoinStrategy {
     final JavaPairRDD<GeoWaveInputKey, ByteArray> finalMatches =
         joinedTiers.flatMapValues(
             (FlatMapFunction<Tuple2<Iterable<Tuple2<GeoWaveInputKey, Geometry>>, Iterable<Tuple2<GeoWaveInputKey, Geometry>>>, GeoWaveInputKey>) t -> {
-              final GeomFunction predicate = geomPredicate.value();
-
-              final HashSet<GeoWaveInputKey> results = Sets.newHashSet();
-              for (final Tuple2<GeoWaveInputKey, Geometry> leftTuple : t._1) {
-                for (final Tuple2<GeoWaveInputKey, Geometry> rightTuple : t._2) {
-                  if (predicate.call(leftTuple._2, rightTuple._2)) {
-                    results.add(leftTuple._1);
-                    results.add(rightTuple._1);
-                  }
-                }
-              }
-              return results.iterator();
+              return TierCellJoiner.join(t._1, t._2, geomPredicate.value(), stats).iterator();
             }).mapToPair(Tuple2::swap).reduceByKey(partitioner, (id1, id2) -> id1).persist(
                 StorageLevel.MEMORY_ONLY_SER());
 
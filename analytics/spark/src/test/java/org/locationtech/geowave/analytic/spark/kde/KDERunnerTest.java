@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.analytic.spark.kde;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.geotools.data.DataUtilities;
+import org.geotools.feature.SchemaException;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.junit.Test;
+import org.locationtech.geowave.analytic.spark.kde.KDERunner.GeoWaveCellMapper;
+import org.locationtech.geowave.analytic.spark.kde.KDERunner.GeoWaveMultiLevelCellMapper;
+import org.locationtech.geowave.mapreduce.input.GeoWaveInputKey;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+import scala.Tuple2;
+
+public class KDERunnerTest {
+  private static final String CRS_CODE = "EPSG:4326";
+  private static final int MIN_LEVEL = 1;
+  private static final int MAX_LEVEL = 8;
+  private static final double MIN_X = -180;
+  private static final double MAX_X = 180;
+  private static final double MIN_Y = -90;
+  private static final double MAX_Y = 90;
+
+  @Test
+  public void testSinglePassMatchesPerLevelCells() throws Exception {
+    final List<Tuple2<GeoWaveInputKey, SimpleFeature>> features = createFeatures(500);
+    final Map<Integer, Map<Long, Double>> singlePass = new HashMap<>();
+    final GeoWaveMultiLevelCellMapper multiLevelMapper =
+        new GeoWaveMultiLevelCellMapper(
+            MIN_LEVEL,
+            MAX_LEVEL,
+            MIN_X,
+            MAX_X,
+            MIN_Y,
+            MAX_Y,
+            CRS_CODE,
+            CRS_CODE);
+    for (final Tuple2<GeoWaveInputKey, SimpleFeature> feature : features) {
+      final Iterator<Tuple2<Tuple2<Integer, Long>, Double>> it = multiLevelMapper.call(feature);
+      while (it.hasNext()) {
+        final Tuple2<Tuple2<Integer, Long>, Double> cell = it.next();
+        assertTrue((cell._1._1 >= MIN_LEVEL) && (cell._1._1 <= MAX_LEVEL));
+        singlePass.computeIfAbsent(cell._1._1, l -> new HashMap<>()).merge(
+            cell._1._2,
+            cell._2,
+            Double::sum);
+      }
+    }
+
+    // each level of the single pass has the same cells and weights as the pass over that level
+    for (int level = MIN_LEVEL; level <= MAX_LEVEL; level++) {
+      final GeoWaveCellMapper levelMapper =
+          new GeoWaveCellMapper(
+              (int) Math.pow(2, level + 1),
+              (int) Math.pow(2, level),
+              MIN_X,
+              MAX_X,
+              MIN_Y,
+              MAX_Y,
+              CRS_CODE,
+              CRS_CODE);
+      final Map<Long, Double> expected = new HashMap<>();
+      for (final Tuple2<GeoWaveInputKey, SimpleFeature> feature : features) {
+        final Iterator<Tuple2<Long, Double>> it = levelMapper.call(feature);
+        while (it.hasNext()) {
+          final Tuple2<Long, Double> cell = it.next();
+          expected.merge(cell._1, cell._2, Double::sum);
+        }
+      }
+      assertFalse(expected.isEmpty());
+      final Map<Long, Double> actual = singlePass.get(level);
+      assertEquals("Cells of level " + level, expected.size(), actual.size());
+      for (final Map.Entry<Long, Double> cell : expected.entrySet()) {
+        assertTrue(
+            "Missing cell " + cell.getKey() + " of level " + level,
+            actual.containsKey(cell.getKey()));
+        assertEquals(cell.getValue(), actual.get(cell.getKey()), 1E-9);
+      }
+    }
+    assertEquals(MAX_LEVEL - MIN_LEVEL + 1, singlePass.size());
+  }
+
+  @Test
+  public void testNoGeometry() throws Exception {
+    final GeoWaveMultiLevelCellMapper mapper =
+        new GeoWaveMultiLevelCellMapper(
+            MIN_LEVEL,
+            MAX_LEVEL,
+            MIN_X,
+            MAX_X,
+            MIN_Y,
+            MAX_Y,
+            CRS_CODE,
+            CRS_CODE);
+    final SimpleFeature feature = createFeatures(1).get(0)._2;
+    feature.setDefaultGeometry(null);
+    assertFalse(mapper.call(new Tuple2<>(null, feature)).hasNext());
+    assertFalse(mapper.call(new Tuple2<>(null, null)).hasNext());
+  }
+
+  private static List<Tuple2<GeoWaveInputKey, SimpleFeature>> createFeatures(final int count)
+      throws SchemaException {
+    final SimpleFeatureType type =
+        DataUtilities.createType("kdeTest", "geometry:Point:srid=4326,name:String");
+    final GeometryFactory factory = new GeometryFactory();
+    final Random random = new Random(0);
+    final List<Tuple2<GeoWaveInputKey, SimpleFeature>> features = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      final SimpleFeature feature =
+          SimpleFeatureBuilder.build(type, new Object[] {null, "feature" + i}, "feature" + i);
+      // cluster half of the points so that the cells overlap
+      final double x = (i % 2) == 0 ? (random.nextDouble() * 360) - 180 : random.nextDouble() * 5;
+      final double y = (i % 2) == 0 ? (random.nextDouble() * 180) - 90 : random.nextDouble() * 5;
+      feature.setDefaultGeometry(factory.createPoint(new Coordinate(x, y)));
+      features.add(new Tuple2<>(null, feature));
+    }
+    return features;
+  }
+}
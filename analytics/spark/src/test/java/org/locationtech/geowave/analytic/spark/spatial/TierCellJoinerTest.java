@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.analytic.spark.spatial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomContains;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomCovers;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomCrosses;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomDisjoint;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomEquals;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomFunction;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomIntersects;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomOverlaps;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomTouches;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomWithin;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomWithinDistance;
+import org.locationtech.geowave.core.index.ByteArray;
+import org.locationtech.geowave.mapreduce.input.GeoWaveInputKey;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import com.google.common.primitives.Ints;
+import scala.Tuple2;
+
+public class TierCellJoinerTest {
+  private static final GeometryFactory FACTORY = new GeometryFactory();
+  private static final short LEFT_ADAPTER = 0;
+  private static final short RIGHT_ADAPTER = 1;
+
+  private static final List<GeomFunction> PREDICATES =
+      Arrays.asList(
+          new GeomContains(),
+          new GeomCovers(),
+          new GeomCrosses(),
+          new GeomDisjoint(),
+          new GeomEquals(),
+          new GeomIntersects(),
+          new GeomOverlaps(),
+          new GeomTouches(),
+          new GeomWithin(),
+          new GeomWithinDistance(0.5));
+
+  @Test
+  public void testSmallCell() throws Exception {
+    // fewer pairs than it takes to build a tree, so the envelope filtered nested loop is used
+    assertSameMatches(createCell(LEFT_ADAPTER, 5, 1), createCell(RIGHT_ADAPTER, 6, 2));
+  }
+
+  @Test
+  public void testIndexedCell() throws Exception {
+    assertSameMatches(createCell(LEFT_ADAPTER, 200, 3), createCell(RIGHT_ADAPTER, 150, 4));
+  }
+
+  @Test
+  public void testSkewedCell() throws Exception {
+    // a single left geometry against many candidates and many left geometries against one
+    assertSameMatches(createCell(LEFT_ADAPTER, 1, 5), createCell(RIGHT_ADAPTER, 300, 6));
+    assertSameMatches(createCell(LEFT_ADAPTER, 300, 7), createCell(RIGHT_ADAPTER, 1, 8));
+  }
+
+  @Test
+  public void testEmptyCell() throws Exception {
+    for (final GeomFunction predicate : PREDICATES) {
+      assertEquals(
+          new HashSet<>(),
+          TierCellJoiner.join(
+              new ArrayList<>(),
+              createCell(RIGHT_ADAPTER, 100, 9),
+              predicate,
+              null));
+    }
+  }
+
+  @Test
+  public void testSharedGeometries() throws Exception {
+    // every geometry has an identical copy on the other side, which the join has to find for
+    // equals whether the copy is a tree candidate or not
+    final List<Tuple2<GeoWaveInputKey, Geometry>> left = createCell(LEFT_ADAPTER, 100, 10);
+    final List<Tuple2<GeoWaveInputKey, Geometry>> right = new ArrayList<>();
+    for (int i = 0; i < left.size(); i++) {
+      right.add(new Tuple2<>(createKey(RIGHT_ADAPTER, i), left.get(i)._2));
+    }
+    final HashSet<GeoWaveInputKey> matches =
+        TierCellJoiner.join(left, right, new GeomEquals(), null);
+    assertEquals(left.size() * 2, matches.size());
+    assertSameMatches(left, right);
+  }
+
+  @Test
+  public void testOverriddenCall() throws Exception {
+    // a predicate that overrides call must be used as is, also for candidates that would otherwise
+    // be compared through a prepared geometry
+    final GeomFunction predicate = new GeomIntersects() {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public Boolean call(final Geometry t1, final Geometry t2) throws Exception {
+        return false;
+      }
+    };
+    assertEquals(
+        new HashSet<>(),
+        TierCellJoiner.join(
+            createCell(LEFT_ADAPTER, 5, 11),
+            createCell(RIGHT_ADAPTER, 6, 12),
+            predicate,
+            null));
+    assertEquals(
+        new HashSet<>(),
+        TierCellJoiner.join(
+            createCell(LEFT_ADAPTER, 200, 13),
+            createCell(RIGHT_ADAPTER, 150, 14),
+            predicate,
+            null));
+  }
+
+  /**
+   * Every path of the joiner must match the same keys as comparing every left geometry with every
+   * right geometry, which is how tier cells were joined before.
+   */
+  private static void assertSameMatches(
+      final List<Tuple2<GeoWaveInputKey, Geometry>> left,
+      final List<Tuple2<GeoWaveInputKey, Geometry>> right) throws Exception {
+    for (final GeomFunction predicate : PREDICATES) {
+      final HashSet<GeoWaveInputKey> expected = new HashSet<>();
+      for (final Tuple2<GeoWaveInputKey, Geometry> leftTuple : left) {
+        for (final Tuple2<GeoWaveInputKey, Geometry> rightTuple : right) {
+          if (predicate.apply(leftTuple._2, rightTuple._2)) {
+            expected.add(leftTuple._1);
+            expected.add(rightTuple._1);
+          }
+        }
+      }
+      assertEquals(
+          predicate.getRegisterName(),
+          expected,
+          TierCellJoiner.join(left, right, predicate, null));
+    }
+    // make sure the geometries are dense enough for the comparison to mean something
+    assertFalse(TierCellJoiner.join(left, right, new GeomIntersects(), null).isEmpty());
+  }
+
+  /**
+   * Create a mix of points, lines and boxes within a small area so that many of them intersect.
+   */
+  private static List<Tuple2<GeoWaveInputKey, Geometry>> createCell(
+      final short adapterId,
+      final int size,
+      final long seed) {
+    final Random random = new Random(seed);
+    final List<Tuple2<GeoWaveInputKey, Geometry>> cell = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      final double x = random.nextInt(40) / 4.0;
+      final double y = random.nextInt(40) / 4.0;
+      // lines and boxes are never degenerate
+      final double width = (1 + random.nextInt(8)) / 4.0;
+      final double height = (1 + random.nextInt(8)) / 4.0;
+      final Geometry geometry;
+      switch (i % 3) {
+        case 0:
+          geometry = FACTORY.createPoint(new Coordinate(x, y));
+          break;
+        case 1:
+          geometry =
+              FACTORY.createLineString(
+                  new Coordinate[] {new Coordinate(x, y), new Coordinate(x + width, y + height)});
+          break;
+        default:
+          geometry = FACTORY.toGeometry(new Envelope(x, x + width, y, y + height));
+          break;
+      }
+      cell.add(new Tuple2<>(createKey(adapterId, i), geometry));
+    }
+    return cell;
+  }
+
+  private static GeoWaveInputKey createKey(final short adapterId, final int id) {
+    return new GeoWaveInputKey(adapterId, new ByteArray(Ints.toByteArray(id)));
+  }
+}
@@ -69,7 +69,7 @@ public abstract class SpatialField implements NumericDimensionField<Geometry> {
     this.baseDefinition = baseDefinition;
     this.geometryPrecision = geometryPrecision;
     final GeometrySerializationProvider serialization =
-        new GeometrySerializationProvider(geometryPrecision);
+        new GeometrySerializationProvider(geometryPrecision, true);
     geometryReader = serialization.getFieldReader();
     geometryWriter = serialization.getFieldWriter();
   }
@@ -186,7 +186,7 @@ public abstract class SpatialField implements NumericDimensionField<Geometry> {
       geometryPrecision = Integer.valueOf(precision);
     }
     final GeometrySerializationProvider serialization =
-        new GeometrySerializationProvider(geometryPrecision);
+        new GeometrySerializationProvider(geometryPrecision, true);
     geometryReader = serialization.getFieldReader();
     geometryWriter = serialization.getFieldWriter();
     final byte[] crsBinary = new byte[buf.remaining()];
@@ -18,6 +18,7 @@ import org.locationtech.jts.geom.Geometry;
 
 public class GeometrySerializationProvider implements FieldSerializationProviderSpi<Geometry> {
   private Integer geometryPrecision;
+  private boolean includeBoundingBox = false;
 
   public GeometrySerializationProvider() {
     geometryPrecision = GeometryUtils.MAX_GEOMETRY_PRECISION;
@@ -28,6 +29,18 @@ public class GeometrySerializationProvider implements FieldSerializationProvider
     this.geometryPrecision = geometryPrecision;
   }
 
+  /**
+   * @param geometryPrecision the TWKB precision, or {@code null} to use WKB
+   * @param includeBoundingBox whether TWKB geometries should include their bounding box so that
+   *        filters can test the envelope without decoding the geometry
+   */
+  public GeometrySerializationProvider(
+      @Nullable final Integer geometryPrecision,
+      final boolean includeBoundingBox) {
+    this(geometryPrecision);
+    this.includeBoundingBox = includeBoundingBox;
+  }
+
   @Override
   public FieldReader<Geometry> getFieldReader() {
     return new GeometryReader(geometryPrecision);
@@ -35,7 +48,7 @@ public class GeometrySerializationProvider implements FieldSerializationProvider
 
   @Override
   public FieldWriter<Geometry> getFieldWriter() {
-    return new GeometryWriter(geometryPrecision);
+    return new GeometryWriter(geometryPrecision, includeBoundingBox);
   }
 
   protected static class GeometryReader implements FieldReader<Geometry> {
@@ -75,6 +88,7 @@ public class GeometrySerializationProvider implements FieldSerializationProvider
 
   protected static class GeometryWriter implements FieldWriter<Geometry> {
     private Integer geometryPrecision;
+    private boolean includeBoundingBox = false;
 
     public GeometryWriter() {
       geometryPrecision = GeometryUtils.MAX_GEOMETRY_PRECISION;
@@ -84,6 +98,13 @@ public class GeometrySerializationProvider implements FieldSerializationProvider
       this.geometryPrecision = geometryPrecision;
     }
 
+    public GeometryWriter(
+        @Nullable final Integer geometryPrecision,
+        final boolean includeBoundingBox) {
+      this.geometryPrecision = geometryPrecision;
+      this.includeBoundingBox = includeBoundingBox;
+    }
+
     public void setPrecision(@Nullable final Integer geometryPrecision) {
       this.geometryPrecision = geometryPrecision;
     }
@@ -93,7 +114,7 @@ public class GeometrySerializationProvider implements FieldSerializationProvider
       if (fieldValue == null) {
         return new byte[] {};
       }
-      return GeometryUtils.geometryToBinary(fieldValue, geometryPrecision);
+      return GeometryUtils.geometryToBinary(fieldValue, geometryPrecision, includeBoundingBox);
     }
   }
 }
@@ -12,14 +12,19 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.locationtech.geowave.core.geotime.store.InternalGeotoolsFeatureDataAdapter;
 import org.locationtech.geowave.core.geotime.store.query.filter.CQLQueryFilter;
+import org.locationtech.geowave.core.geotime.util.ExtractEqualityFilter;
 import org.locationtech.geowave.core.index.ByteArrayUtils;
 import org.locationtech.geowave.core.index.VarintUtils;
 import org.locationtech.geowave.core.index.persist.PersistenceUtils;
 import org.locationtech.geowave.core.index.sfc.data.MultiDimensionalNumericData;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
 import org.locationtech.geowave.core.store.api.Index;
+import org.locationtech.geowave.core.store.query.constraints.FieldEqualityConstraintQuery;
 import org.locationtech.geowave.core.store.query.constraints.QueryConstraints;
 import org.locationtech.geowave.core.store.query.constraints.TypeConstraintQuery;
 import org.locationtech.geowave.core.store.query.filter.QueryFilter;
@@ -27,7 +32,10 @@ import org.opengis.filter.Filter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class ExplicitCQLQuery implements QueryConstraints, TypeConstraintQuery {
+public class ExplicitCQLQuery implements
+    QueryConstraints,
+    TypeConstraintQuery,
+    FieldEqualityConstraintQuery {
   private static final Logger LOGGER = LoggerFactory.getLogger(ExplicitCQLQuery.class);
   private QueryConstraints baseQuery;
   private CQLQueryFilter filter;
@@ -70,6 +78,15 @@ public class ExplicitCQLQuery implements QueryConstraints, TypeConstraintQuery {
     return Collections.emptyList();
   }
 
+  @Override
+  public Map<String, Set<String>> getRequiredFieldValues(final DataTypeAdapter<?> adapter) {
+    // the CQL filter is not retained when this is deserialized
+    if (cqlFilter == null) {
+      return Collections.emptyMap();
+    }
+    return ExtractEqualityFilter.getRequiredFieldValues(cqlFilter, adapter);
+  }
+
   @Override
   public byte[] toBinary() {
     byte[] baseQueryBytes;
@@ -11,11 +11,15 @@ package org.locationtech.geowave.core.geotime.store.query;
 import java.net.MalformedURLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
 import org.geotools.filter.text.cql2.CQLException;
 import org.geotools.filter.text.ecql.ECQL;
 import org.locationtech.geowave.core.geotime.store.InternalGeotoolsFeatureDataAdapter;
 import org.locationtech.geowave.core.geotime.store.query.filter.SpatialQueryFilter.CompareOperation;
 import org.locationtech.geowave.core.geotime.util.ExtractAttributesFilter;
+import org.locationtech.geowave.core.geotime.util.ExtractEqualityFilter;
 import org.locationtech.geowave.core.geotime.util.ExtractGeometryFilterVisitor;
 import org.locationtech.geowave.core.geotime.util.ExtractGeometryFilterVisitorResult;
 import org.locationtech.geowave.core.geotime.util.ExtractTimeFilterVisitor;
@@ -27,10 +31,12 @@ import org.locationtech.geowave.core.geotime.util.TimeUtils;
 import org.locationtech.geowave.core.index.StringUtils;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
 import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
 import org.locationtech.geowave.core.store.api.Index;
 import org.locationtech.geowave.core.store.query.constraints.AdapterAndIndexBasedQueryConstraints;
 import org.locationtech.geowave.core.store.query.constraints.BasicQueryByClass;
 import org.locationtech.geowave.core.store.query.constraints.BasicQueryByClass.ConstraintsByClass;
+import org.locationtech.geowave.core.store.query.constraints.FieldEqualityConstraintQuery;
 import org.locationtech.geowave.core.store.query.constraints.QueryConstraints;
 import org.locationtech.geowave.core.store.query.filter.BasicQueryFilter.BasicQueryCompareOperation;
 import org.locationtech.jts.geom.Geometry;
@@ -40,7 +46,10 @@ import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class OptimalCQLQuery implements AdapterAndIndexBasedQueryConstraints, QueryConstraints {
+public class OptimalCQLQuery implements
+    AdapterAndIndexBasedQueryConstraints,
+    QueryConstraints,
+    FieldEqualityConstraintQuery {
   private static final Logger LOGGER = LoggerFactory.getLogger(OptimalCQLQuery.class);
 
   public static QueryConstraints createOptimalQuery(
@@ -259,6 +268,14 @@ public class OptimalCQLQuery implements AdapterAndIndexBasedQueryConstraints, Qu
     return null;
   }
 
+  @Override
+  public Map<String, Set<String>> getRequiredFieldValues(final DataTypeAdapter<?> adapter) {
+    if (filter == null) {
+      return Collections.emptyMap();
+    }
+    return ExtractEqualityFilter.getRequiredFieldValues(filter, adapter);
+  }
+
   @Override
   public byte[] toBinary() {
     byte[] filterBytes;
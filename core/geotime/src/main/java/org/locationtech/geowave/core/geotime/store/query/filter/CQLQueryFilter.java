@@ -10,6 +10,11 @@ package org.locationtech.geowave.core.geotime.store.query.filter;
 
 import java.net.MalformedURLException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.geotools.data.DataUtilities;
 import org.geotools.filter.text.ecql.ECQL;
 import org.locationtech.geowave.core.geotime.store.InternalGeotoolsFeatureDataAdapter;
 import org.locationtech.geowave.core.geotime.util.FilterToCQLTool;
@@ -21,6 +26,7 @@ import org.locationtech.geowave.core.index.persist.PersistenceUtils;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
 import org.locationtech.geowave.core.store.adapter.AbstractAdapterPersistenceEncoding;
 import org.locationtech.geowave.core.store.adapter.IndexedAdapterPersistenceEncoding;
+import org.locationtech.geowave.core.store.api.IndexFieldMapper;
 import org.locationtech.geowave.core.store.data.IndexedPersistenceEncoding;
 import org.locationtech.geowave.core.store.data.MultiFieldPersistentDataset;
 import org.locationtech.geowave.core.store.data.PersistentDataset;
@@ -28,6 +34,8 @@ import org.locationtech.geowave.core.store.index.CommonIndexModel;
 import org.locationtech.geowave.core.store.index.IndexImpl;
 import org.locationtech.geowave.core.store.query.filter.QueryFilter;
 import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+import org.opengis.feature.type.AttributeDescriptor;
 import org.opengis.filter.Filter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +45,11 @@ public class CQLQueryFilter implements QueryFilter {
   private InternalGeotoolsFeatureDataAdapter<?> adapter;
   private AdapterToIndexMapping indexMapping;
   private Filter filter;
+  // the adapter fields referenced by the filter, or null if they could not all be resolved and
+  // every field needs to be read
+  private Set<String> referencedFields;
+  // the parts of the filter that can be evaluated without decoding a feature, or null if none can
+  private CompiledCQLFilter compiledFilter;
 
   public CQLQueryFilter() {
     super();
@@ -49,6 +62,41 @@ public class CQLQueryFilter implements QueryFilter {
     this.filter = FilterToCQLTool.fixDWithin(filter);
     this.adapter = adapter;
     this.indexMapping = indexMapping;
+    initReferencedFields();
+  }
+
+  private void initReferencedFields() {
+    referencedFields = null;
+    compiledFilter = null;
+    if ((filter == null) || (adapter == null)) {
+      return;
+    }
+    final SimpleFeatureType featureType = adapter.getFeatureType();
+    if (indexMapping != null) {
+      // attributes that are mapped to index fields are only available once a feature is decoded
+      final Set<String> fieldNames = new HashSet<>();
+      for (final AttributeDescriptor descriptor : featureType.getAttributeDescriptors()) {
+        fieldNames.add(descriptor.getLocalName());
+      }
+      for (final IndexFieldMapper<?, ?> mapper : indexMapping.getIndexFieldMappers()) {
+        fieldNames.removeAll(Arrays.asList(mapper.getAdapterFields()));
+      }
+      compiledFilter = CompiledCQLFilter.compile(filter, featureType, fieldNames);
+    }
+    final Set<String> fields = new HashSet<>();
+    try {
+      for (final String attributeName : DataUtilities.attributeNames(filter, featureType)) {
+        if (featureType.getDescriptor(attributeName) == null) {
+          // the filter references something other than a plain attribute, so read everything
+          return;
+        }
+        fields.add(attributeName);
+      }
+    } catch (final Exception e) {
+      LOGGER.debug("Unable to determine attributes referenced by CQL filter", e);
+      return;
+    }
+    referencedFields = fields;
   }
 
   public String getTypeName() {
@@ -61,10 +109,29 @@ public class CQLQueryFilter implements QueryFilter {
       final IndexedPersistenceEncoding persistenceEncoding) {
     if ((filter != null) && (indexModel != null) && (adapter != null)) {
       final PersistentDataset<Object> adapterExtendedValues = new MultiFieldPersistentDataset<>();
+      if ((compiledFilter != null)
+          && (persistenceEncoding instanceof AbstractAdapterPersistenceEncoding)) {
+        // evaluate what can be evaluated on the field values first, which only reads the fields the
+        // result depends on and decides most entries without decoding a feature
+        final Boolean result =
+            compiledFilter.evaluate(
+                new LazyFieldValues(
+                    (AbstractAdapterPersistenceEncoding) persistenceEncoding,
+                    indexModel));
+        if (persistenceEncoding.isAsync()) {
+          return false;
+        }
+        if (result != null) {
+          return result;
+        }
+      }
       if (persistenceEncoding instanceof AbstractAdapterPersistenceEncoding) {
+        // only read the fields that the filter references, any other fields are left unread and
+        // are null in the feature that the filter is evaluated against
         ((AbstractAdapterPersistenceEncoding) persistenceEncoding).convertUnknownValues(
             adapter,
-            indexModel);
+            indexModel,
+            referencedFields);
         final PersistentDataset<Object> existingExtValues =
             ((AbstractAdapterPersistenceEncoding) persistenceEncoding).getAdapterExtendedData();
 
@@ -114,6 +181,32 @@ public class CQLQueryFilter implements QueryFilter {
     return true;
   }
 
+  /**
+   * Reads the fields of an entry as the compiled filter asks for them.
+   */
+  private class LazyFieldValues implements CompiledCQLFilter.FieldValues {
+    private final AbstractAdapterPersistenceEncoding encoding;
+    private final CommonIndexModel indexModel;
+    private final Set<String> readFields = new HashSet<>();
+
+    private LazyFieldValues(
+        final AbstractAdapterPersistenceEncoding encoding,
+        final CommonIndexModel indexModel) {
+      this.encoding = encoding;
+      this.indexModel = indexModel;
+    }
+
+    @Override
+    public Object getValue(final String fieldName) {
+      final Object value = encoding.getAdapterExtendedData().getValue(fieldName);
+      if ((value != null) || !readFields.add(fieldName)) {
+        return value;
+      }
+      encoding.convertUnknownValues(adapter, indexModel, Collections.singleton(fieldName));
+      return encoding.getAdapterExtendedData().getValue(fieldName);
+    }
+  }
+
   @Override
   public byte[] toBinary() {
     byte[] filterBytes;
@@ -203,5 +296,6 @@ public class CQLQueryFilter implements QueryFilter {
       LOGGER.warn("Adapter to index mapping is empty bytes");
       indexMapping = null;
     }
+    initReferencedFields();
   }
 }
@@ -0,0 +1,337 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.geotime.store.query.filter;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import org.geotools.util.Converters;
+import org.opengis.feature.simple.SimpleFeatureType;
+import org.opengis.feature.type.AttributeDescriptor;
+import org.opengis.filter.And;
+import org.opengis.filter.BinaryComparisonOperator;
+import org.opengis.filter.ExcludeFilter;
+import org.opengis.filter.Filter;
+import org.opengis.filter.IncludeFilter;
+import org.opengis.filter.Not;
+import org.opengis.filter.Or;
+import org.opengis.filter.PropertyIsBetween;
+import org.opengis.filter.PropertyIsEqualTo;
+import org.opengis.filter.PropertyIsGreaterThan;
+import org.opengis.filter.PropertyIsGreaterThanOrEqualTo;
+import org.opengis.filter.PropertyIsLessThan;
+import org.opengis.filter.PropertyIsLessThanOrEqualTo;
+import org.opengis.filter.PropertyIsNull;
+import org.opengis.filter.expression.Expression;
+import org.opengis.filter.expression.Literal;
+import org.opengis.filter.expression.PropertyName;
+import com.google.common.collect.Sets;
+
+/**
+ * A CQL filter compiled into typed predicates that are evaluated against the field values of an
+ * entry, reading each field only when a predicate needs it and without building a feature.
+ *
+ * <p> Logical operators, null checks, equality of strings, numbers, booleans and dates, and the
+ * ordering of numbers and dates against literals are compiled. Any other part of the filter, such
+ * as a spatial predicate or a function, can't be evaluated by the compiled filter. Such parts are
+ * skipped when the rest of the filter decides the result, for example when another child of an
+ * {@code AND} is false, otherwise the filter has to be evaluated against the decoded feature.
+ */
+public class CompiledCQLFilter {
+  private static final Set<Class<?>> NUMBER_BINDINGS =
+      Sets.newHashSet(
+          Byte.class,
+          Short.class,
+          Integer.class,
+          Long.class,
+          Float.class,
+          Double.class);
+  // a part of the filter that can only be evaluated against the decoded feature
+  private static final Predicate UNKNOWN = values -> null;
+
+  /**
+   * Access to the field values of the entry being filtered.
+   */
+  public static interface FieldValues {
+    /**
+     * @param fieldName the name of the field
+     * @return the value of the field, or {@code null} if it has no value
+     */
+    Object getValue(String fieldName);
+  }
+
+  private static interface Predicate {
+    /**
+     * @return the result of the predicate, or {@code null} if it can't be determined without the
+     *         decoded feature
+     */
+    Boolean evaluate(FieldValues values);
+  }
+
+  private final Predicate predicate;
+
+  private CompiledCQLFilter(final Predicate predicate) {
+    this.predicate = predicate;
+  }
+
+  /**
+   * Compile the filter.
+   *
+   * @param filter the CQL filter
+   * @param featureType the feature type the filter is applied to
+   * @param fieldNames the attributes that can be read as field values, any other attribute is only
+   *        available on the decoded feature
+   * @return the compiled filter, or {@code null} if no part of the filter could be compiled
+   */
+  public static CompiledCQLFilter compile(
+      final Filter filter,
+      final SimpleFeatureType featureType,
+      final Set<String> fieldNames) {
+    final Predicate predicate = compile(filter, new Compiler(featureType, fieldNames));
+    return predicate == UNKNOWN ? null : new CompiledCQLFilter(predicate);
+  }
+
+  /**
+   * Evaluate the filter against the field values of an entry.
+   *
+   * @param values the field values of the entry
+   * @return whether the entry matches the filter, or {@code null} if the filter has to be evaluated
+   *         against the decoded feature
+   */
+  public Boolean evaluate(final FieldValues values) {
+    return predicate.evaluate(values);
+  }
+
+  private static Predicate compile(final Filter filter, final Compiler compiler) {
+    if (filter instanceof IncludeFilter) {
+      return values -> Boolean.TRUE;
+    } else if (filter instanceof ExcludeFilter) {
+      return values -> Boolean.FALSE;
+    } else if (filter instanceof And) {
+      return compileLogical(((And) filter).getChildren(), compiler, false);
+    } else if (filter instanceof Or) {
+      return compileLogical(((Or) filter).getChildren(), compiler, true);
+    } else if (filter instanceof Not) {
+      final Predicate child = compile(((Not) filter).getFilter(), compiler);
+      if (child == UNKNOWN) {
+        return UNKNOWN;
+      }
+      return values -> {
+        final Boolean result = child.evaluate(values);
+        return result == null ? null : !result;
+      };
+    } else if (filter instanceof PropertyIsNull) {
+      final String fieldName = compiler.getFieldName(((PropertyIsNull) filter).getExpression());
+      if (fieldName == null) {
+        return UNKNOWN;
+      }
+      return values -> values.getValue(fieldName) == null;
+    } else if (filter instanceof PropertyIsBetween) {
+      return compiler.compileBetween((PropertyIsBetween) filter);
+    } else if (filter instanceof BinaryComparisonOperator) {
+      return compiler.compileComparison((BinaryComparisonOperator) filter);
+    }
+    return UNKNOWN;
+  }
+
+  /**
+   * Compile the children of an {@code AND} or an {@code OR}. A child that decides the result ends
+   * the evaluation, so the fields of the children after it are never read.
+   */
+  private static Predicate compileLogical(
+      final List<Filter> children,
+      final Compiler compiler,
+      final boolean or) {
+    final List<Predicate> compiled = new ArrayList<>();
+    boolean hasUnknown = false;
+    for (final Filter child : children) {
+      final Predicate predicate = compile(child, compiler);
+      if (predicate == UNKNOWN) {
+        hasUnknown = true;
+      } else {
+        compiled.add(predicate);
+      }
+    }
+    if (compiled.isEmpty()) {
+      return UNKNOWN;
+    }
+    final Predicate[] predicates = compiled.toArray(new Predicate[compiled.size()]);
+    final boolean unknownChildren = hasUnknown;
+    return values -> {
+      boolean unknown = unknownChildren;
+      for (final Predicate predicate : predicates) {
+        final Boolean result = predicate.evaluate(values);
+        if (result == null) {
+          unknown = true;
+        } else if (result == or) {
+          return or;
+        }
+      }
+      return unknown ? null : !or;
+    };
+  }
+
+  private static class Compiler {
+    private final SimpleFeatureType featureType;
+    private final Set<String> fieldNames;
+
+    private Compiler(final SimpleFeatureType featureType, final Set<String> fieldNames) {
+      this.featureType = featureType;
+      this.fieldNames = fieldNames;
+    }
+
+    private String getFieldName(final Expression expression) {
+      if (!(expression instanceof PropertyName)) {
+        return null;
+      }
+      final AttributeDescriptor descriptor =
+          featureType.getDescriptor(((PropertyName) expression).getPropertyName());
+      if ((descriptor == null) || !fieldNames.contains(descriptor.getLocalName())) {
+        return null;
+      }
+      return descriptor.getLocalName();
+    }
+
+    private Class<?> getBinding(final String fieldName) {
+      return featureType.getDescriptor(fieldName).getType().getBinding();
+    }
+
+    private Predicate compileComparison(final BinaryComparisonOperator filter) {
+      String fieldName = getFieldName(filter.getExpression1());
+      final Expression literal;
+      // whether the literal is on the left, which reverses the ordering comparisons
+      final boolean reversed;
+      if (fieldName != null) {
+        literal = filter.getExpression2();
+        reversed = false;
+      } else {
+        fieldName = getFieldName(filter.getExpression2());
+        literal = filter.getExpression1();
+        reversed = true;
+      }
+      if ((fieldName == null) || !(literal instanceof Literal)) {
+        return UNKNOWN;
+      }
+      final Class<?> binding = getBinding(fieldName);
+      final boolean ordered = NUMBER_BINDINGS.contains(binding) || Date.class.equals(binding);
+      if (filter instanceof PropertyIsEqualTo) {
+        if (String.class.equals(binding) && !filter.isMatchingCase()) {
+          return UNKNOWN;
+        }
+        if (!ordered && !String.class.equals(binding) && !Boolean.class.equals(binding)) {
+          return UNKNOWN;
+        }
+      } else if (!ordered) {
+        return UNKNOWN;
+      }
+      final Comparable<Object> value = toBinding(((Literal) literal).getValue(), binding);
+      if (value == null) {
+        return UNKNOWN;
+      }
+      final ComparisonResult result;
+      if (filter instanceof PropertyIsEqualTo) {
+        result = c -> c == 0;
+      } else if (filter instanceof PropertyIsLessThan) {
+        result = reversed ? c -> c > 0 : c -> c < 0;
+      } else if (filter instanceof PropertyIsLessThanOrEqualTo) {
+        result = reversed ? c -> c >= 0 : c -> c <= 0;
+      } else if (filter instanceof PropertyIsGreaterThan) {
+        result = reversed ? c -> c < 0 : c -> c > 0;
+      } else if (filter instanceof PropertyIsGreaterThanOrEqualTo) {
+        result = reversed ? c -> c <= 0 : c -> c >= 0;
+      } else {
+        return UNKNOWN;
+      }
+      final String name = fieldName;
+      return values -> compare(values.getValue(name), value, binding, result);
+    }
+
+    private Predicate compileBetween(final PropertyIsBetween filter) {
+      final String fieldName = getFieldName(filter.getExpression());
+      if ((fieldName == null)
+          || !(filter.getLowerBoundary() instanceof Literal)
+          || !(filter.getUpperBoundary() instanceof Literal)) {
+        return UNKNOWN;
+      }
+      final Class<?> binding = getBinding(fieldName);
+      if (!NUMBER_BINDINGS.contains(binding) && !Date.class.equals(binding)) {
+        return UNKNOWN;
+      }
+      final Comparable<Object> lower =
+          toBinding(((Literal) filter.getLowerBoundary()).getValue(), binding);
+      final Comparable<Object> upper =
+          toBinding(((Literal) filter.getUpperBoundary()).getValue(), binding);
+      if ((lower == null) || (upper == null)) {
+        return UNKNOWN;
+      }
+      return values -> {
+        final Object value = values.getValue(fieldName);
+        final Boolean aboveLower = compare(value, lower, binding, c -> c >= 0);
+        if ((aboveLower == null) || !aboveLower) {
+          return aboveLower;
+        }
+        return compare(value, upper, binding, c -> c <= 0);
+      };
+    }
+  }
+
+  private static interface ComparisonResult {
+    /**
+     * @param comparison the comparison of the field value to the literal
+     */
+    boolean matches(int comparison);
+  }
+
+  /**
+   * Compare a field value to a literal. Comparisons with a missing value never match, and a value
+   * of an unexpected type can only be compared by the decoded feature.
+   */
+  @SuppressWarnings("unchecked")
+  private static Boolean compare(
+      final Object value,
+      final Comparable<Object> literal,
+      final Class<?> binding,
+      final ComparisonResult result) {
+    if (value == null) {
+      return Boolean.FALSE;
+    }
+    if (!binding.equals(value.getClass())) {
+      return null;
+    }
+    return result.matches(((Comparable<Object>) value).compareTo(literal));
+  }
+
+  /**
+   * Convert a literal to the binding of the attribute it is compared to. Only literals of the same
+   * kind as the binding are converted, and numbers only when the conversion is exact, so that the
+   * comparison is the same as the one the feature filter makes.
+   */
+  @SuppressWarnings("unchecked")
+  private static Comparable<Object> toBinding(final Object literal, final Class<?> binding) {
+    if (literal == null) {
+      return null;
+    }
+    if (NUMBER_BINDINGS.contains(binding)) {
+      if (!(literal instanceof Number)) {
+        return null;
+      }
+      final Number converted = (Number) Converters.convert(literal, binding);
+      if ((converted == null)
+          || (Double.compare(converted.doubleValue(), ((Number) literal).doubleValue()) != 0)) {
+        return null;
+      }
+      return (Comparable<Object>) converted;
+    }
+    if (binding.equals(literal.getClass())) {
+      return (Comparable<Object>) literal;
+    }
+    return null;
+  }
+}
@@ -14,6 +14,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import org.locationtech.geowave.core.geotime.store.dimension.SpatialField;
 import org.locationtech.geowave.core.geotime.util.GeometryUtils;
 import org.locationtech.geowave.core.index.ByteArrayUtils;
 import org.locationtech.geowave.core.index.StringUtils;
@@ -25,6 +26,7 @@ import org.locationtech.geowave.core.store.data.IndexedPersistenceEncoding;
 import org.locationtech.geowave.core.store.dimension.NumericDimensionField;
 import org.locationtech.geowave.core.store.index.CommonIndexModel;
 import org.locationtech.geowave.core.store.query.filter.BasicQueryFilter;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.prep.PreparedGeometry;
 import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
@@ -263,6 +265,13 @@ public class SpatialQueryFilter extends BasicQueryFilter {
     // intersection of the query geometry with that
     boolean geometryPasses = false;
     for (final String fieldName : geometryFieldNames) {
+      if (!envelopePasses(
+          indexModel,
+          fieldName,
+          persistenceEncoding.getCommonData().getSerializedValue(fieldName))) {
+        // skip decoding a geometry that cannot pass
+        continue;
+      }
       final Object geomObj = persistenceEncoding.getCommonData().getValue(fieldName);
       if (persistenceEncoding.isAsync()) {
         return false;
@@ -287,6 +296,35 @@ public class SpatialQueryFilter extends BasicQueryFilter {
     return super.accept(indexModel, persistenceEncoding);
   }
 
+  /**
+   * Test the envelope of a serialized geometry, if it was written with one, against the query
+   * geometry. Every comparison other than disjoint requires the envelopes to intersect.
+   *
+   * @return {@code false} if the geometry can't pass, {@code true} if it may pass
+   */
+  private boolean envelopePasses(
+      final CommonIndexModel indexModel,
+      final String fieldName,
+      final byte[] serializedGeometry) {
+    if ((serializedGeometry == null)
+        || (indexModel == null)
+        || CompareOperation.DISJOINT.equals(compareOperation)) {
+      return true;
+    }
+    for (final NumericDimensionField<?> dimension : indexModel.getDimensions()) {
+      if ((dimension instanceof SpatialField) && dimension.getFieldName().equals(fieldName)) {
+        final Envelope envelope =
+            GeometryUtils.envelopeFromBinary(
+                serializedGeometry,
+                ((SpatialField) dimension).getGeometryPrecision());
+        return (envelope == null)
+            || envelope.intersects(
+                preparedGeometryImage.preparedGeometry.getGeometry().getEnvelopeInternal());
+      }
+    }
+    return true;
+  }
+
   private boolean geometryPasses(final Geometry dataGeometry) {
     if (dataGeometry == null) {
       return false;
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.geotime.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import org.geotools.util.Converters;
+import org.locationtech.geowave.core.store.adapter.FieldDescriptor;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.opengis.filter.And;
+import org.opengis.filter.Filter;
+import org.opengis.filter.Or;
+import org.opengis.filter.PropertyIsEqualTo;
+import org.opengis.filter.expression.Expression;
+import org.opengis.filter.expression.Literal;
+import org.opengis.filter.expression.PropertyName;
+import com.google.common.collect.Sets;
+
+/**
+ * This class can be used to get the values that a filter requires attributes to be equal to. The
+ * values are given in the string form that field statistics such as the bloom filter statistic are
+ * computed on, so only attributes whose values have a canonical string form are considered.
+ */
+public class ExtractEqualityFilter {
+  private static final Set<Class<?>> SUPPORTED_BINDINGS =
+      Sets.newHashSet(
+          String.class,
+          Character.class,
+          Boolean.class,
+          Byte.class,
+          Short.class,
+          Integer.class,
+          Long.class,
+          Float.class,
+          Double.class);
+
+  /**
+   * Get the values that the filter requires each attribute to be equal to one of.
+   *
+   * @param filter the filter
+   * @param adapter the data type the filter is applied to
+   * @return the required values keyed by attribute name, attributes that are not constrained by
+   *         equality are omitted and an empty set means no value can match
+   */
+  public static Map<String, Set<String>> getRequiredFieldValues(
+      final Filter filter,
+      final DataTypeAdapter<?> adapter) {
+    if (filter instanceof PropertyIsEqualTo) {
+      return getRequiredFieldValues((PropertyIsEqualTo) filter, adapter);
+    } else if (filter instanceof And) {
+      // every child must match so the constraints on each attribute are intersected
+      final Map<String, Set<String>> retVal = new HashMap<>();
+      for (final Filter child : ((And) filter).getChildren()) {
+        final Map<String, Set<String>> childValues = getRequiredFieldValues(child, adapter);
+        for (final Entry<String, Set<String>> e : childValues.entrySet()) {
+          final Set<String> values = retVal.get(e.getKey());
+          if (values == null) {
+            retVal.put(e.getKey(), new HashSet<>(e.getValue()));
+          } else {
+            values.retainAll(e.getValue());
+          }
+        }
+      }
+      return retVal;
+    } else if (filter instanceof Or) {
+      // only attributes constrained by every child are constrained, to the union of the values
+      Map<String, Set<String>> retVal = null;
+      for (final Filter child : ((Or) filter).getChildren()) {
+        final Map<String, Set<String>> childValues = getRequiredFieldValues(child, adapter);
+        if (retVal == null) {
+          retVal = new HashMap<>();
+          for (final Entry<String, Set<String>> e : childValues.entrySet()) {
+            retVal.put(e.getKey(), new HashSet<>(e.getValue()));
+          }
+        } else {
+          final Iterator<Entry<String, Set<String>>> it = retVal.entrySet().iterator();
+          while (it.hasNext()) {
+            final Entry<String, Set<String>> e = it.next();
+            final Set<String> values = childValues.get(e.getKey());
+            if (values == null) {
+              it.remove();
+            } else {
+              e.getValue().addAll(values);
+            }
+          }
+        }
+        if (retVal.isEmpty()) {
+          break;
+        }
+      }
+      return retVal == null ? Collections.emptyMap() : retVal;
+    }
+    return Collections.emptyMap();
+  }
+
+  private static Map<String, Set<String>> getRequiredFieldValues(
+      final PropertyIsEqualTo filter,
+      final DataTypeAdapter<?> adapter) {
+    if (!filter.isMatchingCase()) {
+      return Collections.emptyMap();
+    }
+    final Expression expression1 = filter.getExpression1();
+    final Expression expression2 = filter.getExpression2();
+    final PropertyName property;
+    final Literal literal;
+    if ((expression1 instanceof PropertyName) && (expression2 instanceof Literal)) {
+      property = (PropertyName) expression1;
+      literal = (Literal) expression2;
+    } else if ((expression2 instanceof PropertyName) && (expression1 instanceof Literal)) {
+      property = (PropertyName) expression2;
+      literal = (Literal) expression1;
+    } else {
+      return Collections.emptyMap();
+    }
+    final FieldDescriptor<?> descriptor = adapter.getFieldDescriptor(property.getPropertyName());
+    if ((descriptor == null)
+        || (literal.getValue() == null)
+        || !SUPPORTED_BINDINGS.contains(descriptor.bindingClass())) {
+      return Collections.emptyMap();
+    }
+    final Object value = Converters.convert(literal.getValue(), descriptor.bindingClass());
+    if (value == null) {
+      return Collections.emptyMap();
+    }
+    final Map<String, Set<String>> retVal = new HashMap<>();
+    retVal.put(descriptor.fieldName(), Sets.newHashSet(value.toString()));
+    return retVal;
+  }
+}
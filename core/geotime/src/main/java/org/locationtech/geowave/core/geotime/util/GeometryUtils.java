@@ -382,6 +382,48 @@ public class GeometryUtils {
     return new TWKBWriter(precision).write(geometry);
   }
 
+  /**
+   * Converts a JTS geometry to binary, optionally including the bounding box of the geometry so
+   * that it can be read using {@link #envelopeFromBinary(byte[], Integer)} without decoding the
+   * geometry. The bounding box is only written when a precision is given.
+   *
+   * @param geometry The JTS geometry
+   * @param precision The precision to use for TWKB, or {@code null} to use WKB
+   * @param includeBoundingBox whether to include the bounding box
+   * @return The binary representation of the geometry
+   */
+  public static byte[] geometryToBinary(
+      final Geometry geometry,
+      final @Nullable Integer precision,
+      final boolean includeBoundingBox) {
+    if (precision == null) {
+      return new WKBWriter().write(geometry);
+    }
+    return new TWKBWriter(precision, includeBoundingBox).write(geometry);
+  }
+
+  /**
+   * Reads the envelope of a binary geometry without decoding the geometry.
+   *
+   * @param binary The binary geometry
+   * @param precision The precision the geometry was written with, {@code null} for WKB
+   * @return The envelope, or {@code null} if the binary does not include a bounding box
+   */
+  public static Envelope envelopeFromBinary(
+      final byte[] binary,
+      final @Nullable Integer precision) {
+    if (precision == null) {
+      return null;
+    }
+    try {
+      return TWKBReader.readEnvelope(binary);
+    } catch (final RuntimeException e) {
+      // fall back to decoding the whole geometry
+      LOGGER.debug("Unable to read geometry envelope", e);
+      return null;
+    }
+  }
+
   /**
    * Converts a byte array as well-known binary to a JTS geometry
    *
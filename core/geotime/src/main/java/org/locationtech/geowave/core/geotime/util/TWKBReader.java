@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import org.locationtech.geowave.core.index.VarintUtils;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
 import org.locationtech.jts.geom.LineString;
@@ -43,6 +44,12 @@ public class TWKBReader {
       } else {
         precision = new PrecisionReader(basePrecision);
       }
+      if ((metadata & TWKBUtils.SIZE) != 0) {
+        VarintUtils.readUnsignedInt(input);
+      }
+      if ((metadata & TWKBUtils.BOUNDING_BOX) != 0) {
+        precision.skipBoundingBox(input);
+      }
       switch (type) {
         case TWKBUtils.POINT_TYPE:
           return readPoint(precision, metadata, input);
@@ -65,6 +72,41 @@ public class TWKBReader {
     }
   }
 
+  /**
+   * Read the envelope of a geometry from its bounding box without decoding the geometry.
+   *
+   * @param bytes the TWKB geometry
+   * @return the envelope, or {@code null} if the geometry was written without a bounding box
+   */
+  public static Envelope readEnvelope(final byte[] bytes) {
+    if ((bytes == null) || (bytes.length < 2)) {
+      return null;
+    }
+    final ByteBuffer input = ByteBuffer.wrap(bytes);
+    final byte typeAndPrecision = input.get();
+    final byte metadata = input.get();
+    if ((metadata & TWKBUtils.BOUNDING_BOX) == 0) {
+      return null;
+    }
+    if ((metadata & TWKBUtils.EXTENDED_DIMENSIONS) != 0) {
+      input.get();
+    }
+    if ((metadata & TWKBUtils.SIZE) != 0) {
+      VarintUtils.readUnsignedInt(input);
+    }
+    final double precisionMultiplier =
+        Math.pow(10, TWKBUtils.zigZagDecode((typeAndPrecision & 0xF0) >> 4));
+    final long minX = VarintUtils.readSignedLong(input);
+    final long maxX = minX + VarintUtils.readSignedLong(input);
+    final long minY = VarintUtils.readSignedLong(input);
+    final long maxY = minY + VarintUtils.readSignedLong(input);
+    return new Envelope(
+        minX / precisionMultiplier,
+        maxX / precisionMultiplier,
+        minY / precisionMultiplier,
+        maxY / precisionMultiplier);
+  }
+
   private Point readPoint(
       final PrecisionReader precision,
       final byte metadata,
@@ -181,6 +223,12 @@ public class TWKBReader {
       precisionMultiplier = Math.pow(10, precision);
     }
 
+    public void skipBoundingBox(final ByteBuffer input) {
+      for (int i = 0; i < 4; i++) {
+        VarintUtils.readSignedLong(input);
+      }
+    }
+
     public Coordinate readPoint(final ByteBuffer input) throws IOException {
       return new Coordinate(
           (VarintUtils.readSignedLong(input)) / precisionMultiplier,
@@ -222,6 +270,16 @@ public class TWKBReader {
       }
     }
 
+    @Override
+    public void skipBoundingBox(final ByteBuffer input) {
+      super.skipBoundingBox(input);
+      // a minimum and a delta for each extended dimension
+      final int extendedValues = ((hasZ ? 1 : 0) + (hasM ? 1 : 0)) * 2;
+      for (int i = 0; i < extendedValues; i++) {
+        VarintUtils.readSignedLong(input);
+      }
+    }
+
     @Override
     public Coordinate readPoint(final ByteBuffer input) throws IOException {
       final Coordinate coordinate = super.readPoint(input);
@@ -13,6 +13,7 @@ import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.function.ToDoubleFunction;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
@@ -26,13 +27,24 @@ import com.clearspring.analytics.util.Varint;
 
 public class TWKBWriter {
   private final int maxPrecision;
+  private final boolean includeBoundingBox;
 
   public TWKBWriter() {
     this(TWKBUtils.MAX_COORD_PRECISION);
   }
 
   public TWKBWriter(final int maxPrecision) {
+    this(maxPrecision, false);
+  }
+
+  /**
+   * @param maxPrecision the maximum number of decimal places to keep for each coordinate
+   * @param includeBoundingBox whether to write the optional bounding box and size of each
+   *        non-point geometry so that the envelope can be read without decoding the geometry
+   */
+  public TWKBWriter(final int maxPrecision, final boolean includeBoundingBox) {
     this.maxPrecision = Math.min(TWKBUtils.MAX_COORD_PRECISION, maxPrecision);
+    this.includeBoundingBox = includeBoundingBox;
   }
 
   public byte[] write(final Geometry geom) {
@@ -62,10 +74,33 @@ public class TWKBWriter {
     } else {
       precision = new PrecisionWriter().calculate(coordinates, maxPrecision);
     }
+    // a point is its own bounding box
+    final boolean writeBoundingBox = includeBoundingBox && (type != TWKBUtils.POINT_TYPE);
+    if (writeBoundingBox) {
+      metadata |= TWKBUtils.BOUNDING_BOX | TWKBUtils.SIZE;
+    }
     output.writeByte(getTypeAndPrecisionByte(type, precision.precision));
     output.writeByte(metadata);
     precision.writeExtendedPrecision(output);
+    if (writeBoundingBox) {
+      // the size covers everything after it so the remainder has to be written out first
+      final ByteArrayOutputStream remainder = new ByteArrayOutputStream();
+      final DataOutputStream remainderOutput = new DataOutputStream(remainder);
+      precision.writeBoundingBox(coordinates, remainderOutput);
+      writeGeometry(geom, type, precision, remainderOutput);
+      remainderOutput.flush();
+      Varint.writeUnsignedVarInt(remainder.size(), output);
+      output.write(remainder.toByteArray());
+    } else {
+      writeGeometry(geom, type, precision, output);
+    }
+  }
 
+  private void writeGeometry(
+      final Geometry geom,
+      final byte type,
+      final PrecisionWriter precision,
+      final DataOutput output) throws IOException {
     switch (type) {
       case TWKBUtils.POINT_TYPE:
         writePoint((Point) geom, precision, output);
@@ -216,6 +251,28 @@ public class TWKBWriter {
       return;
     }
 
+    public void writeBoundingBox(final Coordinate[] coordinates, final DataOutput output)
+        throws IOException {
+      writeRange(coordinates, Coordinate::getX, precisionMultiplier, output);
+      writeRange(coordinates, Coordinate::getY, precisionMultiplier, output);
+    }
+
+    protected static void writeRange(
+        final Coordinate[] coordinates,
+        final ToDoubleFunction<Coordinate> ordinate,
+        final double multiplier,
+        final DataOutput output) throws IOException {
+      long min = Long.MAX_VALUE;
+      long max = Long.MIN_VALUE;
+      for (final Coordinate c : coordinates) {
+        final long value = Math.round(ordinate.applyAsDouble(c) * multiplier);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+      Varint.writeSignedVarLong(min, output);
+      Varint.writeSignedVarLong(max - min, output);
+    }
+
     public void writePoint(final Coordinate coordinate, final DataOutput output)
         throws IOException {
       Varint.writeSignedVarLong(Math.round(coordinate.getX() * precisionMultiplier), output);
@@ -294,6 +351,18 @@ public class TWKBWriter {
       output.writeByte(extendedDimensions);
     }
 
+    @Override
+    public void writeBoundingBox(final Coordinate[] coordinates, final DataOutput output)
+        throws IOException {
+      super.writeBoundingBox(coordinates, output);
+      if (hasZ) {
+        writeRange(coordinates, Coordinate::getZ, zPrecisionMultiplier, output);
+      }
+      if (hasM) {
+        writeRange(coordinates, Coordinate::getM, mPrecisionMultiplier, output);
+      }
+    }
+
     @Override
     public void writePoint(final Coordinate coordinate, final DataOutput output)
         throws IOException {
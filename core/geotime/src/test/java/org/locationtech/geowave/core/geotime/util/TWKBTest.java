@@ -829,4 +829,43 @@ public class TWKBTest {
     decoded = reader.read(encoded);
     Assert.assertEquals(expected, decoded);
   }
+
+  @Test
+  public void testReadWriteBoundingBox() throws ParseException {
+    final TWKBWriter writerWithBoundingBox = new TWKBWriter(3, true);
+    final Polygon polygon =
+        factory.createPolygon(
+            new Coordinate[] {
+                new Coordinate(12.1328125, -1518.375),
+                new Coordinate(20.5, -1518.375),
+                new Coordinate(20.5, -1000.2501),
+                new Coordinate(12.1328125, -1518.375)});
+    final Geometry expected =
+        factory.createPolygon(
+            new Coordinate[] {
+                new Coordinate(12.133, -1518.375),
+                new Coordinate(20.5, -1518.375),
+                new Coordinate(20.5, -1000.25),
+                new Coordinate(12.133, -1518.375)});
+    final byte[] encoded = writerWithBoundingBox.write(polygon);
+    Assert.assertEquals(expected, reader.read(encoded));
+    Assert.assertEquals(expected.getEnvelopeInternal(), TWKBReader.readEnvelope(encoded));
+
+    final GeometryCollection geoms =
+        factory.createGeometryCollection(
+            new Geometry[] {polygon, factory.createPoint(new Coordinate(-5, 2))});
+    final Geometry decoded = reader.read(writerWithBoundingBox.write(geoms));
+    Assert.assertEquals(
+        factory.createGeometryCollection(
+            new Geometry[] {expected, factory.createPoint(new Coordinate(-5, 2))}),
+        decoded);
+    Assert.assertEquals(
+        decoded.getEnvelopeInternal(),
+        TWKBReader.readEnvelope(writerWithBoundingBox.write(geoms)));
+
+    // points and geometries written without a bounding box have no envelope to read
+    final Point point = factory.createPoint(new Coordinate(1, 2));
+    Assert.assertNull(TWKBReader.readEnvelope(writerWithBoundingBox.write(point)));
+    Assert.assertNull(TWKBReader.readEnvelope(writer3Precision.write(polygon)));
+  }
 }
@@ -50,6 +50,19 @@ public interface CustomIndexStrategy<E, C extends Persistable> extends Persistab
 
   Class<C> getConstraintsClass();
 
+  /**
+   * By default an entry matches the query ranges if it has a row within any of them. A custom index
+   * strategy can instead require an entry to have rows within several of the query ranges, which
+   * lets the data store intersect the rows of each range by data ID before any entry is decoded or
+   * read from the data index. An entry must then have at most one row within each query range.
+   *
+   * @param constraints the query constraints
+   * @return the number of query ranges an entry must have a row within to match the constraints
+   */
+  default int getRequiredRangeMatches(final C constraints) {
+    return 1;
+  }
+
   /**
    * Optionally a custom index strategy can enable additional filtering beyond just the query ranges
    * (termed "fine-grained" filtering in documentation). This requires reading rows from disk and
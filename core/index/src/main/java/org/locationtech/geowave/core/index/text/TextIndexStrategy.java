@@ -99,9 +99,17 @@ public class TextIndexStrategy<E> implements CustomIndexStrategy<E, TextSearch>
         nCharacterGrams);
   }
 
+  @Override
+  public int getRequiredRangeMatches(final TextSearch constraints) {
+    return TextIndexUtils.getRequiredRangeMatches(
+        constraints.getSearchTerm(),
+        constraints.getType(),
+        constraints.getCaseSensitivity());
+  }
+
   @Override
   public PersistableBiPredicate<E, TextSearch> getFilter(final TextSearch constraints) {
-    if (constraints.getType().requiresEvaluate()) {
+    if (constraints.getType().requiresEvaluate(constraints.getSearchTerm())) {
       return new TextSearchPredicate(converter);
     }
     return CustomIndexStrategy.super.getFilter(constraints);
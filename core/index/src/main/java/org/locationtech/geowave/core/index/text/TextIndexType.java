@@ -9,5 +9,5 @@
 package org.locationtech.geowave.core.index.text;
 
 public enum TextIndexType {
-  FORWARD, REVERSE, NGRAM
+  FORWARD, REVERSE, NGRAM, TOKEN
 }
@@ -9,8 +9,11 @@
 package org.locationtech.geowave.core.index.text;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.BiPredicate;
@@ -33,6 +36,11 @@ public class TextIndexUtils {
   private static final byte[] FORWARD_INDEX_CASE_INSENSITIVE_PARTITION_KEY = new byte[] {3};
   private static final byte[] REVERSE_INDEX_CASE_INSENSITIVE_PARTITION_KEY = new byte[] {4};
   private static final byte[] NGRAM_INDEX_CASE_INSENSITIVE_PARTITION_KEY = new byte[] {5};
+  private static final byte[] TOKEN_INDEX_CASE_SENSITIVE_PARTITION_KEY = new byte[] {6};
+  private static final byte[] TOKEN_INDEX_CASE_INSENSITIVE_PARTITION_KEY = new byte[] {7};
+  // terminates each token in the sort key so that a word lookup does not also match every longer
+  // word it is a prefix of, tokens never contain this byte
+  private static final byte TOKEN_TERMINATOR = 0;
 
   public static InsertionIds getInsertionIds(
       final String entry,
@@ -67,6 +75,12 @@ public class TextIndexUtils {
               retVal.add(i);
             }
             break;
+          case TOKEN:
+            final SinglePartitionInsertionIds t = getTokenInsertionIds(entry, caseSensitive);
+            if (t != null) {
+              retVal.add(t);
+            }
+            break;
         }
       }
     }
@@ -88,6 +102,11 @@ public class TextIndexUtils {
         return getForwardQueryRanges(term, caseSensitive);
       case REVERSE:
         return getReverseQueryRanges(term, caseSensitive);
+      case TOKEN:
+        return getTokenQueryRanges(
+            term,
+            TextSearchType.WORD_BEGINS_WITH.equals(searchType),
+            caseSensitive);
       case NGRAM:
       default:
         return getNGramQueryRanges(
@@ -98,6 +117,28 @@ public class TextIndexUtils {
     }
   }
 
+  /**
+   * Get the number of query ranges an entry must have a row within to match a search. Each word of
+   * a word or phrase search is a range of its own, and an entry has a single row for each distinct
+   * word, so the posting rows of the words are intersected by data ID.
+   *
+   * @param term the search term
+   * @param searchType the search type
+   * @param caseSensitivity the case sensitivity of the search
+   * @return the number of ranges an entry must have a row within
+   */
+  public static int getRequiredRangeMatches(
+      final String term,
+      final TextSearchType searchType,
+      final CaseSensitivity caseSensitivity) {
+    if (!TextIndexType.TOKEN.equals(searchType.getIndexType())
+        || TextSearchType.WORD_BEGINS_WITH.equals(searchType)) {
+      return 1;
+    }
+    final boolean caseSensitive = CaseSensitivity.CASE_SENSITIVE.equals(caseSensitivity);
+    return Math.max(1, getDistinctTokens(caseSensitive ? term : term.toLowerCase()).size());
+  }
+
   private static SinglePartitionInsertionIds getForwardInsertionIds(
       final String entry,
       final boolean caseSensitive) {
@@ -161,6 +202,123 @@ public class TextIndexUtils {
     return null;
   }
 
+  private static SinglePartitionInsertionIds getTokenInsertionIds(
+      final String entry,
+      final boolean caseSensitive) {
+    // each distinct token is a single sort key so the rows of a token act as its posting list,
+    // these are ordinary rows that are not compressed
+    final Set<String> tokens = getDistinctTokens(caseSensitive ? entry : entry.toLowerCase());
+    if (tokens.isEmpty()) {
+      return null;
+    }
+    final List<byte[]> sortKeys = new ArrayList<>(tokens.size());
+    for (final String token : tokens) {
+      sortKeys.add(getTokenSortKey(token));
+    }
+    return new SinglePartitionInsertionIds(
+        caseSensitive ? TOKEN_INDEX_CASE_SENSITIVE_PARTITION_KEY
+            : TOKEN_INDEX_CASE_INSENSITIVE_PARTITION_KEY,
+        sortKeys);
+  }
+
+  private static byte[] getTokenSortKey(final String token) {
+    final byte[] tokenBytes = StringUtils.stringToBinary(token);
+    final byte[] sortKey = Arrays.copyOf(tokenBytes, tokenBytes.length + 1);
+    sortKey[tokenBytes.length] = TOKEN_TERMINATOR;
+    return sortKey;
+  }
+
+  public static QueryRanges getTokenQueryRanges(
+      final String initialTerm,
+      final boolean isPrefix,
+      final boolean caseSensitive) {
+    final String term = caseSensitive ? initialTerm : initialTerm.toLowerCase();
+    final List<ByteArrayRange> sortKeyRanges;
+    if (isPrefix) {
+      final List<String> tokens = tokenize(term);
+      if ((tokens.size() != 1) || !tokens.get(0).equals(term)) {
+        throw new IllegalArgumentException(
+            "A word prefix search term must be a single word of letters and digits, '"
+                + initialTerm
+                + "' is not");
+      }
+      // without a terminator the range matches every token beginning with the term
+      final byte[] sortKey = StringUtils.stringToBinary(term);
+      sortKeyRanges = Collections.singletonList(new ByteArrayRange(sortKey, sortKey));
+    } else {
+      final Set<String> tokens = getDistinctTokens(term);
+      if (tokens.isEmpty()) {
+        throw new IllegalArgumentException(
+            "A word search term must contain at least one word, '" + initialTerm + "' does not");
+      }
+      // the posting rows of every word are scanned and intersected by data ID, see
+      // getRequiredRangeMatches
+      sortKeyRanges = new ArrayList<>(tokens.size());
+      for (final String token : tokens) {
+        final byte[] sortKey = getTokenSortKey(token);
+        sortKeyRanges.add(new ByteArrayRange(sortKey, sortKey));
+      }
+      Collections.sort(sortKeyRanges);
+    }
+    final List<SinglePartitionQueryRanges> retVal = new ArrayList<>(1);
+    retVal.add(
+        new SinglePartitionQueryRanges(
+            caseSensitive ? TOKEN_INDEX_CASE_SENSITIVE_PARTITION_KEY
+                : TOKEN_INDEX_CASE_INSENSITIVE_PARTITION_KEY,
+            sortKeyRanges));
+    return new QueryRanges(retVal);
+  }
+
+  private static Set<String> getDistinctTokens(final String value) {
+    return new LinkedHashSet<>(tokenize(value));
+  }
+
+  /**
+   * Split a value into the words that are indexed by the token index. A word is a maximal run of
+   * letters and digits.
+   *
+   * @param value the value to tokenize
+   * @return the words in the order they appear in the value
+   */
+  public static List<String> tokenize(final String value) {
+    if ((value == null) || value.isEmpty()) {
+      return Collections.emptyList();
+    }
+    final List<String> tokens = new ArrayList<>();
+    int start = -1;
+    int i = 0;
+    while (i < value.length()) {
+      final int codePoint = value.codePointAt(i);
+      if (Character.isLetterOrDigit(codePoint)) {
+        if (start < 0) {
+          start = i;
+        }
+      } else if (start >= 0) {
+        tokens.add(value.substring(start, i));
+        start = -1;
+      }
+      i += Character.charCount(codePoint);
+    }
+    if (start >= 0) {
+      tokens.add(value.substring(start));
+    }
+    return tokens;
+  }
+
+  protected static boolean containsAllTokens(final String value, final String term) {
+    if (value == null) {
+      return false;
+    }
+    return new HashSet<>(tokenize(value)).containsAll(tokenize(term));
+  }
+
+  protected static boolean containsTokenSequence(final String value, final String term) {
+    if (value == null) {
+      return false;
+    }
+    return Collections.indexOfSubList(tokenize(value), tokenize(term)) >= 0;
+  }
+
   public static QueryRanges getForwardQueryRanges(final String term, final boolean caseSensitive) {
     final byte[] forwardTermBytes =
         StringUtils.stringToBinary(caseSensitive ? term : term.toLowerCase());
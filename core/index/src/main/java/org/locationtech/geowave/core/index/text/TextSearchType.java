@@ -16,7 +16,13 @@ public enum TextSearchType {
   EXACT_MATCH(TextIndexType.FORWARD, (value, term) -> (value != null) && value.equals(term)),
   BEGINS_WITH(TextIndexType.FORWARD),
   ENDS_WITH(TextIndexType.REVERSE),
-  CONTAINS(TextIndexType.NGRAM, (value, term) -> (value != null) && value.contains(term));
+  CONTAINS(TextIndexType.NGRAM, (value, term) -> (value != null) && value.contains(term)),
+  // token searches match whole words, the posting rows of the words of a multi-word search term are
+  // intersected before entries are read, the words are still evaluated to check their order in a
+  // phrase and for rows that are not intersected, such as those of a server-side aggregation
+  CONTAINS_WORDS(TextIndexType.TOKEN, TextIndexUtils::containsAllTokens),
+  CONTAINS_PHRASE(TextIndexType.TOKEN, TextIndexUtils::containsTokenSequence),
+  WORD_BEGINS_WITH(TextIndexType.TOKEN);
 
   private TextIndexType indexType;
   private BiPredicate<String, String> evaluate;
@@ -49,6 +55,14 @@ public enum TextSearchType {
     return requiresEvaluate;
   }
 
+  public boolean requiresEvaluate(final String searchTerm) {
+    if (requiresEvaluate && TextIndexType.TOKEN.equals(indexType)) {
+      // the sort key of a single word fully matches the search
+      return TextIndexUtils.tokenize(searchTerm).size() > 1;
+    }
+    return requiresEvaluate;
+  }
+
   public TextIndexType getIndexType() {
     return indexType;
   }
@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.index.text;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.Test;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.locationtech.geowave.core.index.InsertionIds;
+import org.locationtech.geowave.core.index.QueryRanges;
+import org.locationtech.geowave.core.index.SinglePartitionInsertionIds;
+import org.locationtech.geowave.core.index.StringUtils;
+import com.google.common.primitives.UnsignedBytes;
+
+public class TextIndexUtilsTest {
+  private static final EnumSet<TextSearchType> TOKEN_SEARCHES =
+      EnumSet.of(
+          TextSearchType.CONTAINS_WORDS,
+          TextSearchType.CONTAINS_PHRASE,
+          TextSearchType.WORD_BEGINS_WITH);
+  private static final String VALUE = "The quick brown fox, jumps over the lazy-dog";
+
+  @Test
+  public void testTokenize() {
+    assertEquals(
+        Arrays.asList("The", "quick", "brown", "fox", "jumps", "over", "the", "lazy", "dog"),
+        TextIndexUtils.tokenize(VALUE));
+    assertEquals(Arrays.asList("a1", "b2"), TextIndexUtils.tokenize("  a1...b2  "));
+    assertEquals(
+        Arrays.asList("\u00fcber", "stra\u00dfe"),
+        TextIndexUtils.tokenize("\u00fcber-stra\u00dfe"));
+    assertEquals(Collections.emptyList(), TextIndexUtils.tokenize(" ,.; "));
+    assertEquals(Collections.emptyList(), TextIndexUtils.tokenize(""));
+    assertEquals(Collections.emptyList(), TextIndexUtils.tokenize(null));
+  }
+
+  @Test
+  public void testTokenInsertionIds() {
+    final InsertionIds ids =
+        TextIndexUtils.getInsertionIds(
+            "to be or not to be",
+            EnumSet.of(TextSearchType.CONTAINS_WORDS),
+            EnumSet.of(CaseSensitivity.CASE_SENSITIVE),
+            3);
+    assertEquals(1, ids.getPartitionKeys().size());
+    final SinglePartitionInsertionIds partition = ids.getPartitionKeys().iterator().next();
+    // each distinct word is written once, terminated so it can't be mistaken for a longer word
+    final List<byte[]> sortKeys = partition.getSortKeys();
+    assertEquals(4, sortKeys.size());
+    assertArrayEquals(tokenSortKey("to"), sortKeys.get(0));
+    assertArrayEquals(tokenSortKey("be"), sortKeys.get(1));
+    assertArrayEquals(tokenSortKey("or"), sortKeys.get(2));
+    assertArrayEquals(tokenSortKey("not"), sortKeys.get(3));
+
+    // case sensitivities are kept in partitions of their own
+    final InsertionIds bothCases =
+        TextIndexUtils.getInsertionIds(
+            "To be",
+            EnumSet.of(TextSearchType.CONTAINS_WORDS),
+            EnumSet.allOf(CaseSensitivity.class),
+            3);
+    assertEquals(2, bothCases.getPartitionKeys().size());
+
+    // a value without any words has nothing to index
+    assertTrue(
+        TextIndexUtils.getInsertionIds(
+            "...",
+            EnumSet.of(TextSearchType.CONTAINS_WORDS),
+            EnumSet.of(CaseSensitivity.CASE_SENSITIVE),
+            3).isEmpty());
+  }
+
+  @Test
+  public void testTokenRanges() {
+    // every distinct word of a search is a range of its own, in order, and all of them have to match
+    assertTokenRanges("a big elephant", true, "a", "big", "elephant");
+    assertTokenRanges("the the fox", true, "fox", "the");
+    assertTokenRanges("fox", true, "fox");
+    assertTokenRanges("THE, The QUICK", false, "quick", "the");
+    assertTokenRanges("The the", true, "The", "the");
+    assertEquals(
+        1,
+        TextIndexUtils.getRequiredRangeMatches(
+            "lazy fox",
+            TextSearchType.WORD_BEGINS_WITH,
+            CaseSensitivity.CASE_SENSITIVE));
+    assertEquals(
+        1,
+        TextIndexUtils.getRequiredRangeMatches(
+            "lazy fox",
+            TextSearchType.CONTAINS,
+            CaseSensitivity.CASE_SENSITIVE));
+  }
+
+  @Test
+  public void testInvalidTerms() {
+    assertInvalidTerm(TextSearchType.WORD_BEGINS_WITH, "lazy fox");
+    assertInvalidTerm(TextSearchType.WORD_BEGINS_WITH, "laz-");
+    assertInvalidTerm(TextSearchType.WORD_BEGINS_WITH, "");
+    assertInvalidTerm(TextSearchType.CONTAINS_WORDS, " ,.; ");
+    assertInvalidTerm(TextSearchType.CONTAINS_PHRASE, "");
+  }
+
+  @Test
+  public void testContainsWords() {
+    assertMatch(TextSearchType.CONTAINS_WORDS, "fox", CaseSensitivity.CASE_SENSITIVE);
+    assertMatch(TextSearchType.CONTAINS_WORDS, "lazy fox", CaseSensitivity.CASE_SENSITIVE);
+    assertMatch(TextSearchType.CONTAINS_WORDS, "dog the", CaseSensitivity.CASE_SENSITIVE);
+    assertMatch(TextSearchType.CONTAINS_WORDS, "THE FOX", CaseSensitivity.CASE_INSENSITIVE);
+    // words must match whole, not just the beginning of a longer word
+    assertNoMatch(TextSearchType.CONTAINS_WORDS, "qui", CaseSensitivity.CASE_SENSITIVE);
+    assertNoMatch(TextSearchType.CONTAINS_WORDS, "quickly", CaseSensitivity.CASE_SENSITIVE);
+    assertNoMatch(TextSearchType.CONTAINS_WORDS, "FOX", CaseSensitivity.CASE_SENSITIVE);
+    // every word has to be present, not only the one that is scanned
+    assertNoMatch(TextSearchType.CONTAINS_WORDS, "quick cat", CaseSensitivity.CASE_SENSITIVE);
+    assertNoMatch(TextSearchType.CONTAINS_WORDS, "elephant fox", CaseSensitivity.CASE_SENSITIVE);
+  }
+
+  @Test
+  public void testContainsPhrase() {
+    assertMatch(TextSearchType.CONTAINS_PHRASE, "quick brown", CaseSensitivity.CASE_SENSITIVE);
+    assertMatch(TextSearchType.CONTAINS_PHRASE, "fox jumps", CaseSensitivity.CASE_SENSITIVE);
+    assertMatch(TextSearchType.CONTAINS_PHRASE, "lazy dog", CaseSensitivity.CASE_SENSITIVE);
+    assertMatch(TextSearchType.CONTAINS_PHRASE, "the QUICK", CaseSensitivity.CASE_INSENSITIVE);
+    assertNoMatch(TextSearchType.CONTAINS_PHRASE, "brown quick", CaseSensitivity.CASE_SENSITIVE);
+    assertNoMatch(TextSearchType.CONTAINS_PHRASE, "quick fox", CaseSensitivity.CASE_SENSITIVE);
+  }
+
+  @Test
+  public void testWordBeginsWith() {
+    assertMatch(TextSearchType.WORD_BEGINS_WITH, "qui", CaseSensitivity.CASE_SENSITIVE);
+    assertMatch(TextSearchType.WORD_BEGINS_WITH, "quick", CaseSensitivity.CASE_SENSITIVE);
+    assertMatch(TextSearchType.WORD_BEGINS_WITH, "LAZ", CaseSensitivity.CASE_INSENSITIVE);
+    assertNoMatch(TextSearchType.WORD_BEGINS_WITH, "uick", CaseSensitivity.CASE_SENSITIVE);
+    assertNoMatch(TextSearchType.WORD_BEGINS_WITH, "quickly", CaseSensitivity.CASE_SENSITIVE);
+  }
+
+  @Test
+  public void testRequiresEvaluate() {
+    // the posting rows of a single word are exactly the matches
+    assertFalse(TextSearchType.CONTAINS_WORDS.requiresEvaluate("fox"));
+    assertFalse(TextSearchType.CONTAINS_PHRASE.requiresEvaluate(" fox. "));
+    assertTrue(TextSearchType.CONTAINS_WORDS.requiresEvaluate("lazy fox"));
+    assertTrue(TextSearchType.CONTAINS_PHRASE.requiresEvaluate("lazy fox"));
+    assertFalse(TextSearchType.WORD_BEGINS_WITH.requiresEvaluate("lazy fox"));
+  }
+
+  private static void assertMatch(
+      final TextSearchType searchType,
+      final String term,
+      final CaseSensitivity caseSensitivity) {
+    assertTrue(
+        searchType + " '" + term + "' should match",
+        matches(searchType, term, caseSensitivity));
+  }
+
+  private static void assertNoMatch(
+      final TextSearchType searchType,
+      final String term,
+      final CaseSensitivity caseSensitivity) {
+    assertFalse(
+        searchType + " '" + term + "' should not match",
+        matches(searchType, term, caseSensitivity));
+  }
+
+  /**
+   * A value matches if its rows are within as many of the query ranges as the search requires and,
+   * where the search requires it, the value passes the filter.
+   */
+  private static boolean matches(
+      final TextSearchType searchType,
+      final String term,
+      final CaseSensitivity caseSensitivity) {
+    final InsertionIds ids =
+        TextIndexUtils.getInsertionIds(
+            VALUE,
+            TOKEN_SEARCHES,
+            EnumSet.allOf(CaseSensitivity.class),
+            3);
+    final QueryRanges ranges =
+        TextIndexUtils.getQueryRanges(term, searchType, caseSensitivity, TOKEN_SEARCHES, 3);
+    int rangeMatches = 0;
+    for (final ByteArrayRange range : ranges.getCompositeQueryRanges()) {
+      for (final byte[] id : ids.getCompositeInsertionIds()) {
+        if ((UnsignedBytes.lexicographicalComparator().compare(id, range.getStart()) >= 0)
+            && (UnsignedBytes.lexicographicalComparator().compare(
+                id,
+                range.getEndAsNextPrefix()) < 0)) {
+          rangeMatches++;
+          break;
+        }
+      }
+    }
+    final boolean scanned =
+        rangeMatches >= TextIndexUtils.getRequiredRangeMatches(term, searchType, caseSensitivity);
+    if (!scanned || !searchType.requiresEvaluate(term)) {
+      return scanned;
+    }
+    final boolean caseSensitive = CaseSensitivity.CASE_SENSITIVE.equals(caseSensitivity);
+    return searchType.evaluate(
+        caseSensitive ? VALUE : VALUE.toLowerCase(),
+        caseSensitive ? term : term.toLowerCase());
+  }
+
+  private static void assertTokenRanges(
+      final String term,
+      final boolean caseSensitive,
+      final String... expectedTokens) {
+    final QueryRanges ranges = TextIndexUtils.getTokenQueryRanges(term, false, caseSensitive);
+    assertEquals(1, ranges.getPartitionQueryRanges().size());
+    final Collection<ByteArrayRange> sortKeyRanges =
+        ranges.getPartitionQueryRanges().iterator().next().getSortKeyRanges();
+    assertEquals(expectedTokens.length, sortKeyRanges.size());
+    final Iterator<ByteArrayRange> it = sortKeyRanges.iterator();
+    for (final String expectedToken : expectedTokens) {
+      final ByteArrayRange range = it.next();
+      assertArrayEquals(tokenSortKey(expectedToken), range.getStart());
+      assertArrayEquals(tokenSortKey(expectedToken), range.getEnd());
+    }
+    assertEquals(
+        expectedTokens.length,
+        TextIndexUtils.getRequiredRangeMatches(
+            term,
+            TextSearchType.CONTAINS_WORDS,
+            caseSensitive ? CaseSensitivity.CASE_SENSITIVE : CaseSensitivity.CASE_INSENSITIVE));
+  }
+
+  private static void assertInvalidTerm(final TextSearchType searchType, final String term) {
+    try {
+      TextIndexUtils.getQueryRanges(
+          term,
+          searchType,
+          CaseSensitivity.CASE_SENSITIVE,
+          TOKEN_SEARCHES,
+          3);
+      fail(searchType + " '" + term + "' should be rejected");
+    } catch (final IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("'" + term + "'"));
+    }
+  }
+
+  private static byte[] tokenSortKey(final String token) {
+    final byte[] tokenBytes = StringUtils.stringToBinary(token);
+    return Arrays.copyOf(tokenBytes, tokenBytes.length + 1);
+  }
+}
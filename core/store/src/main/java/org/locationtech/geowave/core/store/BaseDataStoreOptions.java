@@ -35,6 +35,44 @@ public class BaseDataStoreOptions implements DataStoreOptions {
   @Parameter(names = "--aggregationMaxRangeDecomposition", arity = 1)
   protected int configuredAggregationMaxRangeDecomposition = Integer.MIN_VALUE;
 
+  @Parameter(
+      names = "--aggregationThreads",
+      description = "The number of threads to use when aggregating results client-side. Defaults to 1.")
+  protected int configuredAggregationThreads = Integer.MIN_VALUE;
+
+  @Parameter(
+      names = "--decodeThreads",
+      description = "The number of threads shared by queries that decode results in parallel. Defaults to 8.")
+  protected int configuredDecodeThreads = Integer.MIN_VALUE;
+
+  @Parameter(
+      names = "--queryScanThreads",
+      description = "The number of threads shared by queries that scan several indices concurrently. Defaults to 1, which scans the indices one after another.")
+  protected int configuredQueryScanThreads = Integer.MIN_VALUE;
+
+  @Parameter(
+      names = "--orderedQueryScans",
+      arity = 1,
+      description = "When scanning several indices concurrently, return the results of each index in turn rather than as soon as they are available. Defaults to true.")
+  protected boolean orderedQueryScans = true;
+
+  @Parameter(
+      names = "--statsMemoryBudget",
+      description = "The approximate memory in MB that statistics may buffer while ingesting before the largest statistics are flushed to the statistics store. Defaults to 128.")
+  protected int configuredStatisticsMemoryBudgetMB = Integer.MIN_VALUE;
+
+  @Parameter(
+      names = "--costBasedIndexSelection",
+      arity = 1,
+      description = "Use index statistics to choose the index that will scan the fewest rows when a type has multiple indices. Defaults to true.")
+  protected boolean costBasedIndexSelection = true;
+
+  @Parameter(
+      names = "--statisticsQueryPruning",
+      arity = 1,
+      description = "Skip data types whose bloom filter or count-min sketch statistics show that no entries have the values the equality constraints of a query require. Only whole data types are skipped, the partitions of a type that is queried are always scanned, and the estimated number of matches is only reported when explaining index selection rather than used to choose an index. Statistics are only persisted when a writer is flushed or closed, so entries written since may be missed. Defaults to false.")
+  protected boolean statisticsQueryPruning = false;
+
   @Override
   public boolean isPersistDataStatistics() {
     return persistDataStatistics;
@@ -117,6 +155,90 @@ public class BaseDataStoreOptions implements DataStoreOptions {
     configuredAggregationMaxRangeDecomposition = aggregationMaxRangeDecomposition;
   }
 
+  @Override
+  public int getAggregationThreads() {
+    return configuredAggregationThreads == Integer.MIN_VALUE ? defaultAggregationThreads()
+        : configuredAggregationThreads;
+  }
+
+  protected int defaultAggregationThreads() {
+    return 1;
+  }
+
+  public void setAggregationThreads(final int aggregationThreads) {
+    configuredAggregationThreads = aggregationThreads;
+  }
+
+  @Override
+  public int getDecodeThreads() {
+    return configuredDecodeThreads == Integer.MIN_VALUE ? defaultDecodeThreads()
+        : configuredDecodeThreads;
+  }
+
+  protected int defaultDecodeThreads() {
+    return 8;
+  }
+
+  public void setDecodeThreads(final int decodeThreads) {
+    configuredDecodeThreads = decodeThreads;
+  }
+
+  @Override
+  public int getQueryScanThreads() {
+    return configuredQueryScanThreads == Integer.MIN_VALUE ? defaultQueryScanThreads()
+        : configuredQueryScanThreads;
+  }
+
+  protected int defaultQueryScanThreads() {
+    return 1;
+  }
+
+  public void setQueryScanThreads(final int queryScanThreads) {
+    configuredQueryScanThreads = queryScanThreads;
+  }
+
+  @Override
+  public boolean isOrderedQueryScans() {
+    return orderedQueryScans;
+  }
+
+  public void setOrderedQueryScans(final boolean orderedQueryScans) {
+    this.orderedQueryScans = orderedQueryScans;
+  }
+
+  @Override
+  public int getStatisticsMemoryBudgetMB() {
+    return configuredStatisticsMemoryBudgetMB == Integer.MIN_VALUE
+        ? defaultStatisticsMemoryBudgetMB()
+        : configuredStatisticsMemoryBudgetMB;
+  }
+
+  protected int defaultStatisticsMemoryBudgetMB() {
+    return 128;
+  }
+
+  public void setStatisticsMemoryBudgetMB(final int statisticsMemoryBudgetMB) {
+    configuredStatisticsMemoryBudgetMB = statisticsMemoryBudgetMB;
+  }
+
+  @Override
+  public boolean isCostBasedIndexSelection() {
+    return costBasedIndexSelection && persistDataStatistics;
+  }
+
+  public void setCostBasedIndexSelection(final boolean costBasedIndexSelection) {
+    this.costBasedIndexSelection = costBasedIndexSelection;
+  }
+
+  @Override
+  public boolean isStatisticsQueryPruning() {
+    return statisticsQueryPruning && persistDataStatistics;
+  }
+
+  public void setStatisticsQueryPruning(final boolean statisticsQueryPruning) {
+    this.statisticsQueryPruning = statisticsQueryPruning;
+  }
+
   @Override
   public boolean isVisibilityEnabled() {
     return configuredEnableVisibility == null ? defaultEnableVisibility()
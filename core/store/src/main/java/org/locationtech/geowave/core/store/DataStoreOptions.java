@@ -27,6 +27,34 @@ public interface DataStoreOptions {
 
   int getAggregationMaxRangeDecomposition();
 
+  default int getAggregationThreads() {
+    return 1;
+  }
+
+  default int getDecodeThreads() {
+    return 8;
+  }
+
+  default int getQueryScanThreads() {
+    return 1;
+  }
+
+  default boolean isOrderedQueryScans() {
+    return true;
+  }
+
+  default int getStatisticsMemoryBudgetMB() {
+    return 128;
+  }
+
+  default boolean isCostBasedIndexSelection() {
+    return isPersistDataStatistics();
+  }
+
+  default boolean isStatisticsQueryPruning() {
+    return false;
+  }
+
   boolean isSecondaryIndexing();
 
   void setSecondaryIndexing(boolean se);
@@ -8,6 +8,7 @@
  */
 package org.locationtech.geowave.core.store.adapter;
 
+import java.util.Set;
 import org.locationtech.geowave.core.store.data.CommonIndexedPersistenceEncoding;
 import org.locationtech.geowave.core.store.data.PersistentDataset;
 import org.locationtech.geowave.core.store.index.CommonIndexModel;
@@ -54,4 +55,20 @@ public abstract class AbstractAdapterPersistenceEncoding extends CommonIndexedPe
   public abstract void convertUnknownValues(
       final InternalDataAdapter<?> adapter,
       final CommonIndexModel model);
+
+  /**
+   * Process only the unknownData of the given fields to convert to adapter extended values, leaving
+   * any other fields unread. Implementations that cannot read a subset of fields convert all of
+   * them.
+   *
+   * @param adapter
+   * @param model
+   * @param fieldNames the names of the fields to convert, or null to convert all fields
+   */
+  public void convertUnknownValues(
+      final InternalDataAdapter<?> adapter,
+      final CommonIndexModel model,
+      final Set<String> fieldNames) {
+    convertUnknownValues(adapter, model);
+  }
 }
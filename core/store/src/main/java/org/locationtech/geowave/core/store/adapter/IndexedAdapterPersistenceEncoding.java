@@ -52,4 +52,23 @@ public class IndexedAdapterPersistenceEncoding extends AbstractAdapterPersistenc
       adapterExtendedData.addValue(v.getKey(), value);
     }
   }
+
+  @Override
+  public void convertUnknownValues(
+      final InternalDataAdapter<?> adapter,
+      final CommonIndexModel model,
+      final Set<String> fieldNames) {
+    if (fieldNames == null) {
+      convertUnknownValues(adapter, model);
+      return;
+    }
+    final Set<Entry<String, byte[]>> unknownDataValues = getUnknownData().getValues().entrySet();
+    for (final Entry<String, byte[]> v : unknownDataValues) {
+      if (fieldNames.contains(v.getKey())) {
+        final FieldReader<Object> reader = adapter.getReader(v.getKey());
+        final Object value = reader.readField(v.getValue());
+        adapterExtendedData.addValue(v.getKey(), value);
+      }
+    }
+  }
 }
@@ -33,8 +33,10 @@ import org.locationtech.geowave.core.store.callback.ScanCallback;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowIteratorTransformer;
 import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import org.locationtech.geowave.core.store.index.CustomIndex;
 import org.locationtech.geowave.core.store.operations.DataStoreOperations;
 import org.locationtech.geowave.core.store.operations.RowReader;
+import org.locationtech.geowave.core.store.query.constraints.CustomQueryConstraints.InternalCustomConstraints;
 import org.locationtech.geowave.core.store.query.constraints.QueryConstraints;
 import org.locationtech.geowave.core.store.query.filter.CoordinateRangeQueryFilter;
 import org.locationtech.geowave.core.store.query.filter.DedupeFilter;
@@ -183,7 +185,8 @@ public class BaseConstraintsQuery extends BaseFilteredIndexQuery {
         return BaseDataStoreUtils.aggregate(
             it,
             (Aggregation<?, ?, Object>) aggregation.getRight(),
-            (DataTypeAdapter) aggregation.getLeft());
+            (DataTypeAdapter) aggregation.getLeft(),
+            options == null ? 1 : options.getAggregationThreads());
       } else {
         // the aggregation is run server-side use the reader to
         // aggregate to a single value here
@@ -293,6 +296,19 @@ public class BaseConstraintsQuery extends BaseFilteredIndexQuery {
     return clientFilters;
   }
 
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  @Override
+  protected int getRequiredRangeMatches() {
+    if ((index instanceof CustomIndex)
+        && (constraints != null)
+        && (constraints.size() == 1)
+        && (constraints.get(0) instanceof InternalCustomConstraints)) {
+      return ((CustomIndex) index).getRequiredRangeMatches(
+          ((InternalCustomConstraints) constraints.get(0)).getCustomConstraints());
+    }
+    return 1;
+  }
+
   @Override
   protected boolean isCommonIndexAggregation() {
     return BaseDataStoreUtils.isCommonIndexAggregation(aggregation);
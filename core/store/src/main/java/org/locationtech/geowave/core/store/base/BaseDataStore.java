@@ -55,6 +55,7 @@ import org.locationtech.geowave.core.store.api.StatisticQuery;
 import org.locationtech.geowave.core.store.api.StatisticValue;
 import org.locationtech.geowave.core.store.api.VisibilityHandler;
 import org.locationtech.geowave.core.store.api.Writer;
+import org.locationtech.geowave.core.store.base.ParallelScanIterator.ScanType;
 import org.locationtech.geowave.core.store.base.dataidx.DataIndexUtils;
 import org.locationtech.geowave.core.store.callback.DeleteCallbackList;
 import org.locationtech.geowave.core.store.callback.DeleteOtherIndicesCallback;
@@ -85,10 +86,12 @@ import org.locationtech.geowave.core.store.query.constraints.AdapterAndIndexBase
 import org.locationtech.geowave.core.store.query.constraints.DataIdQuery;
 import org.locationtech.geowave.core.store.query.constraints.DataIdRangeQuery;
 import org.locationtech.geowave.core.store.query.constraints.EverythingQuery;
+import org.locationtech.geowave.core.store.query.constraints.FieldEqualityConstraintQuery;
 import org.locationtech.geowave.core.store.query.constraints.InsertionIdQuery;
 import org.locationtech.geowave.core.store.query.constraints.PrefixIdQuery;
 import org.locationtech.geowave.core.store.query.constraints.QueryConstraints;
 import org.locationtech.geowave.core.store.query.constraints.TypeConstraintQuery;
+import org.locationtech.geowave.core.store.query.filter.DataIdDedupeSet;
 import org.locationtech.geowave.core.store.query.filter.DedupeFilter;
 import org.locationtech.geowave.core.store.statistics.DataStatisticsStore;
 import org.locationtech.geowave.core.store.statistics.DefaultStatisticsProvider;
@@ -295,6 +298,85 @@ public class BaseDataStore implements DataStore {
     return internalQuery(query, DeletionMode.DONT_DELETE);
   }
 
+  /**
+   * Explain how an index would be selected for each type of the given query. For each type with
+   * more than one index, the estimated cost of each candidate index is given along with the index
+   * that would be selected. Types that field statistics show cannot match the equality constraints
+   * of the query are reported as skipped.
+   *
+   * @param query the query to explain
+   * @return an explanation of the index selection for each type that has more than one index or
+   *         that is skipped
+   */
+  public <T> List<IndexSelectionExplanation> explainIndexSelection(Query<T> query) {
+    if (query == null) {
+      query = (Query) QueryBuilder.newBuilder().build();
+    }
+    final BaseQueryOptions queryOptions =
+        new BaseQueryOptions(query, adapterStore, internalAdapterStore);
+    final QueryConstraints constraints = query.getQueryConstraints();
+    if ((constraints instanceof TypeConstraintQuery)
+        && ((queryOptions.getAdapterIds() == null) || (queryOptions.getAdapterIds().length == 0))) {
+      queryOptions.setAdapterId(
+          internalAdapterStore.getAdapterId(((TypeConstraintQuery) constraints).getTypeName()));
+    }
+    final IndexCostEstimator costEstimator =
+        new IndexCostEstimator(
+            statisticsStore,
+            indexMappingStore,
+            getMaxRangeDecomposition(queryOptions),
+            queryOptions.getAuthorizations());
+    return queryOptions.explainIndexSelection(
+        adapterStore,
+        indexMappingStore,
+        indexStore,
+        (constraints == null) ? new EverythingQuery() : constraints,
+        costEstimator,
+        baseOptions.isStatisticsQueryPruning()
+            ? new StatisticsQueryPruner(statisticsStore, queryOptions.getAuthorizations())
+            : null);
+  }
+
+  private List<Pair<Index, List<InternalDataAdapter<?>>>> pruneTypesByStatistics(
+      final List<Pair<Index, List<InternalDataAdapter<?>>>> indexAdapterPairList,
+      final QueryConstraints constraints,
+      final BaseQueryOptions queryOptions) {
+    final StatisticsQueryPruner pruner =
+        new StatisticsQueryPruner(statisticsStore, queryOptions.getAuthorizations());
+    final Map<Short, Boolean> mayMatch = new HashMap<>();
+    final List<Pair<Index, List<InternalDataAdapter<?>>>> retVal =
+        new ArrayList<>(indexAdapterPairList.size());
+    for (final Pair<Index, List<InternalDataAdapter<?>>> indexAdapterPair : indexAdapterPairList) {
+      final List<InternalDataAdapter<?>> adapters =
+          indexAdapterPair.getRight().stream().filter(
+              adapter -> mayMatch.computeIfAbsent(
+                  adapter.getAdapterId(),
+                  adapterId -> pruner.mayMatch(constraints, adapter))).collect(
+                      Collectors.toList());
+      if (!adapters.isEmpty()) {
+        retVal.add(Pair.of(indexAdapterPair.getLeft(), adapters));
+      }
+    }
+    return retVal;
+  }
+
+  private IndexCostEstimator createIndexCostEstimator(final BaseQueryOptions queryOptions) {
+    if (!baseOptions.isCostBasedIndexSelection()) {
+      return null;
+    }
+    return new IndexCostEstimator(
+        statisticsStore,
+        indexMappingStore,
+        getMaxRangeDecomposition(queryOptions),
+        queryOptions.getAuthorizations());
+  }
+
+  private int getMaxRangeDecomposition(final BaseQueryOptions queryOptions) {
+    return queryOptions.getMaxRangeDecomposition() != null
+        ? queryOptions.getMaxRangeDecomposition()
+        : baseOptions.getMaxRangeDecomposition();
+  }
+
   protected <T> CloseableIterator<T> internalQuery(
       final Query<T> query,
       final DeletionMode delete) {
@@ -361,6 +443,7 @@ public class BaseDataStore implements DataStore {
     final QueryConstraints sanitizedConstraints =
         (constraints == null) ? new EverythingQuery() : constraints;
     final List<DataStoreCallbackManager> deleteCallbacks = new ArrayList<>();
+    final List<DedupeFilter> dedupeFilters = new ArrayList<>();
     final Map<Short, Set<ByteArray>> dataIdsToDelete;
     if (DeletionMode.DELETE_WITH_DUPLICATES.equals(deleteMode)
         && (baseOptions.isSecondaryIndexing())) {
@@ -463,7 +546,8 @@ public class BaseDataStore implements DataStore {
             }
           }, Iterators.concat(results.iterator())),
               (Aggregation) queryOptions.getAggregation().getRight(),
-              (DataTypeAdapter) queryOptions.getAggregation().getLeft());
+              (DataTypeAdapter) queryOptions.getAggregation().getLeft(),
+              baseOptions.getAggregationThreads());
         }
       } catch (final IOException e1) {
         LOGGER.error("Failed to resolve adapter or index for query", e1);
@@ -477,8 +561,9 @@ public class BaseDataStore implements DataStore {
 
       // all queries will use the same instance of the dedupe filter for
       // client side filtering because the filter needs to be applied across
-      // indices
-      DedupeFilter dedupeFilter = new DedupeFilter();
+      // indices, the filters are closed along with the query results so they may spill to disk
+      DedupeFilter dedupeFilter = new DedupeFilter(DataIdDedupeSet.DEFAULT_MAX_IN_MEMORY_IDS);
+      dedupeFilters.add(dedupeFilter);
       MemoryPersistentAdapterStore tempAdapterStore;
 
       tempAdapterStore =
@@ -492,14 +577,23 @@ public class BaseDataStore implements DataStore {
           ((delete
               && ((constraints == null) || !constraints.indexMustBeSpecified())
               && !baseOptions.isSecondaryIndexing()));
-      final List<Pair<Index, List<InternalDataAdapter<?>>>> indexAdapterPairList =
+      List<Pair<Index, List<InternalDataAdapter<?>>>> indexAdapterPairList =
           (deleteAllIndicesByConstraints)
               ? queryOptions.getIndicesForAdapters(tempAdapterStore, indexMappingStore, indexStore)
               : queryOptions.getBestQueryIndices(
                   tempAdapterStore,
                   indexMappingStore,
                   indexStore,
-                  sanitizedConstraints);
+                  sanitizedConstraints,
+                  createIndexCostEstimator(queryOptions));
+      if (!delete
+          && baseOptions.isStatisticsQueryPruning()
+          && (sanitizedConstraints instanceof FieldEqualityConstraintQuery)) {
+        // skip types whose field statistics show that no entries have the required values, this is
+        // opt-in because the statistics don't reflect entries that haven't been flushed yet
+        indexAdapterPairList =
+            pruneTypesByStatistics(indexAdapterPairList, sanitizedConstraints, queryOptions);
+      }
       Map<Short, List<Index>> additionalIndicesToDelete = null;
       if (DeletionMode.DELETE_WITH_DUPLICATES.equals(deleteMode)
           && !deleteAllIndicesByConstraints) {
@@ -767,21 +861,45 @@ public class BaseDataStore implements DataStore {
         if (DeletionMode.DELETE_WITH_DUPLICATES.equals(deleteMode)) {
           // Make sure each index query has a clean dedupe filter so that entries from other indices
           // get deleted
-          dedupeFilter = new DedupeFilter();
+          dedupeFilter = new DedupeFilter(DataIdDedupeSet.DEFAULT_MAX_IN_MEMORY_IDS);
+          dedupeFilters.add(dedupeFilter);
         }
       }
 
     }
+    final ParallelScanIterator<T> parallelScan;
+    if (!delete
+        && (results.size() > 1)
+        && (baseOptions.getQueryScanThreads() > 1)
+        && (queryOptions.getScanCallback() == null)) {
+      // the scans are independent so read them concurrently, the dedupe filter is shared and
+      // thread-safe so results are still deduplicated across the scans
+      parallelScan =
+          new ParallelScanIterator<>(
+              (List) results,
+              ScanType.QUERY,
+              baseOptions.getQueryScanThreads(),
+              baseOptions.isOrderedQueryScans());
+    } else {
+      parallelScan = null;
+    }
     return new CloseableIteratorWrapper<>(new Closeable() {
 
       @Override
       public void close() throws IOException {
+        if (parallelScan != null) {
+          // stop any scans that are still running before closing them
+          parallelScan.close();
+        }
         for (final CloseableIterator<Object> result : results) {
           result.close();
         }
         for (final DataStoreCallbackManager c : deleteCallbacks) {
           c.close();
         }
+        for (final DedupeFilter f : dedupeFilters) {
+          f.close();
+        }
         if ((dataIdsToDelete != null) && !dataIdsToDelete.isEmpty()) {
           if (baseOptions.isSecondaryIndexing()) {
             deleteFromDataIndex(dataIdsToDelete, queryOptions.getAuthorizations());
@@ -790,7 +908,9 @@ public class BaseDataStore implements DataStore {
         }
       }
 
-    }, Iterators.concat(new CastIterator<T>(results.iterator())));
+    },
+        parallelScan != null ? parallelScan
+            : Iterators.concat(new CastIterator<T>(results.iterator())));
   }
 
   protected void deleteFromDataIndex(
@@ -88,6 +88,7 @@ import org.locationtech.geowave.core.store.operations.MetadataQuery;
 import org.locationtech.geowave.core.store.operations.MetadataReader;
 import org.locationtech.geowave.core.store.operations.MetadataType;
 import org.locationtech.geowave.core.store.query.aggregate.CommonIndexAggregation;
+import org.locationtech.geowave.core.store.query.aggregate.ParallelAggregator;
 import org.locationtech.geowave.core.store.query.constraints.AdapterAndIndexBasedQueryConstraints;
 import org.locationtech.geowave.core.store.query.constraints.QueryConstraints;
 import org.locationtech.geowave.core.store.query.filter.QueryFilter;
@@ -176,6 +177,38 @@ public class BaseDataStoreUtils {
       final CloseableIterator<Object> it,
       final Aggregation<?, ?, Object> aggregationFunction,
       final DataTypeAdapter<Object> adapter) {
+    return aggregate(it, aggregationFunction, adapter, 1);
+  }
+
+  /**
+   * Aggregate the results of the iterator client-side. If more than one thread is requested, the
+   * results are split across multiple instances of the aggregation and the partial results are
+   * merged.
+   *
+   * @param it the results to aggregate, this will be closed once it has been consumed
+   * @param aggregationFunction the aggregation to compute
+   * @param adapter the adapter of the results
+   * @param aggregationThreads the number of threads to use for the aggregation
+   * @return an iterator containing the single aggregated result
+   */
+  @SuppressWarnings("unchecked")
+  public static CloseableIterator<Object> aggregate(
+      final CloseableIterator<Object> it,
+      final Aggregation<?, ?, Object> aggregationFunction,
+      final DataTypeAdapter<Object> adapter,
+      final int aggregationThreads) {
+    if ((it != null) && (aggregationThreads > 1) && it.hasNext()) {
+      final Object result;
+      try {
+        result =
+            new ParallelAggregator<>(
+                (Aggregation<?, Object, Object>) aggregationFunction,
+                aggregationThreads).aggregate(adapter, it);
+      } finally {
+        it.close();
+      }
+      return new Wrapper<>(Iterators.singletonIterator(result));
+    }
     if ((it != null) && it.hasNext()) {
       try {
         synchronized (aggregationFunction) {
@@ -960,12 +993,39 @@ public class BaseDataStoreUtils {
     return chooseBestIndex(indexAdapterPairList, mappingStore, query, Function.identity());
   }
 
+  public static List<Pair<Index, List<InternalDataAdapter<?>>>> chooseBestIndex(
+      final List<Pair<Index, List<InternalDataAdapter<?>>>> indexAdapterPairList,
+      final QueryConstraints query,
+      final AdapterIndexMappingStore mappingStore,
+      final IndexCostEstimator costEstimator) {
+    return chooseBestIndex(
+        indexAdapterPairList,
+        mappingStore,
+        query,
+        Function.identity(),
+        costEstimator);
+  }
+
   public static <T> List<Pair<Index, List<T>>> chooseBestIndex(
       final List<Pair<Index, List<T>>> indexAdapterPairList,
       final AdapterIndexMappingStore mappingStore,
       final QueryConstraints query,
       final Function<T, ? extends InternalDataAdapter<?>> adapterLookup)
       throws IllegalArgumentException {
+    return chooseBestIndex(indexAdapterPairList, mappingStore, query, adapterLookup, null);
+  }
+
+  /**
+   * Choose the best index for each adapter. If a cost estimator is provided the index that is
+   * estimated to scan the fewest rows is chosen, otherwise the index that can satisfy the most
+   * dimensions of the constraint is chosen.
+   */
+  public static <T> List<Pair<Index, List<T>>> chooseBestIndex(
+      final List<Pair<Index, List<T>>> indexAdapterPairList,
+      final AdapterIndexMappingStore mappingStore,
+      final QueryConstraints query,
+      final Function<T, ? extends InternalDataAdapter<?>> adapterLookup,
+      final IndexCostEstimator costEstimator) throws IllegalArgumentException {
     if (indexAdapterPairList.size() <= 1) {
       return indexAdapterPairList;
     }
@@ -985,13 +1045,23 @@ public class BaseDataStoreUtils {
     }
     final Map<Index, List<T>> retVal = new HashMap<>();
     for (final Entry<T, List<Index>> e : indicesPerAdapter.entrySet()) {
-      final Index index =
-          query == null ? e.getValue().get(0)
-              : chooseBestIndex(
-                  e.getValue().toArray(new Index[0]),
-                  query,
-                  adapterLookup.apply(e.getKey()),
-                  mappingStore);
+      final Index index;
+      if ((query == null) || (e.getValue().size() == 1)) {
+        index = e.getValue().get(0);
+      } else if (costEstimator != null) {
+        index =
+            costEstimator.chooseBestIndex(
+                e.getValue().toArray(new Index[0]),
+                query,
+                adapterLookup.apply(e.getKey()));
+      } else {
+        index =
+            chooseBestIndex(
+                e.getValue().toArray(new Index[0]),
+                query,
+                adapterLookup.apply(e.getKey()),
+                mappingStore);
+      }
       List<T> adapters = retVal.get(index);
       if (adapters == null) {
         adapters = new ArrayList<>();
@@ -1080,7 +1150,7 @@ public class BaseDataStoreUtils {
     return bestIdx;
   }
 
-  private static boolean queryRangeDimensionsMatch(
+  static boolean queryRangeDimensionsMatch(
       final int indexDimensions,
       final List<MultiDimensionalNumericData> queryRanges) {
     for (final MultiDimensionalNumericData qr : queryRanges) {
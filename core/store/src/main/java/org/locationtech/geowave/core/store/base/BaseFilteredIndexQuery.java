@@ -67,6 +67,14 @@ abstract class BaseFilteredIndexQuery extends BaseQuery {
     return clientFilters;
   }
 
+  /**
+   * @return the number of query ranges an entry must have a row within to match the query, the
+   *         rows are intersected by data ID when this is more than one
+   */
+  protected int getRequiredRangeMatches() {
+    return 1;
+  }
+
   @SuppressWarnings({"unchecked", "rawtypes"})
   public CloseableIterator<Object> query(
       final DataStoreOperations datastoreOperations,
@@ -167,6 +175,10 @@ abstract class BaseFilteredIndexQuery extends BaseQuery {
       final boolean decodePersistenceEncoding) {
     final @Nullable QueryFilter[] clientFilters = getClientFilters(options);
     final DataIndexRetrieval dataIndexRetrieval = getDataIndexRetrieval();
+    final int requiredRangeMatches = getRequiredRangeMatches();
+    // rows are intersected before they are decoded or used to read from the data index
+    final RowIntersection intersection =
+        requiredRangeMatches > 1 ? new RowIntersection(requiredRangeMatches) : null;
     if ((options == null) || options.requiresClientSideMerging()) {
       final Map<Short, RowMergingDataAdapter> mergingAdapters = getMergingAdapters(adapterStore);
 
@@ -180,7 +192,7 @@ abstract class BaseFilteredIndexQuery extends BaseQuery {
                 adapterStore,
                 mappingStore,
                 index,
-                input,
+                intersection == null ? input : intersection.apply(input),
                 clientFilters,
                 scanCallback,
                 mergingAdapters,
@@ -200,7 +212,7 @@ abstract class BaseFilteredIndexQuery extends BaseQuery {
             adapterStore,
             mappingStore,
             index,
-            input,
+            intersection == null ? input : intersection.apply(input),
             clientFilters,
             scanCallback,
             getFieldBitmask(),
@@ -13,7 +13,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
@@ -423,11 +427,91 @@ public class BaseQueryOptions {
       final AdapterIndexMappingStore adapterIndexMappingStore,
       final IndexStore indexStore,
       final QueryConstraints query) {
+    return getBestQueryIndices(adapterStore, adapterIndexMappingStore, indexStore, query, null);
+  }
+
+  /**
+   * This will get all relevant adapter index pairs and then select the best index for each adapter
+   * given the constraint. If a cost estimator is provided, the index with the lowest estimated cost
+   * is selected, otherwise it is the index which can satisfy the most dimensions of the given
+   * constraint.
+   *
+   */
+  public List<Pair<Index, List<InternalDataAdapter<?>>>> getBestQueryIndices(
+      final PersistentAdapterStore adapterStore,
+      final AdapterIndexMappingStore adapterIndexMappingStore,
+      final IndexStore indexStore,
+      final QueryConstraints query,
+      final IndexCostEstimator costEstimator) {
     return BaseDataStoreUtils.chooseBestIndex(
         BaseDataStoreUtils.combineByIndex(
             compileIndicesForAdapters(adapterStore, adapterIndexMappingStore, indexStore, true)),
         query,
-        adapterIndexMappingStore);
+        adapterIndexMappingStore,
+        costEstimator);
+  }
+
+  /**
+   * Explain how an index is selected for each adapter given the constraint.
+   *
+   * @return an explanation for each adapter that has more than one index to choose from
+   */
+  public List<IndexSelectionExplanation> explainIndexSelection(
+      final PersistentAdapterStore adapterStore,
+      final AdapterIndexMappingStore adapterIndexMappingStore,
+      final IndexStore indexStore,
+      final QueryConstraints query,
+      final IndexCostEstimator costEstimator) {
+    return explainIndexSelection(
+        adapterStore,
+        adapterIndexMappingStore,
+        indexStore,
+        query,
+        costEstimator,
+        null);
+  }
+
+  /**
+   * Explain how an index is selected for each adapter given the constraint. If a statistics pruner
+   * is provided, types that its field statistics show cannot match are reported as skipped and the
+   * number of matching entries is estimated for the remaining types.
+   *
+   * @return an explanation for each adapter that has more than one index to choose from or that is
+   *         skipped
+   */
+  public List<IndexSelectionExplanation> explainIndexSelection(
+      final PersistentAdapterStore adapterStore,
+      final AdapterIndexMappingStore adapterIndexMappingStore,
+      final IndexStore indexStore,
+      final QueryConstraints query,
+      final IndexCostEstimator costEstimator,
+      final StatisticsQueryPruner pruner) {
+    final Map<InternalDataAdapter<?>, List<Index>> indicesPerAdapter = new LinkedHashMap<>();
+    for (final Pair<Index, InternalDataAdapter<?>> pair : compileIndicesForAdapters(
+        adapterStore,
+        adapterIndexMappingStore,
+        indexStore,
+        true)) {
+      indicesPerAdapter.computeIfAbsent(pair.getRight(), a -> new ArrayList<>()).add(
+          pair.getLeft());
+    }
+    final List<IndexSelectionExplanation> explanations = new ArrayList<>();
+    for (final Entry<InternalDataAdapter<?>, List<Index>> e : indicesPerAdapter.entrySet()) {
+      final Map<String, Set<String>> requiredValues =
+          pruner == null ? Collections.emptyMap()
+              : pruner.getRequiredFieldValues(query, e.getKey());
+      if (!requiredValues.isEmpty() && !pruner.mayMatch(e.getKey(), requiredValues)) {
+        explanations.add(IndexSelectionExplanation.pruned(e.getKey().getTypeName()));
+      } else if (e.getValue().size() > 1) {
+        final IndexSelectionExplanation explanation =
+            costEstimator.explain(e.getValue().toArray(new Index[0]), query, e.getKey());
+        if (!requiredValues.isEmpty()) {
+          explanation.setEstimatedMatches(pruner.estimateMatches(e.getKey(), requiredValues));
+        }
+        explanations.add(explanation);
+      }
+    }
+    return explanations;
   }
 
   public boolean isAllIndices() {
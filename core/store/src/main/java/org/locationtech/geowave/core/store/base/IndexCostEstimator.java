@@ -0,0 +1,311 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.locationtech.geowave.core.index.ByteArray;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.locationtech.geowave.core.index.IndexUtils;
+import org.locationtech.geowave.core.index.QueryRanges;
+import org.locationtech.geowave.core.index.SinglePartitionQueryRanges;
+import org.locationtech.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import org.locationtech.geowave.core.store.adapter.AdapterIndexMappingStore;
+import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
+import org.locationtech.geowave.core.store.api.Index;
+import org.locationtech.geowave.core.store.api.IndexStatistic;
+import org.locationtech.geowave.core.store.api.Statistic;
+import org.locationtech.geowave.core.store.base.IndexSelectionExplanation.IndexCost;
+import org.locationtech.geowave.core.store.query.constraints.AdapterAndIndexBasedQueryConstraints;
+import org.locationtech.geowave.core.store.query.constraints.QueryConstraints;
+import org.locationtech.geowave.core.store.statistics.DataStatisticsStore;
+import org.locationtech.geowave.core.store.statistics.binning.CompositeBinningStrategy;
+import org.locationtech.geowave.core.store.statistics.binning.DataTypeBinningStrategy;
+import org.locationtech.geowave.core.store.statistics.binning.PartitionBinningStrategy;
+import org.locationtech.geowave.core.store.statistics.index.DuplicateEntryCountStatistic;
+import org.locationtech.geowave.core.store.statistics.index.DuplicateEntryCountStatistic.DuplicateEntryCountValue;
+import org.locationtech.geowave.core.store.statistics.index.PartitionsStatistic;
+import org.locationtech.geowave.core.store.statistics.index.PartitionsStatistic.PartitionsValue;
+import org.locationtech.geowave.core.store.statistics.index.RowRangeHistogramStatistic;
+import org.locationtech.geowave.core.store.statistics.index.RowRangeHistogramStatistic.RowRangeHistogramValue;
+import org.locationtech.geowave.core.store.util.DataStoreUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Estimates the cost of answering a query with each of the indices of a data type using the
+ * internal index statistics. The number of rows scanned is estimated by applying the row range
+ * histogram of each partition to the query ranges, partitions that the partitions statistic shows
+ * to be empty are pruned, and the estimate is weighted by the fraction of entries that have
+ * duplicates because those rows are read more than once and have to be deduplicated client-side.
+ *
+ * <p> When the statistics needed to cost a candidate are unavailable the selection falls back to
+ * the dimensionality heuristic of
+ * {@link BaseDataStoreUtils#chooseBestIndex(Index[], QueryConstraints, InternalDataAdapter, AdapterIndexMappingStore)}.
+ */
+public class IndexCostEstimator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(IndexCostEstimator.class);
+
+  private final DataStatisticsStore statisticsStore;
+  private final AdapterIndexMappingStore mappingStore;
+  private final int maxRangeDecomposition;
+  private final String[] authorizations;
+
+  public IndexCostEstimator(
+      final DataStatisticsStore statisticsStore,
+      final AdapterIndexMappingStore mappingStore,
+      final int maxRangeDecomposition,
+      final String... authorizations) {
+    this.statisticsStore = statisticsStore;
+    this.mappingStore = mappingStore;
+    this.maxRangeDecomposition = maxRangeDecomposition;
+    this.authorizations = authorizations;
+  }
+
+  /**
+   * Choose the cheapest index for a data type.
+   *
+   * @param indices the candidate indices
+   * @param query the query constraints
+   * @param adapter the data type being queried
+   * @return the selected index
+   */
+  public Index chooseBestIndex(
+      final Index[] indices,
+      final QueryConstraints query,
+      final InternalDataAdapter<?> adapter) {
+    return explain(indices, query, adapter).getSelectedIndex();
+  }
+
+  /**
+   * Estimate the cost of each candidate index and select the cheapest one.
+   *
+   * @param indices the candidate indices
+   * @param query the query constraints
+   * @param adapter the data type being queried
+   * @return the cost of each candidate and the selected index
+   */
+  public IndexSelectionExplanation explain(
+      final Index[] indices,
+      final QueryConstraints query,
+      final InternalDataAdapter<?> adapter) {
+    final Index heuristicIndex =
+        BaseDataStoreUtils.chooseBestIndex(indices, query, adapter, mappingStore);
+    final List<IndexCost> costs = new ArrayList<>(indices.length);
+    boolean allCosted = true;
+    IndexCost cheapest = null;
+    for (final Index index : indices) {
+      final IndexCost cost = estimateCost(index, query, adapter);
+      if (cost == null) {
+        continue;
+      }
+      costs.add(cost);
+      if (!cost.isStatisticsAvailable()) {
+        allCosted = false;
+      } else if ((cheapest == null)
+          || (cost.getCost() < cheapest.getCost())
+          // on a tie, defer to the heuristic
+          || ((cost.getCost() == cheapest.getCost()) && index.equals(heuristicIndex))) {
+        cheapest = cost;
+      }
+    }
+    if (allCosted && (cheapest != null)) {
+      return new IndexSelectionExplanation(adapter.getTypeName(), costs, cheapest.getIndex(), true);
+    }
+    if (!costs.isEmpty()) {
+      LOGGER.debug(
+          "Index statistics are unavailable for type '"
+              + adapter.getTypeName()
+              + "', falling back to heuristic index selection");
+    }
+    return new IndexSelectionExplanation(adapter.getTypeName(), costs, heuristicIndex, false);
+  }
+
+  /**
+   * Estimate the cost of querying a data type using a single index.
+   *
+   * @param index the index
+   * @param query the query constraints
+   * @param adapter the data type being queried
+   * @return the estimated cost, or {@code null} if the index is unable to answer the query
+   */
+  public IndexCost estimateCost(
+      final Index index,
+      final QueryConstraints query,
+      final InternalDataAdapter<?> adapter) {
+    if ((index == null)
+        || (index.getIndexStrategy() == null)
+        || (index.getIndexStrategy().getOrderedDimensionDefinitions() == null)
+        || (index.getIndexStrategy().getOrderedDimensionDefinitions().length == 0)) {
+      return null;
+    }
+    QueryConstraints indexConstraints = query;
+    if (query instanceof AdapterAndIndexBasedQueryConstraints) {
+      indexConstraints =
+          ((AdapterAndIndexBasedQueryConstraints) query).createQueryConstraints(
+              adapter,
+              index,
+              mappingStore.getMapping(adapter.getAdapterId(), index.getName()));
+      if (indexConstraints == null) {
+        return null;
+      }
+    }
+    final List<MultiDimensionalNumericData> constraints =
+        indexConstraints.getIndexConstraints(index);
+    final boolean fullTableScan =
+        IndexUtils.isFullTableScan(constraints)
+            || !BaseDataStoreUtils.queryRangeDimensionsMatch(
+                index.getIndexStrategy().getOrderedDimensionDefinitions().length,
+                constraints);
+
+    final RowRangeHistogramStatistic histogramStatistic = getHistogramStatistic(index);
+    final Set<ByteArray> partitions = getPartitions(index, adapter);
+    if ((histogramStatistic == null) || (partitions == null)) {
+      return IndexCost.unknown(index, fullTableScan);
+    }
+
+    double totalRows = 0;
+    boolean histogramAvailable = false;
+    for (final ByteArray partition : partitions) {
+      final RowRangeHistogramValue value = getHistogram(histogramStatistic, adapter, partition);
+      if (value != null) {
+        totalRows += value.getTotalCount();
+        histogramAvailable = true;
+      }
+    }
+    if (!histogramAvailable) {
+      // without a histogram the index would look free to scan
+      return IndexCost.unknown(index, fullTableScan);
+    }
+
+    double estimatedRows = 0;
+    int partitionsScanned = 0;
+    int rangesScanned = 0;
+    if (fullTableScan) {
+      estimatedRows = totalRows;
+      partitionsScanned = partitions.size();
+    } else {
+      final QueryRanges queryRanges =
+          DataStoreUtils.constraintsToQueryRanges(
+              constraints,
+              index,
+              null,
+              maxRangeDecomposition);
+      for (final SinglePartitionQueryRanges partitionRanges : queryRanges.getPartitionQueryRanges()) {
+        // the partitions statistic represents the default partition as null
+        final ByteArray partition =
+            (partitionRanges.getPartitionKey() == null)
+                || (partitionRanges.getPartitionKey().length == 0) ? null
+                    : new ByteArray(partitionRanges.getPartitionKey());
+        if (!partitions.contains(partition)) {
+          // nothing has been written to this partition
+          continue;
+        }
+        final RowRangeHistogramValue value = getHistogram(histogramStatistic, adapter, partition);
+        if (value == null) {
+          continue;
+        }
+        partitionsScanned++;
+        for (final ByteArrayRange range : partitionRanges.getSortKeyRanges()) {
+          estimatedRows += value.cardinality(range.getStart(), range.getEnd());
+          rangesScanned++;
+        }
+      }
+    }
+
+    double duplicateFraction = 0;
+    final DuplicateEntryCountValue duplicates = getDuplicateCounts(index, adapter);
+    if ((duplicates != null) && (duplicates.getValue() != null) && (totalRows > 0)) {
+      duplicateFraction = Math.min(1.0, Math.max(0.0, duplicates.getValue() / totalRows));
+    }
+    return new IndexCost(
+        index,
+        fullTableScan,
+        true,
+        estimatedRows,
+        partitionsScanned,
+        rangesScanned,
+        duplicateFraction);
+  }
+
+  private RowRangeHistogramStatistic getHistogramStatistic(final Index index) {
+    final Statistic<RowRangeHistogramValue> statistic =
+        statisticsStore.getStatisticById(
+            IndexStatistic.generateStatisticId(
+                index.getName(),
+                RowRangeHistogramStatistic.STATS_TYPE,
+                Statistic.INTERNAL_TAG));
+    if ((statistic instanceof RowRangeHistogramStatistic)
+        && (statistic.getBinningStrategy() instanceof CompositeBinningStrategy)
+        && ((CompositeBinningStrategy) statistic.getBinningStrategy()).isOfType(
+            DataTypeBinningStrategy.class,
+            PartitionBinningStrategy.class)) {
+      return (RowRangeHistogramStatistic) statistic;
+    }
+    return null;
+  }
+
+  private RowRangeHistogramValue getHistogram(
+      final RowRangeHistogramStatistic statistic,
+      final InternalDataAdapter<?> adapter,
+      final ByteArray partition) {
+    return statisticsStore.getStatisticValue(
+        statistic,
+        CompositeBinningStrategy.getBin(
+            DataTypeBinningStrategy.getBin(adapter),
+            PartitionBinningStrategy.getBin(partition == null ? null : partition.getBytes())),
+        authorizations);
+  }
+
+  private Set<ByteArray> getPartitions(final Index index, final InternalDataAdapter<?> adapter) {
+    final Statistic<PartitionsValue> statistic =
+        statisticsStore.getStatisticById(
+            IndexStatistic.generateStatisticId(
+                index.getName(),
+                PartitionsStatistic.STATS_TYPE,
+                Statistic.INTERNAL_TAG));
+    if (statistic == null) {
+      return null;
+    }
+    final PartitionsValue value =
+        statisticsStore.getStatisticValue(
+            statistic,
+            DataTypeBinningStrategy.getBin(adapter),
+            authorizations);
+    if (value == null) {
+      return null;
+    }
+    if (value.getValue().isEmpty()) {
+      // the default partition of an index that isn't partitioned is held as null, which the
+      // persisted value can't represent, so it reads back as an empty set
+      return Collections.singleton(null);
+    }
+    return value.getValue();
+  }
+
+  private DuplicateEntryCountValue getDuplicateCounts(
+      final Index index,
+      final InternalDataAdapter<?> adapter) {
+    final Statistic<DuplicateEntryCountValue> statistic =
+        statisticsStore.getStatisticById(
+            IndexStatistic.generateStatisticId(
+                index.getName(),
+                DuplicateEntryCountStatistic.STATS_TYPE,
+                Statistic.INTERNAL_TAG));
+    if (statistic == null) {
+      return null;
+    }
+    return statisticsStore.getStatisticValue(
+        statistic,
+        DataTypeBinningStrategy.getBin(adapter),
+        authorizations);
+  }
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.base;
+
+import java.util.Collections;
+import java.util.List;
+import org.locationtech.geowave.core.store.api.Index;
+
+/**
+ * Describes how an index was selected for a data type, including the estimated cost of each
+ * candidate index. This is intended to help debug query plans.
+ */
+public class IndexSelectionExplanation {
+  private final String typeName;
+  private final List<IndexCost> candidates;
+  private final Index selectedIndex;
+  private final boolean costBased;
+  private final boolean pruned;
+  private double estimatedMatches = Double.NaN;
+
+  public IndexSelectionExplanation(
+      final String typeName,
+      final List<IndexCost> candidates,
+      final Index selectedIndex,
+      final boolean costBased) {
+    this(typeName, candidates, selectedIndex, costBased, false);
+  }
+
+  private IndexSelectionExplanation(
+      final String typeName,
+      final List<IndexCost> candidates,
+      final Index selectedIndex,
+      final boolean costBased,
+      final boolean pruned) {
+    this.typeName = typeName;
+    this.candidates = candidates;
+    this.selectedIndex = selectedIndex;
+    this.costBased = costBased;
+    this.pruned = pruned;
+  }
+
+  /**
+   * Create an explanation for a type that will not be queried because its field statistics show
+   * that none of its entries can match.
+   *
+   * @param typeName the data type name
+   * @return the explanation
+   */
+  public static IndexSelectionExplanation pruned(final String typeName) {
+    return new IndexSelectionExplanation(typeName, Collections.emptyList(), null, true, true);
+  }
+
+  public String getTypeName() {
+    return typeName;
+  }
+
+  /**
+   * @return the estimated cost of each index that is able to answer the query
+   */
+  public List<IndexCost> getCandidates() {
+    return candidates;
+  }
+
+  public Index getSelectedIndex() {
+    return selectedIndex;
+  }
+
+  /**
+   * @return {@code true} if the index was selected by estimated cost, {@code false} if statistics
+   *         were unavailable and the index was selected heuristically
+   */
+  public boolean isCostBased() {
+    return costBased;
+  }
+
+  /**
+   * @return {@code true} if the type will not be queried because its field statistics show that
+   *         none of its entries can match
+   */
+  public boolean isPruned() {
+    return pruned;
+  }
+
+  /**
+   * @return the number of entries of the type estimated by its field statistics to match the
+   *         equality constraints of the query, or {@code NaN} if it can't be estimated
+   */
+  public double getEstimatedMatches() {
+    return estimatedMatches;
+  }
+
+  void setEstimatedMatches(final double estimatedMatches) {
+    this.estimatedMatches = estimatedMatches;
+  }
+
+  @Override
+  public String toString() {
+    if (pruned) {
+      return "Type '" + typeName + "' is skipped, field statistics show no matching entries";
+    }
+    final StringBuilder sb = new StringBuilder();
+    sb.append("Type '").append(typeName).append("' uses index '").append(
+        selectedIndex == null ? null : selectedIndex.getName()).append("' (").append(
+            costBased ? "cost based" : "heuristic").append(")");
+    if (!Double.isNaN(estimatedMatches)) {
+      sb.append(String.format(", estimatedMatches=%.1f", estimatedMatches));
+    }
+    for (final IndexCost candidate : candidates) {
+      sb.append("\n  ").append(candidate);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * The estimated cost of querying a data type using a single index.
+   */
+  public static class IndexCost {
+    private final Index index;
+    private final boolean fullTableScan;
+    private final boolean statisticsAvailable;
+    private final double estimatedRows;
+    private final int partitionsScanned;
+    private final int rangesScanned;
+    private final double duplicateFraction;
+
+    public IndexCost(
+        final Index index,
+        final boolean fullTableScan,
+        final boolean statisticsAvailable,
+        final double estimatedRows,
+        final int partitionsScanned,
+        final int rangesScanned,
+        final double duplicateFraction) {
+      this.index = index;
+      this.fullTableScan = fullTableScan;
+      this.statisticsAvailable = statisticsAvailable;
+      this.estimatedRows = estimatedRows;
+      this.partitionsScanned = partitionsScanned;
+      this.rangesScanned = rangesScanned;
+      this.duplicateFraction = duplicateFraction;
+    }
+
+    static IndexCost unknown(final Index index, final boolean fullTableScan) {
+      return new IndexCost(index, fullTableScan, false, Double.NaN, -1, -1, 0);
+    }
+
+    public Index getIndex() {
+      return index;
+    }
+
+    public boolean isFullTableScan() {
+      return fullTableScan;
+    }
+
+    public boolean isStatisticsAvailable() {
+      return statisticsAvailable;
+    }
+
+    /**
+     * @return the estimated number of rows that will be scanned, or {@code NaN} if statistics are
+     *         unavailable
+     */
+    public double getEstimatedRows() {
+      return estimatedRows;
+    }
+
+    public int getPartitionsScanned() {
+      return partitionsScanned;
+    }
+
+    public int getRangesScanned() {
+      return rangesScanned;
+    }
+
+    /**
+     * @return the fraction of rows in the index that belong to entries with duplicates
+     */
+    public double getDuplicateFraction() {
+      return duplicateFraction;
+    }
+
+    /**
+     * @return the relative cost of using this index, rows belonging to entries with duplicates are
+     *         counted twice to account for reading and deduplicating them
+     */
+    public double getCost() {
+      return estimatedRows * (1 + duplicateFraction);
+    }
+
+    @Override
+    public String toString() {
+      if (!statisticsAvailable) {
+        return index.getName() + ": statistics unavailable" + (fullTableScan ? ", full scan" : "");
+      }
+      return String.format(
+          "%s: cost=%.1f, estimatedRows=%.1f, partitions=%d, ranges=%s, duplicates=%.2f%%%s",
+          index.getName(),
+          getCost(),
+          estimatedRows,
+          partitionsScanned,
+          fullTableScan ? "all" : Integer.toString(rangesScanned),
+          duplicateFraction * 100,
+          fullTableScan ? ", full scan" : "");
+    }
+  }
+}
@@ -0,0 +1,290 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.operations.BoundedHandOff;
+import org.locationtech.geowave.core.store.operations.ParallelDecoder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Reads the results of several independent scans, such as the scans of each index a query reads
+ * from, concurrently on a thread pool that is shared by every scanner of the same {@link ScanType}
+ * with the same number of threads. As with the {@link ParallelDecoder}, each scan hands batches of
+ * results over to the consumer through a {@link BoundedHandOff}, which parks the scan while the
+ * consumer catches up rather than blocking a pool thread.
+ *
+ * <p> Results are either returned as soon as they are available, with every scan sharing a single
+ * buffer, or ordered by scan, in which case each scan fills its own buffer and the results of a
+ * scan are only returned once every scan before it has been consumed. Closing the iterator stops
+ * any scans that are still running, but it does not close the underlying iterators, which is left
+ * to the caller once this has been closed.
+ *
+ * @param <T> the type of the results
+ */
+public class ParallelScanIterator<T> implements CloseableIterator<T> {
+  private static final int RESULT_BUFFER_SIZE = 10000;
+  private static final int BATCH_SIZE = 100;
+  private static final long POLL_MILLIS = 100;
+  private static final Object SCAN_END_MARKER = new Object();
+  private static final Map<String, ExecutorService> SHARED_THREAD_POOLS =
+      new ConcurrentHashMap<>();
+
+  /**
+   * The kind of scans that are read, each of which has its own thread pools. The scans of one kind
+   * may be read by the scans of another, such as the scan of an index that reads its partitions
+   * concurrently, which would deadlock if they waited on each other for the same threads.
+   */
+  public static enum ScanType {
+    /** The scans of each index a query reads from */
+    QUERY,
+    /** The scans of each partition of a single index */
+    PARTITION
+  }
+
+  private final ExecutorService threadPool;
+  private final List<ResultBuffer> buffers = new ArrayList<>();
+  private final AtomicInteger runningTasks = new AtomicInteger(0);
+  private volatile boolean closed = false;
+  private Exception exception = null;
+  private int currentBuffer = 0;
+  private Iterator<T> currentBatch = Collections.emptyIterator();
+
+  /**
+   * @param scans the independent scans to read from
+   * @param scanType the kind of scans, which determines the shared thread pool they are read on
+   * @param numThreads the number of threads in the shared thread pool
+   * @param ordered whether to return the results of each scan in turn
+   */
+  public ParallelScanIterator(
+      final List<? extends Iterator<T>> scans,
+      final ScanType scanType,
+      final int numThreads,
+      final boolean ordered) {
+    threadPool = getSharedThreadPool(scanType, Math.max(1, numThreads));
+    final int batches = RESULT_BUFFER_SIZE / BATCH_SIZE;
+    final List<ScanTask<T>> tasks = new ArrayList<>(scans.size());
+    if (ordered) {
+      // split the buffer between the scans so that the memory used doesn't depend on the number
+      // of scans
+      final int capacity = Math.max(2, batches / Math.max(1, scans.size()));
+      for (final Iterator<T> scan : scans) {
+        final ResultBuffer buffer = new ResultBuffer(capacity, 1);
+        buffers.add(buffer);
+        tasks.add(new ScanTask<>(scan, buffer.results, this));
+      }
+    } else {
+      final ResultBuffer buffer = new ResultBuffer(Math.max(2, batches), scans.size());
+      buffers.add(buffer);
+      for (final Iterator<T> scan : scans) {
+        tasks.add(new ScanTask<>(scan, buffer.results, this));
+      }
+    }
+    for (final ScanTask<T> task : tasks) {
+      submit(task);
+    }
+  }
+
+  private static ExecutorService getSharedThreadPool(
+      final ScanType scanType,
+      final int numThreads) {
+    final String name = scanType.name().toLowerCase(Locale.ENGLISH) + "-scan-" + numThreads;
+    return SHARED_THREAD_POOLS.computeIfAbsent(name, n -> {
+      final ThreadPoolExecutor pool =
+          new ThreadPoolExecutor(
+              numThreads,
+              numThreads,
+              60,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<Runnable>(),
+              new ThreadFactoryBuilder().setDaemon(true).setNameFormat(
+                  "geowave-" + name + "-%d").build());
+      pool.allowCoreThreadTimeOut(true);
+      return pool;
+    });
+  }
+
+  private synchronized void setException(final Exception e) {
+    if (exception == null) {
+      exception = e;
+      closed = true;
+    }
+  }
+
+  private synchronized boolean hasException() {
+    return exception != null;
+  }
+
+  private synchronized Exception getException() {
+    return exception;
+  }
+
+  private void submit(final ScanTask<T> task) {
+    try {
+      threadPool.execute(task);
+    } catch (final RejectedExecutionException e) {
+      setException(e);
+    }
+  }
+
+  /**
+   * Task to read a single scan. Each execution of the task reads a single batch and then either
+   * resubmits itself or parks until the consumer catches up.
+   *
+   * @param <T> the type of the results
+   */
+  private static class ScanTask<T> implements Runnable {
+    private final Iterator<T> scan;
+    private final BoundedHandOff<ScanTask<T>> buffer;
+    private final ParallelScanIterator<T> parent;
+    private boolean exhausted = false;
+
+    public ScanTask(
+        final Iterator<T> scan,
+        final BoundedHandOff<ScanTask<T>> buffer,
+        final ParallelScanIterator<T> parent) {
+      this.scan = scan;
+      this.buffer = buffer;
+      this.parent = parent;
+    }
+
+    @Override
+    public void run() {
+      // this must be incremented before checking whether the parent is closed so that close can
+      // wait for any task that is still reading from its scan
+      parent.runningTasks.incrementAndGet();
+      try {
+        if (parent.closed) {
+          return;
+        }
+        final List<T> batch = new ArrayList<>(BATCH_SIZE);
+        if (!exhausted) {
+          while ((batch.size() < BATCH_SIZE) && !parent.closed && scan.hasNext()) {
+            batch.add(scan.next());
+          }
+          if (parent.closed) {
+            return;
+          }
+          exhausted = !scan.hasNext();
+        }
+        if (!batch.isEmpty() && !buffer.handOff(this, batch)) {
+          return;
+        }
+        if (exhausted) {
+          // if the batch was parked, the end marker is handed off once the task has been resumed
+          buffer.handOff(this, SCAN_END_MARKER);
+        } else {
+          parent.submit(this);
+        }
+      } catch (final Exception e) {
+        parent.setException(e);
+        // make sure the consumer wakes up to see the exception
+        buffer.offer(SCAN_END_MARKER);
+      } finally {
+        if (parent.runningTasks.decrementAndGet() == 0) {
+          synchronized (parent) {
+            parent.notifyAll();
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    // wait for the running tasks to stop reading from their scans so that the caller can safely
+    // close them, tasks that start after this will see that the iterator is closed
+    synchronized (this) {
+      while (runningTasks.get() > 0) {
+        try {
+          wait(POLL_MILLIS);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+    for (final ResultBuffer buffer : buffers) {
+      buffer.results.clear();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void computeNext() {
+    try {
+      while (!currentBatch.hasNext() && (currentBuffer < buffers.size()) && !hasException()) {
+        final ResultBuffer buffer = buffers.get(currentBuffer);
+        if (buffer.remainingScans == 0) {
+          currentBuffer++;
+          continue;
+        }
+        final Object next = buffer.results.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (next == null) {
+          continue;
+        }
+        if (next == SCAN_END_MARKER) {
+          buffer.remainingScans--;
+        } else {
+          currentBatch = ((List<T>) next).iterator();
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      setException(e);
+    }
+    if (hasException()) {
+      throw new RuntimeException(getException());
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (!currentBatch.hasNext()) {
+      computeNext();
+    }
+    return currentBatch.hasNext();
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return currentBatch.next();
+  }
+
+  private class ResultBuffer {
+    private final BoundedHandOff<ScanTask<T>> results;
+    private int remainingScans;
+
+    public ResultBuffer(final int capacity, final int scans) {
+      results = new BoundedHandOff<>(capacity, (task, item) -> {
+        if (item != SCAN_END_MARKER) {
+          submit(task);
+        }
+      });
+      remainingScans = scans;
+    }
+  }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.base;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.locationtech.geowave.core.index.ByteArray;
+import org.locationtech.geowave.core.index.ByteArrayUtils;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import com.google.common.collect.Iterators;
+
+/**
+ * Intersects the rows of a query that has to match several of its query ranges. Every entry has at
+ * most one row within each range, so an entry matches once the number of its rows reaches the
+ * required number of range matches. Only that last row is passed on, which means entries that don't
+ * match are never decoded or read from the data index.
+ *
+ * <p> The same intersection may be applied to several iterators of rows of the query, concurrently
+ * or not, because the rows of an entry may be read by different iterators.
+ */
+class RowIntersection {
+  private final int requiredRangeMatches;
+  private final Map<ByteArray, Integer> rangeMatches = new ConcurrentHashMap<>();
+
+  RowIntersection(final int requiredRangeMatches) {
+    this.requiredRangeMatches = requiredRangeMatches;
+  }
+
+  Iterator<GeoWaveRow> apply(final Iterator<GeoWaveRow> rows) {
+    return Iterators.filter(rows, this::matches);
+  }
+
+  private boolean matches(final GeoWaveRow row) {
+    final ByteArray entryId =
+        new ByteArray(
+            ByteArrayUtils.combineArrays(
+                ByteArrayUtils.shortToByteArray(row.getAdapterId()),
+                row.getDataId()));
+    final Integer matches = rangeMatches.merge(entryId, 1, Integer::sum);
+    if (matches >= requiredRangeMatches) {
+      // the entry won't have any more rows, so it doesn't need to be tracked any longer
+      rangeMatches.remove(entryId);
+      return true;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.base;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
+import org.locationtech.geowave.core.store.api.FieldStatistic;
+import org.locationtech.geowave.core.store.api.StatisticValue;
+import org.locationtech.geowave.core.store.query.constraints.FieldEqualityConstraintQuery;
+import org.locationtech.geowave.core.store.query.constraints.QueryConstraints;
+import org.locationtech.geowave.core.store.statistics.DataStatisticsStore;
+import org.locationtech.geowave.core.store.statistics.InternalStatisticsHelper;
+import org.locationtech.geowave.core.store.statistics.adapter.CountStatistic;
+import org.locationtech.geowave.core.store.statistics.adapter.CountStatistic.CountValue;
+import org.locationtech.geowave.core.store.statistics.field.BloomFilterStatistic;
+import org.locationtech.geowave.core.store.statistics.field.BloomFilterStatistic.BloomFilterValue;
+import org.locationtech.geowave.core.store.statistics.field.CountMinSketchStatistic;
+import org.locationtech.geowave.core.store.statistics.field.CountMinSketchStatistic.CountMinSketchValue;
+import org.locationtech.geowave.core.store.statistics.field.HyperLogLogStatistic;
+import org.locationtech.geowave.core.store.statistics.field.HyperLogLogStatistic.HyperLogLogPlusValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Uses the field statistics of a data type to determine whether the equality constraints of a
+ * query can match any of its entries, and to estimate how many entries will match.
+ *
+ * <p> A type is pruned if a bloom filter statistic on a constrained field shows that none of the
+ * required values are present, or if a count-min sketch on the field estimates a count of zero for
+ * all of them. Neither statistic has false negatives, so a pruned type is guaranteed to have no
+ * matching entries. Binned statistics only prune a type if no bin may contain a required value,
+ * partitions are not pruned individually. The estimated number of matches is reported when index
+ * selection is explained, but it isn't used by the {@link IndexCostEstimator} to choose an index.
+ *
+ * <p> This only holds for the entries the statistics were computed on. Statistic values are
+ * persisted when a writer is flushed or closed, so entries written since then are not reflected and
+ * a pruned type may still have matches. Data stores therefore only prune queries when the
+ * statistics query pruning option is enabled.
+ */
+public class StatisticsQueryPruner {
+  private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsQueryPruner.class);
+
+  private final DataStatisticsStore statisticsStore;
+  private final String[] authorizations;
+
+  public StatisticsQueryPruner(
+      final DataStatisticsStore statisticsStore,
+      final String... authorizations) {
+    this.statisticsStore = statisticsStore;
+    this.authorizations = authorizations;
+  }
+
+  /**
+   * Get the values that the query requires each field of the type to be equal to.
+   *
+   * @param query the query constraints
+   * @param adapter the data type being queried
+   * @return the required values keyed by field name
+   */
+  public Map<String, Set<String>> getRequiredFieldValues(
+      final QueryConstraints query,
+      final InternalDataAdapter<?> adapter) {
+    if (query instanceof FieldEqualityConstraintQuery) {
+      final Map<String, Set<String>> requiredValues =
+          ((FieldEqualityConstraintQuery) query).getRequiredFieldValues(adapter.getAdapter());
+      if (requiredValues != null) {
+        return requiredValues;
+      }
+    }
+    return Collections.emptyMap();
+  }
+
+  /**
+   * Determine whether any entry of the type may match the query.
+   *
+   * @param query the query constraints
+   * @param adapter the data type being queried
+   * @return {@code false} if the field statistics show that no entry of the type can match
+   */
+  public boolean mayMatch(final QueryConstraints query, final InternalDataAdapter<?> adapter) {
+    return mayMatch(adapter, getRequiredFieldValues(query, adapter));
+  }
+
+  /**
+   * Determine whether any entry of the type may have the required field values.
+   *
+   * @param adapter the data type being queried
+   * @param requiredValues the required values keyed by field name
+   * @return {@code false} if the field statistics show that no entry of the type can match
+   */
+  public boolean mayMatch(
+      final InternalDataAdapter<?> adapter,
+      final Map<String, Set<String>> requiredValues) {
+    for (final Entry<String, Set<String>> e : requiredValues.entrySet()) {
+      if (e.getValue().isEmpty()) {
+        // contradictory equality constraints on the same field
+        return false;
+      }
+      if (!bloomFilterMayContain(adapter, e.getKey(), e.getValue())
+          || (estimateCount(adapter, e.getKey(), e.getValue()) == 0)) {
+        LOGGER.debug(
+            "Field statistics show no entries of type '"
+                + adapter.getTypeName()
+                + "' with the required values of field '"
+                + e.getKey()
+                + "', skipping type");
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Estimate the number of entries of the type that have the required field values. A count-min
+   * sketch on a constrained field is used directly, otherwise a hyper log log statistic is used to
+   * assume a uniform distribution over the distinct values of the field.
+   *
+   * @param adapter the data type being queried
+   * @param requiredValues the required values keyed by field name
+   * @return the estimated number of matching entries, or {@code NaN} if it can't be estimated
+   */
+  public double estimateMatches(
+      final InternalDataAdapter<?> adapter,
+      final Map<String, Set<String>> requiredValues) {
+    double estimate = Double.NaN;
+    Long totalCount = null;
+    for (final Entry<String, Set<String>> e : requiredValues.entrySet()) {
+      double fieldEstimate = estimateCount(adapter, e.getKey(), e.getValue());
+      if (Double.isNaN(fieldEstimate)) {
+        if (totalCount == null) {
+          final CountValue count =
+              InternalStatisticsHelper.getDataTypeStatistic(
+                  statisticsStore,
+                  CountStatistic.STATS_TYPE,
+                  adapter.getTypeName(),
+                  authorizations);
+          totalCount = (count == null) || (count.getValue() == null) ? -1L : count.getValue();
+        }
+        if (totalCount >= 0) {
+          final long cardinality = getCardinality(adapter, e.getKey());
+          if (cardinality > 0) {
+            fieldEstimate =
+                Math.min(totalCount, ((double) totalCount * e.getValue().size()) / cardinality);
+          }
+        }
+      }
+      // the most selective field bounds the estimate
+      if (!Double.isNaN(fieldEstimate) && (Double.isNaN(estimate) || (fieldEstimate < estimate))) {
+        estimate = fieldEstimate;
+      }
+    }
+    return estimate;
+  }
+
+  private boolean bloomFilterMayContain(
+      final InternalDataAdapter<?> adapter,
+      final String fieldName,
+      final Set<String> values) {
+    try (CloseableIterator<? extends FieldStatistic<? extends StatisticValue<?>>> it =
+        statisticsStore.getFieldStatistics(
+            adapter.getAdapter(),
+            BloomFilterStatistic.STATS_TYPE,
+            fieldName,
+            null)) {
+      while (it.hasNext()) {
+        final BloomFilterStatistic statistic = (BloomFilterStatistic) it.next();
+        // statistics are looked up by field name prefix, which also finds longer field names
+        if (!fieldName.equals(statistic.getFieldName())) {
+          continue;
+        }
+        boolean hasValue = false;
+        boolean mayContain = false;
+        try (CloseableIterator<BloomFilterValue> bloomFilters =
+            statisticsStore.getStatisticValues(statistic, authorizations)) {
+          while (bloomFilters.hasNext() && !mayContain) {
+            final BloomFilterValue bloomFilter = bloomFilters.next();
+            if (bloomFilter.getValue() == null) {
+              continue;
+            }
+            hasValue = true;
+            mayContain = values.stream().anyMatch(bloomFilter.getValue()::mightContain);
+          }
+        }
+        if (hasValue && !mayContain) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private double estimateCount(
+      final InternalDataAdapter<?> adapter,
+      final String fieldName,
+      final Set<String> values) {
+    double estimate = Double.NaN;
+    try (CloseableIterator<? extends FieldStatistic<? extends StatisticValue<?>>> it =
+        statisticsStore.getFieldStatistics(
+            adapter.getAdapter(),
+            CountMinSketchStatistic.STATS_TYPE,
+            fieldName,
+            null)) {
+      while (it.hasNext()) {
+        final CountMinSketchStatistic statistic = (CountMinSketchStatistic) it.next();
+        if (!fieldName.equals(statistic.getFieldName())) {
+          continue;
+        }
+        boolean hasValue = false;
+        long count = 0;
+        try (CloseableIterator<CountMinSketchValue> sketches =
+            statisticsStore.getStatisticValues(statistic, authorizations)) {
+          while (sketches.hasNext()) {
+            final CountMinSketchValue sketch = sketches.next();
+            if (sketch.getValue() == null) {
+              continue;
+            }
+            hasValue = true;
+            for (final String value : values) {
+              count += sketch.count(value);
+            }
+          }
+        }
+        // the sketch never underestimates so the smallest estimate is the most accurate
+        if (hasValue && (Double.isNaN(estimate) || (count < estimate))) {
+          estimate = count;
+        }
+      }
+    }
+    return estimate;
+  }
+
+  private long getCardinality(final InternalDataAdapter<?> adapter, final String fieldName) {
+    try (CloseableIterator<? extends FieldStatistic<? extends StatisticValue<?>>> it =
+        statisticsStore.getFieldStatistics(
+            adapter.getAdapter(),
+            HyperLogLogStatistic.STATS_TYPE,
+            fieldName,
+            null)) {
+      while (it.hasNext()) {
+        final HyperLogLogStatistic statistic = (HyperLogLogStatistic) it.next();
+        if (!fieldName.equals(statistic.getFieldName())) {
+          continue;
+        }
+        if (statistic.getBinningStrategy() != null) {
+          // the cardinality of separate bins can't be combined
+          continue;
+        }
+        final HyperLogLogPlusValue value =
+            statisticsStore.getStatisticValue(statistic, authorizations);
+        if ((value != null) && (value.getValue() != null)) {
+          return value.cardinality();
+        }
+      }
+    }
+    return -1;
+  }
+}
@@ -9,6 +9,7 @@
 package org.locationtech.geowave.core.store.data;
 
 import java.util.List;
+import java.util.Set;
 import org.locationtech.geowave.core.store.adapter.AbstractAdapterPersistenceEncoding;
 import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
 import org.locationtech.geowave.core.store.data.field.FieldReader;
@@ -64,4 +65,26 @@ public class DeferredReadCommonIndexedPersistenceEncoding extends
       }
     }
   }
+
+  @Override
+  public void convertUnknownValues(
+      final InternalDataAdapter<?> adapter,
+      final CommonIndexModel model,
+      final Set<String> fieldNames) {
+    if (fieldNames == null) {
+      convertUnknownValues(adapter, model);
+      return;
+    }
+    if (unreadData != null) {
+      final List<FlattenedFieldInfo> fields = unreadData.finishRead();
+      for (final FlattenedFieldInfo field : fields) {
+        final String fieldName = adapter.getFieldNameForPosition(model, field.getFieldPosition());
+        if (fieldNames.contains(fieldName)) {
+          final FieldReader<Object> reader = adapter.getReader(fieldName);
+          final Object value = reader.readField(field.getValue());
+          adapterExtendedData.addValue(fieldName, value);
+        }
+      }
+    }
+  }
 }
@@ -8,8 +8,11 @@
  */
 package org.locationtech.geowave.core.store.data;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import org.apache.commons.lang3.tuple.Pair;
+import org.locationtech.geowave.core.store.data.field.FieldReader;
 
 /**
  * This is a basic mapping of field ID to native field type. "Native" in this sense can be to either
@@ -20,6 +23,9 @@ import java.util.Map;
  */
 public class MultiFieldPersistentDataset<T> implements PersistentDataset<T> {
   private final Map<String, T> fieldNameToValueMap;
+  // serialized values that are read when they are first requested
+  private Map<String, Pair<byte[], FieldReader<? extends T>>> unreadValues = null;
+  private Map<String, byte[]> serializedValues = null;
 
   public MultiFieldPersistentDataset() {
     fieldNameToValueMap = new HashMap<>();
@@ -41,6 +47,10 @@ public class MultiFieldPersistentDataset<T> implements PersistentDataset<T> {
    */
   @Override
   public void addValue(final String fieldName, final T value) {
+    if (serializedValues != null) {
+      unreadValues.remove(fieldName);
+      serializedValues.remove(fieldName);
+    }
     fieldNameToValueMap.put(fieldName, value);
   }
 
@@ -51,9 +61,45 @@ public class MultiFieldPersistentDataset<T> implements PersistentDataset<T> {
    */
   @Override
   public void addValues(final Map<String, T> values) {
+    if (serializedValues != null) {
+      unreadValues.keySet().removeAll(values.keySet());
+      serializedValues.keySet().removeAll(values.keySet());
+    }
     fieldNameToValueMap.putAll(values);
   }
 
+  /**
+   * Add a serialized value that is only read when it is first requested.
+   */
+  @Override
+  public void addSerializedValue(
+      final String fieldName,
+      final byte[] serializedValue,
+      final FieldReader<? extends T> reader) {
+    if (serializedValues == null) {
+      unreadValues = new HashMap<>();
+      serializedValues = new HashMap<>();
+    }
+    fieldNameToValueMap.remove(fieldName);
+    unreadValues.put(fieldName, Pair.of(serializedValue, reader));
+    serializedValues.put(fieldName, serializedValue);
+  }
+
+  @Override
+  public byte[] getSerializedValue(final String fieldName) {
+    if (serializedValues == null) {
+      return null;
+    }
+    return serializedValues.get(fieldName);
+  }
+
+  private void readValue(final String fieldName) {
+    final Pair<byte[], FieldReader<? extends T>> unread = unreadValues.remove(fieldName);
+    if (unread != null) {
+      fieldNameToValueMap.put(fieldName, unread.getRight().readField(unread.getLeft()));
+    }
+  }
+
   /*
    * (non-Javadoc)
    *
@@ -61,6 +107,9 @@ public class MultiFieldPersistentDataset<T> implements PersistentDataset<T> {
    */
   @Override
   public T getValue(final String fieldName) {
+    if ((unreadValues != null) && !unreadValues.isEmpty()) {
+      readValue(fieldName);
+    }
     return fieldNameToValueMap.get(fieldName);
   }
 
@@ -71,6 +120,11 @@ public class MultiFieldPersistentDataset<T> implements PersistentDataset<T> {
    */
   @Override
   public Map<String, T> getValues() {
+    if ((unreadValues != null) && !unreadValues.isEmpty()) {
+      for (final String fieldName : new ArrayList<>(unreadValues.keySet())) {
+        readValue(fieldName);
+      }
+    }
     return fieldNameToValueMap;
   }
 }
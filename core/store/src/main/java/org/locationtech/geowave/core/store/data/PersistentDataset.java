@@ -9,6 +9,7 @@
 package org.locationtech.geowave.core.store.data;
 
 import java.util.Map;
+import org.locationtech.geowave.core.store.data.field.FieldReader;
 
 
 public interface PersistentDataset<T> {
@@ -23,6 +24,34 @@ public interface PersistentDataset<T> {
   /** Add several values to the data set. */
   void addValues(Map<String, T> values);
 
+  /**
+   * Add a value in its serialized form. Implementations may defer reading the value until it is
+   * first requested, in which case the serialized form is available from
+   * {@link #getSerializedValue(String)}.
+   *
+   * @param fieldName the field ID
+   * @param serializedValue the serialized value
+   * @param reader the reader for the value
+   */
+  default void addSerializedValue(
+      final String fieldName,
+      final byte[] serializedValue,
+      final FieldReader<? extends T> reader) {
+    addValue(fieldName, reader.readField(serializedValue));
+  }
+
+  /**
+   * Get the serialized form of a value that was added using
+   * {@link #addSerializedValue(String, byte[], FieldReader)}. This allows a filter to inspect the
+   * serialized value without reading it.
+   *
+   * @param fieldName the field ID
+   * @return the serialized value, null if it is not available
+   */
+  default byte[] getSerializedValue(final String fieldName) {
+    return null;
+  }
+
   /**
    * Given a field ID, get the associated value
    *
@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.entities;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * Orders rows by sort key, then by partition key, adapter ID, data ID and number of duplicates. This
+ * is the order that rows are returned in when the final results of a query must be sorted by sort
+ * key, such as when subsampling.
+ */
+public class GeoWaveRowSortKeyOrder implements Comparator<GeoWaveRow>, Serializable {
+  public static final GeoWaveRowSortKeyOrder SINGLETON = new GeoWaveRowSortKeyOrder();
+  private static final long serialVersionUID = 23275155231L;
+  private static final byte[] EMPTY = new byte[0];
+
+  @Override
+  public int compare(final GeoWaveRow o1, final GeoWaveRow o2) {
+    if (o1 == o2) {
+      return 0;
+    }
+    if (o1 == null) {
+      return 1;
+    }
+    if (o2 == null) {
+      return -1;
+    }
+    int comp = compareBytes(o1.getSortKey(), o2.getSortKey());
+    if (comp != 0) {
+      return comp;
+    }
+    comp = compareBytes(o1.getPartitionKey(), o2.getPartitionKey());
+    if (comp != 0) {
+      return comp;
+    }
+    comp = Short.compare(o1.getAdapterId(), o2.getAdapterId());
+    if (comp != 0) {
+      return comp;
+    }
+    comp = compareBytes(o1.getDataId(), o2.getDataId());
+    if (comp != 0) {
+      return comp;
+    }
+    return Integer.compare(o1.getNumberOfDuplicates(), o2.getNumberOfDuplicates());
+  }
+
+  private static int compareBytes(final byte[] b1, final byte[] b2) {
+    return UnsignedBytes.lexicographicalComparator().compare(
+        b1 == null ? EMPTY : b1,
+        b2 == null ? EMPTY : b2);
+  }
+}
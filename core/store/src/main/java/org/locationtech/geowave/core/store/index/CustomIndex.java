@@ -55,6 +55,11 @@ public class CustomIndex<E, C extends Persistable> extends NullIndex implements
     return indexStrategy.getFilter(constraints);
   }
 
+  @Override
+  public int getRequiredRangeMatches(final C constraints) {
+    return indexStrategy.getRequiredRangeMatches(constraints);
+  }
+
   @Override
   public int hashCode() {
     return getName().hashCode();
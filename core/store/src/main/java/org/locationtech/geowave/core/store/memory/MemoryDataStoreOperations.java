@@ -12,15 +12,18 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.log4j.Logger;
@@ -67,10 +70,12 @@ import com.google.common.primitives.UnsignedBytes;
 
 public class MemoryDataStoreOperations implements DataStoreOperations {
   private static final Logger LOGGER = Logger.getLogger(MemoryDataStoreOperations.class);
-  private final Map<String, SortedSet<MemoryStoreEntry>> storeData =
-      Collections.synchronizedMap(new HashMap<String, SortedSet<MemoryStoreEntry>>());
+  // rows are keyed by partition and sort key, mapping each key to itself so that a write can
+  // atomically replace an existing row with the same key
+  private final Map<String, ConcurrentNavigableMap<MemoryStoreEntry, MemoryStoreEntry>> storeData =
+      new ConcurrentHashMap<>();
   private final Map<MetadataType, SortedSet<MemoryMetadataEntry>> metadataStore =
-      Collections.synchronizedMap(new HashMap<MetadataType, SortedSet<MemoryMetadataEntry>>());
+      new ConcurrentHashMap<>();
   private final DataStoreOptions options;
 
   public MemoryDataStoreOperations() {
@@ -129,92 +134,75 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
     return new MyIndexDeleter(indexName, authorizations);
   }
 
-  protected SortedSet<MemoryStoreEntry> getRowsForIndex(final String id) {
-    SortedSet<MemoryStoreEntry> set = storeData.get(id);
-    if (set == null) {
-      set = Collections.synchronizedSortedSet(new TreeSet<MemoryStoreEntry>());
-      storeData.put(id, set);
-    }
-    return set;
+  protected ConcurrentNavigableMap<MemoryStoreEntry, MemoryStoreEntry> getRowsForIndex(
+      final String id) {
+    return storeData.computeIfAbsent(id, k -> new ConcurrentSkipListMap<>());
   }
 
   @Override
   public <T> RowReader<T> createReader(final ReaderParams<T> readerParams) {
-    final SortedSet<MemoryStoreEntry> internalData =
+    final NavigableMap<MemoryStoreEntry, MemoryStoreEntry> internalData =
         storeData.get(readerParams.getIndex().getName());
-    int counter = 0;
-    List<MemoryStoreEntry> retVal = new ArrayList<>();
+    if (internalData == null) {
+      return createReader(readerParams, new CloseableIterator.Empty<>());
+    }
+    // the skip list's iterators are weakly consistent, so rows are read lazily while writers
+    // continue to modify the index
+    Iterator<MemoryStoreEntry> it;
     final Collection<SinglePartitionQueryRanges> partitionRanges =
         readerParams.getQueryRanges().getPartitionQueryRanges();
     if ((partitionRanges == null) || partitionRanges.isEmpty()) {
-      retVal.addAll(internalData);
-      // remove unauthorized
-      final Iterator<MemoryStoreEntry> it = retVal.iterator();
-      while (it.hasNext()) {
-        if (!isAuthorized(it.next(), readerParams.getAdditionalAuthorizations())) {
-          it.remove();
-        }
-      }
-      if ((readerParams.getLimit() != null)
-          && (readerParams.getLimit() > 0)
-          && (retVal.size() > readerParams.getLimit())) {
-        retVal = retVal.subList(0, readerParams.getLimit());
-      }
+      it = internalData.values().iterator();
     } else {
+      final List<Iterator<MemoryStoreEntry>> rangeIterators = new ArrayList<>();
       for (final SinglePartitionQueryRanges p : partitionRanges) {
         for (final ByteArrayRange r : p.getSortKeyRanges()) {
-          final SortedSet<MemoryStoreEntry> set;
-          if (r.isSingleValue()) {
-            set =
-                internalData.subSet(
-                    new MemoryStoreEntry(p.getPartitionKey(), r.getStart()),
-                    new MemoryStoreEntry(
-                        p.getPartitionKey(),
-                        ByteArrayUtils.getNextPrefix(r.getStart())));
-          } else {
-            set =
-                internalData.tailSet(
-                    new MemoryStoreEntry(p.getPartitionKey(), r.getStart())).headSet(
-                        new MemoryStoreEntry(p.getPartitionKey(), r.getEndAsNextPrefix()));
-          }
-          // remove unauthorized
-          final Iterator<MemoryStoreEntry> it = set.iterator();
-          while (it.hasNext()) {
-            if (!isAuthorized(it.next(), readerParams.getAdditionalAuthorizations())) {
-              it.remove();
-            }
-          }
-          if ((readerParams.getLimit() != null)
-              && (readerParams.getLimit() > 0)
-              && ((counter + set.size()) > readerParams.getLimit())) {
-            final List<MemoryStoreEntry> subset = new ArrayList<>(set);
-            retVal.addAll(subset.subList(0, readerParams.getLimit() - counter));
-            break;
-          } else {
-            retVal.addAll(set);
-            counter += set.size();
-            if ((readerParams.getLimit() != null)
-                && (readerParams.getLimit() > 0)
-                && (counter >= readerParams.getLimit())) {
-              break;
-            }
-          }
+          final byte[] start = r.getStart() == null ? new byte[0] : r.getStart();
+          // a null end bound sorts after every row in the partition
+          final byte[] end =
+              r.isSingleValue() ? ByteArrayUtils.getNextPrefix(start) : r.getEndAsNextPrefix();
+          final NavigableMap<MemoryStoreEntry, MemoryStoreEntry> subMap =
+              internalData.subMap(
+                  new MemoryStoreEntry(p.getPartitionKey(), start),
+                  true,
+                  new MemoryStoreEntry(p.getPartitionKey(), end),
+                  false);
+          rangeIterators.add(subMap.values().iterator());
         }
       }
+      it = Iterators.concat(rangeIterators.iterator());
+    }
+    return createReader(
+        readerParams,
+        new CloseableIterator.Wrapper<>(Iterators.transform(it, MemoryStoreEntry::getRow)));
+  }
+
+  /**
+   * Create a reader over the rows of an index that match the query ranges, applying the
+   * authorizations, limit, and filter of the reader params. The rows are closed when the reader is
+   * closed.
+   */
+  protected <T> RowReader<T> createReader(
+      final ReaderParams<T> readerParams,
+      final CloseableIterator<GeoWaveRow> rows) {
+    Iterator<GeoWaveRow> it =
+        Iterators.filter(rows, r -> isAuthorized(r, readerParams.getAdditionalAuthorizations()));
+    if ((readerParams.getLimit() != null) && (readerParams.getLimit() > 0)) {
+      it = Iterators.limit(it, readerParams.getLimit());
     }
     return new MyIndexReader<>(
-        Iterators.filter(retVal.iterator(), new Predicate<MemoryStoreEntry>() {
+        Iterators.filter(it, new Predicate<GeoWaveRow>() {
           @Override
-          public boolean apply(final MemoryStoreEntry input) {
+          public boolean apply(final GeoWaveRow input) {
             if ((readerParams.getFilter() != null) && options.isServerSideLibraryEnabled()) {
               final PersistentDataset<Object> commonData = new MultiFieldPersistentDataset<>();
               final List<FlattenedUnreadData> unreadData = new ArrayList<>();
               final List<String> commonIndexFieldNames =
                   DataStoreUtils.getUniqueDimensionFields(readerParams.getIndex().getIndexModel());
-              for (final GeoWaveValue v : input.getRow().getFieldValues()) {
+              for (final GeoWaveValue v : input.getFieldValues()) {
                 unreadData.add(
                     DataStoreUtils.aggregateFieldData(
-                        input.getRow(),
+                        input,
                         v,
                         commonData,
                         readerParams.getIndex().getIndexModel(),
@@ -223,22 +211,23 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
               return readerParams.getFilter().accept(
                   readerParams.getIndex().getIndexModel(),
                   new DeferredReadCommonIndexedPersistenceEncoding(
-                      input.getRow().getAdapterId(),
-                      input.getRow().getDataId(),
-                      input.getRow().getPartitionKey(),
-                      input.getRow().getSortKey(),
-                      input.getRow().getNumberOfDuplicates(),
+                      input.getAdapterId(),
+                      input.getDataId(),
+                      input.getPartitionKey(),
+                      input.getSortKey(),
+                      input.getNumberOfDuplicates(),
                       commonData,
                       unreadData.isEmpty() ? null : new UnreadFieldDataList(unreadData)));
             }
             return true;
           }
         }),
+        rows,
         readerParams.getRowTransformer());
   }
 
-  private boolean isAuthorized(final MemoryStoreEntry row, final String... authorizations) {
-    for (final GeoWaveValue value : row.getRow().getFieldValues()) {
+  protected boolean isAuthorized(final GeoWaveRow row, final String... authorizations) {
+    for (final GeoWaveValue value : row.getFieldValues()) {
       if (!MemoryStoreUtils.isAuthorized(value.getVisibility(), authorizations)) {
         return false;
       }
@@ -248,16 +237,21 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
 
   private static class MyIndexReader<T> implements RowReader<T> {
     private final Iterator<T> it;
+    private final CloseableIterator<GeoWaveRow> source;
 
     public MyIndexReader(
-        final Iterator<MemoryStoreEntry> it,
+        final Iterator<GeoWaveRow> it,
+        final CloseableIterator<GeoWaveRow> source,
         final GeoWaveRowIteratorTransformer<T> rowTransformer) {
       super();
-      this.it = rowTransformer.apply(Iterators.transform(it, e -> e.row));
+      this.it = rowTransformer.apply(it);
+      this.source = source;
     }
 
     @Override
-    public void close() {}
+    public void close() {
+      source.close();
+    }
 
     @Override
     public boolean hasNext() {
@@ -299,17 +293,9 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
 
     @Override
     public void write(final GeoWaveRow row) {
-      SortedSet<MemoryStoreEntry> rowTreeSet = storeData.get(indexName);
-      if (rowTreeSet == null) {
-        rowTreeSet = new TreeSet<>();
-        storeData.put(indexName, rowTreeSet);
-      }
-      if (rowTreeSet.contains(new MemoryStoreEntry(row))) {
-        rowTreeSet.remove(new MemoryStoreEntry(row));
-      }
-      if (!rowTreeSet.add(new MemoryStoreEntry(row))) {
-        LOGGER.warn("Unable to add new entry");
-      }
+      final MemoryStoreEntry entry = new MemoryStoreEntry(row);
+      // replaces any existing row with the same key
+      getRowsForIndex(indexName).put(entry, entry);
     }
   }
 
@@ -328,10 +314,10 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
     @Override
     public void delete(final GeoWaveRow row) {
       final MemoryStoreEntry entry = new MemoryStoreEntry(row);
-      if (isAuthorized(entry, authorizations)) {
-        final SortedSet<MemoryStoreEntry> rowTreeSet = storeData.get(indexName);
-        if (rowTreeSet != null) {
-          if (!rowTreeSet.remove(entry)) {
+      if (isAuthorized(row, authorizations)) {
+        final Map<MemoryStoreEntry, MemoryStoreEntry> rows = storeData.get(indexName);
+        if (rows != null) {
+          if (rows.remove(entry) == null) {
             LOGGER.warn("Unable to remove entry");
           }
         }
@@ -345,22 +331,31 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
   }
 
   public static class MemoryStoreEntry implements Comparable<MemoryStoreEntry> {
+    private static final byte[] EMPTY = new byte[0];
     private final GeoWaveRow row;
+    // only used for range bounds, sorts after every row in the partition
+    private final boolean endOfPartition;
 
+    /**
+     * Create an entry to use as a range bound, it sorts before any row with the given partition and
+     * sort key. If the sort key is {@code null}, it sorts after every row in the partition.
+     */
     public MemoryStoreEntry(final byte[] comparisonPartitionKey, final byte[] comparisonSortKey) {
       row =
           new GeoWaveRowImpl(
               new GeoWaveKeyImpl(
-                  new byte[] {0},
-                  (short) 0, // new byte[] {},
+                  EMPTY,
+                  (short) 0,
                   comparisonPartitionKey,
-                  comparisonSortKey,
+                  comparisonSortKey == null ? EMPTY : comparisonSortKey,
                   0),
               null);
+      endOfPartition = comparisonSortKey == null;
     }
 
     public MemoryStoreEntry(final GeoWaveRow row) {
       this.row = row;
+      endOfPartition = false;
     }
 
     public GeoWaveRow getRow() {
@@ -371,30 +366,37 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
       return ((GeoWaveKeyImpl) ((GeoWaveRowImpl) row).getKey()).getCompositeInsertionId();
     }
 
+    private static byte[] nullToEmpty(final byte[] bytes) {
+      return bytes == null ? EMPTY : bytes;
+    }
+
     @Override
     public int compareTo(final MemoryStoreEntry other) {
-      final int indexIdCompare =
-          UnsignedBytes.lexicographicalComparator().compare(
-              getCompositeInsertionId(),
-              other.getCompositeInsertionId());
-      if (indexIdCompare != 0) {
-        return indexIdCompare;
-      }
-      final int dataIdCompare =
-          UnsignedBytes.lexicographicalComparator().compare(
-              row.getDataId(),
-              other.getRow().getDataId());
-      if (dataIdCompare != 0) {
-        return dataIdCompare;
+      // compare the keys directly rather than allocating composite IDs on every comparison
+      final Comparator<byte[]> comparator = UnsignedBytes.lexicographicalComparator();
+      final int partitionCompare =
+          comparator.compare(
+              nullToEmpty(row.getPartitionKey()),
+              nullToEmpty(other.row.getPartitionKey()));
+      if (partitionCompare != 0) {
+        return partitionCompare;
+      }
+      if (endOfPartition || other.endOfPartition) {
+        return Boolean.compare(endOfPartition, other.endOfPartition);
+      }
+      final int sortKeyCompare =
+          comparator.compare(nullToEmpty(row.getSortKey()), nullToEmpty(other.row.getSortKey()));
+      if (sortKeyCompare != 0) {
+        return sortKeyCompare;
       }
       final int adapterIdCompare =
-          UnsignedBytes.lexicographicalComparator().compare(
-              ByteArrayUtils.shortToByteArray(row.getAdapterId()),
-              ByteArrayUtils.shortToByteArray(other.getRow().getAdapterId()));
+          Integer.compare(row.getAdapterId() & 0xFFFF, other.row.getAdapterId() & 0xFFFF);
       if (adapterIdCompare != 0) {
         return adapterIdCompare;
       }
-      return 0;
+      // the number of duplicates isn't part of a row's identity, so rewriting a row with a
+      // different number of duplicates replaces it
+      return comparator.compare(row.getDataId(), other.row.getDataId());
     }
 
     @Override
@@ -608,11 +610,8 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
 
     @Override
     public void write(final GeoWaveMetadata metadata) {
-      SortedSet<MemoryMetadataEntry> typeStore = metadataStore.get(type);
-      if (typeStore == null) {
-        typeStore = new TreeSet<>();
-        metadataStore.put(type, typeStore);
-      }
+      final SortedSet<MemoryMetadataEntry> typeStore =
+          metadataStore.computeIfAbsent(type, k -> new ConcurrentSkipListSet<>());
       if (typeStore.contains(new MemoryMetadataEntry(metadata))) {
         typeStore.remove(new MemoryMetadataEntry(metadata));
       }
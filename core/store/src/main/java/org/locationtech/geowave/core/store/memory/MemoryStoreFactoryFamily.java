@@ -10,6 +10,7 @@ package org.locationtech.geowave.core.store.memory;
 
 import org.locationtech.geowave.core.store.BaseDataStoreFamily;
 import org.locationtech.geowave.core.store.StoreFactoryFamilySpi;
+import org.locationtech.geowave.core.store.StoreFactoryHelper;
 
 public class MemoryStoreFactoryFamily extends BaseDataStoreFamily implements StoreFactoryFamilySpi {
   private static final String TYPE = "memory";
@@ -19,4 +20,11 @@ public class MemoryStoreFactoryFamily extends BaseDataStoreFamily implements Sto
   public MemoryStoreFactoryFamily() {
     super(TYPE, DESCRIPTION, new MemoryFactoryHelper());
   }
+
+  protected MemoryStoreFactoryFamily(
+      final String type,
+      final String description,
+      final StoreFactoryHelper helper) {
+    super(type, description, helper);
+  }
 }
@@ -0,0 +1,475 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.memory;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.locationtech.geowave.core.index.ByteArrayUtils;
+import org.locationtech.geowave.core.index.SinglePartitionQueryRanges;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.memory.MemoryDataStoreOperations.MemoryStoreEntry;
+import org.locationtech.geowave.core.store.util.DirectBufferUtils;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+
+/**
+ * The rows of a single index stored off-heap. Rows live in an {@link OffHeapRowArena} and are
+ * ordered by a sorted run of row addresses that is itself held in a direct buffer. New rows are
+ * collected in a small on-heap write buffer that is merged into a new sorted run once it grows
+ * large enough relative to the run. Rows are only deserialized when they are read.
+ *
+ * <p> The sorted run is never modified. Overwriting a row adds the new row to the write buffer,
+ * which takes precedence over the sorted run, and deleting a row adds a tombstone. Readers iterate
+ * over a snapshot of the sorted run and the write buffer while writers continue, so each row is
+ * seen either as it was or as it has been rewritten.
+ *
+ * <p> Sorted runs are reference counted by the table and its readers, a run's direct buffers are
+ * freed once it has been replaced and every reader using it has been closed or exhausted.
+ */
+class OffHeapIndexTable {
+  private static final int MIN_WRITE_BUFFER_SIZE = 65536;
+  // merge when the write buffer reaches this fraction of the sorted run
+  private static final int WRITE_BUFFER_RATIO = 8;
+  // the value of a row that has been deleted since the last merge
+  private static final MemoryStoreEntry TOMBSTONE = new MemoryStoreEntry((GeoWaveRow) null);
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final int chunkSize;
+  private final int minWriteBufferSize;
+  private volatile NavigableMap<MemoryStoreEntry, MemoryStoreEntry> writeBuffer =
+      new ConcurrentSkipListMap<>();
+  private final AtomicInteger writeBufferSize = new AtomicInteger(0);
+  private volatile SortedRun sortedRun;
+
+  OffHeapIndexTable(final int chunkSize) {
+    this(chunkSize, MIN_WRITE_BUFFER_SIZE);
+  }
+
+  OffHeapIndexTable(final int chunkSize, final int minWriteBufferSize) {
+    this.chunkSize = chunkSize;
+    this.minWriteBufferSize = minWriteBufferSize;
+    sortedRun = emptyRun();
+  }
+
+  private SortedRun emptyRun() {
+    return new SortedRun(new OffHeapRowArena(chunkSize), ByteBuffer.allocate(0));
+  }
+
+  void put(final GeoWaveRow row) {
+    final boolean merge;
+    lock.readLock().lock();
+    try {
+      final MemoryStoreEntry entry = new MemoryStoreEntry(row);
+      if (writeBuffer.put(entry, entry) == null) {
+        writeBufferSize.incrementAndGet();
+      }
+      merge = writeBufferSize.get() >= mergeThreshold();
+    } finally {
+      lock.readLock().unlock();
+    }
+    if (merge) {
+      merge();
+    }
+  }
+
+  boolean delete(final GeoWaveRow row) {
+    final boolean deleted;
+    final boolean merge;
+    lock.readLock().lock();
+    try {
+      final MemoryStoreEntry previous = writeBuffer.put(new MemoryStoreEntry(row), TOMBSTONE);
+      if (previous == null) {
+        writeBufferSize.incrementAndGet();
+        deleted = sortedRun.contains(row);
+      } else {
+        deleted = previous != TOMBSTONE;
+      }
+      merge = writeBufferSize.get() >= mergeThreshold();
+    } finally {
+      lock.readLock().unlock();
+    }
+    if (merge) {
+      merge();
+    }
+    return deleted;
+  }
+
+  /**
+   * Iterate over the rows within the given ranges, or every row if there are no ranges. The
+   * iterator should be closed if it isn't read to the end so that the memory it uses can be freed.
+   */
+  CloseableIterator<GeoWaveRow> iterator(
+      final Collection<SinglePartitionQueryRanges> partitionRanges) {
+    final SortedRun run;
+    final NavigableMap<MemoryStoreEntry, MemoryStoreEntry> buffer;
+    lock.readLock().lock();
+    try {
+      run = sortedRun;
+      buffer = writeBuffer;
+      run.retain();
+    } finally {
+      lock.readLock().unlock();
+    }
+    final Iterator<GeoWaveRow> it;
+    if ((partitionRanges == null) || partitionRanges.isEmpty()) {
+      it = new MergingIterator(run.iterator(0, false, null, null), buffer.entrySet().iterator());
+    } else {
+      final List<Iterator<GeoWaveRow>> rangeIterators = new ArrayList<>();
+      for (final SinglePartitionQueryRanges p : partitionRanges) {
+        for (final ByteArrayRange r : p.getSortKeyRanges()) {
+          final byte[] start = r.getStart() == null ? new byte[0] : r.getStart();
+          // a null end bound sorts after every row in the partition
+          final byte[] end =
+              r.isSingleValue() ? ByteArrayUtils.getNextPrefix(start) : r.getEndAsNextPrefix();
+          rangeIterators.add(
+              new MergingIterator(
+                  run.iterator(
+                      run.lowerBound(p.getPartitionKey(), start),
+                      true,
+                      p.getPartitionKey(),
+                      end),
+                  buffer.subMap(
+                      new MemoryStoreEntry(p.getPartitionKey(), start),
+                      true,
+                      new MemoryStoreEntry(p.getPartitionKey(), end),
+                      false).entrySet().iterator()));
+        }
+      }
+      it = Iterators.concat(rangeIterators.iterator());
+    }
+    return new SnapshotIterator(it, run);
+  }
+
+  /**
+   * Release the rows of this table, readers that are still open keep the rows they are reading
+   * until they are closed.
+   */
+  void close() {
+    lock.writeLock().lock();
+    try {
+      sortedRun.release();
+      sortedRun = emptyRun();
+      writeBuffer = new ConcurrentSkipListMap<>();
+      writeBufferSize.set(0);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @return the number of bytes allocated off-heap by the current sorted run
+   */
+  long getAllocatedBytes() {
+    return sortedRun.arena.getAllocatedBytes();
+  }
+
+  private int mergeThreshold() {
+    return Math.max(minWriteBufferSize, sortedRun.size() / WRITE_BUFFER_RATIO);
+  }
+
+  /**
+   * Merge the write buffer into a new sorted run. If more than half of the arena is taken up by
+   * rows that have been overwritten or deleted, the live rows are copied into a new arena and the
+   * old one is freed once no reader is using it.
+   */
+  private void merge() {
+    lock.writeLock().lock();
+    try {
+      if (writeBufferSize.get() < mergeThreshold()) {
+        // another writer already merged
+        return;
+      }
+      final SortedRun run = sortedRun;
+      // the run and write buffer sizes are an upper bound on the number of rows in the new run
+      final long capacity = ((long) run.size() + writeBufferSize.get()) * Long.BYTES;
+      if (capacity > Integer.MAX_VALUE) {
+        throw new IllegalStateException(
+            "Unable to merge "
+                + writeBufferSize.get()
+                + " rows into a sorted run of "
+                + run.size()
+                + " rows, an off-heap index is limited to "
+                + (Integer.MAX_VALUE / Long.BYTES)
+                + " rows");
+      }
+      final OffHeapRowArena oldArena = run.arena;
+      final boolean compact = oldArena.getDeletedBytes() > (oldArena.getAllocatedBytes() / 2);
+      final OffHeapRowArena arena;
+      if (compact) {
+        arena = new OffHeapRowArena(chunkSize);
+      } else {
+        arena = oldArena;
+        arena.retain();
+      }
+      final ByteBuffer addressBuffer = ByteBuffer.allocateDirect((int) capacity);
+      final LongBuffer addresses = addressBuffer.asLongBuffer();
+      final Iterator<Map.Entry<MemoryStoreEntry, MemoryStoreEntry>> bufferIt =
+          writeBuffer.entrySet().iterator();
+      Map.Entry<MemoryStoreEntry, MemoryStoreEntry> nextEntry =
+          bufferIt.hasNext() ? bufferIt.next() : null;
+      for (int i = 0; i < run.size(); i++) {
+        final long address = run.addresses.get(i);
+        int comp = -1;
+        while ((nextEntry != null)
+            && ((comp = oldArena.compare(address, nextEntry.getKey().getRow())) >= 0)) {
+          if (nextEntry.getValue() != TOMBSTONE) {
+            addresses.put(arena.append(nextEntry.getValue().getRow()));
+          }
+          nextEntry = bufferIt.hasNext() ? bufferIt.next() : null;
+          if (comp == 0) {
+            break;
+          }
+        }
+        if (comp == 0) {
+          // overwritten or deleted
+          oldArena.discard(address);
+        } else {
+          addresses.put(compact ? arena.copy(oldArena, address) : address);
+        }
+      }
+      while (nextEntry != null) {
+        if (nextEntry.getValue() != TOMBSTONE) {
+          addresses.put(arena.append(nextEntry.getValue().getRow()));
+        }
+        nextEntry = bufferIt.hasNext() ? bufferIt.next() : null;
+      }
+      addresses.flip();
+      sortedRun = new SortedRun(arena, addressBuffer, addresses);
+      writeBuffer = new ConcurrentSkipListMap<>();
+      writeBufferSize.set(0);
+      run.release();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static class SortedRun {
+    private final OffHeapRowArena arena;
+    private final ByteBuffer addressBuffer;
+    private final LongBuffer addresses;
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private SortedRun(final OffHeapRowArena arena, final ByteBuffer addressBuffer) {
+      this(arena, addressBuffer, addressBuffer.asLongBuffer());
+    }
+
+    private SortedRun(
+        final OffHeapRowArena arena,
+        final ByteBuffer addressBuffer,
+        final LongBuffer addresses) {
+      this.arena = arena;
+      this.addressBuffer = addressBuffer;
+      this.addresses = addresses;
+    }
+
+    private void retain() {
+      references.incrementAndGet();
+    }
+
+    private void release() {
+      if (references.decrementAndGet() == 0) {
+        DirectBufferUtils.free(addressBuffer);
+        arena.release();
+      }
+    }
+
+    private int size() {
+      return addresses.limit();
+    }
+
+    /**
+     * @return the index of the first row with a key greater than or equal to the given key
+     */
+    private int lowerBound(final byte[] partitionKey, final byte[] sortKey) {
+      int low = 0;
+      int high = size();
+      while (low < high) {
+        final int mid = (low + high) >>> 1;
+        if (arena.compareKey(addresses.get(mid), partitionKey, sortKey) < 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    private boolean contains(final GeoWaveRow row) {
+      int low = 0;
+      int high = size() - 1;
+      while (low <= high) {
+        final int mid = (low + high) >>> 1;
+        final int comp = arena.compare(addresses.get(mid), row);
+        if (comp < 0) {
+          low = mid + 1;
+        } else if (comp > 0) {
+          high = mid - 1;
+        } else {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Iterate from the given index until the end of the partition or the exclusive end key.
+     *
+     * @param startIndex the index of the first row
+     * @param bounded whether to stop at the end key, otherwise every remaining row is returned
+     * @param partitionKey the partition of the end key
+     * @param endSortKey the exclusive end key, or {@code null} for the end of the partition
+     */
+    private Iterator<GeoWaveRow> iterator(
+        final int startIndex,
+        final boolean bounded,
+        final byte[] partitionKey,
+        final byte[] endSortKey) {
+      return new Iterator<GeoWaveRow>() {
+        private int index = startIndex;
+        private GeoWaveRow next = advance();
+
+        private GeoWaveRow advance() {
+          if (index < size()) {
+            final long address = addresses.get(index++);
+            if (bounded && (arena.compareKey(address, partitionKey, endSortKey) >= 0)) {
+              index = size();
+              return null;
+            }
+            return arena.decode(address);
+          }
+          return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+          return next != null;
+        }
+
+        @Override
+        public GeoWaveRow next() {
+          if (next == null) {
+            throw new NoSuchElementException();
+          }
+          final GeoWaveRow retVal = next;
+          next = advance();
+          return retVal;
+        }
+      };
+    }
+  }
+
+  /**
+   * Merges the rows of a sorted run with the write buffer. Rows in the write buffer supersede rows
+   * of the sorted run with the same identity, and tombstones hide them.
+   */
+  private static class MergingIterator implements Iterator<GeoWaveRow> {
+    private final PeekingIterator<MemoryStoreEntry> runEntries;
+    private final PeekingIterator<Map.Entry<MemoryStoreEntry, MemoryStoreEntry>> bufferEntries;
+    private GeoWaveRow next;
+
+    private MergingIterator(
+        final Iterator<GeoWaveRow> runRows,
+        final Iterator<Map.Entry<MemoryStoreEntry, MemoryStoreEntry>> bufferEntries) {
+      runEntries = Iterators.peekingIterator(Iterators.transform(runRows, MemoryStoreEntry::new));
+      this.bufferEntries = Iterators.peekingIterator(bufferEntries);
+      next = computeNext();
+    }
+
+    private GeoWaveRow computeNext() {
+      while (true) {
+        if (!bufferEntries.hasNext()) {
+          return runEntries.hasNext() ? runEntries.next().getRow() : null;
+        }
+        final MemoryStoreEntry bufferKey = bufferEntries.peek().getKey();
+        if (runEntries.hasNext()) {
+          final int comp = runEntries.peek().compareTo(bufferKey);
+          if (comp < 0) {
+            return runEntries.next().getRow();
+          }
+          if (comp == 0) {
+            runEntries.next();
+          }
+        }
+        final MemoryStoreEntry value = bufferEntries.next().getValue();
+        if (value != TOMBSTONE) {
+          return value.getRow();
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public GeoWaveRow next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      final GeoWaveRow retVal = next;
+      next = computeNext();
+      return retVal;
+    }
+  }
+
+  /**
+   * Holds a reference to a sorted run until the rows have been read or the iterator is closed.
+   */
+  private static class SnapshotIterator implements CloseableIterator<GeoWaveRow> {
+    private final Iterator<GeoWaveRow> it;
+    private final SortedRun run;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private SnapshotIterator(final Iterator<GeoWaveRow> it, final SortedRun run) {
+      this.it = it;
+      this.run = run;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (closed.get()) {
+        return false;
+      }
+      if (!it.hasNext()) {
+        close();
+        return false;
+      }
+      return true;
+    }
+
+    @Override
+    public GeoWaveRow next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return it.next();
+    }
+
+    @Override
+    public void close() {
+      if (closed.compareAndSet(false, true)) {
+        run.release();
+      }
+    }
+  }
+}
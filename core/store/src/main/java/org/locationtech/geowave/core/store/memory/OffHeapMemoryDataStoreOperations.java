@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.memory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.DataStoreOptions;
+import org.locationtech.geowave.core.store.adapter.InternalAdapterStore;
+import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
+import org.locationtech.geowave.core.store.adapter.PersistentAdapterStore;
+import org.locationtech.geowave.core.store.api.Index;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.metadata.AbstractGeoWavePersistence;
+import org.locationtech.geowave.core.store.operations.ReaderParams;
+import org.locationtech.geowave.core.store.operations.RowDeleter;
+import org.locationtech.geowave.core.store.operations.RowReader;
+import org.locationtech.geowave.core.store.operations.RowWriter;
+
+/**
+ * A memory datastore that keeps index rows, including the data index, outside of the Java heap so
+ * that large in-memory tables don't cause long garbage collection pauses. Metadata is small and
+ * remains on the heap.
+ */
+public class OffHeapMemoryDataStoreOperations extends MemoryDataStoreOperations {
+  private final Map<String, OffHeapIndexTable> tables = new ConcurrentHashMap<>();
+  private final int chunkSize;
+
+  public OffHeapMemoryDataStoreOperations(final DataStoreOptions options, final int chunkSize) {
+    super(options);
+    this.chunkSize = chunkSize;
+  }
+
+  private OffHeapIndexTable getTable(final String indexName) {
+    return tables.computeIfAbsent(indexName, k -> new OffHeapIndexTable(chunkSize));
+  }
+
+  @Override
+  public boolean indexExists(final String indexName) throws IOException {
+    if (AbstractGeoWavePersistence.METADATA_TABLE.equals(indexName)) {
+      return super.indexExists(indexName);
+    }
+    return tables.containsKey(indexName);
+  }
+
+  @Override
+  public void deleteAll() throws Exception {
+    super.deleteAll();
+    // readers that are still open keep the rows they are reading
+    tables.values().forEach(OffHeapIndexTable::close);
+    tables.clear();
+  }
+
+  @Override
+  public RowWriter createWriter(final Index index, final InternalDataAdapter<?> adapter) {
+    final OffHeapIndexTable table = getTable(index.getName());
+    return new RowWriter() {
+      @Override
+      public void write(final GeoWaveRow[] rows) {
+        for (final GeoWaveRow row : rows) {
+          write(row);
+        }
+      }
+
+      @Override
+      public void write(final GeoWaveRow row) {
+        table.put(row);
+      }
+
+      @Override
+      public void flush() {}
+
+      @Override
+      public void close() {}
+    };
+  }
+
+  @Override
+  public RowDeleter createRowDeleter(
+      final String indexName,
+      final PersistentAdapterStore adapterStore,
+      final InternalAdapterStore internalAdapterStore,
+      final String... authorizations) {
+    return new RowDeleter() {
+      @Override
+      public void delete(final GeoWaveRow row) {
+        final OffHeapIndexTable table = tables.get(indexName);
+        if ((table != null) && isAuthorized(row, authorizations)) {
+          table.delete(row);
+        }
+      }
+
+      @Override
+      public void flush() {
+        // Do nothing, delete is done immediately.
+      }
+
+      @Override
+      public void close() {}
+    };
+  }
+
+  @Override
+  public <T> RowReader<T> createReader(final ReaderParams<T> readerParams) {
+    final OffHeapIndexTable table = tables.get(readerParams.getIndex().getName());
+    if (table == null) {
+      return createReader(readerParams, new CloseableIterator.Empty<>());
+    }
+    return createReader(
+        readerParams,
+        table.iterator(readerParams.getQueryRanges().getPartitionQueryRanges()));
+  }
+}
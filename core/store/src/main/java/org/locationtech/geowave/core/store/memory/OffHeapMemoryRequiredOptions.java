@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.memory;
+
+import org.locationtech.geowave.core.store.StoreFactoryFamilySpi;
+import com.beust.jcommander.Parameter;
+
+public class OffHeapMemoryRequiredOptions extends MemoryRequiredOptions {
+  @Parameter(
+      names = "--chunkSizeMB",
+      description = "The size in megabytes of each block of off-heap memory allocated for rows.")
+  private int chunkSizeMB = 64;
+
+  @Override
+  public StoreFactoryFamilySpi getStoreFactory() {
+    return new OffHeapMemoryStoreFactoryFamily();
+  }
+
+  public int getChunkSizeMB() {
+    return chunkSizeMB;
+  }
+
+  public void setChunkSizeMB(final int chunkSizeMB) {
+    this.chunkSizeMB = chunkSizeMB;
+  }
+
+  public int getChunkSizeBytes() {
+    return Math.max(1, Math.min(chunkSizeMB, 1024)) * 1024 * 1024;
+  }
+}
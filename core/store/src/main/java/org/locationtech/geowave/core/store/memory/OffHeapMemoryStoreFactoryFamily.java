@@ -0,0 +1,19 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.memory;
+
+public class OffHeapMemoryStoreFactoryFamily extends MemoryStoreFactoryFamily {
+  private static final String TYPE = "offheapmemory";
+  private static final String DESCRIPTION =
+      "A GeoWave store that is in memory, with rows stored outside of the Java heap";
+
+  public OffHeapMemoryStoreFactoryFamily() {
+    super(TYPE, DESCRIPTION, new OffHeapMemoryFactoryHelper());
+  }
+}
@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.memory;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.locationtech.geowave.core.store.entities.GeoWaveKeyImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import org.locationtech.geowave.core.store.entities.GeoWaveValueImpl;
+import org.locationtech.geowave.core.store.util.DirectBufferUtils;
+
+/**
+ * Stores serialized rows in large direct buffers outside of the Java heap. Rows are appended and
+ * addressed by a long that combines the index of the chunk holding the row with the row's offset
+ * within that chunk. Rows are never modified or removed once written, so that readers can keep
+ * using an arena while it is written to. The owning table keeps track of the rows it no longer
+ * references and copies the live rows into a new arena once enough space has been wasted.
+ *
+ * <p> Each row is laid out as the total length of the row, the adapter ID, the number of
+ * duplicates, the partition key, sort key and data ID (each prefixed by its length, or -1 if it is
+ * null), and the field values (each field mask, visibility and value prefixed by its length).
+ *
+ * <p> An arena is reference counted, its chunks are freed as soon as the last reference is released
+ * rather than when they are garbage collected.
+ */
+class OffHeapRowArena {
+  private static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+  private static final int LENGTH_OFFSET = 0;
+  private static final int ADAPTER_ID_OFFSET = 4;
+  private static final int PARTITION_KEY_OFFSET = 10;
+
+  private final int chunkSize;
+  // replaced rather than modified so readers never see a partially updated array
+  private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+  private int chunkOffset = 0;
+  private final AtomicLong allocatedBytes = new AtomicLong(0);
+  private final AtomicLong deletedBytes = new AtomicLong(0);
+  private final AtomicInteger references = new AtomicInteger(1);
+
+  OffHeapRowArena() {
+    this(DEFAULT_CHUNK_SIZE);
+  }
+
+  OffHeapRowArena(final int chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+
+  long getAllocatedBytes() {
+    return allocatedBytes.get();
+  }
+
+  long getDeletedBytes() {
+    return deletedBytes.get();
+  }
+
+  /**
+   * Add a reference to this arena, which must not have been freed.
+   */
+  void retain() {
+    references.incrementAndGet();
+  }
+
+  /**
+   * Release a reference to this arena, freeing its memory once no references remain. The arena
+   * starts out with a single reference held by its creator.
+   */
+  void release() {
+    if (references.decrementAndGet() == 0) {
+      final ByteBuffer[] currentChunks = chunks;
+      chunks = new ByteBuffer[0];
+      for (final ByteBuffer chunk : currentChunks) {
+        DirectBufferUtils.free(chunk);
+      }
+    }
+  }
+
+  /**
+   * Serialize a row into the arena.
+   *
+   * @return the address of the row
+   */
+  long append(final GeoWaveRow row) {
+    int length = PARTITION_KEY_OFFSET + 12 + 4;
+    length += lengthOf(row.getPartitionKey());
+    length += lengthOf(row.getSortKey());
+    length += lengthOf(row.getDataId());
+    for (final GeoWaveValue value : row.getFieldValues()) {
+      length += 12;
+      length += lengthOf(value.getFieldMask());
+      length += lengthOf(value.getVisibility());
+      length += lengthOf(value.getValue());
+    }
+    final ByteBuffer buf;
+    final long address;
+    synchronized (this) {
+      address = allocate(length);
+      buf = chunk(address).duplicate();
+    }
+    buf.position(offset(address));
+    buf.putInt(length);
+    buf.putShort(row.getAdapterId());
+    buf.putInt(row.getNumberOfDuplicates());
+    put(buf, row.getPartitionKey());
+    put(buf, row.getSortKey());
+    put(buf, row.getDataId());
+    buf.putInt(row.getFieldValues().length);
+    for (final GeoWaveValue value : row.getFieldValues()) {
+      put(buf, value.getFieldMask());
+      put(buf, value.getVisibility());
+      put(buf, value.getValue());
+    }
+    return address;
+  }
+
+  /**
+   * Copy a row from another arena without deserializing it.
+   *
+   * @return the address of the copy
+   */
+  long copy(final OffHeapRowArena source, final long sourceAddress) {
+    final ByteBuffer sourceBuf = source.chunk(sourceAddress).duplicate();
+    final int sourceOffset = offset(sourceAddress);
+    final int length = sourceBuf.getInt(sourceOffset + LENGTH_OFFSET);
+    sourceBuf.position(sourceOffset);
+    sourceBuf.limit(sourceOffset + length);
+    final ByteBuffer buf;
+    final long address;
+    synchronized (this) {
+      address = allocate(length);
+      buf = chunk(address).duplicate();
+    }
+    buf.position(offset(address));
+    buf.put(sourceBuf);
+    return address;
+  }
+
+  private long allocate(final int length) {
+    ByteBuffer[] currentChunks = chunks;
+    if ((currentChunks.length == 0)
+        || ((currentChunks[currentChunks.length - 1].capacity() - chunkOffset) < length)) {
+      currentChunks = Arrays.copyOf(currentChunks, currentChunks.length + 1);
+      currentChunks[currentChunks.length - 1] =
+          ByteBuffer.allocateDirect(Math.max(chunkSize, length));
+      chunks = currentChunks;
+      chunkOffset = 0;
+    }
+    final long address = ((long) (currentChunks.length - 1) << 32) | chunkOffset;
+    chunkOffset += length;
+    allocatedBytes.addAndGet(length);
+    return address;
+  }
+
+  /**
+   * Account for a row that has been overwritten or deleted, its space is reclaimed when the live
+   * rows are copied into a new arena. The row itself is left in place for readers that still use
+   * it.
+   */
+  void discard(final long address) {
+    deletedBytes.addAndGet(chunk(address).getInt(offset(address) + LENGTH_OFFSET));
+  }
+
+  GeoWaveRow decode(final long address) {
+    final ByteBuffer buf = chunk(address).duplicate();
+    buf.position(offset(address) + ADAPTER_ID_OFFSET);
+    final short adapterId = buf.getShort();
+    final int numDuplicates = buf.getInt();
+    final byte[] partitionKey = get(buf);
+    final byte[] sortKey = get(buf);
+    final byte[] dataId = get(buf);
+    final GeoWaveValue[] values = new GeoWaveValue[buf.getInt()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = new GeoWaveValueImpl(get(buf), get(buf), get(buf));
+    }
+    return new GeoWaveRowImpl(
+        new GeoWaveKeyImpl(dataId, adapterId, partitionKey, sortKey, numDuplicates),
+        values);
+  }
+
+  /**
+   * Compare the partition and sort key of a row in place with the given keys. A {@code null} sort
+   * key sorts after every sort key in the partition.
+   */
+  int compareKey(final long address, final byte[] partitionKey, final byte[] sortKey) {
+    final ByteBuffer chunk = chunk(address);
+    int pos = offset(address) + PARTITION_KEY_OFFSET;
+    final int partitionLength = chunk.getInt(pos);
+    pos += 4;
+    final int partitionCompare = compare(chunk, pos, partitionLength, partitionKey);
+    if (partitionCompare != 0) {
+      return partitionCompare;
+    }
+    if (sortKey == null) {
+      return -1;
+    }
+    pos += Math.max(partitionLength, 0);
+    return compare(chunk, pos + 4, chunk.getInt(pos), sortKey);
+  }
+
+  /**
+   * Compare a row in place with the given row using the same order as
+   * {@link MemoryDataStoreOperations.MemoryStoreEntry}, rows that compare equal are the same row.
+   */
+  int compare(final long address, final GeoWaveRow row) {
+    final ByteBuffer chunk = chunk(address);
+    final int offset = offset(address);
+    int pos = offset + PARTITION_KEY_OFFSET;
+    final int partitionLength = chunk.getInt(pos);
+    pos += 4;
+    int comp = compare(chunk, pos, partitionLength, row.getPartitionKey());
+    if (comp != 0) {
+      return comp;
+    }
+    pos += Math.max(partitionLength, 0);
+    final int sortLength = chunk.getInt(pos);
+    pos += 4;
+    comp = compare(chunk, pos, sortLength, row.getSortKey());
+    if (comp != 0) {
+      return comp;
+    }
+    pos += Math.max(sortLength, 0);
+    comp =
+        Integer.compare(
+            chunk.getShort(offset + ADAPTER_ID_OFFSET) & 0xFFFF,
+            row.getAdapterId() & 0xFFFF);
+    if (comp != 0) {
+      return comp;
+    }
+    return compare(chunk, pos + 4, chunk.getInt(pos), row.getDataId());
+  }
+
+  private ByteBuffer chunk(final long address) {
+    return chunks[(int) (address >>> 32)];
+  }
+
+  private static int offset(final long address) {
+    return (int) address;
+  }
+
+  private static int lengthOf(final byte[] bytes) {
+    return bytes == null ? 0 : bytes.length;
+  }
+
+  private static void put(final ByteBuffer buf, final byte[] bytes) {
+    if (bytes == null) {
+      buf.putInt(-1);
+    } else {
+      buf.putInt(bytes.length);
+      buf.put(bytes);
+    }
+  }
+
+  private static byte[] get(final ByteBuffer buf) {
+    final int length = buf.getInt();
+    if (length < 0) {
+      return null;
+    }
+    final byte[] bytes = new byte[length];
+    buf.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Compare bytes in a buffer with an array as unsigned bytes, treating {@code null} as empty.
+   */
+  private static int compare(
+      final ByteBuffer buf,
+      final int offset,
+      final int length,
+      final byte[] other) {
+    final int thisLength = Math.max(length, 0);
+    final int otherLength = other == null ? 0 : other.length;
+    final int minLength = Math.min(thisLength, otherLength);
+    for (int i = 0; i < minLength; i++) {
+      final int comp = Integer.compare(buf.get(offset + i) & 0xFF, other[i] & 0xFF);
+      if (comp != 0) {
+        return comp;
+      }
+    }
+    return Integer.compare(thisLength, otherLength);
+  }
+}
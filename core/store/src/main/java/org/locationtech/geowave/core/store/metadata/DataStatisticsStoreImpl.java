@@ -582,7 +582,14 @@ public class DataStatisticsStoreImpl extends
         }
       }
     }
-    return new StatisticUpdateCallback<>(statistics, this, index, indexMapping, adapter);
+    return new StatisticUpdateCallback<>(
+        statistics,
+        this,
+        index,
+        indexMapping,
+        adapter,
+        options != null ? options.getStatisticsMemoryBudgetMB()
+            : StatisticUpdateCallback.DEFAULT_MEMORY_BUDGET_MB);
   }
 
   @Override
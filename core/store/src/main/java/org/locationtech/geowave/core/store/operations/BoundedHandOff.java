@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.operations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * A bounded buffer through which tasks running on a shared thread pool hand items over to a single
+ * consumer. A task that finds the buffer full is parked along with the item it couldn't hand over
+ * rather than blocking a pool thread, and every item the consumer takes resumes a parked task. This
+ * keeps a slow consumer from holding threads that other users of the pool need.
+ *
+ * @param <P> the type of the tasks
+ */
+public class BoundedHandOff<P> {
+  private final BlockingQueue<Object> items;
+  private final Queue<ParkedTask<P>> parkedTasks = new ConcurrentLinkedQueue<>();
+  private final BiConsumer<P, Object> resumer;
+  private final AtomicLong parkedNanos = new AtomicLong(0);
+
+  /**
+   * @param capacity the number of items the buffer holds
+   * @param resumer called with a parked task and its item once the item has been handed over, which
+   *        is expected to resubmit the task unless the item was the last one of the task
+   */
+  public BoundedHandOff(final int capacity, final BiConsumer<P, Object> resumer) {
+    items = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    this.resumer = resumer;
+  }
+
+  /**
+   * Hand an item over to the consumer, parking the task along with the item if the buffer is full.
+   * A parked task may be resumed on another thread as soon as it is parked, so the caller must not
+   * touch the task after a failed hand off.
+   *
+   * @param task the task handing the item over
+   * @param item the item
+   * @return {@code true} if the item was handed over, {@code false} if the task was parked
+   */
+  public boolean handOff(final P task, final Object item) {
+    if (items.offer(item)) {
+      return true;
+    }
+    park(new ParkedTask<>(task, item));
+    return false;
+  }
+
+  private void park(final ParkedTask<P> parked) {
+    while (true) {
+      parkedTasks.add(parked);
+      // the consumer may have drained the buffer before the task was parked, in which case nobody
+      // would resume it, so check again and resume it here if it is still parked
+      if ((items.remainingCapacity() == 0) || !parkedTasks.remove(parked)) {
+        return;
+      }
+      if (items.offer(parked.item)) {
+        resume(parked);
+        return;
+      }
+    }
+  }
+
+  private void resume(final ParkedTask<P> parked) {
+    parkedNanos.addAndGet(System.nanoTime() - parked.parkedTime);
+    resumer.accept(parked.task, parked.item);
+  }
+
+  /**
+   * Hand an item over to the consumer only if there is room for it, without parking the task. This
+   * is meant for waking the consumer up, for example to see an exception, in which case a full
+   * buffer means the consumer is awake anyway.
+   *
+   * @param item the item
+   */
+  public void offer(final Object item) {
+    items.offer(item);
+  }
+
+  /**
+   * Take the next item, waiting for one if necessary.
+   *
+   * @return the item
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public Object take() throws InterruptedException {
+    return taken(items.take());
+  }
+
+  /**
+   * Take the next item, waiting up to the given time for one.
+   *
+   * @param timeout the time to wait
+   * @param unit the unit of the time to wait
+   * @return the item, or {@code null} if there was none in time
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public Object poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+    return taken(items.poll(timeout, unit));
+  }
+
+  private Object taken(final Object item) {
+    if (item != null) {
+      // there is room in the buffer now, so resume a parked task if there is one
+      final ParkedTask<P> parked = parkedTasks.poll();
+      if (parked != null) {
+        if (items.offer(parked.item)) {
+          resume(parked);
+        } else {
+          park(parked);
+        }
+      }
+    }
+    return item;
+  }
+
+  /**
+   * Discard every item and parked task, for when the consumer is done.
+   *
+   * @return the tasks that were parked, which are never resumed
+   */
+  public List<P> clear() {
+    final List<P> tasks = new ArrayList<>();
+    ParkedTask<P> parked;
+    while ((parked = parkedTasks.poll()) != null) {
+      tasks.add(parked.task);
+    }
+    items.clear();
+    return tasks;
+  }
+
+  /** @return the total time tasks spent parked before they were resumed */
+  public long getParkedTime(final TimeUnit unit) {
+    return unit.convert(parkedNanos.get(), TimeUnit.NANOSECONDS);
+  }
+
+  private static class ParkedTask<P> {
+    private final P task;
+    private final Object item;
+    private final long parkedTime = System.nanoTime();
+
+    private ParkedTask(final P task, final Object item) {
+      this.task = task;
+      this.item = item;
+    }
+  }
+}
@@ -10,46 +10,70 @@ package org.locationtech.geowave.core.store.operations;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowIteratorTransformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * An abstract class that offers data stores a way to scan and decode rows in parallel. It is up to
  * the data store implementation to provide implementations of {@link ParallelDecoder.RowProvider}
  * to be used for providing rows from the underlying database.
  *
+ * <p> Decoding happens on a thread pool that is shared by every decoder with the same number of
+ * threads. Each row provider is decoded in batches, and a decode task hands each batch over to the
+ * consumer through a {@link BoundedHandOff}, which parks the task while the consumer catches up
+ * rather than blocking a pool thread.
+ *
  * <p> Note: The row transformer passed in MUST be thread-safe, as decoding happens in parallel.
  *
  * @param <T> the type of the decoded rows
  */
 public abstract class ParallelDecoder<T> implements CloseableIterator<T> {
-  private BlockingQueue<Object> results;
-  private ExecutorService threadPool;
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParallelDecoder.class);
+  public static final int DEFAULT_NUM_THREADS = 8;
+  private static final int RESULT_BUFFER_SIZE = 10000;
+  private static final int DEFAULT_BATCH_SIZE = 500;
+  private static final Object TASK_END_MARKER = new Object();
+  private static final Map<Integer, ExecutorService> SHARED_THREAD_POOLS =
+      new ConcurrentHashMap<>();
+
+  private final BoundedHandOff<DecodeTask<T>> results;
+  private final ExecutorService threadPool;
   private final GeoWaveRowIteratorTransformer<T> rowTransformer;
-  private static int RESULT_BUFFER_SIZE = 10000;
-  private int remainingTasks = 0;
   private final int numThreads;
-  private static Object TASK_END_MARKER = new Object();
+  private final int batchSize;
+  private int remainingTasks = 0;
+  private volatile boolean closed = false;
 
   private Exception exception = null;
 
+  private Iterator<T> currentBatch = Collections.emptyIterator();
+  private final DecodeStatistics statistics;
+
   /**
    * Create a parallel decoder with the given row transformer.
    *
    * @param rowTransformer the thread-safe row transformer to use for decoding rows
    */
   public ParallelDecoder(final GeoWaveRowIteratorTransformer<T> rowTransformer) {
-    this(rowTransformer, 8);
+    this(rowTransformer, DEFAULT_NUM_THREADS);
   }
 
   /**
@@ -61,18 +85,49 @@ public abstract class ParallelDecoder<T> implements CloseableIterator<T> {
   public ParallelDecoder(
       final GeoWaveRowIteratorTransformer<T> rowTransformer,
       final int numThreads) {
-    this.numThreads = numThreads;
+    this(rowTransformer, numThreads, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Create a parallel decoder with the given row transformer, number of threads, and batch size.
+   *
+   * @param rowTransformer the thread-safe row transformer to use for decoding rows
+   * @param numThreads the number of threads to allow in the thread pool
+   * @param batchSize the number of decoded rows to hand over to the consumer at a time
+   */
+  public ParallelDecoder(
+      final GeoWaveRowIteratorTransformer<T> rowTransformer,
+      final int numThreads,
+      final int batchSize) {
+    this.numThreads = Math.max(1, numThreads);
+    this.batchSize = Math.max(1, batchSize);
     this.rowTransformer = rowTransformer;
-    this.threadPool =
-        new ThreadPoolExecutor(
-            numThreads,
-            numThreads,
-            60,
-            TimeUnit.SECONDS,
-            new LinkedBlockingQueue<Runnable>(),
-            Executors.defaultThreadFactory());
-    ((ThreadPoolExecutor) this.threadPool).allowCoreThreadTimeOut(true);
-    results = new ArrayBlockingQueue<>(RESULT_BUFFER_SIZE);
+    threadPool = getSharedThreadPool(this.numThreads);
+    results =
+        new BoundedHandOff<>(Math.max(2, RESULT_BUFFER_SIZE / this.batchSize), (task, item) -> {
+          if (item == TASK_END_MARKER) {
+            task.finish();
+          } else {
+            submit(task);
+          }
+        });
+    statistics = new DecodeStatistics(results);
+  }
+
+  private static ExecutorService getSharedThreadPool(final int numThreads) {
+    return SHARED_THREAD_POOLS.computeIfAbsent(numThreads, n -> {
+      final ThreadPoolExecutor pool =
+          new ThreadPoolExecutor(
+              n,
+              n,
+              60,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<Runnable>(),
+              new ThreadFactoryBuilder().setDaemon(true).setNameFormat(
+                  "geowave-decode-" + n + "-%d").build());
+      pool.allowCoreThreadTimeOut(true);
+      return pool;
+    });
   }
 
   /** @return the number of threads allowed in the thread pool */
@@ -80,6 +135,11 @@ public abstract class ParallelDecoder<T> implements CloseableIterator<T> {
     return numThreads;
   }
 
+  /** @return the decode statistics of this decoder */
+  public DecodeStatistics getStatistics() {
+    return statistics;
+  }
+
   /**
    * @return a list of {@link RowProvider}s that provide {@link GeoWaveRow}s to the decoder
    * @throws Exception
@@ -88,17 +148,17 @@ public abstract class ParallelDecoder<T> implements CloseableIterator<T> {
 
   protected synchronized void setDecodeException(final Exception e) {
     if (exception == null) {
-      this.exception = e;
-      this.threadPool.shutdownNow();
+      exception = e;
+      closed = true;
     }
   }
 
   private synchronized boolean hasException() {
-    return this.exception != null;
+    return exception != null;
   }
 
   private synchronized Exception getException() {
-    return this.exception;
+    return exception;
   }
 
   /**
@@ -109,13 +169,44 @@ public abstract class ParallelDecoder<T> implements CloseableIterator<T> {
   public void startDecode() throws Exception {
     final List<RowProvider> rowProviders = getRowProviders();
     remainingTasks = rowProviders.size();
+    statistics.start();
     for (final RowProvider rowProvider : rowProviders) {
-      threadPool.submit(new DecodeTask<>(rowProvider, this));
+      submit(new DecodeTask<>(rowProvider, this));
+    }
+  }
+
+  private void submit(final DecodeTask<T> task) {
+    try {
+      threadPool.execute(task);
+    } catch (final RejectedExecutionException e) {
+      setDecodeException(e);
+      task.finish();
+    }
+  }
+
+  /**
+   * Hand an item over to the consumer, or park the task until the consumer has room for it.
+   *
+   * @return {@code true} if the item was handed over
+   */
+  private boolean handOff(final DecodeTask<T> task, final Object item) {
+    if (results.handOff(task, item)) {
+      return true;
+    }
+    if (closed) {
+      // the task may have been parked after the decoder was closed, when nothing resumes it
+      finishParkedTasks();
     }
+    return false;
+  }
+
+  private void finishParkedTasks() {
+    results.clear().forEach(DecodeTask::finish);
   }
 
   /**
-   * Task to decode the rows from a single row provider.
+   * Task to decode the rows from a single row provider. Each execution of the task decodes a single
+   * batch and then either resubmits itself or parks until the consumer catches up.
    *
    * @param <T> the type of the decoded rows
    */
@@ -123,39 +214,59 @@ public abstract class ParallelDecoder<T> implements CloseableIterator<T> {
 
     private final RowProvider rowProvider;
     private final ParallelDecoder<T> parent;
+    private final AtomicBoolean finished = new AtomicBoolean(false);
+    private Iterator<T> transformed = null;
 
     public DecodeTask(final RowProvider rowProvider, final ParallelDecoder<T> parent) {
       this.rowProvider = rowProvider;
       this.parent = parent;
     }
 
-    private boolean shouldTerminate() {
-      return Thread.currentThread().isInterrupted();
-    }
-
-    private void offerResult(final Object result) throws InterruptedException {
-      while (!shouldTerminate() && !parent.results.offer(result)) {
-        // Results buffer is full, wait until there is some space
-        Thread.sleep(1);
-      }
-    }
-
     @Override
     public void run() {
+      if (parent.closed) {
+        finish();
+        return;
+      }
       try {
-        rowProvider.init();
-        final Iterator<T> transformed = parent.rowTransformer.apply(rowProvider);
-        while (transformed.hasNext() && !shouldTerminate()) {
-          offerResult(transformed.next());
+        if (transformed == null) {
+          rowProvider.init();
+          transformed = parent.rowTransformer.apply(rowProvider);
+        }
+        final long startTime = System.nanoTime();
+        final List<T> batch = new ArrayList<>(parent.batchSize);
+        while ((batch.size() < parent.batchSize) && transformed.hasNext()) {
+          batch.add(transformed.next());
+        }
+        final boolean exhausted = !transformed.hasNext();
+        parent.statistics.decodeNanos.addAndGet(System.nanoTime() - startTime);
+        parent.statistics.decodedRows.addAndGet(batch.size());
+        if (exhausted) {
+          // if the batch is parked, the end marker will be handed off once it has been resumed
+          transformed = Collections.emptyIterator();
+        }
+        if (!batch.isEmpty() && !parent.handOff(this, batch)) {
+          return;
+        }
+        if (exhausted) {
+          // No more rows, signal the end of this task.
+          if (parent.handOff(this, TASK_END_MARKER)) {
+            finish();
+          }
+        } else {
+          parent.submit(this);
         }
-        // No more rows, signal the end of this task.
-        offerResult(TASK_END_MARKER);
       } catch (final Exception e) {
         // Don't overwrite the original exception if there is one
-        if (!parent.hasException()) {
-          parent.setDecodeException(e);
-        }
-      } finally {
+        parent.setDecodeException(e);
+        // make sure the consumer wakes up to see the exception
+        parent.results.offer(TASK_END_MARKER);
+        finish();
+      }
+    }
+
+    private void finish() {
+      if (finished.compareAndSet(false, true)) {
         try {
           rowProvider.close();
         } catch (final IOException e) {
@@ -167,29 +278,30 @@ public abstract class ParallelDecoder<T> implements CloseableIterator<T> {
 
   @Override
   public void close() {
-    threadPool.shutdownNow();
+    closed = true;
+    finishParkedTasks();
+    statistics.stop();
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Parallel decode complete: " + statistics);
+    }
   }
 
-  Object nextResult = null;
-
+  @SuppressWarnings("unchecked")
   private void computeNext() {
     try {
-      nextResult = null;
-      while (remainingTasks > 0) {
-        while (!hasException() && ((nextResult = results.poll()) == null)) {
-          // No results available, but there are still tasks running,
-          // wait for more results.
-          Thread.sleep(1);
-        }
-        // task end was signaled, reduce remaining task count.
-        if (nextResult == TASK_END_MARKER) {
+      while (!currentBatch.hasNext() && (remainingTasks > 0) && !hasException()) {
+        final long startTime = System.nanoTime();
+        final Object next = results.take();
+        statistics.waitNanos.addAndGet(System.nanoTime() - startTime);
+        if (next == TASK_END_MARKER) {
+          // task end was signaled, reduce remaining task count.
           remainingTasks--;
-          nextResult = null;
-          continue;
+        } else {
+          currentBatch = ((List<T>) next).iterator();
         }
-        break;
       }
     } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
       setDecodeException(e);
     }
     if (hasException()) {
@@ -199,21 +311,97 @@ public abstract class ParallelDecoder<T> implements CloseableIterator<T> {
 
   @Override
   public boolean hasNext() {
-    if (nextResult == null) {
+    if (!currentBatch.hasNext()) {
       computeNext();
     }
-    return nextResult != null;
+    return currentBatch.hasNext();
   }
 
-  @SuppressWarnings("unchecked")
   @Override
   public T next() {
-    if (nextResult == null) {
-      computeNext();
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return currentBatch.next();
+  }
+
+  /**
+   * Counters that describe where the time of a parallel decode was spent.
+   */
+  public static class DecodeStatistics {
+    private final AtomicLong decodedRows = new AtomicLong(0);
+    private final AtomicLong decodeNanos = new AtomicLong(0);
+    private final AtomicLong waitNanos = new AtomicLong(0);
+    private final BoundedHandOff<?> results;
+    private volatile long startTime = -1;
+    private volatile long endTime = -1;
+
+    private DecodeStatistics(final BoundedHandOff<?> results) {
+      this.results = results;
+    }
+
+    private void start() {
+      startTime = System.nanoTime();
+    }
+
+    private void stop() {
+      if ((startTime >= 0) && (endTime < 0)) {
+        endTime = System.nanoTime();
+      }
+    }
+
+    /** @return the number of rows that have been decoded */
+    public long getDecodedRows() {
+      return decodedRows.get();
+    }
+
+    /** @return the total time decode threads spent reading and decoding rows */
+    public long getDecodeTime(final TimeUnit unit) {
+      return unit.convert(decodeNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /** @return the total time the consumer spent waiting for decoded rows */
+    public long getWaitTime(final TimeUnit unit) {
+      return unit.convert(waitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /** @return the total time decode tasks spent waiting for the consumer to catch up */
+    public long getParkedTime(final TimeUnit unit) {
+      return results.getParkedTime(unit);
+    }
+
+    /** @return the time elapsed since the decode started */
+    public long getElapsedTime(final TimeUnit unit) {
+      if (startTime < 0) {
+        return 0;
+      }
+      return unit.convert(
+          (endTime < 0 ? System.nanoTime() : endTime) - startTime,
+          TimeUnit.NANOSECONDS);
+    }
+
+    /** @return the number of rows decoded per second */
+    public double getRowsPerSecond() {
+      final long elapsedMillis = getElapsedTime(TimeUnit.MILLISECONDS);
+      return elapsedMillis == 0 ? 0 : (getDecodedRows() * 1000.0) / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+      return "DecodeStatistics [rows="
+          + getDecodedRows()
+          + ", rowsPerSecond="
+          + getRowsPerSecond()
+          + ", elapsedMs="
+          + getElapsedTime(TimeUnit.MILLISECONDS)
+          + ", decodeMs="
+          + getDecodeTime(TimeUnit.MILLISECONDS)
+          + ", consumerWaitMs="
+          + getWaitTime(TimeUnit.MILLISECONDS)
+          + ", producerWaitMs="
+          + getParkedTime(TimeUnit.MILLISECONDS)
+          + "]";
     }
-    final Object next = nextResult;
-    nextResult = null;
-    return (T) next;
   }
 
   /**
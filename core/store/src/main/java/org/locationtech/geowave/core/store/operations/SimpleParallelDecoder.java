@@ -12,64 +12,33 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.NoSuchElementException;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowIteratorTransformer;
 
 /**
  * An implementation of {@link ParallelDecoder} that consumes a single {@link GeoWaveRow} iterator
- * and decodes it in parallel.
+ * and decodes it in parallel. Each decode thread pulls rows from the shared source iterator in
+ * small batches, so no intermediate consumer thread or row queue is necessary.
  *
  * @param <T> the type of the decoded rows
  */
 public class SimpleParallelDecoder<T> extends ParallelDecoder<T> {
-  private ArrayBlockingQueue<GeoWaveRow> consumedRows;
-  private Thread consumerThread;
-  private volatile boolean isTerminating = false;
-  private static final int CONSUMED_ROW_BUFFER_SIZE = 10000;
+  private static final int SOURCE_BATCH_SIZE = 100;
+  private final Iterator<GeoWaveRow> sourceIterator;
 
   public SimpleParallelDecoder(
       final GeoWaveRowIteratorTransformer<T> rowTransformer,
       final Iterator<GeoWaveRow> sourceIterator) {
-    super(rowTransformer);
-    consumedRows = new ArrayBlockingQueue<>(CONSUMED_ROW_BUFFER_SIZE);
-    consumerThread = new Thread(new Runnable() {
-      @Override
-      public void run() {
-        try {
-          while (sourceIterator.hasNext() && !Thread.interrupted()) {
-            final GeoWaveRow next = sourceIterator.next();
-            while (!consumedRows.offer(next)) {
-              // queue is full, wait for space
-              try {
-                Thread.sleep(1);
-              } catch (final InterruptedException e) {
-                isTerminating = true;
-                return;
-              }
-            }
-          }
-        } catch (final Exception e) {
-          setDecodeException(e);
-        }
-        isTerminating = true;
-      }
-    });
-    consumerThread.setDaemon(true);
-  }
-
-  @Override
-  public void startDecode() throws Exception {
-    consumerThread.start();
-    super.startDecode();
+    this(rowTransformer, sourceIterator, DEFAULT_NUM_THREADS);
   }
 
-  @Override
-  public void close() {
-    if (consumerThread.isAlive()) {
-      consumerThread.interrupt();
-    }
-    super.close();
+  public SimpleParallelDecoder(
+      final GeoWaveRowIteratorTransformer<T> rowTransformer,
+      final Iterator<GeoWaveRow> sourceIterator,
+      final int numThreads) {
+    super(rowTransformer, numThreads);
+    this.sourceIterator = sourceIterator;
   }
 
   @Override
@@ -77,19 +46,21 @@ public class SimpleParallelDecoder<T> extends ParallelDecoder<T> {
     final int numThreads = getNumThreads();
     final List<RowProvider> rowProviders = new ArrayList<>(numThreads);
     for (int i = 0; i < numThreads; i++) {
-      rowProviders.add(new BlockingQueueRowProvider<>(this));
+      rowProviders.add(new SharedIteratorRowProvider(sourceIterator));
     }
     return rowProviders;
   }
 
   /*
-   * Simple row provider that provides the next result from the blocking queue.
+   * Row provider that takes batches of rows from the shared source iterator.
    */
-  private static class BlockingQueueRowProvider<T> extends ParallelDecoder.RowProvider {
+  private static class SharedIteratorRowProvider extends ParallelDecoder.RowProvider {
 
-    private final SimpleParallelDecoder<T> source;
+    private final Iterator<GeoWaveRow> source;
+    private final List<GeoWaveRow> buffer = new ArrayList<>(SOURCE_BATCH_SIZE);
+    private int position = 0;
 
-    public BlockingQueueRowProvider(final SimpleParallelDecoder<T> source) {
+    public SharedIteratorRowProvider(final Iterator<GeoWaveRow> source) {
       this.source = source;
     }
 
@@ -98,38 +69,27 @@ public class SimpleParallelDecoder<T> extends ParallelDecoder<T> {
       // Do nothing
     }
 
-    private GeoWaveRow next = null;
-
-    private void computeNext() {
-      while ((next = source.consumedRows.poll()) == null) {
-        if (source.isTerminating) {
-          next = source.consumedRows.poll();
-          break;
-        }
-        try {
-          Thread.sleep(1);
-        } catch (final InterruptedException e) {
-          return;
-        }
-      }
-    }
-
     @Override
     public boolean hasNext() {
-      if (next == null) {
-        computeNext();
+      if (position < buffer.size()) {
+        return true;
+      }
+      buffer.clear();
+      position = 0;
+      synchronized (source) {
+        while ((buffer.size() < SOURCE_BATCH_SIZE) && source.hasNext()) {
+          buffer.add(source.next());
+        }
       }
-      return next != null;
+      return !buffer.isEmpty();
     }
 
     @Override
     public GeoWaveRow next() {
-      if (next == null) {
-        computeNext();
+      if (!hasNext()) {
+        throw new NoSuchElementException();
       }
-      final GeoWaveRow retVal = next;
-      next = null;
-      return retVal;
+      return buffer.get(position++);
     }
 
     @Override
@@ -92,9 +92,20 @@ public class BinningAggregation<P extends Persistable, R, T> implements
   @Override
   public Map<ByteArray, R> merge(final Map<ByteArray, R> result1, final Map<ByteArray, R> result2) {
     final Aggregation<P, R, T> agg = this.getHelperAggregation();
-
-    return Stream.of(result1, result2).flatMap(m -> m.entrySet().stream()).collect(
-        Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, agg::merge));
+    final int maxBins = this.options.maxBins;
+    final Map<ByteArray, R> merged =
+        Maps.newHashMapWithExpectedSize(result1.size() + result2.size());
+    // partial results are each within the limit, but together they may not be, so bins that are
+    // new to the merged result are dropped once the limit is reached, as they are in aggregate
+    Stream.of(result1, result2).flatMap(m -> m.entrySet().stream()).forEach(e -> {
+      final R existing = merged.get(e.getKey());
+      if (existing != null) {
+        merged.put(e.getKey(), agg.merge(existing, e.getValue()));
+      } else if ((maxBins == -1) || (merged.size() < maxBins)) {
+        merged.put(e.getKey(), e.getValue());
+      }
+    });
+    return merged;
   }
 
   @Override
@@ -0,0 +1,222 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.aggregate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import org.locationtech.geowave.core.index.persist.Persistable;
+import org.locationtech.geowave.core.index.persist.PersistenceUtils;
+import org.locationtech.geowave.core.store.api.Aggregation;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Computes an aggregation client-side using multiple threads. Entries are read from the source
+ * iterator on the calling thread and handed off in batches to a set of workers. Each worker feeds
+ * its own copy of the aggregation and the partial results are combined using
+ * {@link Aggregation#merge(Object, Object)}, which is valid because aggregations are commutative
+ * and associative.
+ *
+ * @param <R> the result type of the aggregation
+ * @param <T> the data type of the entries being aggregated
+ */
+public class ParallelAggregator<R, T> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParallelAggregator.class);
+  private static final int DEFAULT_BATCH_SIZE = 1000;
+  private static final List<Object> END_OF_INPUT = new ArrayList<>(0);
+
+  // workers are shared across queries, the number of workers used by a single aggregation is
+  // bounded by the number of tasks submitted for it
+  private static final ExecutorService WORKER_POOL =
+      Executors.newCachedThreadPool(
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat(
+              "geowave-aggregation-%d").build());
+
+  private final Aggregation<?, R, T> aggregation;
+  private final int numThreads;
+  private final int batchSize;
+
+  /**
+   * @param aggregation the aggregation to compute, it is used as a template for the per-thread
+   *        aggregations and to merge their results
+   * @param numThreads the number of threads to aggregate with
+   */
+  public ParallelAggregator(final Aggregation<?, R, T> aggregation, final int numThreads) {
+    this(aggregation, numThreads, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * @param aggregation the aggregation to compute, it is used as a template for the per-thread
+   *        aggregations and to merge their results
+   * @param numThreads the number of threads to aggregate with
+   * @param batchSize the number of entries to hand to a worker at a time
+   */
+  public ParallelAggregator(
+      final Aggregation<?, R, T> aggregation,
+      final int numThreads,
+      final int batchSize) {
+    this.aggregation = aggregation;
+    this.numThreads = Math.max(1, numThreads);
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  /**
+   * Aggregate all of the entries of the given iterator. The iterator is fully consumed, but it is
+   * the responsibility of the caller to close it.
+   *
+   * @param adapter the adapter of the entries
+   * @param entries the entries to aggregate
+   * @return the merged result of the aggregation
+   */
+  @SuppressWarnings("unchecked")
+  public R aggregate(final DataTypeAdapter<T> adapter, final Iterator<T> entries) {
+    final List<Aggregation<?, R, T>> partialAggregations;
+    try {
+      partialAggregations = createPartialAggregations();
+    } catch (final Exception e) {
+      LOGGER.info(
+          "Unable to copy aggregation '"
+              + aggregation.getClass().getName()
+              + "', aggregating on a single thread",
+          e);
+      return aggregateSequentially(adapter, entries);
+    }
+    final BlockingQueue<List<T>> batches = new ArrayBlockingQueue<>(numThreads * 2);
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    final List<Future<R>> partialResults = new ArrayList<>(numThreads);
+    for (final Aggregation<?, R, T> partialAggregation : partialAggregations) {
+      partialResults.add(
+          WORKER_POOL.submit(
+              new PartialAggregationTask<>(partialAggregation, adapter, batches, failure)));
+    }
+    try {
+      try {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (entries.hasNext() && (failure.get() == null)) {
+          final T entry = entries.next();
+          if (entry != null) {
+            batch.add(entry);
+            if (batch.size() >= batchSize) {
+              batches.put(batch);
+              batch = new ArrayList<>(batchSize);
+            }
+          }
+        }
+        if (!batch.isEmpty() && (failure.get() == null)) {
+          batches.put(batch);
+        }
+      } finally {
+        // workers keep draining the queue even after a failure so this will never block forever
+        for (int i = 0; i < numThreads; i++) {
+          batches.put((List<T>) END_OF_INPUT);
+        }
+      }
+      R result = null;
+      for (final Future<R> partialResult : partialResults) {
+        final R partial = partialResult.get();
+        if (partial != null) {
+          result = result == null ? partial : aggregation.merge(result, partial);
+        }
+      }
+      return result;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      partialResults.forEach(f -> f.cancel(true));
+      throw new RuntimeException("Interrupted while aggregating", e);
+    } catch (final ExecutionException e) {
+      throw new RuntimeException("Unable to compute aggregation", e.getCause());
+    }
+  }
+
+  private R aggregateSequentially(final DataTypeAdapter<T> adapter, final Iterator<T> entries) {
+    synchronized (aggregation) {
+      aggregation.clearResult();
+      while (entries.hasNext()) {
+        final T entry = entries.next();
+        if (entry != null) {
+          aggregation.aggregate(adapter, entry);
+        }
+      }
+      return aggregation.getResult();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Aggregation<?, R, T>> createPartialAggregations() {
+    final byte[] aggregationBinary = PersistenceUtils.toBinary(aggregation);
+    if (aggregationBinary.length == 0) {
+      throw new IllegalArgumentException("Aggregation is not a registered persistable");
+    }
+    // parameters are treated as read-only configuration and are shared by each copy, the same way
+    // BinningAggregation shares them across the aggregations of each bin
+    final Persistable parameters = aggregation.getParameters();
+    final List<Aggregation<?, R, T>> partialAggregations = new ArrayList<>(numThreads);
+    for (int i = 0; i < numThreads; i++) {
+      final Aggregation<Persistable, R, T> partialAggregation =
+          (Aggregation<Persistable, R, T>) PersistenceUtils.fromBinary(aggregationBinary);
+      partialAggregation.setParameters(parameters);
+      partialAggregation.clearResult();
+      partialAggregations.add(partialAggregation);
+    }
+    return partialAggregations;
+  }
+
+  private static class PartialAggregationTask<R, T> implements Callable<R> {
+    private final Aggregation<?, R, T> aggregation;
+    private final DataTypeAdapter<T> adapter;
+    private final BlockingQueue<List<T>> batches;
+    private final AtomicReference<Throwable> failure;
+
+    public PartialAggregationTask(
+        final Aggregation<?, R, T> aggregation,
+        final DataTypeAdapter<T> adapter,
+        final BlockingQueue<List<T>> batches,
+        final AtomicReference<Throwable> failure) {
+      this.aggregation = aggregation;
+      this.adapter = adapter;
+      this.batches = batches;
+      this.failure = failure;
+    }
+
+    @Override
+    public R call() throws Exception {
+      Throwable taskFailure = null;
+      List<T> batch;
+      while ((batch = batches.take()) != END_OF_INPUT) {
+        if (taskFailure != null) {
+          // keep draining so that the producer is never blocked
+          continue;
+        }
+        try {
+          for (final T entry : batch) {
+            aggregation.aggregate(adapter, entry);
+          }
+        } catch (final Throwable t) {
+          taskFailure = t;
+          failure.compareAndSet(null, t);
+        }
+      }
+      if (taskFailure != null) {
+        throw new Exception(taskFailure);
+      }
+      return aggregation.getResult();
+    }
+  }
+}
@@ -0,0 +1,29 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.constraints;
+
+import java.util.Map;
+import java.util.Set;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+
+/**
+ * Query constraints that require fields to be equal to one of a set of values. Field statistics
+ * such as the bloom filter statistic can use these to skip data types that cannot contain a match.
+ */
+public interface FieldEqualityConstraintQuery {
+  /**
+   * Get the values that each constrained field must be equal to one of for an entry of the given
+   * type to match. Values are given in the string form that field statistics are computed on.
+   *
+   * @param adapter the data type being queried
+   * @return the required values keyed by field name, fields without an equality constraint are
+   *         omitted
+   */
+  Map<String, Set<String>> getRequiredFieldValues(DataTypeAdapter<?> adapter);
+}
@@ -0,0 +1,512 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.filter;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.locationtech.geowave.core.store.util.DirectBufferUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * A thread-safe set of visited data IDs that can spill to disk to bound its memory footprint. Each
+ * data ID is stored as a 128-bit hash of the adapter ID and data ID, which makes collisions
+ * negligible even on scans of billions of rows. The set is split into lock stripes so that
+ * concurrent decode threads rarely contend with each other. When a spilling set's stripe reaches its share of the in-memory limit,
+ * its hashes are sorted and spilled to a memory-mapped file on disk, and subsequent lookups check
+ * those sorted runs in addition to the in-memory hashes. Only the fence keys of a run, the first
+ * hash of every block of {@value #FENCE_INTERVAL} hashes, are kept on the heap.
+ *
+ * <p> The spill files are only deleted when the set is closed, so a set that isn't closed by the
+ * scan that owns it must not spill.
+ */
+public class DataIdDedupeSet implements Closeable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DataIdDedupeSet.class);
+  public static final long DEFAULT_MAX_IN_MEMORY_IDS = 4_000_000L;
+
+  private static final int STRIPE_BITS = 6;
+  private static final int NUM_STRIPES = 1 << STRIPE_BITS;
+  private static final int MAX_RUNS_PER_STRIPE = 8;
+  // a run is memory-mapped as a single buffer, so it must fit within the max buffer size
+  private static final int MAX_RUN_SIZE = Integer.MAX_VALUE / 16;
+  private static final int FENCE_INTERVAL = 1024;
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  // stripes are created on first use so that small scans only allocate the stripes they touch
+  private final AtomicReferenceArray<Stripe> stripes = new AtomicReferenceArray<>(NUM_STRIPES);
+  private final boolean spill;
+  private final int maxIdsPerStripe;
+  private final File spillDirectory;
+
+  /**
+   * Create a set that keeps every data ID in memory and never spills to disk.
+   */
+  public DataIdDedupeSet() {
+    spill = false;
+    maxIdsPerStripe = Integer.MAX_VALUE;
+    spillDirectory = null;
+  }
+
+  /**
+   * Create a set that spills to disk, which has to be closed to delete the spilled runs.
+   *
+   * @param maxInMemoryIds the maximum number of data IDs to keep in memory before spilling to disk
+   * @param spillDirectory the directory to spill to, if {@code null} the default temporary-file
+   *        directory is used
+   */
+  public DataIdDedupeSet(final long maxInMemoryIds, final File spillDirectory) {
+    spill = true;
+    maxIdsPerStripe = (int) Math.min(MAX_RUN_SIZE, Math.max(1, maxInMemoryIds / NUM_STRIPES));
+    this.spillDirectory = spillDirectory;
+  }
+
+  /**
+   * Add the data ID to the set.
+   *
+   * @param adapterId the internal adapter ID of the entry
+   * @param dataId the data ID of the entry
+   * @return {@code true} if the data ID had not been visited yet
+   */
+  public boolean add(final short adapterId, final byte[] dataId) {
+    final ByteBuffer hash =
+        ByteBuffer.wrap(
+            HASH_FUNCTION.newHasher().putShort(adapterId).putBytes(dataId).hash().asBytes());
+    final long high = hash.getLong();
+    final long low = hash.getLong();
+    final Stripe stripe = getStripe((int) (high >>> (64 - STRIPE_BITS)));
+    synchronized (stripe) {
+      return stripe.add(high, low);
+    }
+  }
+
+  private Stripe getStripe(final int index) {
+    final Stripe stripe = stripes.get(index);
+    if (stripe != null) {
+      return stripe;
+    }
+    stripes.compareAndSet(index, null, new Stripe());
+    return stripes.get(index);
+  }
+
+  /** @return the number of data IDs currently held in memory */
+  public long getInMemorySize() {
+    long size = 0;
+    for (int i = 0; i < NUM_STRIPES; i++) {
+      final Stripe stripe = stripes.get(i);
+      if (stripe != null) {
+        synchronized (stripe) {
+          size += stripe.memory.size();
+        }
+      }
+    }
+    return size;
+  }
+
+  /** @return the number of data IDs that have been spilled to disk */
+  public long getSpilledSize() {
+    long size = 0;
+    for (int i = 0; i < NUM_STRIPES; i++) {
+      final Stripe stripe = stripes.get(i);
+      if (stripe != null) {
+        synchronized (stripe) {
+          for (final SortedRun run : stripe.runs) {
+            size += run.size;
+          }
+        }
+      }
+    }
+    return size;
+  }
+
+  @Override
+  public void close() {
+    for (int i = 0; i < NUM_STRIPES; i++) {
+      final Stripe stripe = stripes.get(i);
+      if (stripe != null) {
+        synchronized (stripe) {
+          stripe.memory.clear();
+          stripe.runs.forEach(SortedRun::delete);
+          stripe.runs.clear();
+        }
+      }
+    }
+  }
+
+  private class Stripe {
+    private final LongPairHashSet memory = new LongPairHashSet();
+    private final List<SortedRun> runs = new ArrayList<>();
+
+    private boolean add(final long high, final long low) {
+      if (memory.contains(high, low)) {
+        return false;
+      }
+      for (final SortedRun run : runs) {
+        if (run.contains(high, low)) {
+          return false;
+        }
+      }
+      memory.add(high, low);
+      if (spill && (memory.size() >= maxIdsPerStripe)) {
+        spill();
+      }
+      return true;
+    }
+
+    private void spill() {
+      try {
+        runs.add(SortedRun.write(spillDirectory, memory.toSortedArray()));
+        memory.clear();
+        if (runs.size() > MAX_RUNS_PER_STRIPE) {
+          compact();
+        }
+      } catch (final IOException e) {
+        // keeping everything in memory is still correct, it just isn't bounded
+        LOGGER.warn("Unable to spill deduplication data IDs to disk", e);
+      }
+    }
+
+    private void compact() throws IOException {
+      runs.sort(Comparator.comparingInt(r -> r.size));
+      final List<SortedRun> toMerge = new ArrayList<>();
+      long mergedSize = 0;
+      for (final SortedRun run : runs) {
+        if ((mergedSize + run.size) > MAX_RUN_SIZE) {
+          break;
+        }
+        toMerge.add(run);
+        mergedSize += run.size;
+      }
+      if (toMerge.size() > 1) {
+        final SortedRun merged = SortedRun.merge(spillDirectory, toMerge, (int) mergedSize);
+        runs.removeAll(toMerge);
+        toMerge.forEach(SortedRun::delete);
+        runs.add(merged);
+      }
+    }
+  }
+
+  /**
+   * An immutable, sorted file of hashes that is memory-mapped for lookups. The fence keys narrow a
+   * lookup down to a single block of the file.
+   */
+  private static class SortedRun {
+    private final File file;
+    private final MappedByteBuffer buffer;
+    private final LongBuffer hashes;
+    private final int size;
+    private final long[] fences;
+
+    private SortedRun(final File file, final int size, final long[] fences) throws IOException {
+      this.file = file;
+      this.size = size;
+      this.fences = fences;
+      try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+          FileChannel channel = raf.getChannel()) {
+        buffer = channel.map(MapMode.READ_ONLY, 0, size * 16L);
+      }
+      hashes = buffer.asLongBuffer();
+    }
+
+    private static SortedRun write(final File directory, final long[] sortedPairs)
+        throws IOException {
+      final int size = sortedPairs.length / 2;
+      final File file = createRunFile(directory);
+      final long[] fences = new long[getFenceCount(size) * 2];
+      try {
+        try (DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+          for (int i = 0; i < sortedPairs.length; i += 2) {
+            out.writeLong(sortedPairs[i]);
+            out.writeLong(sortedPairs[i + 1]);
+            addFence(fences, i / 2, sortedPairs[i], sortedPairs[i + 1]);
+          }
+        }
+        return new SortedRun(file, size, fences);
+      } catch (final IOException e) {
+        deleteFile(file);
+        throw e;
+      }
+    }
+
+    private static SortedRun merge(
+        final File directory,
+        final List<SortedRun> runs,
+        final int mergedSize) throws IOException {
+      final File file = createRunFile(directory);
+      final long[] fences = new long[getFenceCount(mergedSize) * 2];
+      try {
+        final int[] positions = new int[runs.size()];
+        int position = 0;
+        try (DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+          while (true) {
+            int next = -1;
+            for (int i = 0; i < runs.size(); i++) {
+              if ((positions[i] < runs.get(i).size)
+                  && ((next < 0)
+                      || (compare(runs.get(i), positions[i], runs.get(next), positions[next])
+                          < 0))) {
+                next = i;
+              }
+            }
+            if (next < 0) {
+              break;
+            }
+            final SortedRun run = runs.get(next);
+            final long high = run.hashes.get(positions[next] * 2);
+            final long low = run.hashes.get((positions[next] * 2) + 1);
+            out.writeLong(high);
+            out.writeLong(low);
+            addFence(fences, position++, high, low);
+            positions[next]++;
+          }
+        }
+        return new SortedRun(file, mergedSize, fences);
+      } catch (final IOException e) {
+        deleteFile(file);
+        throw e;
+      }
+    }
+
+    private static int getFenceCount(final int size) {
+      return (size + FENCE_INTERVAL) / FENCE_INTERVAL;
+    }
+
+    private static void addFence(
+        final long[] fences,
+        final int position,
+        final long high,
+        final long low) {
+      if ((position % FENCE_INTERVAL) == 0) {
+        fences[(position / FENCE_INTERVAL) * 2] = high;
+        fences[((position / FENCE_INTERVAL) * 2) + 1] = low;
+      }
+    }
+
+    private static File createRunFile(final File directory) throws IOException {
+      // runs are deleted when the set is closed rather than on exit, which would keep a reference
+      // to every run file for the life of the JVM
+      return File.createTempFile("geowave-dedupe", ".run", directory);
+    }
+
+    private static int compare(
+        final SortedRun run1,
+        final int position1,
+        final SortedRun run2,
+        final int position2) {
+      return LongPairHashSet.compare(
+          run1.hashes.get(position1 * 2),
+          run1.hashes.get((position1 * 2) + 1),
+          run2.hashes.get(position2 * 2),
+          run2.hashes.get((position2 * 2) + 1));
+    }
+
+    private boolean contains(final long high, final long low) {
+      // find the last block that starts at or before the hash
+      int block = -1;
+      int minBlock = 0;
+      int maxBlock = ((size - 1) / FENCE_INTERVAL);
+      while (minBlock <= maxBlock) {
+        final int mid = (minBlock + maxBlock) >>> 1;
+        if (LongPairHashSet.compare(fences[mid * 2], fences[(mid * 2) + 1], high, low) <= 0) {
+          block = mid;
+          minBlock = mid + 1;
+        } else {
+          maxBlock = mid - 1;
+        }
+      }
+      if (block < 0) {
+        return false;
+      }
+      int min = block * FENCE_INTERVAL;
+      int max = Math.min(size, min + FENCE_INTERVAL) - 1;
+      while (min <= max) {
+        final int mid = (min + max) >>> 1;
+        final int cmp =
+            LongPairHashSet.compare(hashes.get(mid * 2), hashes.get((mid * 2) + 1), high, low);
+        if (cmp < 0) {
+          min = mid + 1;
+        } else if (cmp > 0) {
+          max = mid - 1;
+        } else {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void delete() {
+      DirectBufferUtils.free(buffer);
+      deleteFile(file);
+    }
+
+    private static void deleteFile(final File file) {
+      if (!file.delete()) {
+        LOGGER.debug("Unable to delete deduplication run " + file.getAbsolutePath());
+      }
+    }
+  }
+
+  /**
+   * An open-addressing hash set of 128-bit values stored as pairs of primitive longs. The all-zero
+   * pair is used to mark empty slots, so it is tracked separately.
+   */
+  private static class LongPairHashSet {
+    private static final int INITIAL_CAPACITY = 16;
+    private long[] slots = new long[INITIAL_CAPACITY * 2];
+    private int size = 0;
+    private boolean containsZero = false;
+
+    private int size() {
+      return size;
+    }
+
+    private boolean contains(final long high, final long low) {
+      if ((high == 0) && (low == 0)) {
+        return containsZero;
+      }
+      final int mask = (slots.length / 2) - 1;
+      int slot = (int) low & mask;
+      while ((slots[slot * 2] != 0) || (slots[(slot * 2) + 1] != 0)) {
+        if ((slots[slot * 2] == high) && (slots[(slot * 2) + 1] == low)) {
+          return true;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return false;
+    }
+
+    private void add(final long high, final long low) {
+      if ((high == 0) && (low == 0)) {
+        if (!containsZero) {
+          containsZero = true;
+          size++;
+        }
+        return;
+      }
+      if (((size + 1) * 4L) > ((slots.length / 2) * 3L)) {
+        resize(slots.length);
+      }
+      if (insert(slots, high, low)) {
+        size++;
+      }
+    }
+
+    private static boolean insert(final long[] slots, final long high, final long low) {
+      final int mask = (slots.length / 2) - 1;
+      int slot = (int) low & mask;
+      while ((slots[slot * 2] != 0) || (slots[(slot * 2) + 1] != 0)) {
+        if ((slots[slot * 2] == high) && (slots[(slot * 2) + 1] == low)) {
+          return false;
+        }
+        slot = (slot + 1) & mask;
+      }
+      slots[slot * 2] = high;
+      slots[(slot * 2) + 1] = low;
+      return true;
+    }
+
+    private void resize(final int newCapacity) {
+      final long[] newSlots = new long[newCapacity * 2];
+      for (int i = 0; i < slots.length; i += 2) {
+        if ((slots[i] != 0) || (slots[i + 1] != 0)) {
+          insert(newSlots, slots[i], slots[i + 1]);
+        }
+      }
+      slots = newSlots;
+    }
+
+    private void clear() {
+      slots = new long[INITIAL_CAPACITY * 2];
+      size = 0;
+      containsZero = false;
+    }
+
+    private long[] toSortedArray() {
+      final long[] pairs = new long[size * 2];
+      int i = 0;
+      if (containsZero) {
+        i += 2;
+      }
+      for (int s = 0; s < slots.length; s += 2) {
+        if ((slots[s] != 0) || (slots[s + 1] != 0)) {
+          pairs[i++] = slots[s];
+          pairs[i++] = slots[s + 1];
+        }
+      }
+      sort(pairs, 0, size - 1);
+      return pairs;
+    }
+
+    private static int compare(
+        final long high1,
+        final long low1,
+        final long high2,
+        final long low2) {
+      final int cmp = Long.compare(high1, high2);
+      return cmp != 0 ? cmp : Long.compare(low1, low2);
+    }
+
+    private static void sort(final long[] pairs, int lo, int hi) {
+      // quicksort over pair indices, the hashes are uniformly distributed so the middle element is
+      // a reasonable pivot
+      while (lo < hi) {
+        final int mid = (lo + hi) >>> 1;
+        final long pivotHigh = pairs[mid * 2];
+        final long pivotLow = pairs[(mid * 2) + 1];
+        int i = lo;
+        int j = hi;
+        while (i <= j) {
+          while (compare(pairs[i * 2], pairs[(i * 2) + 1], pivotHigh, pivotLow) < 0) {
+            i++;
+          }
+          while (compare(pairs[j * 2], pairs[(j * 2) + 1], pivotHigh, pivotLow) > 0) {
+            j--;
+          }
+          if (i <= j) {
+            swap(pairs, i++, j--);
+          }
+        }
+        // recurse into the smaller partition to bound the stack depth
+        if ((j - lo) < (hi - i)) {
+          sort(pairs, lo, j);
+          lo = i;
+        } else {
+          sort(pairs, i, hi);
+          hi = j;
+        }
+      }
+    }
+
+    private static void swap(final long[] pairs, final int i, final int j) {
+      final long high = pairs[i * 2];
+      final long low = pairs[(i * 2) + 1];
+      pairs[i * 2] = pairs[j * 2];
+      pairs[(i * 2) + 1] = pairs[(j * 2) + 1];
+      pairs[j * 2] = high;
+      pairs[(j * 2) + 1] = low;
+    }
+  }
+}
@@ -8,25 +8,34 @@
  */
 package org.locationtech.geowave.core.store.query.filter;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.io.Closeable;
 import org.locationtech.geowave.core.index.ByteArray;
 import org.locationtech.geowave.core.store.data.IndexedPersistenceEncoding;
 import org.locationtech.geowave.core.store.index.CommonIndexModel;
 
 /**
  * This filter will perform de-duplication using the combination of data adapter ID and data ID to
- * determine uniqueness. It can be performed client-side and/or distributed.
+ * determine uniqueness. It can be performed client-side and/or distributed. Visited data IDs are
+ * kept in a {@link DataIdDedupeSet}. Only filters that are closed by the scan that owns them may
+ * spill the set to disk, distributed copies are created without a limit and keep it in memory.
  */
-public class DedupeFilter implements QueryFilter {
-  private final Map<Short, Set<ByteArray>> adapterIdToVisitedDataIdMap;
+public class DedupeFilter implements QueryFilter, Closeable {
+  private final DataIdDedupeSet visitedDataIds;
 
   private boolean dedupAcrossIndices = false;
 
   public DedupeFilter() {
-    adapterIdToVisitedDataIdMap = new HashMap<>();
+    visitedDataIds = new DataIdDedupeSet();
+  }
+
+  /**
+   * Create a filter that spills the visited data IDs to disk beyond the given limit. The filter
+   * must be closed to delete the spilled data IDs.
+   *
+   * @param maxInMemoryDataIds the maximum number of data IDs to keep in memory
+   */
+  public DedupeFilter(final long maxInMemoryDataIds) {
+    visitedDataIds = new DataIdDedupeSet(maxInMemoryDataIds, null);
   }
 
   @Override
@@ -52,17 +61,7 @@ public class DedupeFilter implements QueryFilter {
   }
 
   public boolean applyDedupeFilter(final short adapterId, final ByteArray dataId) {
-    synchronized (adapterIdToVisitedDataIdMap) {
-      Set<ByteArray> visitedDataIds = adapterIdToVisitedDataIdMap.get(adapterId);
-      if (visitedDataIds == null) {
-        visitedDataIds = new HashSet<>();
-        adapterIdToVisitedDataIdMap.put(adapterId, visitedDataIds);
-      } else if (visitedDataIds.contains(dataId)) {
-        return false;
-      }
-      visitedDataIds.add(dataId);
-      return true;
-    }
+    return visitedDataIds.add(adapterId, dataId.getBytes());
   }
 
   public void setDedupAcrossIndices(final boolean dedupAcrossIndices) {
@@ -80,4 +79,9 @@ public class DedupeFilter implements QueryFilter {
 
   @Override
   public void fromBinary(final byte[] bytes) {}
+
+  @Override
+  public void close() {
+    visitedDataIds.close();
+  }
 }
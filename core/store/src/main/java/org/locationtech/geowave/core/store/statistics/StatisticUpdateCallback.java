@@ -11,6 +11,7 @@ package org.locationtech.geowave.core.store.statistics;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
 import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
 import org.locationtech.geowave.core.store.api.Index;
@@ -20,12 +21,15 @@ import org.locationtech.geowave.core.store.callback.DeleteCallback;
 import org.locationtech.geowave.core.store.callback.IngestCallback;
 import org.locationtech.geowave.core.store.callback.ScanCallback;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import com.google.common.collect.Lists;
 
 /**
  * This class is responsible for managing updates to a set of statistics for a given type and index.
  * It serves as an ingest, scan, and delete callback that will write all statistic updates to the
- * statistics store.
+ * statistics store. Statistic values are buffered in memory up to a budget, after which the
+ * statistics using the most memory are written to the statistics store as partial values.
  */
 public class StatisticUpdateCallback<T> implements
     IngestCallback<T>,
@@ -35,12 +39,16 @@ public class StatisticUpdateCallback<T> implements
     Closeable,
     Flushable {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(StatisticUpdateCallback.class);
   private static final int FLUSH_STATS_THRESHOLD = 1000000;
+  public static final int DEFAULT_MEMORY_BUDGET_MB = 128;
 
   private final List<StatisticUpdateHandler<T, ?, ?>> statisticUpdateHandlers;
   private final Object MUTEX = new Object();
   private final DataStatisticsStore statisticsStore;
   private final boolean skipFlush;
+  private final long memoryBudget;
+  private final BufferStatistics bufferStatistics = new BufferStatistics();
   private boolean overwrite;
 
   private int updateCount = 0;
@@ -53,14 +61,35 @@ public class StatisticUpdateCallback<T> implements
    * @param index the index used in the operation
    * @param type the type used in the operation
    */
-  @SuppressWarnings({"rawtypes", "unchecked"})
   public StatisticUpdateCallback(
       final List<Statistic<? extends StatisticValue<?>>> statistics,
       final DataStatisticsStore statisticsStore,
       final Index index,
       final AdapterToIndexMapping indexMapping,
       final InternalDataAdapter<T> type) {
+    this(statistics, statisticsStore, index, indexMapping, type, DEFAULT_MEMORY_BUDGET_MB);
+  }
+
+  /**
+   * Create an update callback for the given set of statistics.
+   * 
+   * @param statistics the statistics to update
+   * @param statisticsStore the statistics store
+   * @param index the index used in the operation
+   * @param type the type used in the operation
+   * @param memoryBudgetMB the approximate memory in MB that statistic values may use before they
+   *        are flushed
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public StatisticUpdateCallback(
+      final List<Statistic<? extends StatisticValue<?>>> statistics,
+      final DataStatisticsStore statisticsStore,
+      final Index index,
+      final AdapterToIndexMapping indexMapping,
+      final InternalDataAdapter<T> type,
+      final int memoryBudgetMB) {
     this.statisticsStore = statisticsStore;
+    memoryBudget = memoryBudgetMB * 1024L * 1024L;
     statisticUpdateHandlers = Lists.newArrayListWithCapacity(statistics.size());
     for (Statistic<?> statistic : statistics) {
       StatisticUpdateHandler handler =
@@ -86,11 +115,59 @@ public class StatisticUpdateCallback<T> implements
   @Override
   public void entryIngested(T entry, GeoWaveRow... rows) {
     statisticUpdateHandlers.forEach(v -> v.entryIngested(entry, rows));
+    checkMemory();
   }
 
   @Override
   public void entryScanned(T entry, GeoWaveRow row) {
     statisticUpdateHandlers.forEach(v -> v.entryScanned(entry, row));
+    checkMemory();
+  }
+
+  /**
+   * @return an estimate of the memory in bytes used by buffered statistic values
+   */
+  public long getEstimatedMemory() {
+    long estimatedMemory = 0;
+    for (final StatisticUpdateHandler<T, ?, ?> handler : statisticUpdateHandlers) {
+      estimatedMemory += handler.getEstimatedMemory();
+    }
+    return estimatedMemory;
+  }
+
+  /**
+   * @return counters that describe the statistic values buffered by this callback
+   */
+  public BufferStatistics getBufferStatistics() {
+    return bufferStatistics;
+  }
+
+  private void checkMemory() {
+    if (skipFlush || (getEstimatedMemory() <= memoryBudget)) {
+      return;
+    }
+    synchronized (MUTEX) {
+      long estimatedMemory = getEstimatedMemory();
+      if (estimatedMemory <= memoryBudget) {
+        // another thread already flushed
+        return;
+      }
+      bufferStatistics.peakMemory.accumulateAndGet(estimatedMemory, Math::max);
+      // flush the statistics using the most memory until half of the budget is free so that
+      // high-cardinality statistics don't trigger a flush for every new bin
+      final List<StatisticUpdateHandler<T, ?, ?>> handlers =
+          Lists.newArrayList(statisticUpdateHandlers);
+      handlers.sort((h1, h2) -> Long.compare(h2.getEstimatedMemory(), h1.getEstimatedMemory()));
+      for (final StatisticUpdateHandler<T, ?, ?> handler : handlers) {
+        if (estimatedMemory <= (memoryBudget / 2)) {
+          break;
+        }
+        estimatedMemory -= handler.getEstimatedMemory();
+        bufferStatistics.flushedValues.addAndGet(
+            handler.writeStatistics(statisticsStore, overwrite));
+      }
+      bufferStatistics.budgetFlushes.incrementAndGet();
+    }
   }
 
   private void checkStats() {
@@ -114,6 +191,62 @@ public class StatisticUpdateCallback<T> implements
   @Override
   public void close() {
     flush();
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Statistics updates complete: " + bufferStatistics);
+    }
+  }
+
+  /**
+   * Counters that describe how statistic values were buffered in memory.
+   */
+  public class BufferStatistics {
+    private final AtomicLong flushedValues = new AtomicLong(0);
+    private final AtomicLong budgetFlushes = new AtomicLong(0);
+    private final AtomicLong peakMemory = new AtomicLong(0);
+
+    /** @return the number of statistic values currently buffered */
+    public long getBufferedValues() {
+      long bufferedValues = 0;
+      for (final StatisticUpdateHandler<T, ?, ?> handler : statisticUpdateHandlers) {
+        bufferedValues += handler.getBufferedValues();
+      }
+      return bufferedValues;
+    }
+
+    /** @return an estimate of the memory in bytes used by buffered statistic values */
+    public long getEstimatedMemory() {
+      return StatisticUpdateCallback.this.getEstimatedMemory();
+    }
+
+    /** @return the highest estimated memory in bytes that triggered a flush */
+    public long getPeakMemory() {
+      return peakMemory.get();
+    }
+
+    /** @return the number of partial values written because the memory budget was exceeded */
+    public long getFlushedValues() {
+      return flushedValues.get();
+    }
+
+    /** @return the number of times the memory budget was exceeded */
+    public long getBudgetFlushes() {
+      return budgetFlushes.get();
+    }
+
+    @Override
+    public String toString() {
+      return "BufferStatistics [bufferedValues="
+          + getBufferedValues()
+          + ", estimatedMemory="
+          + getEstimatedMemory()
+          + ", peakMemory="
+          + getPeakMemory()
+          + ", flushedValues="
+          + getFlushedValues()
+          + ", budgetFlushes="
+          + getBudgetFlushes()
+          + "]";
+    }
   }
 
 }
@@ -8,11 +8,15 @@
  */
 package org.locationtech.geowave.core.store.statistics;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import org.locationtech.geowave.core.index.ByteArray;
+import org.locationtech.geowave.core.index.persist.PersistenceUtils;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
 import org.locationtech.geowave.core.store.EntryVisibilityHandler;
 import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
@@ -29,26 +33,37 @@ import org.locationtech.geowave.core.store.statistics.visibility.DefaultStatisti
 import org.locationtech.geowave.core.store.statistics.visibility.FieldDependentStatisticVisibility;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 /**
  * This class handles updates for a single statistic. It is responsible for creating separate
- * statistic values for each visibility and bin combination.
+ * statistic values for each visibility and bin combination. Updates are accumulated in stripes
+ * selected by the calling thread so that concurrent ingest threads don't contend with each other,
+ * and the stripes are merged when the statistics are written.
  */
 public class StatisticUpdateHandler<T, V extends StatisticValue<R>, R> implements
     IngestCallback<T>,
     DeleteCallback<T, GeoWaveRow>,
     ScanCallback<T, GeoWaveRow> {
   private static final Logger LOGGER = LoggerFactory.getLogger(StatisticUpdateHandler.class);
+  private static final int NUM_STRIPES = Runtime.getRuntime().availableProcessors();
+  // an estimate of the map entries, keys, and object headers for each buffered value
+  private static final int VALUE_OVERHEAD_BYTES = 96;
+  private static final int MAX_SAMPLED_VALUES = 16;
   private final Statistic<V> statistic;
-  private final Map<ByteArray, Map<ByteArray, V>> statisticsMap = new HashMap<>();
+  private final List<StatisticStripe> stripes;
   private final EntryVisibilityHandler<T> visibilityHandler;
   private final InternalDataAdapter<T> adapter;
   private final IngestHandler<T, V, R> ingestHandler;
   private final DeleteHandler<T, V, R> deleteHandler;
   private final boolean supportsIngestCallback;
   private final boolean supportsDeleteCallback;
+  private final AtomicLong bufferedValues = new AtomicLong(0);
+  // the estimated size of a buffered value, updated from a sample of values each time they are
+  // written
+  private volatile long bytesPerValue;
 
   private static final ByteArray NO_BIN = new ByteArray(new byte[0]);
 
@@ -65,41 +80,22 @@ public class StatisticUpdateHandler<T, V extends StatisticValue<R>, R> implement
     final V value = statistic.createEmpty();
     supportsIngestCallback = value instanceof StatisticsIngestCallback;
     supportsDeleteCallback = value instanceof StatisticsDeleteCallback;
-  }
-
-  protected void handleEntry(
-      final Handler<T, V, R> handler,
-      final T entry,
-      final GeoWaveRow... rows) {
-    final ByteArray visibility = new ByteArray(visibilityHandler.getVisibility(entry, rows));
-    Map<ByteArray, V> binnedValues = statisticsMap.get(visibility);
-    if (binnedValues == null) {
-      binnedValues = Maps.newHashMap();
-      statisticsMap.put(visibility, binnedValues);
-    }
-    if (statistic.getBinningStrategy() != null) {
-      final ByteArray[] bins = statistic.getBinningStrategy().getBins(adapter, entry, rows);
-      for (final ByteArray bin : bins) {
-        handleBin(handler, binnedValues, bin, entry, rows);
-      }
-    } else {
-      handleBin(handler, binnedValues, NO_BIN, entry, rows);
+    bytesPerValue = VALUE_OVERHEAD_BYTES + PersistenceUtils.toBinary(value).length;
+    stripes = Lists.newArrayListWithCapacity(NUM_STRIPES);
+    for (int i = 0; i < NUM_STRIPES; i++) {
+      stripes.add(new StatisticStripe());
     }
   }
 
-  protected void handleBin(
+  protected void handleEntry(
       final Handler<T, V, R> handler,
-      final Map<ByteArray, V> binnedValues,
-      final ByteArray bin,
       final T entry,
       final GeoWaveRow... rows) {
-    V value = binnedValues.get(bin);
-    if (value == null) {
-      value = statistic.createEmpty();
-      value.setBin(bin);
-      binnedValues.put(bin, value);
+    final StatisticStripe stripe =
+        stripes.get((int) (Thread.currentThread().getId() % NUM_STRIPES));
+    synchronized (stripe) {
+      stripe.handleEntry(handler, entry, rows);
     }
-    handler.handle(value, adapter, entry, rows);
   }
 
   private EntryVisibilityHandler<T> getVisibilityHandler(
@@ -131,30 +127,78 @@ public class StatisticUpdateHandler<T, V extends StatisticValue<R>, R> implement
   }
 
   @Override
-  public synchronized void entryIngested(final T entry, final GeoWaveRow... rows) {
+  public void entryIngested(final T entry, final GeoWaveRow... rows) {
     if (supportsIngestCallback) {
       handleEntry(ingestHandler, entry, rows);
     }
   }
 
   @Override
-  public synchronized void entryDeleted(final T entry, final GeoWaveRow... rows) {
+  public void entryDeleted(final T entry, final GeoWaveRow... rows) {
     if (supportsDeleteCallback) {
       handleEntry(deleteHandler, entry, rows);
     }
   }
 
   @Override
-  public synchronized void entryScanned(final T entry, final GeoWaveRow row) {
+  public void entryScanned(final T entry, final GeoWaveRow row) {
     if (supportsIngestCallback) {
       handleEntry(ingestHandler, entry, row);
     }
   }
 
-  public void writeStatistics(final DataStatisticsStore statisticsStore, final boolean overwrite) {
+  /**
+   * @return the number of statistic values currently buffered by this handler
+   */
+  public long getBufferedValues() {
+    return bufferedValues.get();
+  }
+
+  /**
+   * @return an estimate of the memory in bytes used by the statistic values buffered by this
+   *         handler
+   */
+  public long getEstimatedMemory() {
+    return bufferedValues.get() * bytesPerValue;
+  }
+
+  /**
+   * Write all buffered statistic values to the statistics store. The values are partial values
+   * which are merged with any previously written values when they are read.
+   *
+   * @param statisticsStore the statistics store
+   * @param overwrite whether to remove the existing values of the statistic first
+   * @return the number of values that were written
+   */
+  public long writeStatistics(final DataStatisticsStore statisticsStore, final boolean overwrite) {
     if (overwrite) {
       statisticsStore.removeStatisticValues(statistic);
     }
+    final Map<ByteArray, Map<ByteArray, V>> statisticsMap = new HashMap<>();
+    for (final StatisticStripe stripe : stripes) {
+      final Map<ByteArray, Map<ByteArray, V>> stripeMap;
+      synchronized (stripe) {
+        stripeMap = stripe.drain();
+      }
+      stripeMap.values().forEach(bins -> bufferedValues.addAndGet(-bins.size()));
+      for (final Entry<ByteArray, Map<ByteArray, V>> visibilityStatistic : stripeMap.entrySet()) {
+        final Map<ByteArray, V> bins = statisticsMap.get(visibilityStatistic.getKey());
+        if (bins == null) {
+          statisticsMap.put(visibilityStatistic.getKey(), visibilityStatistic.getValue());
+          continue;
+        }
+        for (final Entry<ByteArray, V> binValue : visibilityStatistic.getValue().entrySet()) {
+          final V value = bins.get(binValue.getKey());
+          if (value == null) {
+            bins.put(binValue.getKey(), binValue.getValue());
+          } else {
+            value.merge(binValue.getValue());
+          }
+        }
+      }
+    }
+    long written = 0;
+    long sampledBytes = 0;
     try (StatisticValueWriter<V> statWriter =
         statisticsStore.createStatisticValueWriter(statistic)) {
       for (final Entry<ByteArray, Map<ByteArray, V>> visibilityStatistic : statisticsMap.entrySet()) {
@@ -164,12 +208,90 @@ public class StatisticUpdateHandler<T, V extends StatisticValue<R>, R> implement
               binValue.getKey().getBytes(),
               visibilityStatistic.getKey().getBytes(),
               binValue.getValue());
+          if (written < MAX_SAMPLED_VALUES) {
+            sampledBytes +=
+                PersistenceUtils.toBinary(binValue.getValue()).length
+                    + binValue.getKey().getBytes().length
+                    + visibilityStatistic.getKey().getBytes().length;
+          }
+          written++;
         }
       }
-      statisticsMap.clear();
     } catch (final Exception e) {
       LOGGER.error("Unable to write statistic value.", e);
     }
+    if (written > 0) {
+      bytesPerValue =
+          VALUE_OVERHEAD_BYTES + (sampledBytes / Math.min(written, MAX_SAMPLED_VALUES));
+    }
+    return written;
+  }
+
+  /**
+   * The statistic values for each visibility and bin combination updated by a subset of threads.
+   * The values for the most recent visibility are cached because consecutive entries usually share
+   * a visibility, which avoids allocating a key and looking up the values for each entry.
+   */
+  private class StatisticStripe {
+    private Map<ByteArray, Map<ByteArray, V>> statisticsMap = new HashMap<>();
+    private byte[] lastVisibility;
+    private Map<ByteArray, V> lastBinnedValues;
+    private V lastUnbinnedValue;
+
+    private void handleEntry(
+        final Handler<T, V, R> handler,
+        final T entry,
+        final GeoWaveRow... rows) {
+      final Map<ByteArray, V> binnedValues =
+          getBinnedValues(visibilityHandler.getVisibility(entry, rows));
+      if (statistic.getBinningStrategy() != null) {
+        final ByteArray[] bins = statistic.getBinningStrategy().getBins(adapter, entry, rows);
+        for (final ByteArray bin : bins) {
+          handler.handle(getValue(binnedValues, bin), adapter, entry, rows);
+        }
+      } else {
+        if (lastUnbinnedValue == null) {
+          lastUnbinnedValue = getValue(binnedValues, NO_BIN);
+        }
+        handler.handle(lastUnbinnedValue, adapter, entry, rows);
+      }
+    }
+
+    private Map<ByteArray, V> getBinnedValues(final byte[] visibility) {
+      if ((lastBinnedValues != null) && Arrays.equals(lastVisibility, visibility)) {
+        return lastBinnedValues;
+      }
+      final ByteArray visibilityKey = new ByteArray(visibility);
+      Map<ByteArray, V> binnedValues = statisticsMap.get(visibilityKey);
+      if (binnedValues == null) {
+        binnedValues = Maps.newHashMap();
+        statisticsMap.put(visibilityKey, binnedValues);
+      }
+      lastVisibility = visibility;
+      lastBinnedValues = binnedValues;
+      lastUnbinnedValue = null;
+      return binnedValues;
+    }
+
+    private V getValue(final Map<ByteArray, V> binnedValues, final ByteArray bin) {
+      V value = binnedValues.get(bin);
+      if (value == null) {
+        value = statistic.createEmpty();
+        value.setBin(bin);
+        binnedValues.put(bin, value);
+        bufferedValues.incrementAndGet();
+      }
+      return value;
+    }
+
+    private Map<ByteArray, Map<ByteArray, V>> drain() {
+      final Map<ByteArray, Map<ByteArray, V>> retVal = statisticsMap;
+      statisticsMap = new HashMap<>();
+      lastVisibility = null;
+      lastBinnedValues = null;
+      lastUnbinnedValue = null;
+      return retVal;
+    }
   }
 
   private static interface Handler<T, V extends StatisticValue<R>, R> {
@@ -152,8 +152,8 @@ public class DataStoreUtils {
         final String commonIndexFieldName = commonIndexFieldIds.get(ordinal);
         final FieldReader<?> reader = model.getReader(commonIndexFieldName);
         if (reader != null) {
-          final Object fieldValue = reader.readField(fieldInfo.getValue());
-          commonData.addValue(commonIndexFieldName, fieldValue);
+          // index values are read lazily so filters can inspect their serialized form first
+          commonData.addSerializedValue(commonIndexFieldName, fieldInfo.getValue(), reader);
         } else {
           LOGGER.error("Could not find reader for common index field: " + commonIndexFieldName);
         }
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Releases the memory of direct and memory-mapped buffers as soon as they are no longer needed
+ * rather than when they are garbage collected. For a memory-mapped file this also unmaps it, so
+ * that the space of a deleted file is reclaimed. If the JVM doesn't allow this, buffers are left to
+ * the garbage collector.
+ */
+public class DirectBufferUtils {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DirectBufferUtils.class);
+  private static final Consumer<ByteBuffer> CLEANER = createCleaner();
+
+  private static Consumer<ByteBuffer> createCleaner() {
+    try {
+      // Java 9 and later
+      final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      final Object unsafe = theUnsafe.get(null);
+      return buffer -> invoke(invokeCleaner, unsafe, buffer);
+    } catch (final ReflectiveOperationException | RuntimeException e) {
+      LOGGER.trace("Unsafe.invokeCleaner is not available", e);
+    }
+    try {
+      // Java 8
+      final Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+      final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+      return buffer -> {
+        final Object bufferCleaner = invoke(cleaner, buffer);
+        if (bufferCleaner != null) {
+          invoke(clean, bufferCleaner);
+        }
+      };
+    } catch (final ReflectiveOperationException | RuntimeException e) {
+      LOGGER.warn("Unable to free direct buffers, they will be freed when garbage collected", e);
+      return buffer -> {};
+    }
+  }
+
+  private static Object invoke(final Method method, final Object target, final Object... args) {
+    try {
+      return method.invoke(target, args);
+    } catch (final ReflectiveOperationException | RuntimeException e) {
+      LOGGER.debug("Unable to free direct buffer", e);
+      return null;
+    }
+  }
+
+  /**
+   * Free the memory of a direct buffer, the buffer and any views of it must not be used afterwards.
+   * Buffers that aren't direct are ignored.
+   *
+   * @param buffer the buffer to free, which must not be a slice or duplicate of another buffer
+   */
+  public static void free(final ByteBuffer buffer) {
+    if ((buffer != null) && buffer.isDirect()) {
+      CLEANER.accept(buffer);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowSortKeyOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges several iterators that are each already sorted into a single sorted iterator using a heap
+ * of the next entry of each source. Only one entry per source is held at a time, so unlike sorting
+ * the concatenated results this streams the first entry as soon as each source has produced one and
+ * uses memory proportional to the number of sources rather than the number of results. Entries that
+ * compare equal are returned in the order of their sources.
+ *
+ * @param <T> the type of the entries
+ */
+public class SortedMergeIterator<T> implements CloseableIterator<T> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SortedMergeIterator.class);
+
+  private final List<? extends Iterator<? extends T>> sources;
+  private final Comparator<? super T> comparator;
+  private final Closeable closeable;
+  private PriorityQueue<Source<T>> heap = null;
+
+  /**
+   * @param sources the iterators to merge, each of which must be sorted by the comparator
+   * @param comparator the order of the entries
+   * @param closeable closed when this iterator is closed, may be null
+   */
+  public SortedMergeIterator(
+      final List<? extends Iterator<? extends T>> sources,
+      final Comparator<? super T> comparator,
+      final Closeable closeable) {
+    this.sources = sources;
+    this.comparator = comparator;
+    this.closeable = closeable;
+  }
+
+  /**
+   * Merge rows that are each sorted by {@link GeoWaveRowSortKeyOrder}, such as the rows of the
+   * individual ranges or partitions of a query.
+   */
+  public static SortedMergeIterator<GeoWaveRow> mergeBySortKey(
+      final List<? extends Iterator<GeoWaveRow>> sources,
+      final Closeable closeable) {
+    return new SortedMergeIterator<>(sources, GeoWaveRowSortKeyOrder.SINGLETON, closeable);
+  }
+
+  private PriorityQueue<Source<T>> getHeap() {
+    if (heap == null) {
+      // the sources are only read once the first entry is requested
+      heap =
+          new PriorityQueue<>(Math.max(1, sources.size()), (s1, s2) -> {
+            final int comp = comparator.compare(s1.next, s2.next);
+            return comp != 0 ? comp : Integer.compare(s1.order, s2.order);
+          });
+      for (int i = 0; i < sources.size(); i++) {
+        final Iterator<? extends T> it = sources.get(i);
+        if (it.hasNext()) {
+          heap.add(new Source<>(it, i));
+        }
+      }
+    }
+    return heap;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !getHeap().isEmpty();
+  }
+
+  @Override
+  public T next() {
+    final PriorityQueue<Source<T>> h = getHeap();
+    final Source<T> source = h.poll();
+    if (source == null) {
+      throw new NoSuchElementException();
+    }
+    final T next = source.next;
+    if (source.advance()) {
+      h.add(source);
+    }
+    return next;
+  }
+
+  @Override
+  public void close() {
+    if (closeable != null) {
+      try {
+        closeable.close();
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to close merged iterators", e);
+      }
+    }
+  }
+
+  private static class Source<T> {
+    private final Iterator<? extends T> it;
+    private final int order;
+    private T next;
+
+    public Source(final Iterator<? extends T> it, final int order) {
+      this.it = it;
+      this.order = order;
+      next = it.next();
+    }
+
+    private boolean advance() {
+      if (it.hasNext()) {
+        next = it.next();
+        return true;
+      }
+      next = null;
+      return false;
+    }
+  }
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.locationtech.geowave.core.index.CompoundIndexStrategy;
+import org.locationtech.geowave.core.index.InsertionIds;
+import org.locationtech.geowave.core.index.NumericIndexStrategy;
+import org.locationtech.geowave.core.index.SinglePartitionInsertionIds;
+import org.locationtech.geowave.core.index.sfc.data.BasicNumericDataset;
+import org.locationtech.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import org.locationtech.geowave.core.index.sfc.data.NumericData;
+import org.locationtech.geowave.core.index.sfc.data.NumericRange;
+import org.locationtech.geowave.core.index.sfc.data.NumericValue;
+import org.locationtech.geowave.core.index.simple.RoundRobinKeyIndexStrategy;
+import org.locationtech.geowave.core.index.simple.SimpleIntegerIndexStrategy;
+import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
+import org.locationtech.geowave.core.store.adapter.MockComponents;
+import org.locationtech.geowave.core.store.api.Index;
+import org.locationtech.geowave.core.store.api.Statistic;
+import org.locationtech.geowave.core.store.api.StatisticValue;
+import org.locationtech.geowave.core.store.base.IndexSelectionExplanation.IndexCost;
+import org.locationtech.geowave.core.store.entities.GeoWaveKeyImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import org.locationtech.geowave.core.store.entities.GeoWaveValueImpl;
+import org.locationtech.geowave.core.store.index.IndexImpl;
+import org.locationtech.geowave.core.store.memory.MemoryRequiredOptions;
+import org.locationtech.geowave.core.store.memory.MemoryStoreFactoryFamily;
+import org.locationtech.geowave.core.store.query.constraints.EverythingQuery;
+import org.locationtech.geowave.core.store.query.constraints.QueryConstraints;
+import org.locationtech.geowave.core.store.query.filter.QueryFilter;
+import org.locationtech.geowave.core.store.statistics.DataStatisticsStore;
+import org.locationtech.geowave.core.store.statistics.StatisticUpdateHandler;
+
+public class IndexCostEstimatorTest {
+  private static final int ENTRIES = 1000;
+  private static final int PARTITIONS = 4;
+
+  @Test
+  public void testNonPartitionedIndex() {
+    final IndexImpl index = createIndex(new SimpleIntegerIndexStrategy());
+    final InternalDataAdapter<Integer> adapter = createAdapter();
+    final IndexCostEstimator estimator =
+        new IndexCostEstimator(createStatisticsStore(index, adapter), null, -1);
+
+    final IndexCost fullScan = estimator.estimateCost(index, new EverythingQuery(), adapter);
+    assertTrue(fullScan.isStatisticsAvailable());
+    assertTrue(fullScan.isFullTableScan());
+    assertEquals(ENTRIES, fullScan.getEstimatedRows(), 0);
+    assertEquals(1, fullScan.getPartitionsScanned());
+
+    final IndexCost rangeScan = estimator.estimateCost(index, new RangeQuery(100, 199), adapter);
+    assertTrue(rangeScan.isStatisticsAvailable());
+    assertFalse(rangeScan.isFullTableScan());
+    assertEquals(1, rangeScan.getPartitionsScanned());
+    assertRangeEstimate(rangeScan);
+    assertTrue(rangeScan.getCost() < fullScan.getCost());
+  }
+
+  @Test
+  public void testPartitionedIndex() {
+    final IndexImpl index =
+        createIndex(
+            new CompoundIndexStrategy(
+                new RoundRobinKeyIndexStrategy(PARTITIONS),
+                new SimpleIntegerIndexStrategy()));
+    final InternalDataAdapter<Integer> adapter = createAdapter();
+    final IndexCostEstimator estimator =
+        new IndexCostEstimator(createStatisticsStore(index, adapter), null, -1);
+
+    final IndexCost fullScan = estimator.estimateCost(index, new EverythingQuery(), adapter);
+    assertTrue(fullScan.isStatisticsAvailable());
+    assertEquals(ENTRIES, fullScan.getEstimatedRows(), 0);
+    assertEquals(PARTITIONS, fullScan.getPartitionsScanned());
+
+    final IndexCost rangeScan = estimator.estimateCost(index, new RangeQuery(100, 199), adapter);
+    assertTrue(rangeScan.isStatisticsAvailable());
+    assertEquals(PARTITIONS, rangeScan.getPartitionsScanned());
+    assertRangeEstimate(rangeScan);
+    assertTrue(rangeScan.getCost() < fullScan.getCost());
+  }
+
+  @Test
+  public void testStatisticsUnavailable() {
+    final IndexImpl index = createIndex(new SimpleIntegerIndexStrategy());
+    final InternalDataAdapter<Integer> adapter = createAdapter();
+    final MemoryRequiredOptions opts = new MemoryRequiredOptions();
+    opts.setGeoWaveNamespace("test_" + getClass().getName() + "_unavailable");
+    final DataStatisticsStore statisticsStore =
+        new MemoryStoreFactoryFamily().getDataStatisticsStoreFactory().createStore(opts);
+    index.getDefaultStatistics().forEach(statisticsStore::addStatistic);
+    final IndexCostEstimator estimator = new IndexCostEstimator(statisticsStore, null, -1);
+
+    // nothing has been written, so there is no histogram to estimate the cost from
+    assertFalse(
+        estimator.estimateCost(index, new EverythingQuery(), adapter).isStatisticsAvailable());
+    assertFalse(
+        estimator.estimateCost(index, new RangeQuery(100, 199), adapter).isStatisticsAvailable());
+  }
+
+  private static void assertRangeEstimate(final IndexCost cost) {
+    // the histogram is approximate, but the estimate should be close to the 100 matching rows
+    assertTrue(
+        "Unexpected estimate " + cost.getEstimatedRows(),
+        (cost.getEstimatedRows() >= 50) && (cost.getEstimatedRows() <= 200));
+  }
+
+  private static IndexImpl createIndex(final NumericIndexStrategy strategy) {
+    return new IndexImpl(strategy, new MockComponents.TestIndexModel());
+  }
+
+  private static InternalDataAdapter<Integer> createAdapter() {
+    return new MockComponents.MockAbstractDataAdapter().asInternalAdapter((short) 1);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private DataStatisticsStore createStatisticsStore(
+      final IndexImpl index,
+      final InternalDataAdapter<Integer> adapter) {
+    final MemoryRequiredOptions opts = new MemoryRequiredOptions();
+    opts.setGeoWaveNamespace("test_" + getClass().getName() + "_" + index.getName());
+    final DataStatisticsStore statisticsStore =
+        new MemoryStoreFactoryFamily().getDataStatisticsStoreFactory().createStore(opts);
+    for (final Statistic<? extends StatisticValue<?>> statistic : index.getDefaultStatistics()) {
+      statisticsStore.addStatistic(statistic);
+      final StatisticUpdateHandler handler =
+          new StatisticUpdateHandler(statistic, index, null, adapter);
+      for (int i = 0; i < ENTRIES; i++) {
+        handler.entryIngested(i, createRows(index, adapter, i));
+      }
+      // this persists the values, so they are read back as they would be by a query
+      handler.writeStatistics(statisticsStore, false);
+    }
+    return statisticsStore;
+  }
+
+  private static GeoWaveRow[] createRows(
+      final Index index,
+      final InternalDataAdapter<Integer> adapter,
+      final int entry) {
+    final InsertionIds insertionIds =
+        index.getIndexStrategy().getInsertionIds(
+            new BasicNumericDataset(new NumericData[] {new NumericValue(entry)}));
+    final SinglePartitionInsertionIds ids = insertionIds.getPartitionKeys().iterator().next();
+    return new GeoWaveRow[] {
+        new GeoWaveRowImpl(
+            new GeoWaveKeyImpl(
+                adapter.getDataId(entry),
+                adapter.getAdapterId(),
+                ids.getPartitionKey(),
+                ids.getSortKeys().get(0),
+                0),
+            new GeoWaveValue[] {new GeoWaveValueImpl(new byte[] {1}, new byte[0], new byte[0])})};
+  }
+
+  private static class RangeQuery implements QueryConstraints {
+    private final double min;
+    private final double max;
+
+    private RangeQuery(final double min, final double max) {
+      this.min = min;
+      this.max = max;
+    }
+
+    @Override
+    public List<QueryFilter> createFilters(final Index index) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public List<MultiDimensionalNumericData> getIndexConstraints(final Index index) {
+      return Collections.singletonList(
+          new BasicNumericDataset(new NumericData[] {new NumericRange(min, max)}));
+    }
+
+    @Override
+    public byte[] toBinary() {
+      return new byte[0];
+    }
+
+    @Override
+    public void fromBinary(final byte[] bytes) {}
+  }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.Test;
+import org.locationtech.geowave.core.store.base.ParallelScanIterator.ScanType;
+import com.google.common.collect.Iterators;
+
+public class ParallelScanIteratorTest {
+  private static final int SCANS = 5;
+  private static final int ROWS_PER_SCAN = 20000;
+
+  private static List<Iterator<Integer>> createScans() {
+    final List<Iterator<Integer>> scans = new ArrayList<>(SCANS);
+    for (int s = 0; s < SCANS; s++) {
+      scans.add(IntStream.range(s * ROWS_PER_SCAN, (s + 1) * ROWS_PER_SCAN).iterator());
+    }
+    return scans;
+  }
+
+  @Test
+  public void testUnordered() {
+    final Set<Integer> results = new HashSet<>();
+    int rows = 0;
+    try (ParallelScanIterator<Integer> it =
+        new ParallelScanIterator<>(createScans(), ScanType.QUERY, 4, false)) {
+      while (it.hasNext()) {
+        results.add(it.next());
+        rows++;
+      }
+    }
+    assertEquals(SCANS * ROWS_PER_SCAN, rows);
+    assertEquals(SCANS * ROWS_PER_SCAN, results.size());
+  }
+
+  @Test
+  public void testOrdered() {
+    int expected = 0;
+    try (ParallelScanIterator<Integer> it =
+        new ParallelScanIterator<>(createScans(), ScanType.QUERY, 4, true)) {
+      while (it.hasNext()) {
+        assertEquals(expected++, it.next().intValue());
+      }
+    }
+    assertEquals(SCANS * ROWS_PER_SCAN, expected);
+  }
+
+  @Test
+  public void testEarlyClose() throws InterruptedException {
+    for (int i = 0; i < 10; i++) {
+      final AtomicInteger read = new AtomicInteger(0);
+      final List<Iterator<Integer>> scans = new ArrayList<>();
+      for (final Iterator<Integer> scan : createScans()) {
+        scans.add(Iterators.transform(scan, v -> {
+          read.incrementAndGet();
+          return v;
+        }));
+      }
+      final ParallelScanIterator<Integer> it =
+          new ParallelScanIterator<>(scans, ScanType.QUERY, 2, i % 2 == 0);
+      assertTrue(it.hasNext());
+      it.next();
+      it.close();
+      // once closed no scan should be read any further
+      final int readAfterClose = read.get();
+      assertTrue(readAfterClose < (SCANS * ROWS_PER_SCAN));
+      Thread.sleep(50);
+      assertEquals(readAfterClose, read.get());
+    }
+  }
+
+  @Test
+  public void testScanException() {
+    final List<Iterator<Integer>> scans = createScans();
+    scans.add(Iterators.transform(IntStream.range(0, 1000).iterator(), v -> {
+      if (v == 500) {
+        throw new IllegalStateException("Unable to scan");
+      }
+      return v;
+    }));
+    try (ParallelScanIterator<Integer> it =
+        new ParallelScanIterator<>(scans, ScanType.QUERY, 4, false)) {
+      while (it.hasNext()) {
+        it.next();
+      }
+      fail("Expected the scan exception to be thrown");
+    } catch (final RuntimeException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  @Test
+  public void testNoScans() {
+    try (ParallelScanIterator<Integer> it =
+        new ParallelScanIterator<>(new ArrayList<>(), ScanType.QUERY, 4, true)) {
+      assertFalse(it.hasNext());
+    }
+  }
+
+  @Test(timeout = 60000)
+  public void testNestedScans() {
+    // each query scan reads its partitions concurrently with as many threads as the query, which
+    // only completes if the partition scans don't wait for the threads the query scans are using
+    final List<Iterator<Integer>> queryScans = new ArrayList<>();
+    final List<ParallelScanIterator<Integer>> partitionScans = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      final ParallelScanIterator<Integer> partitionScan =
+          new ParallelScanIterator<>(createScans(), ScanType.PARTITION, 2, false);
+      partitionScans.add(partitionScan);
+      queryScans.add(partitionScan);
+    }
+    int rows = 0;
+    try (ParallelScanIterator<Integer> it =
+        new ParallelScanIterator<>(queryScans, ScanType.QUERY, 2, false)) {
+      while (it.hasNext()) {
+        it.next();
+        rows++;
+      }
+    }
+    partitionScans.forEach(ParallelScanIterator::close);
+    assertEquals(4 * SCANS * ROWS_PER_SCAN, rows);
+  }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.base;
+
+import static org.junit.Assert.assertEquals;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.locationtech.geowave.core.index.StringUtils;
+import org.locationtech.geowave.core.store.entities.GeoWaveKeyImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import com.google.common.collect.Lists;
+
+public class RowIntersectionTest {
+
+  private static GeoWaveRow row(final short adapterId, final String dataId, final String sortKey) {
+    return new GeoWaveRowImpl(
+        new GeoWaveKeyImpl(
+            StringUtils.stringToBinary(dataId),
+            adapterId,
+            new byte[0],
+            StringUtils.stringToBinary(sortKey),
+            2),
+        new GeoWaveValue[0]);
+  }
+
+  private static List<String> dataIds(final List<GeoWaveRow> rows) {
+    return Lists.transform(rows, r -> StringUtils.stringFromBinary(r.getDataId()));
+  }
+
+  @Test
+  public void testIntersection() {
+    final RowIntersection intersection = new RowIntersection(3);
+    final List<GeoWaveRow> rows =
+        Lists.newArrayList(
+            intersection.apply(
+                Arrays.asList(
+                    row((short) 0, "a", "lake"),
+                    row((short) 0, "b", "lake"),
+                    row((short) 0, "c", "lake"),
+                    row((short) 0, "a", "salt"),
+                    row((short) 0, "c", "salt"),
+                    row((short) 0, "c", "city"),
+                    row((short) 0, "b", "city"),
+                    row((short) 0, "a", "city")).iterator()));
+    // only the entries with a row in every range are passed on, once, as their last row is read
+    assertEquals(Arrays.asList("c", "a"), dataIds(rows));
+  }
+
+  @Test
+  public void testEntriesOfDifferentTypes() {
+    final RowIntersection intersection = new RowIntersection(2);
+    final List<GeoWaveRow> rows =
+        Lists.newArrayList(
+            intersection.apply(
+                Arrays.asList(
+                    row((short) 0, "a", "lake"),
+                    row((short) 1, "a", "city"),
+                    row((short) 1, "a", "lake")).iterator()));
+    assertEquals(1, rows.size());
+    assertEquals(1, rows.get(0).getAdapterId());
+  }
+
+  @Test
+  public void testSeparateIterators() {
+    // rows of the same entry may be read by different iterators of the query
+    final RowIntersection intersection = new RowIntersection(2);
+    assertEquals(
+        0,
+        Lists.newArrayList(
+            intersection.apply(
+                Arrays.asList(row((short) 0, "a", "lake"), row((short) 0, "b", "lake")).iterator()))
+            .size());
+    final List<GeoWaveRow> rows =
+        Lists.newArrayList(
+            intersection.apply(
+                Arrays.asList(
+                    row((short) 0, "c", "city"),
+                    row((short) 0, "b", "city")).iterator()));
+    assertEquals(Arrays.asList("b"), dataIds(rows));
+  }
+}
@@ -0,0 +1,259 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import org.locationtech.geowave.core.store.BaseDataStoreOptions;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
+import org.locationtech.geowave.core.store.adapter.MockComponents;
+import org.locationtech.geowave.core.store.adapter.MockComponents.MockAbstractDataAdapter;
+import org.locationtech.geowave.core.store.api.DataStore;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.Index;
+import org.locationtech.geowave.core.store.api.QueryBuilder;
+import org.locationtech.geowave.core.store.api.Statistic;
+import org.locationtech.geowave.core.store.api.Writer;
+import org.locationtech.geowave.core.store.index.IndexImpl;
+import org.locationtech.geowave.core.store.memory.MemoryRequiredOptions;
+import org.locationtech.geowave.core.store.memory.MemoryStoreFactoryFamily;
+import org.locationtech.geowave.core.store.query.constraints.EverythingQuery;
+import org.locationtech.geowave.core.store.query.constraints.FieldEqualityConstraintQuery;
+import org.locationtech.geowave.core.store.statistics.DataStatisticsStore;
+import org.locationtech.geowave.core.store.statistics.adapter.CountStatistic;
+import org.locationtech.geowave.core.store.statistics.field.BloomFilterStatistic;
+import org.locationtech.geowave.core.store.statistics.field.CountMinSketchStatistic;
+import org.locationtech.geowave.core.store.statistics.field.HyperLogLogStatistic;
+
+public class StatisticsQueryPrunerTest {
+  private static final int ENTRIES = 100;
+
+  @Test
+  public void testBloomFilter() {
+    final TestStore store =
+        new TestStore(
+            "bloom",
+            new BloomFilterStatistic(MockAbstractDataAdapter.ID, MockAbstractDataAdapter.ID));
+    store.write(0, ENTRIES);
+    final StatisticsQueryPruner pruner = store.createPruner();
+
+    assertTrue(pruner.mayMatch(new EqualityQuery(MockAbstractDataAdapter.ID, "5"), store.adapter));
+    assertTrue(
+        pruner.mayMatch(
+            new EqualityQuery(MockAbstractDataAdapter.ID, "5000", "50"),
+            store.adapter));
+    assertFalse(
+        pruner.mayMatch(new EqualityQuery(MockAbstractDataAdapter.ID, "5000"), store.adapter));
+    // a field without statistics can't prune the type
+    assertTrue(
+        pruner.mayMatch(
+            new EqualityQuery(MockAbstractDataAdapter.INTEGER, "5000"),
+            store.adapter));
+    // the bloom filter can't estimate counts
+    assertTrue(
+        Double.isNaN(
+            pruner.estimateMatches(
+                store.adapter,
+                requiredValues(MockAbstractDataAdapter.ID, "5"))));
+  }
+
+  @Test
+  public void testCountMinSketch() {
+    final TestStore store =
+        new TestStore(
+            "countMin",
+            new CountMinSketchStatistic(
+                MockAbstractDataAdapter.ID,
+                MockAbstractDataAdapter.INTEGER));
+    store.write(0, ENTRIES);
+    // every value is written twice
+    store.write(0, ENTRIES);
+    final StatisticsQueryPruner pruner = store.createPruner();
+
+    assertTrue(
+        pruner.mayMatch(new EqualityQuery(MockAbstractDataAdapter.INTEGER, "5"), store.adapter));
+    assertFalse(
+        pruner.mayMatch(
+            new EqualityQuery(MockAbstractDataAdapter.INTEGER, "5000"),
+            store.adapter));
+    // the sketch never underestimates
+    assertTrue(
+        pruner.estimateMatches(
+            store.adapter,
+            requiredValues(MockAbstractDataAdapter.INTEGER, "5", "6")) >= 4);
+    assertEquals(
+        0,
+        pruner.estimateMatches(
+            store.adapter,
+            requiredValues(MockAbstractDataAdapter.INTEGER, "5000")),
+        0);
+  }
+
+  @Test
+  public void testHyperLogLogEstimate() {
+    final TestStore store =
+        new TestStore(
+            "hll",
+            new HyperLogLogStatistic(MockAbstractDataAdapter.ID, MockAbstractDataAdapter.ID));
+    store.write(0, ENTRIES);
+    final StatisticsQueryPruner pruner = store.createPruner();
+
+    // the cardinality statistic can't show that a value is absent
+    assertTrue(
+        pruner.mayMatch(new EqualityQuery(MockAbstractDataAdapter.ID, "5000"), store.adapter));
+    // but assuming a uniform distribution each value matches about one of the entries
+    final double estimate =
+        pruner.estimateMatches(store.adapter, requiredValues(MockAbstractDataAdapter.ID, "1", "2"));
+    assertTrue("Unexpected estimate " + estimate, (estimate > 1.5) && (estimate < 2.5));
+  }
+
+  @Test
+  public void testUnconstrainedQueries() {
+    final TestStore store =
+        new TestStore(
+            "unconstrained",
+            new BloomFilterStatistic(MockAbstractDataAdapter.ID, MockAbstractDataAdapter.ID));
+    store.write(0, ENTRIES);
+    final StatisticsQueryPruner pruner = store.createPruner();
+
+    assertTrue(pruner.mayMatch(new EverythingQuery(), store.adapter));
+    assertTrue(pruner.mayMatch(new EqualityQuery(null), store.adapter));
+    assertTrue(pruner.getRequiredFieldValues(new EverythingQuery(), store.adapter).isEmpty());
+    // contradictory constraints on the same field leave no values that can match
+    assertFalse(pruner.mayMatch(store.adapter, requiredValues(MockAbstractDataAdapter.ID)));
+  }
+
+  @Test
+  public void testPruningIsOptIn() {
+    final TestStore store =
+        new TestStore(
+            "optIn",
+            new BloomFilterStatistic(MockAbstractDataAdapter.ID, MockAbstractDataAdapter.ID));
+    store.write(0, ENTRIES);
+    final EqualityQuery absent = new EqualityQuery(MockAbstractDataAdapter.ID, "5000");
+    assertEquals(ENTRIES, store.count(absent));
+
+    store.setStatisticsQueryPruning(true);
+    assertEquals(0, store.count(absent));
+    assertEquals(ENTRIES, store.count(new EqualityQuery(MockAbstractDataAdapter.ID, "5")));
+  }
+
+  @Test
+  public void testUnflushedEntries() {
+    final TestStore store =
+        new TestStore(
+            "unflushed",
+            new BloomFilterStatistic(MockAbstractDataAdapter.ID, MockAbstractDataAdapter.ID));
+    store.write(0, ENTRIES);
+    final EqualityQuery written = new EqualityQuery(MockAbstractDataAdapter.ID, "5000");
+    try (Writer<Integer> writer = store.dataStore.createWriter(store.adapter.getTypeName())) {
+      writer.write(5000);
+      // the entry is stored, but the statistics haven't been persisted yet
+      assertEquals(ENTRIES + 1, store.count(written));
+      // so with pruning enabled the type is skipped even though it now has a match
+      store.setStatisticsQueryPruning(true);
+      assertEquals(0, store.count(written));
+      writer.flush();
+      assertEquals(ENTRIES + 1, store.count(written));
+    }
+  }
+
+  private static Map<String, Set<String>> requiredValues(
+      final String fieldName,
+      final String... values) {
+    return Collections.singletonMap(fieldName, new HashSet<>(Arrays.asList(values)));
+  }
+
+  /**
+   * Equality constraints that don't filter, so a query returns every entry of a type that isn't
+   * pruned.
+   */
+  private static class EqualityQuery extends EverythingQuery implements
+      FieldEqualityConstraintQuery {
+    private final Map<String, Set<String>> requiredValues;
+
+    private EqualityQuery(final String fieldName, final String... values) {
+      requiredValues =
+          fieldName == null ? null : new HashMap<>(requiredValues(fieldName, values));
+    }
+
+    @Override
+    public Map<String, Set<String>> getRequiredFieldValues(final DataTypeAdapter<?> adapter) {
+      return requiredValues;
+    }
+  }
+
+  private static class TestStore {
+    private final MemoryRequiredOptions options;
+    private final DataStore dataStore;
+    private final DataStatisticsStore statisticsStore;
+    private final InternalDataAdapter<Integer> adapter;
+
+    private TestStore(final String name, final Statistic<?> statistic) {
+      final Index index =
+          new IndexImpl(
+              new MockComponents.MockIndexStrategy(),
+              new MockComponents.TestIndexModel());
+      final MemoryStoreFactoryFamily storeFamily = new MemoryStoreFactoryFamily();
+      options = new MemoryRequiredOptions();
+      options.setGeoWaveNamespace("test_" + StatisticsQueryPrunerTest.class.getName() + name);
+      dataStore = storeFamily.getDataStoreFactory().createStore(options);
+      statisticsStore = storeFamily.getDataStatisticsStoreFactory().createStore(options);
+      final DataTypeAdapter<Integer> dataAdapter = new MockAbstractDataAdapter();
+      final List<Statistic<?>> statistics =
+          Arrays.asList(new CountStatistic(dataAdapter.getTypeName()), statistic);
+      dataStore.addType(dataAdapter, statistics, index);
+      adapter =
+          dataAdapter.asInternalAdapter(
+              storeFamily.getInternalAdapterStoreFactory().createStore(options).getAdapterId(
+                  dataAdapter.getTypeName()));
+    }
+
+    private void write(final int start, final int end) {
+      try (Writer<Integer> writer = dataStore.createWriter(adapter.getTypeName())) {
+        for (int i = start; i < end; i++) {
+          writer.write(i);
+        }
+      }
+    }
+
+    private StatisticsQueryPruner createPruner() {
+      return new StatisticsQueryPruner(statisticsStore);
+    }
+
+    private void setStatisticsQueryPruning(final boolean statisticsQueryPruning) {
+      ((BaseDataStoreOptions) options.getStoreOptions()).setStatisticsQueryPruning(
+          statisticsQueryPruning);
+    }
+
+    private int count(final EqualityQuery query) {
+      int count = 0;
+      try (CloseableIterator<Integer> it =
+          dataStore.query(
+              QueryBuilder.newBuilder(Integer.class).addTypeName(
+                  adapter.getTypeName()).constraints(query).build())) {
+        while (it.hasNext()) {
+          it.next();
+          count++;
+        }
+      }
+      return count;
+    }
+  }
+}
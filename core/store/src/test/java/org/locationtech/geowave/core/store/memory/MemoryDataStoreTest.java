@@ -8,11 +8,13 @@
  */
 package org.locationtech.geowave.core.store.memory;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -36,8 +38,15 @@ import org.locationtech.geowave.core.store.api.Writer;
 import org.locationtech.geowave.core.store.data.CommonIndexedPersistenceEncoding;
 import org.locationtech.geowave.core.store.data.IndexedPersistenceEncoding;
 import org.locationtech.geowave.core.store.data.visibility.GlobalVisibilityHandler;
+import org.locationtech.geowave.core.store.entities.GeoWaveKeyImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import org.locationtech.geowave.core.store.entities.GeoWaveValueImpl;
 import org.locationtech.geowave.core.store.index.CommonIndexModel;
 import org.locationtech.geowave.core.store.index.IndexImpl;
+import org.locationtech.geowave.core.store.memory.MemoryDataStoreOperations.MemoryStoreEntry;
+import org.locationtech.geowave.core.store.operations.RowWriter;
 import org.locationtech.geowave.core.store.query.constraints.DataIdQuery;
 import org.locationtech.geowave.core.store.query.constraints.QueryConstraints;
 import org.locationtech.geowave.core.store.query.filter.QueryFilter;
@@ -152,6 +161,35 @@ public class MemoryDataStoreTest {
     }
   }
 
+  @Test
+  public void testRewriteWithDifferentDuplicates() throws Exception {
+    final Index index =
+        new IndexImpl(new MockComponents.MockIndexStrategy(), new MockComponents.TestIndexModel());
+    final MemoryDataStoreOperations operations = new MemoryDataStoreOperations();
+    try (final RowWriter writer = operations.createWriter(index, null)) {
+      writer.write(createRow((short) 0, new byte[] {1}));
+      // the same row written again for an entry that now has duplicates
+      writer.write(createRow((short) 2, new byte[] {2}));
+    }
+    final Collection<MemoryStoreEntry> rows =
+        operations.getRowsForIndex(index.getName()).values();
+    assertEquals(1, rows.size());
+    final GeoWaveRow row = rows.iterator().next().getRow();
+    assertEquals(2, row.getNumberOfDuplicates());
+    assertArrayEquals(new byte[] {2}, row.getFieldValues()[0].getValue());
+  }
+
+  private static GeoWaveRow createRow(final short numberOfDuplicates, final byte[] value) {
+    return new GeoWaveRowImpl(
+        new GeoWaveKeyImpl(
+            new byte[] {1},
+            (short) 0,
+            new byte[0],
+            new byte[] {5},
+            numberOfDuplicates),
+        new GeoWaveValue[] {new GeoWaveValueImpl(new byte[0], new byte[0], value)});
+  }
+
   @Test
   public void testMultipleIndices() throws IOException {
     final Index index1 =
@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.locationtech.geowave.core.index.SinglePartitionQueryRanges;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.entities.GeoWaveKeyImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import org.locationtech.geowave.core.store.entities.GeoWaveValueImpl;
+import com.google.common.primitives.Ints;
+
+public class OffHeapIndexTableTest {
+  private static final int ENTRIES = 100;
+  private static final int CHUNK_SIZE = 4096;
+  // small enough that every test merges the write buffer several times
+  private static final int WRITE_BUFFER_SIZE = 16;
+
+  @Test
+  public void testMerge() {
+    final OffHeapIndexTable table = new OffHeapIndexTable(CHUNK_SIZE, WRITE_BUFFER_SIZE);
+    final List<Integer> keys = range(0, ENTRIES);
+    Collections.shuffle(keys, new Random(0));
+    for (final int key : keys) {
+      table.put(createRow(key, 0, 0));
+    }
+    assertTrue(table.getAllocatedBytes() > 0);
+    assertEquals(range(0, ENTRIES), read(table.iterator(null), 0));
+
+    final List<Integer> expected = new ArrayList<>();
+    expected.addAll(range(10, 20));
+    expected.addAll(range(50, 60));
+    assertEquals(
+        expected,
+        read(
+            table.iterator(
+                Collections.singleton(
+                    new SinglePartitionQueryRanges(
+                        new byte[0],
+                        Arrays.asList(
+                            new ByteArrayRange(Ints.toByteArray(10), Ints.toByteArray(19)),
+                            new ByteArrayRange(Ints.toByteArray(50), Ints.toByteArray(59)))))),
+            0));
+    table.close();
+  }
+
+  @Test
+  public void testDeletes() {
+    final OffHeapIndexTable table = new OffHeapIndexTable(CHUNK_SIZE, WRITE_BUFFER_SIZE);
+    for (int i = 0; i < ENTRIES; i++) {
+      table.put(createRow(i, 0, 0));
+    }
+    // the first rows have been merged into the sorted run and the last are still in the buffer
+    for (int i = 0; i < 5; i++) {
+      assertTrue(table.delete(createRow(i, 0, 0)));
+      assertTrue(table.delete(createRow(ENTRIES - 1 - i, 0, 0)));
+    }
+    assertFalse(table.delete(createRow(0, 0, 0)));
+    assertFalse(table.delete(createRow(ENTRIES - 1, 0, 0)));
+    assertFalse(table.delete(createRow(ENTRIES, 0, 0)));
+    assertEquals(range(5, ENTRIES - 5), read(table.iterator(null), 0));
+
+    // deleted rows stay deleted once the tombstones are merged
+    for (int i = 5; i < ENTRIES - 5; i++) {
+      table.put(createRow(i, 0, 0));
+    }
+    assertEquals(range(5, ENTRIES - 5), read(table.iterator(null), 0));
+
+    // and can be written again
+    table.put(createRow(0, 0, 0));
+    final List<Integer> expected = range(5, ENTRIES - 5);
+    expected.add(0, 0);
+    assertEquals(expected, read(table.iterator(null), 0));
+    table.close();
+  }
+
+  @Test
+  public void testCompaction() {
+    final OffHeapIndexTable table = new OffHeapIndexTable(CHUNK_SIZE, WRITE_BUFFER_SIZE);
+    for (int i = 0; i < ENTRIES; i++) {
+      table.put(createRow(i, 0, 0));
+    }
+    final long allocatedBytes = table.getAllocatedBytes();
+    for (int version = 1; version <= 20; version++) {
+      for (int i = 0; i < ENTRIES; i++) {
+        // the number of duplicates is not part of a row's identity
+        table.put(createRow(i, version % 2, version));
+      }
+    }
+    assertEquals(range(0, ENTRIES), read(table.iterator(null), 20));
+    // without compaction every overwritten row would still take up space
+    assertTrue(
+        "Allocated " + table.getAllocatedBytes() + " bytes",
+        table.getAllocatedBytes() < (allocatedBytes * 4));
+    table.close();
+  }
+
+  @Test
+  public void testSnapshot() {
+    final OffHeapIndexTable table = new OffHeapIndexTable(CHUNK_SIZE, WRITE_BUFFER_SIZE);
+    for (int i = 0; i < ENTRIES; i++) {
+      table.put(createRow(i, 0, 0));
+    }
+    final CloseableIterator<GeoWaveRow> it = table.iterator(null);
+    assertEquals(0, Ints.fromByteArray(it.next().getSortKey()));
+
+    // overwrite every row often enough for the sorted run to be merged and compacted
+    for (int version = 1; version <= 10; version++) {
+      for (int i = 0; i < ENTRIES; i++) {
+        table.put(createRow(i, 0, version));
+      }
+    }
+    // the rows that haven't been read yet are still there, either as they were or as rewritten
+    final List<Integer> keys = new ArrayList<>();
+    while (it.hasNext()) {
+      keys.add(Ints.fromByteArray(it.next().getSortKey()));
+    }
+    assertEquals(range(1, ENTRIES), keys);
+
+    // closing the table doesn't free the rows of an open reader
+    final CloseableIterator<GeoWaveRow> openIt = table.iterator(null);
+    table.close();
+    assertEquals(range(0, ENTRIES), read(openIt, 10));
+    assertFalse(table.iterator(null).hasNext());
+  }
+
+  @Test
+  public void testConcurrentReadWrite() throws Exception {
+    final OffHeapIndexTable table = new OffHeapIndexTable(CHUNK_SIZE, WRITE_BUFFER_SIZE);
+    for (int i = 0; i < ENTRIES; i++) {
+      table.put(createRow(i, 0, 0));
+    }
+    final ExecutorService executor = Executors.newFixedThreadPool(3);
+    final AtomicBoolean reading = new AtomicBoolean(true);
+    try {
+      final Future<?> writer = executor.submit(() -> {
+        final Random random = new Random(0);
+        int version = 0;
+        while (reading.get()) {
+          table.put(createRow(random.nextInt(ENTRIES), 0, ++version));
+        }
+      });
+      final List<Future<?>> readers = new ArrayList<>();
+      for (int r = 0; r < 2; r++) {
+        readers.add(executor.submit(() -> {
+          for (int i = 0; i < 200; i++) {
+            // every row always exists, so every scan must see each of them exactly once
+            try (CloseableIterator<GeoWaveRow> it = table.iterator(null)) {
+              int expectedKey = 0;
+              while (it.hasNext()) {
+                assertEquals(expectedKey++, Ints.fromByteArray(it.next().getSortKey()));
+              }
+              assertEquals(ENTRIES, expectedKey);
+            }
+          }
+        }));
+      }
+      for (final Future<?> reader : readers) {
+        reader.get(1, TimeUnit.MINUTES);
+      }
+      reading.set(false);
+      writer.get(1, TimeUnit.MINUTES);
+    } finally {
+      reading.set(false);
+      executor.shutdownNow();
+    }
+    table.close();
+  }
+
+  private static GeoWaveRow createRow(final int key, final int duplicates, final int value) {
+    return new GeoWaveRowImpl(
+        new GeoWaveKeyImpl(
+            Ints.toByteArray(key),
+            (short) 0,
+            new byte[0],
+            Ints.toByteArray(key),
+            duplicates),
+        new GeoWaveValue[] {
+            new GeoWaveValueImpl(new byte[0], new byte[0], Ints.toByteArray(value))});
+  }
+
+  /**
+   * Read the keys of the rows, checking that each row has the given value.
+   */
+  private static List<Integer> read(final CloseableIterator<GeoWaveRow> it, final int value) {
+    final List<Integer> keys = new ArrayList<>();
+    while (it.hasNext()) {
+      final GeoWaveRow row = it.next();
+      final int key = Ints.fromByteArray(row.getSortKey());
+      assertEquals(value, Ints.fromByteArray(row.getFieldValues()[0].getValue()));
+      keys.add(key);
+    }
+    it.close();
+    return keys;
+  }
+
+  private static List<Integer> range(final int start, final int end) {
+    final List<Integer> range = new ArrayList<>();
+    for (int i = start; i < end; i++) {
+      range.add(i);
+    }
+    return range;
+  }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.operations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class BoundedHandOffTest {
+
+  @Test
+  public void testParkAndResume() throws InterruptedException {
+    final List<String> resumed = new ArrayList<>();
+    final BoundedHandOff<String> handOff =
+        new BoundedHandOff<>(1, (task, item) -> resumed.add(task + item));
+    assertTrue(handOff.handOff("a", 1));
+    // the buffer is full, so the task is parked along with its item
+    assertFalse(handOff.handOff("b", 2));
+    assertTrue(resumed.isEmpty());
+
+    // taking an item makes room for the item of the parked task, which is then resumed
+    assertEquals(1, handOff.take());
+    assertEquals(Arrays.asList("b2"), resumed);
+    assertEquals(2, handOff.poll(10, TimeUnit.MILLISECONDS));
+    assertNull(handOff.poll(10, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testClear() {
+    final List<String> resumed = new ArrayList<>();
+    final BoundedHandOff<String> handOff =
+        new BoundedHandOff<>(1, (task, item) -> resumed.add(task + item));
+    assertTrue(handOff.handOff("a", 1));
+    assertFalse(handOff.handOff("b", 2));
+    assertFalse(handOff.handOff("c", 3));
+    // parked tasks are returned to the caller rather than resumed
+    assertEquals(Arrays.asList("b", "c"), handOff.clear());
+    assertTrue(resumed.isEmpty());
+    assertTrue(handOff.handOff("d", 4));
+  }
+}
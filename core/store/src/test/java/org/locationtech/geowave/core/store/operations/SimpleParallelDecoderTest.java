@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.operations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.locationtech.geowave.core.store.entities.GeoWaveKeyImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowIteratorTransformer;
+import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import com.google.common.collect.Iterators;
+
+public class SimpleParallelDecoderTest {
+  private static final GeoWaveRowIteratorTransformer<Integer> DATA_ID_TRANSFORMER =
+      input -> Iterators.transform(input, row -> ByteBuffer.wrap(row.getDataId()).getInt());
+
+  private static List<GeoWaveRow> createRows(final int count) {
+    final List<GeoWaveRow> rows = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      rows.add(
+          new GeoWaveRowImpl(
+              new GeoWaveKeyImpl(
+                  ByteBuffer.allocate(4).putInt(i).array(),
+                  (short) 0,
+                  new byte[0],
+                  new byte[0],
+                  0),
+              new GeoWaveValue[0]));
+    }
+    return rows;
+  }
+
+  @Test
+  public void testDecodeAllRows() throws Exception {
+    final int count = 50000;
+    final SimpleParallelDecoder<Integer> decoder =
+        new SimpleParallelDecoder<>(DATA_ID_TRANSFORMER, createRows(count).iterator(), 4);
+    decoder.startDecode();
+    final Set<Integer> decoded = new HashSet<>();
+    int rows = 0;
+    while (decoder.hasNext()) {
+      decoded.add(decoder.next());
+      rows++;
+    }
+    decoder.close();
+    assertEquals(count, rows);
+    assertEquals(count, decoded.size());
+    assertEquals(count, decoder.getStatistics().getDecodedRows());
+  }
+
+  @Test
+  public void testEarlyClose() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      final SimpleParallelDecoder<Integer> decoder =
+          new SimpleParallelDecoder<>(DATA_ID_TRANSFORMER, createRows(50000).iterator(), 4);
+      decoder.startDecode();
+      assertTrue(decoder.hasNext());
+      decoder.next();
+      decoder.close();
+    }
+  }
+
+  @Test
+  public void testDecodeException() throws Exception {
+    final GeoWaveRowIteratorTransformer<Integer> failingTransformer =
+        input -> Iterators.transform(input, row -> {
+          final int value = ByteBuffer.wrap(row.getDataId()).getInt();
+          if (value == 1234) {
+            throw new IllegalStateException("Unable to decode");
+          }
+          return value;
+        });
+    final SimpleParallelDecoder<Integer> decoder =
+        new SimpleParallelDecoder<>(failingTransformer, createRows(10000).iterator(), 4);
+    decoder.startDecode();
+    try {
+      while (decoder.hasNext()) {
+        decoder.next();
+      }
+      fail("Expected the decode exception to be thrown");
+    } catch (final RuntimeException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    } finally {
+      decoder.close();
+    }
+  }
+}
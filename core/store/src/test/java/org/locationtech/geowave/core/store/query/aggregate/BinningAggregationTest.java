@@ -145,4 +145,21 @@ public class BinningAggregationTest extends AbstractAggregationTest {
     }
     assertThat(boundedAgg.getResult().size(), is(12));
   }
+
+  @Test
+  public void testMergeMaxBins() {
+    final BinningAggregation<Persistable, Long, CommonIndexedPersistenceEncoding> agg =
+        new BinningAggregation<>(new CountAggregation(), randomBinStrategy, 2);
+
+    final Map<ByteArray, Long> res1 =
+        ImmutableMap.of(new ByteArray("0"), 3L, new ByteArray("1"), 2L);
+    final Map<ByteArray, Long> res2 =
+        ImmutableMap.of(new ByteArray("1"), 3L, new ByteArray("2"), 4L);
+
+    // each partial result is within the limit, but the merged result must be as well
+    final Map<ByteArray, Long> merged = agg.merge(res1, res2);
+    assertThat(merged.size(), is(2));
+    assertThat(merged.get(new ByteArray("0")), is(3L));
+    assertThat(merged.get(new ByteArray("1")), is(5L));
+  }
 }
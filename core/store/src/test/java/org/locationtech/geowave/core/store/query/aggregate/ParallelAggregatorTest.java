@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.aggregate;
+
+import static org.junit.Assert.assertEquals;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Test;
+import org.locationtech.geowave.core.index.ByteArray;
+import org.locationtech.geowave.core.index.persist.Persistable;
+import org.locationtech.geowave.core.store.api.BinningStrategy;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.data.CommonIndexedPersistenceEncoding;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+
+public class ParallelAggregatorTest {
+
+  @Test
+  public void testParallelCount() {
+    final int count = 10007;
+    final List<CommonIndexedPersistenceEncoding> encodings =
+        AbstractCommonIndexAggregationTest.generateObjects(count);
+    for (final int threads : new int[] {1, 2, 4, 8}) {
+      final Long result =
+          new ParallelAggregator<>(new CountAggregation(), threads, 10).aggregate(
+              null,
+              encodings.iterator());
+      assertEquals(Long.valueOf(count), result);
+    }
+  }
+
+  @Test
+  public void testEmptyInput() {
+    final List<CommonIndexedPersistenceEncoding> encodings =
+        AbstractCommonIndexAggregationTest.generateObjects(0);
+    final Long result =
+        new ParallelAggregator<>(new CountAggregation(), 4).aggregate(null, encodings.iterator());
+    assertEquals(Long.valueOf(0), result);
+  }
+
+  @Test
+  public void testParallelBinning() {
+    final BinningStrategy uniqueBins = new BinningStrategy() {
+      @Override
+      public byte[] toBinary() {
+        return new byte[0];
+      }
+
+      @Override
+      public void fromBinary(final byte[] bytes) {}
+
+      @Override
+      public <T> ByteArray[] getBins(
+          final DataTypeAdapter<T> type,
+          final T entry,
+          final GeoWaveRow... rows) {
+        return new ByteArray[] {new ByteArray(UUID.randomUUID().toString())};
+      }
+    };
+    final int count = 1000;
+    final List<CommonIndexedPersistenceEncoding> encodings =
+        AbstractCommonIndexAggregationTest.generateObjects(count);
+    final BinningAggregation<Persistable, Long, CommonIndexedPersistenceEncoding> agg =
+        new BinningAggregation<>(new CountAggregation(), uniqueBins, -1);
+    assertEquals(
+        count,
+        new ParallelAggregator<>(agg, 4, 10).aggregate(null, encodings.iterator()).size());
+  }
+
+  @Test
+  public void testNonPersistableAggregationFallsBack() {
+    // an anonymous aggregation isn't registered, so it can't be copied to each thread
+    final CountAggregation agg = new CountAggregation() {};
+    final int count = 100;
+    final List<CommonIndexedPersistenceEncoding> encodings =
+        AbstractCommonIndexAggregationTest.generateObjects(count);
+    assertEquals(
+        Long.valueOf(count),
+        new ParallelAggregator<>(agg, 4).aggregate(null, encodings.iterator()));
+  }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.locationtech.geowave.core.index.StringUtils;
+
+public class DataIdDedupeSetTest {
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testInMemory() {
+    try (final DataIdDedupeSet set = new DataIdDedupeSet()) {
+      assertTrue(set.add((short) 0, StringUtils.stringToBinary("a")));
+      assertTrue(set.add((short) 1, StringUtils.stringToBinary("a")));
+      assertTrue(set.add((short) 0, StringUtils.stringToBinary("b")));
+      assertFalse(set.add((short) 0, StringUtils.stringToBinary("a")));
+      assertFalse(set.add((short) 1, StringUtils.stringToBinary("a")));
+      assertEquals(3, set.getInMemorySize());
+      assertEquals(0, set.getSpilledSize());
+    }
+  }
+
+  @Test
+  public void testSpillToDisk() throws Exception {
+    final int count = 100000;
+    try (final DataIdDedupeSet set = new DataIdDedupeSet(6400, tempFolder.newFolder())) {
+      for (int i = 0; i < count; i++) {
+        assertTrue(set.add((short) (i % 3), StringUtils.stringToBinary("id" + i)));
+      }
+      assertTrue(set.getSpilledSize() > 0);
+      assertTrue(set.getInMemorySize() <= 6400);
+      assertEquals(count, set.getInMemorySize() + set.getSpilledSize());
+      for (int i = 0; i < count; i++) {
+        assertFalse(set.add((short) (i % 3), StringUtils.stringToBinary("id" + i)));
+      }
+      // lookups of data IDs that aren't in any run must not be mistaken for duplicates
+      for (int i = count; i < (count * 2); i++) {
+        assertTrue(set.add((short) (i % 3), StringUtils.stringToBinary("id" + i)));
+      }
+    }
+  }
+
+  @Test
+  public void testDefaultNeverSpills() {
+    final int count = 100000;
+    // sets that aren't closed by a scan, such as those of distributed filters, keep every data ID
+    try (final DataIdDedupeSet set = new DataIdDedupeSet()) {
+      for (int i = 0; i < count; i++) {
+        assertTrue(set.add((short) 0, StringUtils.stringToBinary("id" + i)));
+      }
+      assertEquals(count, set.getInMemorySize());
+      assertEquals(0, set.getSpilledSize());
+      assertFalse(set.add((short) 0, StringUtils.stringToBinary("id0")));
+    }
+  }
+
+  @Test
+  public void testCloseDeletesRuns() throws Exception {
+    final File spillDirectory = tempFolder.newFolder();
+    final DataIdDedupeSet set = new DataIdDedupeSet(640, spillDirectory);
+    for (int i = 0; i < 10000; i++) {
+      set.add((short) 0, StringUtils.stringToBinary("id" + i));
+    }
+    assertTrue(set.getSpilledSize() > 0);
+    assertTrue(spillDirectory.list().length > 0);
+    set.close();
+    assertEquals(0, spillDirectory.list().length);
+  }
+
+  @Test
+  public void testConcurrentAdds() throws Exception {
+    final int threads = 8;
+    final int count = 20000;
+    final AtomicInteger added = new AtomicInteger(0);
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try (final DataIdDedupeSet set = new DataIdDedupeSet(1000, tempFolder.newFolder())) {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < count; i++) {
+            if (set.add((short) 0, StringUtils.stringToBinary("id" + i))) {
+              added.incrementAndGet();
+            }
+          }
+        }));
+      }
+      for (final Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+    assertEquals(count, added.get());
+  }
+}
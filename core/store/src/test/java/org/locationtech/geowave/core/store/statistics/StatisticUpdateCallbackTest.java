@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.List;
+import org.junit.Test;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
+import org.locationtech.geowave.core.store.adapter.MockComponents;
+import org.locationtech.geowave.core.store.adapter.MockComponents.MockAbstractDataAdapter;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.Statistic;
+import org.locationtech.geowave.core.store.api.StatisticValue;
+import org.locationtech.geowave.core.store.statistics.adapter.CountStatistic;
+import org.locationtech.geowave.core.store.statistics.adapter.CountStatistic.CountValue;
+import org.locationtech.geowave.core.store.statistics.binning.FieldValueBinningStrategy;
+import com.google.common.collect.Lists;
+
+public class StatisticUpdateCallbackTest {
+  private static final int NUM_ENTRIES = 50000;
+  private static final int NUM_BINS = 20000;
+
+  @Test
+  public void testMemoryBudgetFlush() {
+    final DataTypeAdapter<Integer> adapter = new MockComponents.MockAbstractDataAdapter();
+    // a high-cardinality binned statistic
+    final CountStatistic count = new CountStatistic(adapter.getTypeName());
+    count.setBinningStrategy(new FieldValueBinningStrategy(MockAbstractDataAdapter.INTEGER));
+    final TestStatisticsStore store = new TestStatisticsStore(getClass(), adapter, count);
+    final DataStatisticsStore statsStore = store.getStatisticsStore();
+    final InternalDataAdapter<Integer> internalAdapter = store.getAdapter();
+
+    final List<Statistic<? extends StatisticValue<?>>> callbackStatistics = Lists.newArrayList();
+    callbackStatistics.add(count);
+    // use a 1 MB budget which is smaller than the values for all of the bins
+    final StatisticUpdateCallback<Integer> callback =
+        new StatisticUpdateCallback<>(
+            callbackStatistics,
+            statsStore,
+            null,
+            null,
+            internalAdapter,
+            1);
+    for (int i = 0; i < NUM_ENTRIES; i++) {
+      final Integer entry = i % NUM_BINS;
+      callback.entryIngested(entry, store.createRow(entry, new byte[0]));
+      assertTrue(callback.getEstimatedMemory() <= (1024 * 1024));
+    }
+    assertTrue(callback.getBufferStatistics().getBudgetFlushes() > 0);
+    assertTrue(callback.getBufferStatistics().getFlushedValues() > 0);
+    callback.close();
+    assertEquals(0, callback.getBufferStatistics().getBufferedValues());
+
+    // the partial values written for each bin should add up to the total count
+    long total = 0;
+    try (CloseableIterator<CountValue> values = statsStore.getStatisticValues(count)) {
+      while (values.hasNext()) {
+        total += values.next().getValue();
+      }
+    }
+    assertEquals(NUM_ENTRIES, total);
+  }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.statistics;
+
+import static org.junit.Assert.assertEquals;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import org.locationtech.geowave.core.index.StringUtils;
+import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
+import org.locationtech.geowave.core.store.adapter.MockComponents;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.statistics.adapter.CountStatistic;
+import org.locationtech.geowave.core.store.statistics.adapter.CountStatistic.CountValue;
+import com.google.common.collect.Lists;
+
+public class StatisticUpdateHandlerTest {
+  private static final int NUM_THREADS = 16;
+  private static final int ENTRIES_PER_THREAD = 10000;
+  private static final byte[] VISIBILITY_A = StringUtils.stringToBinary("aaa");
+  private static final byte[] VISIBILITY_B = StringUtils.stringToBinary("bbb");
+
+  @Test
+  public void testConcurrentIngest() throws Exception {
+    final DataTypeAdapter<Integer> adapter = new MockComponents.MockAbstractDataAdapter();
+    final CountStatistic count = new CountStatistic(adapter.getTypeName());
+    final TestStatisticsStore store = new TestStatisticsStore(getClass(), adapter, count);
+    final DataStatisticsStore statsStore = store.getStatisticsStore();
+    final InternalDataAdapter<Integer> internalAdapter = store.getAdapter();
+
+    final StatisticUpdateHandler<Integer, CountValue, Long> handler =
+        new StatisticUpdateHandler<>(count, null, null, internalAdapter);
+    final ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+    try {
+      final List<Future<?>> futures = Lists.newArrayList();
+      for (int t = 0; t < NUM_THREADS; t++) {
+        final int thread = t;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < ENTRIES_PER_THREAD; i++) {
+            // alternate visibilities to exercise the cached visibility lookup
+            final int entry = (thread * ENTRIES_PER_THREAD) + i;
+            handler.entryIngested(
+                entry,
+                store.createRow(entry, (i % 2) == 0 ? VISIBILITY_A : VISIBILITY_B));
+          }
+        }));
+      }
+      for (final Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    handler.writeStatistics(statsStore, false);
+
+    assertEquals(
+        Long.valueOf(NUM_THREADS * ENTRIES_PER_THREAD),
+        statsStore.getStatisticValue(count, "aaa", "bbb").getValue());
+    assertEquals(
+        Long.valueOf((NUM_THREADS * ENTRIES_PER_THREAD) / 2),
+        statsStore.getStatisticValue(count, "aaa").getValue());
+  }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.statistics;
+
+import java.util.Arrays;
+import org.locationtech.geowave.core.store.StoreFactoryFamilySpi;
+import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
+import org.locationtech.geowave.core.store.adapter.MockComponents;
+import org.locationtech.geowave.core.store.api.DataStore;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.Index;
+import org.locationtech.geowave.core.store.api.Statistic;
+import org.locationtech.geowave.core.store.entities.GeoWaveKeyImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import org.locationtech.geowave.core.store.entities.GeoWaveValueImpl;
+import org.locationtech.geowave.core.store.index.IndexImpl;
+import org.locationtech.geowave.core.store.memory.MemoryRequiredOptions;
+import org.locationtech.geowave.core.store.memory.MemoryStoreFactoryFamily;
+
+/**
+ * A memory data store with a single mock type and the statistics under test, for tests that update
+ * statistics directly rather than by writing to the data store.
+ */
+class TestStatisticsStore {
+  private final DataStatisticsStore statisticsStore;
+  private final InternalDataAdapter<Integer> adapter;
+
+  /**
+   * @param test the test class, which is used as the namespace of the store
+   * @param adapter the type to add
+   * @param statistics the statistics to add to the type
+   */
+  TestStatisticsStore(
+      final Class<?> test,
+      final DataTypeAdapter<Integer> adapter,
+      final Statistic<?>... statistics) {
+    final Index index =
+        new IndexImpl(new MockComponents.MockIndexStrategy(), new MockComponents.TestIndexModel());
+    final StoreFactoryFamilySpi storeFamily = new MemoryStoreFactoryFamily();
+    final MemoryRequiredOptions opts = new MemoryRequiredOptions();
+    opts.setGeoWaveNamespace("test_" + test.getName());
+    final DataStore dataStore = storeFamily.getDataStoreFactory().createStore(opts);
+    statisticsStore = storeFamily.getDataStatisticsStoreFactory().createStore(opts);
+    dataStore.addType(adapter, Arrays.asList(statistics), index);
+    final short adapterId =
+        storeFamily.getInternalAdapterStoreFactory().createStore(opts).getAdapterId(
+            adapter.getTypeName());
+    this.adapter = adapter.asInternalAdapter(adapterId);
+  }
+
+  DataStatisticsStore getStatisticsStore() {
+    return statisticsStore;
+  }
+
+  InternalDataAdapter<Integer> getAdapter() {
+    return adapter;
+  }
+
+  /**
+   * Create the row of an entry of the type with a single field value.
+   */
+  GeoWaveRow createRow(final int entry, final byte[] visibility) {
+    return new GeoWaveRowImpl(
+        new GeoWaveKeyImpl(
+            adapter.getDataId(entry),
+            adapter.getAdapterId(),
+            new byte[0],
+            new byte[0],
+            0),
+        new GeoWaveValue[] {new GeoWaveValueImpl(new byte[] {1}, visibility, new byte[0])});
+  }
+}
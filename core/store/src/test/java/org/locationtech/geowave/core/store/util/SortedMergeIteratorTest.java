@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+import org.locationtech.geowave.core.store.entities.GeoWaveKeyImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowSortKeyOrder;
+import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+
+public class SortedMergeIteratorTest {
+
+  @Test
+  public void testMerge() {
+    final Random random = new Random(42);
+    final List<Integer> expected = new ArrayList<>();
+    final List<Iterator<Integer>> sources = new ArrayList<>();
+    for (int s = 0; s < 10; s++) {
+      final List<Integer> source = new ArrayList<>();
+      for (int i = random.nextInt(100); i > 0; i--) {
+        source.add(random.nextInt(1000));
+      }
+      Collections.sort(source);
+      expected.addAll(source);
+      sources.add(source.iterator());
+    }
+    // include an empty source
+    sources.add(Collections.emptyIterator());
+    Collections.sort(expected);
+
+    final List<Integer> results = new ArrayList<>();
+    try (SortedMergeIterator<Integer> it =
+        new SortedMergeIterator<>(sources, Comparator.naturalOrder(), null)) {
+      it.forEachRemaining(results::add);
+    }
+    assertEquals(expected, results);
+  }
+
+  @Test
+  public void testTiesInSourceOrder() {
+    final List<Iterator<String>> sources =
+        Arrays.asList(
+            Arrays.asList("a1", "b1").iterator(),
+            Arrays.asList("a2", "c2").iterator(),
+            Arrays.asList("b3").iterator());
+    final List<String> results = new ArrayList<>();
+    new SortedMergeIterator<>(
+        sources,
+        Comparator.comparing((final String s) -> s.charAt(0)),
+        null).forEachRemaining(results::add);
+    assertEquals(Arrays.asList("a1", "a2", "b1", "b3", "c2"), results);
+  }
+
+  @Test
+  public void testMergeBySortKey() {
+    final List<Iterator<GeoWaveRow>> sources =
+        Arrays.asList(
+            Arrays.asList(createRow(1, 3), createRow(4, 1)).iterator(),
+            Arrays.asList(createRow(2, 2), createRow(3, 2), createRow(4, 0)).iterator());
+    final AtomicBoolean closed = new AtomicBoolean(false);
+    final List<GeoWaveRow> results = new ArrayList<>();
+    try (SortedMergeIterator<GeoWaveRow> it =
+        SortedMergeIterator.mergeBySortKey(sources, () -> closed.set(true))) {
+      it.forEachRemaining(results::add);
+    }
+    assertTrue(closed.get());
+    assertEquals(5, results.size());
+    for (int i = 1; i < results.size(); i++) {
+      assertTrue(
+          GeoWaveRowSortKeyOrder.SINGLETON.compare(results.get(i - 1), results.get(i)) <= 0);
+    }
+    // rows with the same sort key are ordered by data ID
+    assertArrayEquals(new byte[] {0}, results.get(3).getDataId());
+    assertArrayEquals(new byte[] {1}, results.get(4).getDataId());
+  }
+
+  @Test
+  public void testNoSources() {
+    try (SortedMergeIterator<GeoWaveRow> it =
+        SortedMergeIterator.mergeBySortKey(new ArrayList<>(), null)) {
+      assertFalse(it.hasNext());
+    }
+  }
+
+  private static GeoWaveRow createRow(final int sortKey, final int dataId) {
+    return new GeoWaveRowImpl(
+        new GeoWaveKeyImpl(
+            new byte[] {(byte) dataId},
+            (short) 1,
+            new byte[0],
+            new byte[] {(byte) sortKey},
+            0),
+        new GeoWaveValue[0]);
+  }
+}
@@ -15,26 +15,31 @@ import java.awt.image.DataBufferFloat;
 import java.awt.image.DataBufferInt;
 import java.awt.image.DataBufferShort;
 import java.awt.image.DataBufferUShort;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 import org.apache.commons.lang3.ArrayUtils;
 import org.locationtech.geowave.adapter.raster.protobuf.DataBufferProtos;
 import org.locationtech.geowave.adapter.raster.protobuf.DataBufferProtos.ByteDataBuffer;
 import org.locationtech.geowave.adapter.raster.protobuf.DataBufferProtos.DoubleArray;
-import org.locationtech.geowave.adapter.raster.protobuf.DataBufferProtos.DoubleDataBuffer;
+import org.locationtech.geowave.adapter.raster.protobuf.DataBufferProtos.EncodedDataBuffer;
 import org.locationtech.geowave.adapter.raster.protobuf.DataBufferProtos.FloatArray;
-import org.locationtech.geowave.adapter.raster.protobuf.DataBufferProtos.FloatDataBuffer;
 import org.locationtech.geowave.adapter.raster.protobuf.DataBufferProtos.SignedIntArray;
 import org.locationtech.geowave.adapter.raster.protobuf.DataBufferProtos.SignedIntDataBuffer;
-import com.google.common.primitives.Doubles;
-import com.google.common.primitives.Floats;
 import com.google.common.primitives.Ints;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import me.lemire.integercompression.differential.IntegratedIntCompressor;
 
 public class DataBufferPersistenceUtils {
+  // the version of the encoding used for float and double banks
+  private static final int FLOATING_POINT_ENCODING_VERSION = 1;
+
   public static byte[] getDataBufferBinary(final DataBuffer dataBuffer) {
     final DataBufferProtos.DataBuffer.Builder bldr = DataBufferProtos.DataBuffer.newBuilder();
     bldr.setType(dataBuffer.getDataType());
@@ -73,42 +78,22 @@ public class DataBufferPersistenceUtils {
         setBuilder(((DataBufferInt) dataBuffer).getBankData(), bldr);
         break;
       case DataBuffer.TYPE_FLOAT:
-        final FloatDataBuffer.Builder fltBldr = FloatDataBuffer.newBuilder();
         final float[][] fltBank = ((DataBufferFloat) dataBuffer).getBankData();
-        final Iterable<FloatArray> floatIt = () -> new Iterator<FloatArray>() {
-          private int index = 0;
-
-          @Override
-          public boolean hasNext() {
-            return fltBank.length > index;
-          }
-
-          @Override
-          public FloatArray next() {
-            return FloatArray.newBuilder().addAllSamples(Floats.asList(fltBank[index++])).build();
-          }
-        };
-        fltBldr.addAllBanks(floatIt);
-        bldr.setFlt(fltBldr);
+        final EncodedDataBuffer.Builder fltBldr = newEncodedBuilder();
+        for (final float[] samples : fltBank) {
+          fltBldr.addBankLengths(samples.length);
+          fltBldr.addBanks(UnsafeByteOperations.unsafeWrap(encodeFloats(samples)));
+        }
+        bldr.setEncoded(fltBldr);
         break;
       case DataBuffer.TYPE_DOUBLE:
-        final DoubleDataBuffer.Builder dblBldr = DoubleDataBuffer.newBuilder();
         final double[][] dblBank = ((DataBufferDouble) dataBuffer).getBankData();
-        final Iterable<DoubleArray> dblIt = () -> new Iterator<DoubleArray>() {
-          private int index = 0;
-
-          @Override
-          public boolean hasNext() {
-            return dblBank.length > index;
-          }
-
-          @Override
-          public DoubleArray next() {
-            return DoubleArray.newBuilder().addAllSamples(Doubles.asList(dblBank[index++])).build();
-          }
-        };
-        dblBldr.addAllBanks(dblIt);
-        bldr.setDbl(dblBldr);
+        final EncodedDataBuffer.Builder dblBldr = newEncodedBuilder();
+        for (final double[] samples : dblBank) {
+          dblBldr.addBankLengths(samples.length);
+          dblBldr.addBanks(UnsafeByteOperations.unsafeWrap(encodeDoubles(samples)));
+        }
+        bldr.setEncoded(dblBldr);
         break;
       default:
         throw new RuntimeException(
@@ -170,11 +155,21 @@ public class DataBufferPersistenceUtils {
             buffer.getSize(),
             offsets);
       case DataBuffer.TYPE_FLOAT:
+        if (buffer.hasEncoded()) {
+          return new DataBufferFloat(decodeFloats(buffer.getEncoded()), buffer.getSize(), offsets);
+        }
+        // tiles written before floating point banks were encoded
         return new DataBufferFloat(
             listToFloat(buffer.getFlt().getBanksList()),
             buffer.getSize(),
             offsets);
       case DataBuffer.TYPE_DOUBLE:
+        if (buffer.hasEncoded()) {
+          return new DataBufferDouble(
+              decodeDoubles(buffer.getEncoded()),
+              buffer.getSize(),
+              offsets);
+        }
         return new DataBufferDouble(
             listToDouble(buffer.getDbl().getBanksList()),
             buffer.getSize(),
@@ -185,6 +180,143 @@ public class DataBufferPersistenceUtils {
     }
   }
 
+  private static EncodedDataBuffer.Builder newEncodedBuilder() {
+    return EncodedDataBuffer.newBuilder().setVersion(FLOATING_POINT_ENCODING_VERSION);
+  }
+
+  /**
+   * Encode samples by XOR-ing the bits of each sample with the previous sample, so that the
+   * sign, exponent, and high mantissa bits shared by neighboring samples become zeros, and then
+   * shuffling the bytes so that the n-th byte of every sample is stored together. The long runs of
+   * zero bytes this produces are then deflated.
+   */
+  protected static byte[] encodeFloats(final float[] samples) {
+    final int length = samples.length;
+    final byte[] shuffled = new byte[length * Float.BYTES];
+    int previous = 0;
+    for (int i = 0; i < length; i++) {
+      // raw bits are used so that NaN no data values are preserved
+      final int bits = Float.floatToRawIntBits(samples[i]);
+      final int xor = bits ^ previous;
+      previous = bits;
+      shuffled[i] = (byte) (xor >>> 24);
+      shuffled[length + i] = (byte) (xor >>> 16);
+      shuffled[(2 * length) + i] = (byte) (xor >>> 8);
+      shuffled[(3 * length) + i] = (byte) xor;
+    }
+    return deflate(shuffled);
+  }
+
+  protected static float[] decodeFloats(final byte[] encoded, final int length)
+      throws IOException {
+    final byte[] shuffled = inflate(encoded, length * Float.BYTES);
+    final float[] samples = new float[length];
+    int previous = 0;
+    for (int i = 0; i < length; i++) {
+      final int xor =
+          ((shuffled[i] & 0xFF) << 24)
+              | ((shuffled[length + i] & 0xFF) << 16)
+              | ((shuffled[(2 * length) + i] & 0xFF) << 8)
+              | (shuffled[(3 * length) + i] & 0xFF);
+      previous ^= xor;
+      samples[i] = Float.intBitsToFloat(previous);
+    }
+    return samples;
+  }
+
+  /** Encode samples the same way as {@link #encodeFloats(float[])} using 8 bytes per sample. */
+  protected static byte[] encodeDoubles(final double[] samples) {
+    final int length = samples.length;
+    final byte[] shuffled = new byte[length * Double.BYTES];
+    long previous = 0;
+    for (int i = 0; i < length; i++) {
+      final long bits = Double.doubleToRawLongBits(samples[i]);
+      final long xor = bits ^ previous;
+      previous = bits;
+      for (int b = 0; b < Double.BYTES; b++) {
+        shuffled[(b * length) + i] = (byte) (xor >>> (56 - (8 * b)));
+      }
+    }
+    return deflate(shuffled);
+  }
+
+  protected static double[] decodeDoubles(final byte[] encoded, final int length)
+      throws IOException {
+    final byte[] shuffled = inflate(encoded, length * Double.BYTES);
+    final double[] samples = new double[length];
+    long previous = 0;
+    for (int i = 0; i < length; i++) {
+      long xor = 0;
+      for (int b = 0; b < Double.BYTES; b++) {
+        xor = (xor << 8) | (shuffled[(b * length) + i] & 0xFF);
+      }
+      previous ^= xor;
+      samples[i] = Double.longBitsToDouble(previous);
+    }
+    return samples;
+  }
+
+  private static float[][] decodeFloats(final EncodedDataBuffer encoded) throws IOException {
+    checkEncodingVersion(encoded);
+    final float[][] retVal = new float[encoded.getBanksCount()][];
+    for (int i = 0; i < retVal.length; i++) {
+      retVal[i] = decodeFloats(encoded.getBanks(i).toByteArray(), encoded.getBankLengths(i));
+    }
+    return retVal;
+  }
+
+  private static double[][] decodeDoubles(final EncodedDataBuffer encoded) throws IOException {
+    checkEncodingVersion(encoded);
+    final double[][] retVal = new double[encoded.getBanksCount()][];
+    for (int i = 0; i < retVal.length; i++) {
+      retVal[i] = decodeDoubles(encoded.getBanks(i).toByteArray(), encoded.getBankLengths(i));
+    }
+    return retVal;
+  }
+
+  private static void checkEncodingVersion(final EncodedDataBuffer encoded) throws IOException {
+    if (encoded.getVersion() != FLOATING_POINT_ENCODING_VERSION) {
+      throw new IOException("Unsupported data buffer encoding version " + encoded.getVersion());
+    }
+  }
+
+  private static byte[] deflate(final byte[] bytes) {
+    final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+      final ByteArrayOutputStream out = new ByteArrayOutputStream((bytes.length / 2) + 64);
+      final byte[] buf = new byte[8192];
+      while (!deflater.finished()) {
+        out.write(buf, 0, deflater.deflate(buf));
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static byte[] inflate(final byte[] bytes, final int length) throws IOException {
+    final Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(bytes);
+      final byte[] retVal = new byte[length];
+      int offset = 0;
+      while (offset < length) {
+        final int read = inflater.inflate(retVal, offset, length - offset);
+        if ((read == 0) && (inflater.finished() || inflater.needsInput())) {
+          throw new IOException("Encoded data buffer bank is truncated");
+        }
+        offset += read;
+      }
+      return retVal;
+    } catch (final DataFormatException e) {
+      throw new IOException("Unable to inflate data buffer bank", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
   private static byte[][] listToByte(final List<ByteString> list) {
     final byte[][] retVal = new byte[list.size()][];
     for (int i = 0; i < list.size(); i++) {
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.adapter.raster.util;
+
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferDouble;
+import java.awt.image.DataBufferFloat;
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.geowave.adapter.raster.protobuf.DataBufferProtos;
+import org.locationtech.geowave.adapter.raster.protobuf.DataBufferProtos.FloatArray;
+import org.locationtech.geowave.adapter.raster.protobuf.DataBufferProtos.FloatDataBuffer;
+import com.google.common.primitives.Floats;
+
+public class DataBufferPersistenceUtilsTest {
+  @Test
+  public void testFloatRoundTrip() throws Exception {
+    final float[][] banks = new float[2][64];
+    for (int i = 0; i < 64; i++) {
+      banks[0][i] = (float) (100 + Math.sin(i / 8.0));
+      banks[1][i] = -i * 0.25f;
+    }
+    banks[0][3] = Float.NaN;
+    final DataBuffer decoded =
+        DataBufferPersistenceUtils.getDataBuffer(
+            DataBufferPersistenceUtils.getDataBufferBinary(new DataBufferFloat(banks, 64)));
+    Assert.assertTrue(decoded instanceof DataBufferFloat);
+    Assert.assertEquals(64, decoded.getSize());
+    for (int b = 0; b < banks.length; b++) {
+      Assert.assertArrayEquals(banks[b], ((DataBufferFloat) decoded).getData(b), 0f);
+    }
+  }
+
+  @Test
+  public void testDoubleRoundTrip() throws Exception {
+    final double[][] banks = new double[1][100];
+    for (int i = 0; i < 100; i++) {
+      banks[0][i] = 1234.5678 + (i * 0.001);
+    }
+    banks[0][50] = Double.NaN;
+    final DataBuffer decoded =
+        DataBufferPersistenceUtils.getDataBuffer(
+            DataBufferPersistenceUtils.getDataBufferBinary(new DataBufferDouble(banks, 100)));
+    Assert.assertTrue(decoded instanceof DataBufferDouble);
+    Assert.assertArrayEquals(banks[0], ((DataBufferDouble) decoded).getData(0), 0d);
+  }
+
+  @Test
+  public void testReadUnencodedFloats() throws Exception {
+    // tiles written before floating point banks were encoded store the samples directly
+    final float[] samples = new float[] {1.5f, 2.5f, Float.NaN, -4f};
+    final FloatDataBuffer.Builder fltBldr = FloatDataBuffer.newBuilder();
+    fltBldr.addBanks(FloatArray.newBuilder().addAllSamples(Floats.asList(samples)));
+    final DataBufferProtos.DataBuffer.Builder bldr = DataBufferProtos.DataBuffer.newBuilder();
+    bldr.setType(DataBuffer.TYPE_FLOAT);
+    bldr.addOffsets(0);
+    bldr.setSize(samples.length);
+    bldr.setFlt(fltBldr);
+    final byte[] binary = bldr.build().toByteArray();
+    final DataBuffer decoded = DataBufferPersistenceUtils.getDataBuffer(binary);
+    Assert.assertArrayEquals(samples, ((DataBufferFloat) decoded).getData(0), 0f);
+  }
+}
@@ -76,14 +76,16 @@ select_statement
 	locals [
 		Filter filter = null,
 		Integer limit = null,
+		GroupBy groupBy = null,
 		List<Selector> selectorList = Lists.newArrayList()
 	]
  	: K_SELECT selectors[$selectorList]
 	  K_FROM qualified_type_name
 	( K_WHERE cql_filter { $filter = $cql_filter.filter; })?
+	( K_GROUP K_BY group_by { $groupBy = $group_by.groupBy; })?
 	( K_LIMIT INTEGER { $limit = $INTEGER.int; })?
 	{
-		$stmt = new SelectStatement($qualified_type_name.qtn, $selectorList, $filter, $limit);
+		$stmt = new SelectStatement($qualified_type_name.qtn, $selectorList, $filter, $groupBy, $limit);
 	}
 ;
  
@@ -143,6 +145,29 @@ function_arg
 	: '*'
 	| column_name
 ;
+
+group_by
+	returns [
+		GroupBy groupBy
+	]
+	locals [
+		List<String> args = Lists.newArrayList()
+	]
+	: function_name '(' column_name { $args.add($column_name.text); }
+	  ( ',' group_arg { $args.add($group_arg.text); } )* ')'
+	{
+		$groupBy = new GroupBy($function_name.text, $args.toArray(new String[$args.size()]));
+	}
+	| column_name
+	{
+		$groupBy = new GroupBy($column_name.text);
+	}
+;
+
+group_arg
+	: IDENTIFIER
+	| INTEGER
+;
  
 column_name
 	: IDENTIFIER
@@ -187,8 +212,10 @@ cql_paren
 
 keyword
 	: K_AND
+	| K_BY
 	| K_DELETE
 	| K_FROM
+	| K_GROUP
 	| K_LIMIT
 	| K_OR
 	| K_SELECT
@@ -197,9 +224,11 @@ keyword
 
 K_AND : A N D;
 K_AS : A S;
+K_BY : B Y;
 K_CQL : C Q L;
 K_DELETE : D E L E T E;
 K_FROM : F R O M;
+K_GROUP : G R O U P;
 K_LIMIT : L I M I T;
 K_OR : O R;
 K_SELECT : S E L E C T;
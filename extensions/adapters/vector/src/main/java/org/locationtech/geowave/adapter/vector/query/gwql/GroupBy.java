@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.adapter.vector.query.gwql;
+
+/**
+ * The grouping of an aggregation query. Results can be grouped by the value of a column, or by a
+ * binning function applied to a column, such as a time bucket or a spatial cell.
+ */
+public class GroupBy {
+  private final String functionName;
+  private final String[] functionArgs;
+  private final String name;
+
+  /**
+   * @param columnName the column to group by
+   */
+  public GroupBy(final String columnName) {
+    this(null, new String[] {columnName});
+  }
+
+  /**
+   * @param functionName the name of the binning function, or {@code null} to group by the value of
+   *        the column
+   * @param functionArgs the function arguments, the first of which is the column to bin
+   */
+  public GroupBy(final String functionName, final String[] functionArgs) {
+    this.functionName = functionName;
+    this.functionArgs = functionArgs;
+    if (functionName == null) {
+      name = functionArgs[0];
+    } else {
+      name = functionName.toUpperCase() + "(" + String.join(",", functionArgs) + ")";
+    }
+  }
+
+  /**
+   * @return the name of the binning function, or {@code null} if grouping by column value
+   */
+  public String functionName() {
+    return functionName;
+  }
+
+  /**
+   * @return the function arguments
+   */
+  public String[] functionArgs() {
+    return functionArgs;
+  }
+
+  /**
+   * @return the column that is grouped on
+   */
+  public String columnName() {
+    return functionArgs[0];
+  }
+
+  /**
+   * @return the display name of the group column
+   */
+  public String name() {
+    return name;
+  }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.adapter.vector.query.gwql;
+
+import java.util.Iterator;
+import java.util.List;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+/**
+ * A result set that wraps a list of results that have already been computed.
+ */
+public class ListResultSet implements ResultSet {
+
+  private final List<String> columnNames;
+  private final List<Class<?>> columnTypes;
+  private final Iterator<List<Object>> results;
+
+  /**
+   * @param columnNames the display name of each column
+   * @param columnTypes the type of each column
+   * @param results the values of each column for each result
+   */
+  public ListResultSet(
+      final List<String> columnNames,
+      final List<Class<?>> columnTypes,
+      final List<List<Object>> results) {
+    this.columnNames = columnNames;
+    this.columnTypes = columnTypes;
+    this.results = results.iterator();
+  }
+
+  @Override
+  public void close() {}
+
+  @Override
+  public boolean hasNext() {
+    return results.hasNext();
+  }
+
+  @Override
+  public Result next() {
+    return new Result(results.next());
+  }
+
+  @Override
+  public int columnCount() {
+    return columnNames.size();
+  }
+
+  @Override
+  public String columnName(final int index) {
+    return columnNames.get(index);
+  }
+
+  @Override
+  public Class<?> columnType(final int index) {
+    return columnTypes.get(index);
+  }
+
+  @Override
+  public CoordinateReferenceSystem getCRS() {
+    return DefaultGeographicCRS.WGS84;
+  }
+
+}
@@ -8,6 +8,8 @@
  */
 package org.locationtech.geowave.adapter.vector.query.gwql.function;
 
+import org.locationtech.geowave.core.geotime.binning.SpatialBinningType;
+
 /**
  * The built-in set of functions used by the GeoWave query language.
  */
@@ -20,7 +22,17 @@ public class DefaultFunctionSet implements QLFunctionRegistrySpi {
         new QLFunctionNameAndConstructor("BBOX", BboxFunction::new),
         new QLFunctionNameAndConstructor("MIN", MinFunction::new),
         new QLFunctionNameAndConstructor("MAX", MaxFunction::new),
-        new QLFunctionNameAndConstructor("SUM", SumFunction::new)};
+        new QLFunctionNameAndConstructor("SUM", SumFunction::new),
+        new QLFunctionNameAndConstructor("TIME_BUCKET", TimeBucketFunction::new),
+        new QLFunctionNameAndConstructor(
+            "GEOHASH",
+            () -> new SpatialBinningFunction(SpatialBinningType.GEOHASH)),
+        new QLFunctionNameAndConstructor(
+            "H3",
+            () -> new SpatialBinningFunction(SpatialBinningType.H3)),
+        new QLFunctionNameAndConstructor(
+            "S2",
+            () -> new SpatialBinningFunction(SpatialBinningType.S2))};
   }
 
 }
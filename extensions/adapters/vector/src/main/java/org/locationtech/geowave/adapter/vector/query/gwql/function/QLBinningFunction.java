@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.adapter.vector.query.gwql.function;
+
+import org.locationtech.geowave.core.store.api.StatisticBinningStrategy;
+import org.opengis.feature.simple.SimpleFeatureType;
+
+/**
+ * Interface for functions that can be used to group the results of an aggregation.
+ */
+public interface QLBinningFunction extends QLFunction {
+  /**
+   * Gets the binning strategy associated with this function.
+   *
+   * @param featureType the feature type of the features
+   * @param functionArgs the function arguments
+   * @return the binning strategy for this function
+   */
+  public StatisticBinningStrategy getBinningStrategy(
+      final SimpleFeatureType featureType,
+      final String[] functionArgs);
+}
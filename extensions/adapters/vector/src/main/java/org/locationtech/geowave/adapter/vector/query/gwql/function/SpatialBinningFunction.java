@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.adapter.vector.query.gwql.function;
+
+import org.locationtech.geowave.core.geotime.binning.ComplexGeometryBinningOption;
+import org.locationtech.geowave.core.geotime.binning.SpatialBinningType;
+import org.locationtech.geowave.core.geotime.store.statistics.binning.SpatialFieldValueBinningStrategy;
+import org.locationtech.geowave.core.store.api.StatisticBinningStrategy;
+import org.locationtech.jts.geom.Geometry;
+import org.opengis.feature.simple.SimpleFeatureType;
+import org.opengis.feature.type.AttributeDescriptor;
+
+/**
+ * Binning function that groups features by the spatial cell (GeoHash, H3, or S2) of the centroid of
+ * a geometry column. The first argument is the column and the optional second argument is the
+ * precision of the cells.
+ */
+public class SpatialBinningFunction implements QLBinningFunction {
+  private static final int DEFAULT_PRECISION = 8;
+
+  private final SpatialBinningType type;
+
+  /**
+   * @param type the spatial binning type to use
+   */
+  public SpatialBinningFunction(final SpatialBinningType type) {
+    this.type = type;
+  }
+
+  @Override
+  public Class<?> returnType() {
+    return String.class;
+  }
+
+  @Override
+  public StatisticBinningStrategy getBinningStrategy(
+      final SimpleFeatureType featureType,
+      final String[] functionArgs) {
+    if (functionArgs == null || functionArgs.length < 1 || functionArgs.length > 2) {
+      throw new RuntimeException(type.name() + " takes 1 or 2 parameters");
+    }
+    final AttributeDescriptor descriptor = featureType.getDescriptor(functionArgs[0]);
+    if (descriptor == null) {
+      throw new RuntimeException(
+          "No attribute called '" + functionArgs[0] + "' was found in the given type.");
+    }
+    if (!Geometry.class.isAssignableFrom(descriptor.getType().getBinding())) {
+      throw new RuntimeException(type.name() + " can only be used on geometry attributes.");
+    }
+    int precision = DEFAULT_PRECISION;
+    if (functionArgs.length == 2) {
+      try {
+        precision = Integer.parseInt(functionArgs[1]);
+      } catch (final NumberFormatException e) {
+        throw new RuntimeException(type.name() + " precision must be an integer.");
+      }
+    }
+    return new SpatialFieldValueBinningStrategy(
+        type,
+        precision,
+        ComplexGeometryBinningOption.USE_CENTROID_ONLY,
+        functionArgs[0]);
+  }
+}
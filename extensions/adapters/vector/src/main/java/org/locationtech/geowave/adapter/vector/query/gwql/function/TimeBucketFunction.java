@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.adapter.vector.query.gwql.function;
+
+import org.locationtech.geowave.core.geotime.index.dimension.TemporalBinningStrategy.Unit;
+import org.locationtech.geowave.core.geotime.store.statistics.binning.TimeRangeFieldValueBinningStrategy;
+import org.locationtech.geowave.core.store.api.StatisticBinningStrategy;
+import org.opengis.feature.simple.SimpleFeatureType;
+import org.opengis.feature.type.AttributeDescriptor;
+
+/**
+ * Binning function that groups features by the time bucket of a temporal column. The first argument
+ * is the column and the optional second argument is the periodicity of the buckets (i.e. `HOUR`,
+ * `DAY`, `MONTH`), which defaults to `DAY`.
+ */
+public class TimeBucketFunction implements QLBinningFunction {
+  @Override
+  public Class<?> returnType() {
+    return String.class;
+  }
+
+  @Override
+  public StatisticBinningStrategy getBinningStrategy(
+      final SimpleFeatureType featureType,
+      final String[] functionArgs) {
+    if (functionArgs == null || functionArgs.length < 1 || functionArgs.length > 2) {
+      throw new RuntimeException("TIME_BUCKET takes 1 or 2 parameters");
+    }
+    final AttributeDescriptor descriptor = featureType.getDescriptor(functionArgs[0]);
+    if (descriptor == null) {
+      throw new RuntimeException(
+          "No attribute called '" + functionArgs[0] + "' was found in the given type.");
+    }
+    Unit periodicity = Unit.DAY;
+    if (functionArgs.length == 2) {
+      periodicity = Unit.fromString(functionArgs[1]);
+      if (periodicity == null) {
+        throw new RuntimeException("Unknown time bucket periodicity '" + functionArgs[1] + "'.");
+      }
+    }
+    return new TimeRangeFieldValueBinningStrategy(periodicity, functionArgs[0]);
+  }
+}
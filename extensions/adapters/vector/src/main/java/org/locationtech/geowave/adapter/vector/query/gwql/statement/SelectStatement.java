@@ -9,28 +9,36 @@
 package org.locationtech.geowave.adapter.vector.query.gwql.statement;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.geotools.data.DataUtilities;
 import org.locationtech.geowave.adapter.vector.query.aggregation.CompositeVectorAggregation;
 import org.locationtech.geowave.adapter.vector.query.gwql.AggregationSelector;
 import org.locationtech.geowave.adapter.vector.query.gwql.ColumnSelector;
+import org.locationtech.geowave.adapter.vector.query.gwql.GroupBy;
+import org.locationtech.geowave.adapter.vector.query.gwql.ListResultSet;
 import org.locationtech.geowave.adapter.vector.query.gwql.QualifiedTypeName;
 import org.locationtech.geowave.adapter.vector.query.gwql.ResultSet;
 import org.locationtech.geowave.adapter.vector.query.gwql.Selector;
 import org.locationtech.geowave.adapter.vector.query.gwql.Selector.SelectorType;
 import org.locationtech.geowave.adapter.vector.query.gwql.SimpleFeatureResultSet;
 import org.locationtech.geowave.adapter.vector.query.gwql.SingletonResultSet;
+import org.locationtech.geowave.adapter.vector.query.gwql.function.QLBinningFunction;
 import org.locationtech.geowave.adapter.vector.query.gwql.function.QLFunction;
 import org.locationtech.geowave.adapter.vector.query.gwql.function.QLFunctionRegistry;
 import org.locationtech.geowave.adapter.vector.query.gwql.function.QLVectorAggregationFunction;
 import org.locationtech.geowave.core.geotime.store.GeotoolsFeatureDataAdapter;
 import org.locationtech.geowave.core.geotime.store.query.api.VectorAggregationQueryBuilder;
 import org.locationtech.geowave.core.geotime.store.query.api.VectorQueryBuilder;
+import org.locationtech.geowave.core.index.ByteArray;
 import org.locationtech.geowave.core.index.persist.PersistableList;
 import org.locationtech.geowave.core.store.api.DataStore;
 import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.StatisticBinningStrategy;
+import org.locationtech.geowave.core.store.statistics.binning.FieldValueBinningStrategy;
 import org.opengis.feature.simple.SimpleFeatureType;
 import org.opengis.filter.Filter;
 import com.google.common.collect.Lists;
@@ -44,6 +52,7 @@ public class SelectStatement implements Statement {
   private final QualifiedTypeName typeName;
   private List<Selector> selectors;
   private final Filter filter;
+  private final GroupBy groupBy;
   private final Integer limit;
 
   /**
@@ -57,9 +66,26 @@ public class SelectStatement implements Statement {
       final List<Selector> selectors,
       final @Nullable Filter filter,
       final @Nullable Integer limit) {
+    this(typeName, selectors, filter, null, limit);
+  }
+
+  /**
+   * @param typeName the type to select data from
+   * @param selectors the selectors to use
+   * @param filter the filter to use
+   * @param groupBy the grouping of the aggregation results
+   * @param limit the limit to use
+   */
+  public SelectStatement(
+      final QualifiedTypeName typeName,
+      final List<Selector> selectors,
+      final @Nullable Filter filter,
+      final @Nullable GroupBy groupBy,
+      final @Nullable Integer limit) {
     this.typeName = typeName;
     this.selectors = selectors;
     this.filter = filter;
+    this.groupBy = groupBy;
     this.limit = limit;
   }
 
@@ -72,6 +98,9 @@ public class SelectStatement implements Statement {
     final GeotoolsFeatureDataAdapter<?> adapter = (GeotoolsFeatureDataAdapter<?>) dataAdapter;
     final SimpleFeatureType featureType = adapter.getFeatureType();
 
+    if ((groupBy != null) && !isAggregation()) {
+      throw new RuntimeException("GROUP BY can only be used with aggregation functions.");
+    }
     if (isAggregation()) {
       final VectorAggregationQueryBuilder<PersistableList, List<Object>> bldr =
           VectorAggregationQueryBuilder.newBuilder();
@@ -79,7 +108,8 @@ public class SelectStatement implements Statement {
       if (filter != null) {
         bldr.constraints(bldr.constraintsFactory().filterConstraints(filter));
       }
-      if (limit != null) {
+      if ((limit != null) && (groupBy == null)) {
+        // a grouped aggregation is limited by the number of groups, not the number of features
         bldr.limit(limit);
       }
 
@@ -106,6 +136,9 @@ public class SelectStatement implements Statement {
         columnTypes.add(function.returnType());
       }
       bldr.aggregate(typeName.typeName(), composite);
+      if (groupBy != null) {
+        return executeGroupBy(dataStore, bldr, featureType, columnNames, columnTypes);
+      }
       return new SingletonResultSet(columnNames, columnTypes, dataStore.aggregate(bldr.build()));
     } else {
       final VectorQueryBuilder bldr =
@@ -143,6 +176,60 @@ public class SelectStatement implements Statement {
     }
   }
 
+  /**
+   * Executes the aggregation with a binning strategy so that the grouping is done alongside the
+   * aggregation in the data store and only a single result per group is returned. The group value
+   * is the first column of each result. The limit applies to the groups, so every group that is
+   * returned is aggregated over all of the features that match the filter.
+   */
+  private ResultSet executeGroupBy(
+      final DataStore dataStore,
+      final VectorAggregationQueryBuilder<PersistableList, List<Object>> bldr,
+      final SimpleFeatureType featureType,
+      final List<String> columnNames,
+      final List<Class<?>> columnTypes) {
+    final StatisticBinningStrategy binningStrategy;
+    if (groupBy.functionName() == null) {
+      if (featureType.getDescriptor(groupBy.columnName()) == null) {
+        throw new RuntimeException(
+            "No column named " + groupBy.columnName() + " was found in " + typeName.typeName());
+      }
+      binningStrategy = new FieldValueBinningStrategy(groupBy.columnName());
+    } else {
+      final QLFunction function = QLFunctionRegistry.instance().getFunction(groupBy.functionName());
+      if (function == null) {
+        throw new RuntimeException(
+            "No function called '" + groupBy.functionName() + "' was found.");
+      }
+      if (!(function instanceof QLBinningFunction)) {
+        throw new RuntimeException(
+            "Function '" + groupBy.functionName() + "' cannot be used to group results.");
+      }
+      binningStrategy =
+          ((QLBinningFunction) function).getBinningStrategy(featureType, groupBy.functionArgs());
+    }
+    final Map<ByteArray, List<Object>> groupedResults =
+        dataStore.aggregate(bldr.buildWithBinningStrategy(binningStrategy, -1));
+    final List<List<Object>> results = Lists.newArrayListWithCapacity(groupedResults.size());
+    groupedResults.forEach((bin, values) -> {
+      final List<Object> result = Lists.newArrayListWithCapacity(values.size() + 1);
+      result.add(binningStrategy.binToString(bin));
+      result.addAll(values);
+      results.add(result);
+    });
+    results.sort(Comparator.comparing(r -> (String) r.get(0)));
+    if ((limit != null) && (results.size() > limit)) {
+      // bins are only complete once every partial result is merged, so the limit can't be the
+      // maximum number of bins without dropping features from the groups that are kept
+      results.subList(limit, results.size()).clear();
+    }
+    final List<String> groupedColumnNames = Lists.newArrayList(groupBy.name());
+    groupedColumnNames.addAll(columnNames);
+    final List<Class<?>> groupedColumnTypes = Lists.newArrayList(String.class);
+    groupedColumnTypes.addAll(columnTypes);
+    return new ListResultSet(groupedColumnNames, groupedColumnTypes, results);
+  }
+
   /**
    * @return {@code true} if this select statement represents an aggregation, {@code false}
    *         otherwise
@@ -167,6 +254,13 @@ public class SelectStatement implements Statement {
     return filter;
   }
 
+  /**
+   * @return the grouping of the aggregation results, or {@code null} if they are not grouped
+   */
+  public GroupBy groupBy() {
+    return groupBy;
+  }
+
   /**
    * @return the limit for the query
    */
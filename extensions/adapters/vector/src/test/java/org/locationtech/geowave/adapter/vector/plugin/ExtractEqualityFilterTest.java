@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.adapter.vector.plugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.geotools.data.DataUtilities;
+import org.geotools.feature.SchemaException;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.filter.text.cql2.CQLException;
+import org.geotools.filter.text.ecql.ECQL;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.geowave.adapter.vector.FeatureDataAdapter;
+import org.locationtech.geowave.core.geotime.index.api.SpatialIndexBuilder;
+import org.locationtech.geowave.core.geotime.store.query.api.VectorQueryBuilder;
+import org.locationtech.geowave.core.geotime.util.ExtractEqualityFilter;
+import org.locationtech.geowave.core.geotime.util.GeometryUtils;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.api.DataStore;
+import org.locationtech.geowave.core.store.api.Statistic;
+import org.locationtech.geowave.core.store.api.Writer;
+import org.locationtech.geowave.core.store.base.BaseDataStore;
+import org.locationtech.geowave.core.store.base.IndexSelectionExplanation;
+import org.locationtech.geowave.core.store.memory.MemoryRequiredOptions;
+import org.locationtech.geowave.core.store.memory.MemoryStoreFactoryFamily;
+import org.locationtech.geowave.core.store.statistics.field.BloomFilterStatistic;
+import org.locationtech.jts.geom.Coordinate;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class ExtractEqualityFilterTest {
+  private static final String TYPE_NAME = "equality";
+  private SimpleFeatureType type;
+  private FeatureDataAdapter adapter;
+
+  @Before
+  public void setup() throws SchemaException {
+    type =
+        DataUtilities.createType(
+            TYPE_NAME,
+            "geometry:Point:srid=4326,name:String,pop:Integer,area:Double,when:Date");
+    adapter = new FeatureDataAdapter(type);
+  }
+
+  private Map<String, Set<String>> extract(final String cql) throws CQLException {
+    return ExtractEqualityFilter.getRequiredFieldValues(ECQL.toFilter(cql), adapter);
+  }
+
+  @Test
+  public void testEquality() throws CQLException {
+    Map<String, Set<String>> values = extract("name = 'a'");
+    assertEquals(1, values.size());
+    assertEquals(Sets.newHashSet("a"), values.get("name"));
+
+    values = extract("'a' = name");
+    assertEquals(Sets.newHashSet("a"), values.get("name"));
+
+    // literals are converted to the attribute binding
+    values = extract("pop = 5.0 AND area = 5");
+    assertEquals(Sets.newHashSet("5"), values.get("pop"));
+    assertEquals(Sets.newHashSet("5.0"), values.get("area"));
+
+    // only attributes with a canonical string form are constrained
+    assertTrue(extract("when = 2005-05-19T20:32:56Z").isEmpty());
+    assertTrue(extract("name <> 'a'").isEmpty());
+    assertTrue(extract("NOT (name = 'a')").isEmpty());
+    assertTrue(extract("strToLowerCase(name) = 'a'").isEmpty());
+  }
+
+  @Test
+  public void testAndOr() throws CQLException {
+    Map<String, Set<String>> values = extract("name = 'a' AND pop > 5");
+    assertEquals(1, values.size());
+    assertEquals(Sets.newHashSet("a"), values.get("name"));
+
+    values = extract("name IN ('a', 'b')");
+    assertEquals(Sets.newHashSet("a", "b"), values.get("name"));
+
+    values = extract("name = 'a' OR name = 'b' OR name = 'c'");
+    assertEquals(Sets.newHashSet("a", "b", "c"), values.get("name"));
+
+    // an attribute is only constrained if every branch of an OR constrains it
+    assertTrue(extract("name = 'a' OR pop = 5").isEmpty());
+
+    values = extract("(name = 'a' OR name = 'b') AND name = 'b'");
+    assertEquals(Sets.newHashSet("b"), values.get("name"));
+
+    // contradictory constraints can't match anything
+    values = extract("name = 'a' AND name = 'b'");
+    assertTrue(values.get("name").isEmpty());
+  }
+
+  @Test
+  public void testStatisticsPruning() throws CQLException {
+    final MemoryRequiredOptions opts = new MemoryRequiredOptions();
+    opts.setGeoWaveNamespace("test_" + getClass().getName());
+    final DataStore dataStore =
+        new MemoryStoreFactoryFamily().getDataStoreFactory().createStore(opts);
+    final List<Statistic<?>> statistics = Lists.newArrayList();
+    statistics.add(new BloomFilterStatistic(TYPE_NAME, "name"));
+    dataStore.addType(adapter, statistics, new SpatialIndexBuilder().createIndex());
+    try (Writer<SimpleFeature> writer = dataStore.createWriter(TYPE_NAME)) {
+      for (int i = 0; i < 10; i++) {
+        final SimpleFeatureBuilder builder = new SimpleFeatureBuilder(type);
+        builder.set("geometry", GeometryUtils.GEOMETRY_FACTORY.createPoint(new Coordinate(i, i)));
+        builder.set("name", "name" + i);
+        builder.set("pop", i);
+        writer.write(builder.buildFeature(Integer.toString(i)));
+      }
+    }
+    final VectorQueryBuilder present = VectorQueryBuilder.newBuilder();
+    present.addTypeName(TYPE_NAME).constraints(
+        present.constraintsFactory().cqlConstraints("name = 'name3'"));
+    try (CloseableIterator<SimpleFeature> it = dataStore.query(present.build())) {
+      assertTrue(it.hasNext());
+      assertEquals("3", it.next().getID());
+      assertFalse(it.hasNext());
+    }
+    assertTrue(
+        ((BaseDataStore) dataStore).explainIndexSelection(present.build()).stream().noneMatch(
+            IndexSelectionExplanation::isPruned));
+
+    final VectorQueryBuilder missing = VectorQueryBuilder.newBuilder();
+    missing.addTypeName(TYPE_NAME).constraints(
+        missing.constraintsFactory().cqlConstraints("name = 'missing' AND pop < 5"));
+    try (CloseableIterator<SimpleFeature> it = dataStore.query(missing.build())) {
+      assertFalse(it.hasNext());
+    }
+    final List<IndexSelectionExplanation> explanations =
+        ((BaseDataStore) dataStore).explainIndexSelection(missing.build());
+    assertEquals(1, explanations.size());
+    assertTrue(explanations.get(0).isPruned());
+  }
+}
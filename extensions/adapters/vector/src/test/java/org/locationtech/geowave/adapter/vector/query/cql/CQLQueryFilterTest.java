@@ -8,15 +8,21 @@
  */
 package org.locationtech.geowave.adapter.vector.query.cql;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map.Entry;
 import java.util.UUID;
 import org.geotools.data.DataUtilities;
 import org.geotools.feature.SchemaException;
 import org.geotools.feature.simple.SimpleFeatureBuilder;
 import org.geotools.filter.FilterFactoryImpl;
 import org.geotools.filter.text.cql2.CQLException;
+import org.geotools.filter.text.ecql.ECQL;
 import org.junit.Before;
 import org.junit.Test;
 import org.locationtech.geowave.adapter.vector.FeatureDataAdapter;
@@ -24,6 +30,7 @@ import org.locationtech.geowave.core.geotime.index.SpatialDimensionalityTypeProv
 import org.locationtech.geowave.core.geotime.index.SpatialOptions;
 import org.locationtech.geowave.core.geotime.store.InternalGeotoolsFeatureDataAdapter;
 import org.locationtech.geowave.core.geotime.store.query.ExplicitCQLQuery;
+import org.locationtech.geowave.core.geotime.store.query.filter.CQLQueryFilter;
 import org.locationtech.geowave.core.index.InsertionIds;
 import org.locationtech.geowave.core.index.SinglePartitionInsertionIds;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
@@ -31,6 +38,8 @@ import org.locationtech.geowave.core.store.adapter.AdapterPersistenceEncoding;
 import org.locationtech.geowave.core.store.adapter.IndexedAdapterPersistenceEncoding;
 import org.locationtech.geowave.core.store.api.Index;
 import org.locationtech.geowave.core.store.base.BaseDataStoreUtils;
+import org.locationtech.geowave.core.store.data.DeferredReadCommonIndexedPersistenceEncoding;
+import org.locationtech.geowave.core.store.flatten.FlattenedFieldInfo;
 import org.locationtech.geowave.core.store.query.filter.FilterList;
 import org.locationtech.geowave.core.store.query.filter.QueryFilter;
 import org.locationtech.jts.geom.Coordinate;
@@ -95,6 +104,138 @@ public class CQLQueryFilterTest {
                 internalAdapter.encode(createFeature(), indexMapping, spatialIndex)).get(0)));
   }
 
+  @Test
+  public void testReadsOnlyReferencedFields() {
+    final FilterFactoryImpl factory = new FilterFactoryImpl();
+    final Index spatialIndex =
+        new SpatialDimensionalityTypeProvider().createIndex(new SpatialOptions());
+    final FeatureDataAdapter adapter = new FeatureDataAdapter(type);
+    final AdapterToIndexMapping indexMapping =
+        BaseDataStoreUtils.mapAdapterToIndex(adapter.asInternalAdapter((short) -1), spatialIndex);
+    final InternalGeotoolsFeatureDataAdapter<SimpleFeature> internalAdapter =
+        (InternalGeotoolsFeatureDataAdapter<SimpleFeature>) adapter.asInternalAdapter((short) -1);
+
+    final CQLQueryFilter matchingFilter =
+        new CQLQueryFilter(
+            factory.equal(factory.property("pid"), factory.literal("a89dhd-123-abc"), false),
+            internalAdapter,
+            indexMapping);
+    final DeferredReadCommonIndexedPersistenceEncoding matchingEncoding =
+        getDeferredEncoding(spatialIndex, internalAdapter, indexMapping);
+    assertTrue(matchingFilter.accept(spatialIndex.getIndexModel(), matchingEncoding));
+    // only the field referenced by the filter should have been read
+    assertNotNull(matchingEncoding.getAdapterExtendedData().getValue("pid"));
+    assertNull(matchingEncoding.getAdapterExtendedData().getValue("pop"));
+
+    final CQLQueryFilter nonMatchingFilter =
+        new CQLQueryFilter(
+            factory.greater(factory.property("pop"), factory.literal(1000)),
+            internalAdapter,
+            indexMapping);
+    final DeferredReadCommonIndexedPersistenceEncoding nonMatchingEncoding =
+        getDeferredEncoding(spatialIndex, internalAdapter, indexMapping);
+    assertFalse(nonMatchingFilter.accept(spatialIndex.getIndexModel(), nonMatchingEncoding));
+    assertNull(nonMatchingEncoding.getAdapterExtendedData().getValue("pid"));
+  }
+
+  @Test
+  public void testCompiledFilterShortCircuits() throws CQLException {
+    final Index spatialIndex =
+        new SpatialDimensionalityTypeProvider().createIndex(new SpatialOptions());
+    final FeatureDataAdapter adapter = new FeatureDataAdapter(type);
+    final AdapterToIndexMapping indexMapping =
+        BaseDataStoreUtils.mapAdapterToIndex(adapter.asInternalAdapter((short) -1), spatialIndex);
+    final InternalGeotoolsFeatureDataAdapter<SimpleFeature> internalAdapter =
+        (InternalGeotoolsFeatureDataAdapter<SimpleFeature>) adapter.asInternalAdapter((short) -1);
+
+    // the spatial part can't be compiled, but the comparison decides the result on its own
+    final CQLQueryFilter andFilter =
+        new CQLQueryFilter(
+            ECQL.toFilter("pop > 1000 AND BBOX(geom, 27, 41, 28, 42) AND pid = 'a89dhd-123-abc'"),
+            internalAdapter,
+            indexMapping);
+    final DeferredReadCommonIndexedPersistenceEncoding andEncoding =
+        getDeferredEncoding(spatialIndex, internalAdapter, indexMapping);
+    assertFalse(andFilter.accept(spatialIndex.getIndexModel(), andEncoding));
+    assertNotNull(andEncoding.getAdapterExtendedData().getValue("pop"));
+    assertNull(andEncoding.getAdapterExtendedData().getValue("pid"));
+
+    final CQLQueryFilter orFilter =
+        new CQLQueryFilter(
+            ECQL.toFilter("pop < 1000 OR pid = 'other'"),
+            internalAdapter,
+            indexMapping);
+    final DeferredReadCommonIndexedPersistenceEncoding orEncoding =
+        getDeferredEncoding(spatialIndex, internalAdapter, indexMapping);
+    assertTrue(orFilter.accept(spatialIndex.getIndexModel(), orEncoding));
+    assertNull(orEncoding.getAdapterExtendedData().getValue("pid"));
+  }
+
+  @Test
+  public void testCompiledFilterMatchesFeatureFilter() throws CQLException {
+    final Index spatialIndex =
+        new SpatialDimensionalityTypeProvider().createIndex(new SpatialOptions());
+    final FeatureDataAdapter adapter = new FeatureDataAdapter(type);
+    final AdapterToIndexMapping indexMapping =
+        BaseDataStoreUtils.mapAdapterToIndex(adapter.asInternalAdapter((short) -1), spatialIndex);
+    final InternalGeotoolsFeatureDataAdapter<SimpleFeature> internalAdapter =
+        (InternalGeotoolsFeatureDataAdapter<SimpleFeature>) adapter.asInternalAdapter((short) -1);
+    final SimpleFeature feature = createFeature();
+
+    final String[] cql =
+        new String[] {
+            "pop = 100",
+            "pop > 50",
+            "50 > pop",
+            "pop <= 99",
+            "pop BETWEEN 100 AND 200",
+            "pop BETWEEN 101 AND 200",
+            "pop = 100.5",
+            "pid = 'a89dhd-123-abc'",
+            "pid = 'A89DHD-123-ABC'",
+            "pid IS NULL",
+            "NOT (pop >= 100)",
+            "pid = 'other' OR pop < 101",
+            "pid LIKE 'a89%' AND pop = 100",
+            "BBOX(geom, 27, 41, 28, 42) AND pop = 100",
+            "BBOX(geom, 0, 0, 1, 1) OR pop <> 100"};
+    for (final String query : cql) {
+      final Filter filter = ECQL.toFilter(query);
+      final CQLQueryFilter queryFilter = new CQLQueryFilter(filter, internalAdapter, indexMapping);
+      assertEquals(
+          query,
+          filter.evaluate(feature),
+          queryFilter.accept(
+              spatialIndex.getIndexModel(),
+              getDeferredEncoding(spatialIndex, internalAdapter, indexMapping)));
+    }
+  }
+
+  private DeferredReadCommonIndexedPersistenceEncoding getDeferredEncoding(
+      final Index index,
+      final InternalGeotoolsFeatureDataAdapter<SimpleFeature> adapter,
+      final AdapterToIndexMapping indexMapping) {
+    final AdapterPersistenceEncoding encoding =
+        adapter.encode(createFeature(), indexMapping, index);
+    final List<FlattenedFieldInfo> unreadFields = new ArrayList<>();
+    for (final Entry<String, Object> value : encoding.getAdapterExtendedData().getValues()
+        .entrySet()) {
+      unreadFields.add(
+          new FlattenedFieldInfo(
+              adapter.getPositionOfOrderedField(index.getIndexModel(), value.getKey()),
+              adapter.getWriter(value.getKey()).writeField(value.getValue())));
+    }
+    final IndexedAdapterPersistenceEncoding indexedEncoding = getEncodings(index, encoding).get(0);
+    return new DeferredReadCommonIndexedPersistenceEncoding(
+        indexedEncoding.getInternalAdapterId(),
+        indexedEncoding.getDataId(),
+        indexedEncoding.getInsertionPartitionKey(),
+        indexedEncoding.getInsertionSortKey(),
+        indexedEncoding.getDuplicateCount(),
+        indexedEncoding.getCommonData(),
+        () -> unreadFields);
+  }
+
   private static List<IndexedAdapterPersistenceEncoding> getEncodings(
       final Index index,
       final AdapterPersistenceEncoding encoding) {
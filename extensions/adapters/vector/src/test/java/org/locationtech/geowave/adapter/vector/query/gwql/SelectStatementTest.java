@@ -15,16 +15,31 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.List;
+import org.geotools.data.DataUtilities;
+import org.geotools.feature.SchemaException;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
 import org.junit.Test;
+import org.locationtech.geowave.adapter.vector.FeatureDataAdapter;
 import org.locationtech.geowave.adapter.vector.query.gwql.AggregationSelector;
 import org.locationtech.geowave.adapter.vector.query.gwql.ColumnSelector;
 import org.locationtech.geowave.adapter.vector.query.gwql.parse.GWQLParser;
 import org.locationtech.geowave.adapter.vector.query.gwql.statement.SelectStatement;
 import org.locationtech.geowave.adapter.vector.query.gwql.statement.Statement;
+import org.locationtech.geowave.core.geotime.index.api.SpatialIndexBuilder;
+import org.locationtech.geowave.core.geotime.util.GeometryUtils;
+import org.locationtech.geowave.core.store.api.DataStore;
+import org.locationtech.geowave.core.store.api.Writer;
+import org.locationtech.geowave.core.store.memory.MemoryRequiredOptions;
+import org.locationtech.geowave.core.store.memory.MemoryStoreFactoryFamily;
+import org.locationtech.jts.geom.Coordinate;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
 import org.opengis.filter.And;
 import org.opengis.filter.Filter;
 import org.opengis.filter.spatial.BBOX;
 import org.opengis.filter.temporal.During;
+import com.google.common.collect.Lists;
 
 public class SelectStatementTest extends AbstractStatementTest {
 
@@ -56,6 +71,10 @@ public class SelectStatementTest extends AbstractStatementTest {
     assertInvalidStatement("SELECT * FROM store.type LIMIT 1.5", "expecting INTEGER");
     // Missing column alias
     assertInvalidStatement("SELECT a AS FROM store.type", "expecting IDENTIFIER");
+    // Missing group by column
+    assertInvalidStatement("SELECT COUNT(*) FROM store.type GROUP BY", "expecting IDENTIFIER");
+    // Group by after limit
+    assertInvalidStatement("SELECT COUNT(*) FROM store.type LIMIT 1 GROUP BY a", "expecting");
   }
 
   @Test
@@ -88,6 +107,104 @@ public class SelectStatementTest extends AbstractStatementTest {
     GWQLParser.parseStatement("SELECT SUM(a), COUNT(*) FROM store.type LIMIT 1");
     GWQLParser.parseStatement("SELECT SUM(a), COUNT(*) FROM store.type WHERE CQL(a < 1)");
     GWQLParser.parseStatement("SELECT SUM(a), COUNT(*) FROM store.type WHERE CQL(a > 1) LIMIT 4");
+    GWQLParser.parseStatement("SELECT COUNT(*) FROM store.type GROUP BY a");
+    GWQLParser.parseStatement("SELECT COUNT(*) FROM store.type GROUP BY a LIMIT 1");
+    GWQLParser.parseStatement("SELECT COUNT(*) FROM store.type WHERE CQL(a < 1) GROUP BY a");
+    GWQLParser.parseStatement("SELECT SUM(a), COUNT(*) FROM store.type GROUP BY TIME_BUCKET(b)");
+    GWQLParser.parseStatement("SELECT COUNT(*) FROM store.type GROUP BY TIME_BUCKET(b, HOUR)");
+    GWQLParser.parseStatement("SELECT COUNT(*) FROM store.type GROUP BY GEOHASH(geom, 5)");
+  }
+
+  @Test
+  public void testGroupBy() {
+    final String statement = "SELECT COUNT(*) AS total FROM store.type GROUP BY a";
+    final Statement gwStatement = GWQLParser.parseStatement(statement);
+    assertTrue(gwStatement instanceof SelectStatement);
+    final SelectStatement selectStatement = (SelectStatement) gwStatement;
+    assertTrue(selectStatement.isAggregation());
+    assertNotNull(selectStatement.groupBy());
+    assertNull(selectStatement.groupBy().functionName());
+    assertEquals("a", selectStatement.groupBy().columnName());
+    assertEquals("a", selectStatement.groupBy().name());
+    assertNull(selectStatement.filter());
+    assertNull(selectStatement.limit());
+  }
+
+  @Test
+  public void testGroupByFunction() {
+    final String statement =
+        "SELECT SUM(a) FROM store.type WHERE CQL(a > 1) GROUP BY GEOHASH(geom, 5) LIMIT 10";
+    final Statement gwStatement = GWQLParser.parseStatement(statement);
+    assertTrue(gwStatement instanceof SelectStatement);
+    final SelectStatement selectStatement = (SelectStatement) gwStatement;
+    assertTrue(selectStatement.isAggregation());
+    final GroupBy groupBy = selectStatement.groupBy();
+    assertNotNull(groupBy);
+    assertEquals("GEOHASH", groupBy.functionName());
+    assertEquals(2, groupBy.functionArgs().length);
+    assertEquals("geom", groupBy.columnName());
+    assertEquals("5", groupBy.functionArgs()[1]);
+    assertEquals("GEOHASH(geom,5)", groupBy.name());
+    assertNotNull(selectStatement.filter());
+    assertEquals(10, selectStatement.limit().intValue());
+  }
+
+  @Test
+  public void testGroupByExecution() throws SchemaException {
+    final SimpleFeatureType type =
+        DataUtilities.createType("type", "geometry:Point:srid=4326,name:String,pop:Integer");
+    final MemoryRequiredOptions opts = new MemoryRequiredOptions();
+    opts.setGeoWaveNamespace("test_" + getClass().getName());
+    final DataStore dataStore =
+        new MemoryStoreFactoryFamily().getDataStoreFactory().createStore(opts);
+    dataStore.addType(new FeatureDataAdapter(type), new SpatialIndexBuilder().createIndex());
+    try (Writer<SimpleFeature> writer = dataStore.createWriter("type")) {
+      for (int i = 0; i < 10; i++) {
+        final SimpleFeatureBuilder builder = new SimpleFeatureBuilder(type);
+        builder.set("geometry", GeometryUtils.GEOMETRY_FACTORY.createPoint(new Coordinate(i, i)));
+        builder.set("name", "name" + (2 - (i % 3)));
+        builder.set("pop", i);
+        writer.write(builder.buildFeature(Integer.toString(i)));
+      }
+    }
+
+    List<Result> results =
+        execute(dataStore, "SELECT COUNT(*), SUM(pop) FROM store.type GROUP BY name");
+    assertEquals(3, results.size());
+    assertGroup(results.get(0), "name0", 3, 15);
+    assertGroup(results.get(1), "name1", 3, 12);
+    assertGroup(results.get(2), "name2", 4, 18);
+
+    // the limit applies to the groups, which are still aggregated over every feature
+    results = execute(dataStore, "SELECT COUNT(*), SUM(pop) FROM store.type GROUP BY name LIMIT 2");
+    assertEquals(2, results.size());
+    assertGroup(results.get(0), "name0", 3, 15);
+    assertGroup(results.get(1), "name1", 3, 12);
+
+    results =
+        execute(
+            dataStore,
+            "SELECT COUNT(*), SUM(pop) FROM store.type WHERE CQL(pop < 6) GROUP BY name LIMIT 1");
+    assertEquals(1, results.size());
+    assertGroup(results.get(0), "name0", 2, 7);
+  }
+
+  private static List<Result> execute(final DataStore dataStore, final String statement) {
+    try (ResultSet results = GWQLParser.parseStatement(statement).execute(dataStore)) {
+      assertEquals(3, results.columnCount());
+      assertEquals("name", results.columnName(0));
+      return Lists.newArrayList(results);
+    }
+  }
+
+  private static void assertGroup(
+      final Result result,
+      final String group,
+      final long count,
+      final long sum) {
+    assertEquals(group, result.columnValue(0));
+    assertEquals(count, ((Number) result.columnValue(1)).longValue());
+    assertEquals(sum, ((Number) result.columnValue(2)).longValue());
   }
 
 
@@ -102,6 +219,7 @@ public class SelectStatementTest extends AbstractStatementTest {
     assertEquals("store", selectStatement.typeName().storeName());
     assertEquals("type", selectStatement.typeName().typeName());
     assertNull(selectStatement.filter());
+    assertNull(selectStatement.groupBy());
   }
 
   @Test
@@ -1275,7 +1275,8 @@ public class AccumuloOperations implements
         params.getIndex().getIndexStrategy().getPartitionKeyLength(),
         params.isMixedVisibility() && !params.isServersideAggregation(),
         params.isClientsideRowMerging(),
-        true);
+        true,
+        options.getDecodeThreads());
   }
 
   protected <T> Scanner getScanner(final RecordReaderParams params) {
@@ -51,6 +51,24 @@ public class AccumuloReader<T> implements RowReader<T> {
       final boolean wholeRowEncoding,
       final boolean clientSideRowMerging,
       final boolean parallel) {
+    this(
+        scanner,
+        transformer,
+        partitionKeyLength,
+        wholeRowEncoding,
+        clientSideRowMerging,
+        parallel,
+        ParallelDecoder.DEFAULT_NUM_THREADS);
+  }
+
+  public AccumuloReader(
+      final ScannerBase scanner,
+      final GeoWaveRowIteratorTransformer<T> transformer,
+      final int partitionKeyLength,
+      final boolean wholeRowEncoding,
+      final boolean clientSideRowMerging,
+      final boolean parallel,
+      final int decodeThreads) {
     this.scanner = scanner;
     this.partitionKeyLength = partitionKeyLength;
     this.wholeRowEncoding = wholeRowEncoding;
@@ -58,7 +76,10 @@ public class AccumuloReader<T> implements RowReader<T> {
 
     if (parallel) {
       this.parallelDecoder =
-          new SimpleParallelDecoder<>(transformer, getIterator(clientSideRowMerging));
+          new SimpleParallelDecoder<>(
+              transformer,
+              getIterator(clientSideRowMerging),
+              decodeThreads);
       try {
         this.parallelDecoder.startDecode();
       } catch (final Exception e) {
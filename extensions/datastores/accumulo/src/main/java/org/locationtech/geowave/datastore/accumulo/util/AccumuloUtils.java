@@ -371,15 +371,21 @@ public class AccumuloUtils {
           new IteratorSetting(10, "GEOWAVE_WHOLE_ROW_ITERATOR", WholeRowIterator.class);
       scanner.addScanIterator(iteratorSettings);
 
+      final DedupeFilter dedupeFilter = new DedupeFilter();
       final Iterator<Entry<Key, Value>> it =
           new IteratorWrapper(
               adapterStore,
               mappingStore,
               index,
               scanner.iterator(),
-              new QueryFilter[] {new DedupeFilter()});
-
-      iterator = new CloseableIteratorWrapper<>(new ScannerClosableWrapper(scanner), it);
+              new QueryFilter[] {dedupeFilter});
+
+      final ScannerClosableWrapper scannerCloseable = new ScannerClosableWrapper(scanner);
+      iterator = new CloseableIteratorWrapper<>(() -> {
+        scannerCloseable.close();
+        // the filter may spill to disk, so it is closed along with the scanner
+        dedupeFilter.close();
+      }, it);
     }
     return iterator;
   }
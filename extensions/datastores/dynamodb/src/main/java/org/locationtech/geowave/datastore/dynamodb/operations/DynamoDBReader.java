@@ -62,6 +62,7 @@ public class DynamoDBReader<T> implements RowReader<T> {
   private Iterator<T> iterator;
   private final GeoWaveRowIteratorTransformer<T> rowTransformer;
   private ParallelDecoder<T> closeable = null;
+  private DedupeFilter dedupeFilter = null;
   private final boolean visibilityEnabled;
 
   private Predicate<GeoWaveRow> visibilityFilter;
@@ -190,6 +191,8 @@ public class DynamoDBReader<T> implements RowReader<T> {
               // TODO: understand why there are duplicates coming back when there shouldn't be from
               // DynamoDB
               final DedupeFilter dedupe = new DedupeFilter();
+              // the filter may spill to disk, so it is closed along with this reader
+              dedupeFilter = dedupe;
               return Iterators.filter(
                   rowIterator,
                   row -> dedupe.applyDedupeFilter(
@@ -236,7 +239,8 @@ public class DynamoDBReader<T> implements RowReader<T> {
       final ParallelDecoder<T> decoder =
           new SimpleParallelDecoder<>(
               rowTransformer,
-              Iterators.transform(rowIter, r -> (GeoWaveRow) r));
+              Iterators.transform(rowIter, r -> (GeoWaveRow) r),
+              operations.getOptions().getBaseOptions().getDecodeThreads());
       try {
         decoder.startDecode();
       } catch (final Exception e) {
@@ -256,6 +260,10 @@ public class DynamoDBReader<T> implements RowReader<T> {
       closeable.close();
       closeable = null;
     }
+    if (dedupeFilter != null) {
+      dedupeFilter.close();
+      dedupeFilter = null;
+    }
   }
 
   @Override
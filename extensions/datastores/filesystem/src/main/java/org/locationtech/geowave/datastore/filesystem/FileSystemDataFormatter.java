@@ -334,4 +334,17 @@ public interface FileSystemDataFormatter {
     return "metadata";
   }
 
+  /**
+   * Whether rows of the data index and each GeoWave index should be appended to sorted, immutable
+   * segment files rather than written as a file per row. The formatter is still used to encode the
+   * file name and contents of each row, but those are stored as entries of a segment. Segments
+   * perform far better for large ingests and range scans, at the expense of no longer being able to
+   * browse individual rows on the file system. Metadata is always stored as a file per row.
+   *
+   * @return whether the log-structured layout is used
+   */
+  default boolean isLogStructured() {
+    return false;
+  }
+
 }
@@ -26,6 +26,7 @@ import org.locationtech.geowave.core.store.CloseableIteratorWrapper;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowIteratorTransformer;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowMergingIterator;
+import org.locationtech.geowave.core.store.util.SortedMergeIterator;
 import org.locationtech.geowave.datastore.filesystem.util.FileSystemClient;
 import org.locationtech.geowave.datastore.filesystem.util.FileSystemIndexTable;
 import org.locationtech.geowave.datastore.filesystem.util.FileSystemUtils;
@@ -143,30 +144,24 @@ public class FileSystemQueryExecution<T> {
       }
       return setCache.get(partitionKey).iterator(r.getSortKeyRanges());
     }).collect(Collectors.toList());
-    return transformAndFilter(new CloseableIteratorWrapper<>(new Closeable() {
+    final Closeable closeable = new Closeable() {
       @Override
       public void close() throws IOException {
         iterators.forEach(i -> i.close());
       }
-    }, Iterators.concat(iterators.iterator())));
+    };
+    if (isSortFinalResultsBySortKey) {
+      // each partition is read in sort key order so they can be merged rather than sorted
+      return transformAndFilter(SortedMergeIterator.mergeBySortKey(iterators, closeable));
+    }
+    return transformAndFilter(
+        new CloseableIteratorWrapper<>(closeable, Iterators.concat(iterators.iterator())));
   }
 
   private CloseableIterator<T> transformAndFilter(final CloseableIterator<GeoWaveRow> result) {
     final Iterator<GeoWaveRow> iterator = Streams.stream(result).filter(filter).iterator();
     return new CloseableIteratorWrapper<>(
         result,
-        rowTransformer.apply(
-            sortByKeyIfRequired(
-                isSortFinalResultsBySortKey,
-                rowMerging ? new GeoWaveRowMergingIterator(iterator) : iterator)));
-  }
-
-  private static Iterator<GeoWaveRow> sortByKeyIfRequired(
-      final boolean isRequired,
-      final Iterator<GeoWaveRow> it) {
-    if (isRequired) {
-      return FileSystemUtils.sortBySortKey(it);
-    }
-    return it;
+        rowTransformer.apply(rowMerging ? new GeoWaveRowMergingIterator(iterator) : iterator));
   }
 }
@@ -35,6 +35,7 @@ import org.locationtech.geowave.core.store.operations.ReaderParams;
 import org.locationtech.geowave.core.store.operations.RowReader;
 import org.locationtech.geowave.core.store.query.filter.ClientVisibilityFilter;
 import org.locationtech.geowave.core.store.util.DataStoreUtils;
+import org.locationtech.geowave.core.store.util.SortedMergeIterator;
 import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter.IndexFormatter;
 import org.locationtech.geowave.datastore.filesystem.util.DataFormatterCache;
 import org.locationtech.geowave.datastore.filesystem.util.FileSystemClient;
@@ -123,7 +124,10 @@ public class FileSystemReader<T> implements RowReader<T> {
           }
         }
       },
-          Iterators.concat(iterators.iterator()),
+          // each partition is read in sort key order so they can be merged rather than sorted
+          FileSystemUtils.isSortByKeyRequired(readerParams)
+              ? SortedMergeIterator.mergeBySortKey(iterators, null)
+              : Iterators.concat(iterators.iterator()),
           readerParams,
           rowTransformer,
           authorizations,
@@ -235,20 +239,9 @@ public class FileSystemReader<T> implements RowReader<T> {
     return new CloseableIteratorWrapper<>(
         closeable,
         rowTransformer.apply(
-            sortBySortKeyIfRequired(
-                params,
-                DataStoreUtils.isMergingIteratorRequired(params, visibilityEnabled)
-                    ? new GeoWaveRowMergingIterator(iterator)
-                    : iterator)));
-  }
-
-  private static Iterator<GeoWaveRow> sortBySortKeyIfRequired(
-      final RangeReaderParams<?> params,
-      final Iterator<GeoWaveRow> it) {
-    if (FileSystemUtils.isSortByKeyRequired(params)) {
-      return FileSystemUtils.sortBySortKey(it);
-    }
-    return it;
+            DataStoreUtils.isMergingIteratorRequired(params, visibilityEnabled)
+                ? new GeoWaveRowMergingIterator(iterator)
+                : iterator));
   }
 
   @Override
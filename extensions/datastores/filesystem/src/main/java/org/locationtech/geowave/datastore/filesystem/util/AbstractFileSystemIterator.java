@@ -27,6 +27,8 @@ public abstract class AbstractFileSystemIterator<T> implements CloseableIterator
   // this is a memoized supplier to support lazy evaluation because readRow actually relies on
   // member variables set in child constructors
   final Iterator<Pair<FileSystemKey, Path>> iterator;
+  // the rows of a log-structured table are read along with their keys rather than from a path
+  final Iterator<Pair<FileSystemKey, byte[]>> segmentIterator;
   boolean closed = false;
 
   public AbstractFileSystemIterator(
@@ -51,6 +53,7 @@ public abstract class AbstractFileSystemIterator<T> implements CloseableIterator
             endKey,
             endKeyInclusive,
             fileNameToKey).iterator();
+    segmentIterator = null;
   }
 
   public AbstractFileSystemIterator(
@@ -61,6 +64,13 @@ public abstract class AbstractFileSystemIterator<T> implements CloseableIterator
     iterator =
         FileSystemUtils.getSortedSet(subDirectory, fileNameToKey).stream().filter(
             p -> inRanges(ranges, p.getKey().getSortOrderKey())).iterator();
+    segmentIterator = null;
+  }
+
+  public AbstractFileSystemIterator(final Iterator<Pair<FileSystemKey, byte[]>> segmentIterator) {
+    super();
+    iterator = null;
+    this.segmentIterator = segmentIterator;
   }
 
   private static boolean inRanges(final Collection<ByteArrayRange> ranges, final byte[] key) {
@@ -87,6 +97,9 @@ public abstract class AbstractFileSystemIterator<T> implements CloseableIterator
 
   @Override
   public boolean hasNext() {
+    if (segmentIterator != null) {
+      return !closed && segmentIterator.hasNext();
+    }
     return !closed && iterator.hasNext();
   }
 
@@ -95,6 +108,10 @@ public abstract class AbstractFileSystemIterator<T> implements CloseableIterator
     if (closed) {
       throw new NoSuchElementException();
     }
+    if (segmentIterator != null) {
+      final Pair<FileSystemKey, byte[]> next = segmentIterator.next();
+      return readRow(next.getLeft(), next.getRight());
+    }
     Pair<FileSystemKey, Path> next = iterator.next();
     while (!Files.exists(next.getRight())) {
       if (!iterator.hasNext()) {
@@ -24,6 +24,8 @@ abstract public class AbstractFileSystemTable {
   protected final String typeName;
   protected boolean visibilityEnabled;
   protected FileSystemDataFormatter formatter;
+  // only set when the formatter uses the log-structured layout
+  protected SegmentedTableStore segmentStore;
 
   public AbstractFileSystemTable(
       final short adapterId,
@@ -39,9 +41,26 @@ abstract public class AbstractFileSystemTable {
 
   protected void setTableDirectory(final Path tableDirectory) throws IOException {
     this.tableDirectory = Files.createDirectories(tableDirectory);
+    if (formatter.isLogStructured()) {
+      segmentStore = new SegmentedTableStore(this.tableDirectory);
+    }
   }
 
+  /**
+   * Get the sort order key of a row from its file name, this is the inverse of the formatter's file
+   * name for the row.
+   */
+  protected abstract byte[] getSortOrderKey(String fileName);
+
   public void deleteFile(final String fileName) {
+    if (segmentStore != null) {
+      try {
+        segmentStore.delete(getSortOrderKey(fileName), fileName);
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to delete row", e);
+      }
+      return;
+    }
     try {
       Files.delete(tableDirectory.resolve(fileName));
     } catch (final IOException e) {
@@ -49,6 +68,38 @@ abstract public class AbstractFileSystemTable {
     }
   }
 
+  /**
+   * Make the rows written to this table durable. Rows written as a file per row are always durable
+   * so this only applies to the log-structured layout.
+   */
+  public void flush() {
+    if (segmentStore != null) {
+      try {
+        segmentStore.sync();
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to sync rows", e);
+      }
+    }
+  }
+
+  public void close() {
+    if (segmentStore != null) {
+      segmentStore.close();
+    }
+  }
+
+  protected void writeFile(final byte[] sortOrderKey, final String fileName, final byte[] value) {
+    if (segmentStore != null) {
+      try {
+        segmentStore.put(new SegmentEntry(sortOrderKey, fileName, value));
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to write row", e);
+      }
+    } else {
+      writeFile(fileName, value);
+    }
+  }
+
   protected void writeFile(final String fileName, final byte[] value) {
     try {
       Files.write(
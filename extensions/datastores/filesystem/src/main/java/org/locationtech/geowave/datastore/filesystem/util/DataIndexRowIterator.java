@@ -9,6 +9,8 @@
 package org.locationtech.geowave.datastore.filesystem.util;
 
 import java.nio.file.Path;
+import java.util.Iterator;
+import org.apache.commons.lang3.tuple.Pair;
 import org.locationtech.geowave.core.store.entities.GeoWaveKeyImpl;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowImpl;
@@ -38,6 +40,17 @@ public class DataIndexRowIterator extends AbstractFileSystemIterator<GeoWaveRow>
     this.formatter = formatter;
   }
 
+  public DataIndexRowIterator(
+      final Iterator<Pair<FileSystemKey, byte[]>> segmentIterator,
+      final short adapterId,
+      final String typeName,
+      final DataIndexFormatter formatter) {
+    super(segmentIterator);
+    this.adapterId = adapterId;
+    this.typeName = typeName;
+    this.formatter = formatter;
+  }
+
   @Override
   protected GeoWaveRow readRow(final FileSystemKey key, final byte[] value) {
     return new GeoWaveRowImpl(
@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Collectors;
 import org.locationtech.geowave.core.store.operations.MetadataType;
 import com.github.benmanes.caffeine.cache.Caffeine;
@@ -276,14 +277,32 @@ public class FileSystemClient {
   }
 
   public void invalidateDataIndexCache(final short adapterId, final String typeName) {
-    dataIndexTableCache.invalidate(new DataIndexCacheKey(adapterId, typeName));
+    final DataIndexCacheKey key = new DataIndexCacheKey(adapterId, typeName);
+    final FileSystemDataIndexTable table = dataIndexTableCache.getIfPresent(key);
+    if (table != null) {
+      table.close();
+    }
+    dataIndexTableCache.invalidate(key);
   }
 
   public void invalidateIndexCache(final String indexName, final String typeName) {
-    indexTableCache.invalidateAll(
+    final List<IndexCacheKey> keys =
         indexTableCache.asMap().keySet().stream().filter(
             k -> k.typeName.equals(typeName) && k.indexName.equals(indexName)).collect(
-                Collectors.toList()));
+                Collectors.toList());
+    indexTableCache.getAllPresent(keys).values().forEach(FileSystemIndexTable::close);
+    indexTableCache.invalidateAll(keys);
+  }
+
+  /**
+   * Close every cached table, this flushes any rows of log-structured tables that are only in
+   * memory.
+   */
+  public synchronized void close() {
+    indexTableCache.asMap().values().forEach(FileSystemIndexTable::close);
+    dataIndexTableCache.asMap().values().forEach(FileSystemDataIndexTable::close);
+    indexTableCache.invalidateAll();
+    dataIndexTableCache.invalidateAll();
   }
 
   public boolean isVisibilityEnabled() {
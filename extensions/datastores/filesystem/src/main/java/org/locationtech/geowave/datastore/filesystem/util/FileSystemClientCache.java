@@ -45,11 +45,13 @@ public class FileSystemClientCache {
     final ClientKey key = new ClientKey(directory, format, visibilityEnabled);
     final FileSystemClient client = clientCache.getIfPresent(key);
     if (client != null) {
+      client.close();
       clientCache.invalidate(key);
     }
   }
 
   public synchronized void closeAll() {
+    clientCache.asMap().values().forEach(FileSystemClient::close);
     clientCache.invalidateAll();
   }
 
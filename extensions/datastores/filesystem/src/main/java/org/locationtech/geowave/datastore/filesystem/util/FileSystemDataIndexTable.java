@@ -21,6 +21,8 @@ import org.locationtech.geowave.core.store.entities.GeoWaveValue;
 import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter.DataIndexFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.google.common.collect.Iterators;
+import com.google.common.primitives.Bytes;
 
 public class FileSystemDataIndexTable extends AbstractFileSystemTable {
   private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemDataIndexTable.class);
@@ -38,14 +40,33 @@ public class FileSystemDataIndexTable extends AbstractFileSystemTable {
             formatter.getDataIndexFormatter().getDirectoryName(typeName)));
   }
 
+  @Override
+  protected byte[] getSortOrderKey(final String fileName) {
+    return formatter.getDataIndexFormatter().getDataId(fileName, typeName);
+  }
+
   public synchronized void add(final byte[] dataId, final GeoWaveValue value) {
     writeFile(
+        dataId,
         formatter.getDataIndexFormatter().getFileName(typeName, dataId),
         formatter.getDataIndexFormatter().getFileContents(typeName, dataId, value));
   }
 
   public CloseableIterator<GeoWaveRow> dataIndexIterator(final byte[][] dataIds) {
     final DataIndexFormatter dataIndexFormatter = formatter.getDataIndexFormatter();
+    if (segmentStore != null) {
+      return new CloseableIterator.Wrapper<>(Arrays.stream(dataIds).map(dataId -> {
+        final String fileName = dataIndexFormatter.getFileName(typeName, dataId);
+        final SegmentEntry entry = segmentStore.get(dataId, fileName);
+        if (entry == null) {
+          return null;
+        }
+        return (GeoWaveRow) new GeoWaveRowImpl(
+            new GeoWaveKeyImpl(dataId, adapterId, new byte[0], new byte[0], 0),
+            new GeoWaveValue[] {
+                dataIndexFormatter.getValue(fileName, typeName, dataId, entry.getValue())});
+      }).filter(Objects::nonNull).iterator());
+    }
     return new CloseableIterator.Wrapper(
         Arrays.stream(dataIds).map(
             // convert to pair with path so the path is only instantiated once (depending on
@@ -80,6 +101,18 @@ public class FileSystemDataIndexTable extends AbstractFileSystemTable {
   public CloseableIterator<GeoWaveRow> dataIndexIterator(
       final byte[] startDataId,
       final byte[] endDataId) {
+    if (segmentStore != null) {
+      // the end data ID is inclusive
+      return new DataIndexRowIterator(
+          Iterators.transform(
+              segmentStore.iterator(
+                  startDataId,
+                  endDataId == null ? null : Bytes.concat(endDataId, new byte[] {0})),
+              e -> Pair.of(new BasicFileSystemKey(e.getKey(), e.getName()), e.getValue())),
+          adapterId,
+          typeName,
+          formatter.getDataIndexFormatter());
+    }
     return new DataIndexRowIterator(
         tableDirectory,
         startDataId,
@@ -11,8 +11,10 @@ package org.locationtech.geowave.datastore.filesystem.util;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Optional;
 import java.util.function.Function;
+import org.apache.commons.lang3.tuple.Pair;
 import org.locationtech.geowave.core.index.ByteArrayRange;
 import org.locationtech.geowave.core.index.ByteArrayUtils;
 import org.locationtech.geowave.core.store.CloseableIterator;
@@ -23,6 +25,7 @@ import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter.For
 import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter.IndexFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.google.common.collect.Iterators;
 import com.google.common.primitives.Bytes;
 
 public class FileSystemIndexTable extends AbstractFileSystemTable {
@@ -55,6 +58,19 @@ public class FileSystemIndexTable extends AbstractFileSystemTable {
 
   public void delete(final byte[] sortKey, final byte[] dataId) {
     final byte[] prefix = Bytes.concat(sortKey, dataId);
+    if (segmentStore != null) {
+      final Iterator<SegmentEntry> it =
+          segmentStore.iterator(prefix, ByteArrayUtils.getNextPrefix(prefix));
+      try {
+        while (it.hasNext()) {
+          final SegmentEntry entry = it.next();
+          segmentStore.delete(entry.getKey(), entry.getName());
+        }
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to delete row", e);
+      }
+      return;
+    }
     FileSystemUtils.visit(tableDirectory, prefix, ByteArrayUtils.getNextPrefix(prefix), p -> {
       try {
         Files.delete(p);
@@ -64,6 +80,11 @@ public class FileSystemIndexTable extends AbstractFileSystemTable {
     }, fileNameToKey());
   }
 
+  @Override
+  protected byte[] getSortOrderKey(final String fileName) {
+    return fileNameToKey().apply(fileName).getSortOrderKey();
+  }
+
   protected Function<String, FileSystemKey> fileNameToKey() {
     return fileName -> new FileSystemIndexKeyWrapper(
         formatter.getIndexFormatter().getKey(fileName, typeName, indexName, requiresTimestamp),
@@ -85,11 +106,16 @@ public class FileSystemIndexTable extends AbstractFileSystemTable {
                 requiresTimestamp ? Optional.of(System.currentTimeMillis()) : Optional.empty(),
                 numDuplicates),
             value);
-    writeFile(fileInfo.getFileName(), fileInfo.getFileContents());
+    writeFile(
+        getSortOrderKey(fileInfo.getFileName()),
+        fileInfo.getFileName(),
+        fileInfo.getFileContents());
   }
 
-
   public CloseableIterator<GeoWaveRow> iterator() {
+    if (segmentStore != null) {
+      return segmentIterator(segmentStore.iterator(null, null));
+    }
     return new FileSystemRowIterator(
         tableDirectory,
         null,
@@ -103,6 +129,9 @@ public class FileSystemIndexTable extends AbstractFileSystemTable {
   }
 
   public CloseableIterator<GeoWaveRow> iterator(final Collection<ByteArrayRange> ranges) {
+    if (segmentStore != null) {
+      return segmentIterator(segmentStore.iterator(ranges));
+    }
     return new FileSystemRowIterator(
         tableDirectory,
         ranges,
@@ -113,4 +142,17 @@ public class FileSystemIndexTable extends AbstractFileSystemTable {
         formatter.getIndexFormatter(),
         fileNameToKey());
   }
+
+  private CloseableIterator<GeoWaveRow> segmentIterator(final Iterator<SegmentEntry> entries) {
+    final Function<String, FileSystemKey> fileNameToKey = fileNameToKey();
+    return new FileSystemRowIterator(
+        Iterators.transform(
+            entries,
+            e -> Pair.of(fileNameToKey.apply(e.getName()), e.getValue())),
+        adapterId,
+        typeName,
+        indexName,
+        partitionKey,
+        formatter.getIndexFormatter());
+  }
 }
@@ -10,7 +10,9 @@ package org.locationtech.geowave.datastore.filesystem.util;
 
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.function.Function;
+import org.apache.commons.lang3.tuple.Pair;
 import org.locationtech.geowave.core.index.ByteArrayRange;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter.FileSystemIndexKey;
@@ -59,6 +61,21 @@ public class FileSystemRowIterator extends AbstractFileSystemIterator<GeoWaveRow
     this.formatter = formatter;
   }
 
+  public FileSystemRowIterator(
+      final Iterator<Pair<FileSystemKey, byte[]>> segmentIterator,
+      final short adapterId,
+      final String typeName,
+      final String indexName,
+      final byte[] partition,
+      final IndexFormatter formatter) {
+    super(segmentIterator);
+    this.adapterId = adapterId;
+    this.typeName = typeName;
+    this.indexName = indexName;
+    this.partition = partition;
+    this.formatter = formatter;
+  }
+
   @Override
   protected GeoWaveRow readRow(final FileSystemKey key, final byte[] value) {
     final FileSystemIndexKey indexKey = ((FileSystemIndexKeyWrapper) key).getOriginalKey();
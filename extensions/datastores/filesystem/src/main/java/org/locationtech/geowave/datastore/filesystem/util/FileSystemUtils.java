@@ -9,13 +9,10 @@
 package org.locationtech.geowave.datastore.filesystem.util;
 
 import java.io.IOException;
-import java.io.Serializable;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Comparator;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.NavigableSet;
 import java.util.Set;
 import java.util.SortedSet;
@@ -30,14 +27,11 @@ import org.locationtech.geowave.core.index.ByteArray;
 import org.locationtech.geowave.core.index.ByteArrayUtils;
 import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
 import org.locationtech.geowave.core.store.adapter.RowMergingDataAdapter;
-import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.operations.MetadataType;
 import org.locationtech.geowave.core.store.operations.RangeReaderParams;
 import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter.IndexFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.google.common.collect.Streams;
-import com.google.common.primitives.UnsignedBytes;
 
 public class FileSystemUtils {
   private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemUtils.class);
@@ -172,10 +166,6 @@ public class FileSystemUtils {
     return Pair.of(readerParams.isMixedVisibility() || sortByTime, sortByTime);
   }
 
-  public static Iterator<GeoWaveRow> sortBySortKey(final Iterator<GeoWaveRow> it) {
-    return Streams.stream(it).sorted(SortKeyOrder.SINGLETON).iterator();
-  }
-
   public static FileSystemMetadataTable getMetadataTable(
       final FileSystemClient client,
       final MetadataType metadataType) {
@@ -232,51 +222,6 @@ public class FileSystemUtils {
     return partitionDirectories;
   }
 
-  private static class SortKeyOrder implements Comparator<GeoWaveRow>, Serializable {
-    private static SortKeyOrder SINGLETON = new SortKeyOrder();
-    private static final long serialVersionUID = 23275155231L;
-
-    @Override
-    public int compare(final GeoWaveRow o1, final GeoWaveRow o2) {
-      if (o1 == o2) {
-        return 0;
-      }
-      if (o1 == null) {
-        return 1;
-      }
-      if (o2 == null) {
-        return -1;
-      }
-      byte[] otherComp = o2.getSortKey() == null ? new byte[0] : o2.getSortKey();
-      byte[] thisComp = o1.getSortKey() == null ? new byte[0] : o1.getSortKey();
-
-      int comp = UnsignedBytes.lexicographicalComparator().compare(thisComp, otherComp);
-      if (comp != 0) {
-        return comp;
-      }
-      otherComp = o2.getPartitionKey() == null ? new byte[0] : o2.getPartitionKey();
-      thisComp = o1.getPartitionKey() == null ? new byte[0] : o1.getPartitionKey();
-
-      comp = UnsignedBytes.lexicographicalComparator().compare(thisComp, otherComp);
-      if (comp != 0) {
-        return comp;
-      }
-      comp = Short.compare(o1.getAdapterId(), o2.getAdapterId());
-      if (comp != 0) {
-        return comp;
-      }
-      otherComp = o2.getDataId() == null ? new byte[0] : o2.getDataId();
-      thisComp = o1.getDataId() == null ? new byte[0] : o1.getDataId();
-
-      comp = UnsignedBytes.lexicographicalComparator().compare(thisComp, otherComp);
-
-      if (comp != 0) {
-        return comp;
-      }
-      return Integer.compare(o1.getNumberOfDuplicates(), o2.getNumberOfDuplicates());
-    }
-  }
-
   protected static String keyToFileName(final byte[] key) {
     return ByteArrayUtils.byteArrayToString(key) + ".bin";
   }
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.filesystem.util;
+
+import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter;
+import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatterSpi;
+
+/**
+ * Uses the same compact geowave serialization as {@link GeoWaveBinaryDataFormatter}, but stores
+ * rows in sorted, immutable segment files rather than a file per row.
+ */
+public class GeoWaveSegmentDataFormatter implements FileSystemDataFormatterSpi {
+  public static final String SEGMENT_FORMATTER = "segment";
+
+  @Override
+  public String getFormatName() {
+    return SEGMENT_FORMATTER;
+  }
+
+  @Override
+  public String getFormatDescription() {
+    return "A compact geowave serialization stored in sorted segment files, for large tables.";
+  }
+
+  @Override
+  public FileSystemDataFormatter createFormatter(final boolean visibilityEnabled) {
+    return new SegmentFormatter(
+        new GeoWaveBinaryDataFormatter().createFormatter(visibilityEnabled));
+  }
+
+  private static class SegmentFormatter implements FileSystemDataFormatter {
+    private final FileSystemDataFormatter binaryFormatter;
+
+    private SegmentFormatter(final FileSystemDataFormatter binaryFormatter) {
+      this.binaryFormatter = binaryFormatter;
+    }
+
+    @Override
+    public DataIndexFormatter getDataIndexFormatter() {
+      return binaryFormatter.getDataIndexFormatter();
+    }
+
+    @Override
+    public IndexFormatter getIndexFormatter() {
+      return binaryFormatter.getIndexFormatter();
+    }
+
+    @Override
+    public boolean isLogStructured() {
+      return true;
+    }
+  }
+}
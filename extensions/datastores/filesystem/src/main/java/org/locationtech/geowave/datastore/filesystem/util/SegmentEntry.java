@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.filesystem.util;
+
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import org.locationtech.geowave.core.index.StringUtils;
+import org.locationtech.geowave.core.index.VarintUtils;
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * A single row of a log-structured table. Rows are identified by their sort order key and the file
+ * name the formatter assigned to them, which is the same identity a row has in the file-per-row
+ * layout. A row without a value is a tombstone that marks the row as deleted.
+ */
+class SegmentEntry {
+  private static final byte TOMBSTONE = 1;
+
+  static final Comparator<SegmentEntry> IDENTITY_ORDER = (o1, o2) -> {
+    final int comp = UnsignedBytes.lexicographicalComparator().compare(o1.key, o2.key);
+    if (comp != 0) {
+      return comp;
+    }
+    return o1.name.compareTo(o2.name);
+  };
+
+  private final byte[] key;
+  private final String name;
+  private final byte[] value;
+
+  SegmentEntry(final byte[] key, final String name, final byte[] value) {
+    this.key = key;
+    this.name = name;
+    this.value = value;
+  }
+
+  static SegmentEntry tombstone(final byte[] key, final String name) {
+    return new SegmentEntry(key, name, null);
+  }
+
+  byte[] getKey() {
+    return key;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  byte[] getValue() {
+    return value;
+  }
+
+  boolean isTombstone() {
+    return value == null;
+  }
+
+  int encodedLength() {
+    final byte[] nameBytes = StringUtils.stringToBinary(name);
+    return encodedLength(nameBytes);
+  }
+
+  private int encodedLength(final byte[] nameBytes) {
+    return 1
+        + VarintUtils.unsignedIntByteLength(key.length)
+        + key.length
+        + VarintUtils.unsignedIntByteLength(nameBytes.length)
+        + nameBytes.length
+        + (value == null ? 0 : VarintUtils.unsignedIntByteLength(value.length) + value.length);
+  }
+
+  byte[] toBinary() {
+    final byte[] nameBytes = StringUtils.stringToBinary(name);
+    final ByteBuffer buf = ByteBuffer.allocate(encodedLength(nameBytes));
+    buf.put(value == null ? TOMBSTONE : 0);
+    VarintUtils.writeUnsignedInt(key.length, buf);
+    buf.put(key);
+    VarintUtils.writeUnsignedInt(nameBytes.length, buf);
+    buf.put(nameBytes);
+    if (value != null) {
+      VarintUtils.writeUnsignedInt(value.length, buf);
+      buf.put(value);
+    }
+    return buf.array();
+  }
+
+  /**
+   * Read an entry from the current position of the buffer, advancing the position past the entry.
+   */
+  static SegmentEntry fromBinary(final ByteBuffer buf) {
+    final boolean tombstone = buf.get() == TOMBSTONE;
+    final byte[] key = new byte[VarintUtils.readUnsignedInt(buf)];
+    buf.get(key);
+    final byte[] nameBytes = new byte[VarintUtils.readUnsignedInt(buf)];
+    buf.get(nameBytes);
+    byte[] value = null;
+    if (!tombstone) {
+      value = new byte[VarintUtils.readUnsignedInt(buf)];
+      buf.get(value);
+    }
+    return new SegmentEntry(key, StringUtils.stringFromBinary(nameBytes), value);
+  }
+}
@@ -0,0 +1,312 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.filesystem.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.locationtech.geowave.core.index.VarintUtils;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * An immutable, sorted file of segment entries. The entries are followed by a sparse index that
+ * records the key and offset of every {@link #INDEX_INTERVAL}th entry, a bloom filter of the keys,
+ * and a fixed length footer that locates both. The file is memory-mapped for reading when the
+ * underlying file system supports it.
+ */
+class SegmentFile {
+  static final String SEGMENT_SUFFIX = ".seg";
+  private static final int MAGIC = 0x47575347;
+  private static final byte VERSION = 1;
+  private static final int HEADER_LENGTH = 5;
+  private static final int FOOTER_LENGTH = 28;
+  private static final int INDEX_INTERVAL = 32;
+  private static final double BLOOM_FILTER_FPP = 0.01;
+  private static final Comparator<byte[]> KEY_ORDER = UnsignedBytes.lexicographicalComparator();
+
+  private final Path path;
+  private final long sequence;
+  private final ByteBuffer buffer;
+  private final int dataEnd;
+  private final byte[][] indexKeys;
+  private final int[] indexOffsets;
+  private final BloomFilter<byte[]> bloomFilter;
+  private final long entryCount;
+
+  private SegmentFile(
+      final Path path,
+      final long sequence,
+      final ByteBuffer buffer,
+      final int dataEnd,
+      final byte[][] indexKeys,
+      final int[] indexOffsets,
+      final BloomFilter<byte[]> bloomFilter,
+      final long entryCount) {
+    this.path = path;
+    this.sequence = sequence;
+    this.buffer = buffer;
+    this.dataEnd = dataEnd;
+    this.indexKeys = indexKeys;
+    this.indexOffsets = indexOffsets;
+    this.bloomFilter = bloomFilter;
+    this.entryCount = entryCount;
+  }
+
+  Path getPath() {
+    return path;
+  }
+
+  /**
+   * @return the sequence number of the segment, entries in segments with a higher sequence number
+   *         supersede entries with the same identity in segments with a lower sequence number
+   */
+  long getSequence() {
+    return sequence;
+  }
+
+  long getEntryCount() {
+    return entryCount;
+  }
+
+  boolean mightContain(final byte[] key) {
+    return bloomFilter.mightContain(key);
+  }
+
+  /**
+   * Iterate over the entries of this segment in sort order.
+   *
+   * @param startKey the start key (inclusive), or {@code null} to start from the first entry
+   * @param endKey the end key (exclusive), or {@code null} to iterate to the last entry
+   * @return the entries, including tombstones
+   */
+  Iterator<SegmentEntry> iterator(final byte[] startKey, final byte[] endKey) {
+    final ByteBuffer view = buffer.duplicate();
+    view.position(startKey == null ? HEADER_LENGTH : seekOffset(startKey));
+    return new Iterator<SegmentEntry>() {
+      private SegmentEntry next = advance();
+
+      private SegmentEntry advance() {
+        while (view.position() < dataEnd) {
+          final SegmentEntry entry = SegmentEntry.fromBinary(view);
+          if ((startKey != null) && (KEY_ORDER.compare(entry.getKey(), startKey) < 0)) {
+            continue;
+          }
+          if ((endKey != null) && (KEY_ORDER.compare(entry.getKey(), endKey) >= 0)) {
+            return null;
+          }
+          return entry;
+        }
+        return null;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public SegmentEntry next() {
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        final SegmentEntry retVal = next;
+        next = advance();
+        return retVal;
+      }
+    };
+  }
+
+  /**
+   * Find the offset of the last sampled entry with a key strictly less than the given key, entries
+   * with equal keys can span a sample so scanning has to start before any of them.
+   */
+  private int seekOffset(final byte[] key) {
+    int low = 0;
+    int high = indexKeys.length - 1;
+    int result = -1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      if (KEY_ORDER.compare(indexKeys[mid], key) < 0) {
+        result = mid;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return result < 0 ? HEADER_LENGTH : indexOffsets[result];
+  }
+
+  static String getFileName(final long sequence, final String uniqueId) {
+    return String.format("%019d-%s%s", sequence, uniqueId, SEGMENT_SUFFIX);
+  }
+
+  static long getSequence(final String fileName) {
+    try {
+      return Long.parseLong(fileName.substring(0, fileName.indexOf('-')));
+    } catch (final RuntimeException e) {
+      return -1;
+    }
+  }
+
+  static boolean isSegmentFile(final Path path) {
+    final String fileName = path.getFileName().toString();
+    return fileName.endsWith(SEGMENT_SUFFIX) && (getSequence(fileName) >= 0);
+  }
+
+  static SegmentFile open(final Path path) throws IOException {
+    final ByteBuffer buffer;
+    try (SeekableByteChannel channel = Files.newByteChannel(path, StandardOpenOption.READ)) {
+      if (channel instanceof FileChannel) {
+        buffer = ((FileChannel) channel).map(MapMode.READ_ONLY, 0, channel.size());
+      } else {
+        // not every file system provider supports memory mapping
+        buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+      }
+    }
+    if ((buffer.capacity() < (HEADER_LENGTH + FOOTER_LENGTH))
+        || (buffer.getInt(0) != MAGIC)
+        || (buffer.get(4) != VERSION)
+        || (buffer.getInt(buffer.capacity() - 4) != MAGIC)) {
+      throw new IOException("'" + path + "' is not a valid segment file");
+    }
+    final int footerStart = buffer.capacity() - FOOTER_LENGTH;
+    final int indexOffset = (int) buffer.getLong(footerStart);
+    final int bloomOffset = (int) buffer.getLong(footerStart + 8);
+    final long entryCount = buffer.getLong(footerStart + 16);
+
+    final ByteBuffer indexView = buffer.duplicate();
+    indexView.position(indexOffset);
+    final int indexSize = VarintUtils.readUnsignedInt(indexView);
+    final byte[][] indexKeys = new byte[indexSize][];
+    final int[] indexOffsets = new int[indexSize];
+    for (int i = 0; i < indexSize; i++) {
+      indexKeys[i] = new byte[VarintUtils.readUnsignedInt(indexView)];
+      indexView.get(indexKeys[i]);
+      indexOffsets[i] = VarintUtils.readUnsignedInt(indexView);
+    }
+    final byte[] bloomBytes = new byte[footerStart - bloomOffset];
+    final ByteBuffer bloomView = buffer.duplicate();
+    bloomView.position(bloomOffset);
+    bloomView.get(bloomBytes);
+    final BloomFilter<byte[]> bloomFilter =
+        BloomFilter.readFrom(new ByteArrayInputStream(bloomBytes), Funnels.byteArrayFunnel());
+    return new SegmentFile(
+        path,
+        getSequence(path.getFileName().toString()),
+        buffer,
+        indexOffset,
+        indexKeys,
+        indexOffsets,
+        bloomFilter,
+        entryCount);
+  }
+
+  /**
+   * Write sorted entries to one or more new segment files. A new file is started whenever a file
+   * exceeds the maximum size so that every segment can be memory-mapped. Files are written under a
+   * temporary name and moved into place once they are fully synced so a partially written segment
+   * is never visible to readers.
+   *
+   * @param directory the table directory
+   * @param sequence the sequence number of the new segments
+   * @param uniqueId a unique ID to distinguish these segments from others with the same sequence
+   * @param entries the entries in identity order
+   * @param expectedEntries the expected number of entries, used to size the bloom filter
+   * @param maxSegmentSize the size at which to start a new segment file
+   * @return the paths of the written segments
+   */
+  static List<Path> write(
+      final Path directory,
+      final long sequence,
+      final String uniqueId,
+      final Iterator<SegmentEntry> entries,
+      final long expectedEntries,
+      final long maxSegmentSize) throws IOException {
+    final List<Path> paths = new ArrayList<>();
+    while (entries.hasNext()) {
+      final Path path = directory.resolve(getFileName(sequence, uniqueId + "-" + paths.size()));
+      final Path tmp = directory.resolve(path.getFileName().toString() + ".tmp");
+      try (SeekableByteChannel channel =
+          Files.newByteChannel(tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+        final OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 65536);
+        writeSegment(out, entries, expectedEntries, maxSegmentSize);
+        out.flush();
+        if (channel instanceof FileChannel) {
+          ((FileChannel) channel).force(true);
+        }
+      }
+      try {
+        Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE);
+      } catch (final AtomicMoveNotSupportedException e) {
+        Files.move(tmp, path);
+      }
+      paths.add(path);
+    }
+    return paths;
+  }
+
+  private static void writeSegment(
+      final OutputStream out,
+      final Iterator<SegmentEntry> entries,
+      final long expectedEntries,
+      final long maxSegmentSize) throws IOException {
+    final BloomFilter<byte[]> bloomFilter =
+        BloomFilter.create(
+            Funnels.byteArrayFunnel(),
+            Math.max(1, expectedEntries),
+            BLOOM_FILTER_FPP);
+    final ByteArrayOutputStream index = new ByteArrayOutputStream();
+    int indexSize = 0;
+    long offset = HEADER_LENGTH;
+    long entryCount = 0;
+    out.write(ByteBuffer.allocate(HEADER_LENGTH).putInt(MAGIC).put(VERSION).array());
+    while (entries.hasNext() && (offset < maxSegmentSize)) {
+      final SegmentEntry entry = entries.next();
+      if ((entryCount % INDEX_INTERVAL) == 0) {
+        index.write(VarintUtils.writeUnsignedInt(entry.getKey().length));
+        index.write(entry.getKey());
+        index.write(VarintUtils.writeUnsignedInt((int) offset));
+        indexSize++;
+      }
+      final byte[] binary = entry.toBinary();
+      out.write(binary);
+      bloomFilter.put(entry.getKey());
+      offset += binary.length;
+      entryCount++;
+    }
+    final long indexOffset = offset;
+    final byte[] indexSizeBytes = VarintUtils.writeUnsignedInt(indexSize);
+    out.write(indexSizeBytes);
+    index.writeTo(out);
+    final long bloomOffset = indexOffset + indexSizeBytes.length + index.size();
+    bloomFilter.writeTo(out);
+    out.write(
+        ByteBuffer.allocate(FOOTER_LENGTH).putLong(indexOffset).putLong(bloomOffset).putLong(
+            entryCount).putInt(MAGIC).array());
+  }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.filesystem.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append-only log of the entries in a table's memtable so that they can be recovered if the
+ * process exits before the memtable is written to a segment. The log holds an exclusive lock while
+ * it is open so that other processes can tell an abandoned log from one that is in use.
+ */
+class SegmentWriteAheadLog {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SegmentWriteAheadLog.class);
+  static final String LOG_SUFFIX = ".wal";
+
+  private final Path path;
+  private final SeekableByteChannel channel;
+  private final OutputStream out;
+  private final FileLock lock;
+
+  SegmentWriteAheadLog(final Path path) throws IOException {
+    this.path = path;
+    channel = Files.newByteChannel(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    out = new BufferedOutputStream(Channels.newOutputStream(channel), 65536);
+    lock = tryLock(channel);
+  }
+
+  Path getPath() {
+    return path;
+  }
+
+  synchronized void append(final SegmentEntry entry) throws IOException {
+    final byte[] binary = entry.toBinary();
+    final CRC32 crc = new CRC32();
+    crc.update(binary);
+    out.write(ByteBuffer.allocate(8).putInt(binary.length).putInt((int) crc.getValue()).array());
+    out.write(binary);
+  }
+
+  /**
+   * Make everything appended so far durable.
+   */
+  synchronized void sync() throws IOException {
+    out.flush();
+    if (channel instanceof FileChannel) {
+      ((FileChannel) channel).force(false);
+    }
+  }
+
+  synchronized void closeAndDelete() {
+    try {
+      if (lock != null) {
+        lock.release();
+      }
+      out.close();
+      Files.deleteIfExists(path);
+    } catch (final IOException e) {
+      LOGGER.warn("Unable to delete write-ahead log '" + path + "'", e);
+    }
+  }
+
+  static boolean isLogFile(final Path path) {
+    return path.getFileName().toString().endsWith(LOG_SUFFIX);
+  }
+
+  /**
+   * Replay an abandoned log, if the log is in use by another writer nothing is replayed.
+   *
+   * @param path the log file
+   * @param entryConsumer the consumer of the logged entries
+   * @return whether the log was abandoned and has been replayed
+   */
+  static boolean replayIfAbandoned(final Path path, final Consumer<SegmentEntry> entryConsumer) {
+    try (SeekableByteChannel channel =
+        Files.newByteChannel(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      if (channel instanceof FileChannel) {
+        final FileLock lock;
+        try {
+          lock = ((FileChannel) channel).tryLock();
+        } catch (final OverlappingFileLockException e) {
+          // held by this process
+          return false;
+        }
+        if (lock == null) {
+          // held by another process
+          return false;
+        }
+      }
+      final ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(path));
+      while (buf.remaining() >= 8) {
+        final int length = buf.getInt();
+        final int checksum = buf.getInt();
+        if ((length < 0) || (length > buf.remaining())) {
+          // a partially written record at the end of the log
+          break;
+        }
+        final byte[] binary = new byte[length];
+        buf.get(binary);
+        final CRC32 crc = new CRC32();
+        crc.update(binary);
+        if ((int) crc.getValue() != checksum) {
+          break;
+        }
+        entryConsumer.accept(SegmentEntry.fromBinary(ByteBuffer.wrap(binary)));
+      }
+      return true;
+    } catch (final IOException e) {
+      LOGGER.warn("Unable to replay write-ahead log '" + path + "'", e);
+    }
+    return false;
+  }
+
+  private static FileLock tryLock(final SeekableByteChannel channel) {
+    if (channel instanceof FileChannel) {
+      try {
+        return ((FileChannel) channel).tryLock();
+      } catch (final IOException | UnsupportedOperationException e) {
+        LOGGER.debug("Unable to lock write-ahead log", e);
+      }
+    }
+    return null;
+  }
+}
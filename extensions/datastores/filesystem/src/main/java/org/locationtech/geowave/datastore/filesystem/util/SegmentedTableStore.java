@@ -0,0 +1,533 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.filesystem.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.tuple.Pair;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * A log-structured table stored in a single directory. Rows are buffered in a sorted memtable that
+ * is backed by a write-ahead log and, once the memtable is large enough, written out as an
+ * immutable segment file. Reads merge the memtable with every segment, with newer rows superseding
+ * older rows of the same identity. Segments are periodically compacted into one in the background,
+ * which is also when deleted rows are finally dropped.
+ *
+ * <p> Segments written by other processes are picked up when reading, but compaction assumes that
+ * only one process is writing to a table at a time.
+ */
+class SegmentedTableStore {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SegmentedTableStore.class);
+  private static final long MAX_MEMTABLE_SIZE = 4 * 1024 * 1024;
+  private static final long MAX_SEGMENT_SIZE = 1024 * 1024 * 1024;
+  private static final int COMPACTION_THRESHOLD = 8;
+  private static final long REFRESH_INTERVAL_MILLIS = 1000;
+  private static final Comparator<SegmentFile> NEWEST_FIRST =
+      Comparator.comparingLong((final SegmentFile s) -> s.getSequence()).reversed().thenComparing(
+          s -> s.getPath().getFileName().toString());
+
+  private static final ExecutorService COMPACTION_POOL =
+      Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat(
+              "geowave-filesystem-compaction-%d").build());
+
+  private final Path directory;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Object flushLock = new Object();
+  private final AtomicLong memtableSize = new AtomicLong(0);
+  private final AtomicBoolean compacting = new AtomicBoolean(false);
+  private final List<SegmentWriteAheadLog> unflushedLogs = new ArrayList<>();
+  private NavigableMap<SegmentEntry, SegmentEntry> memtable =
+      new ConcurrentSkipListMap<>(SegmentEntry.IDENTITY_ORDER);
+  private NavigableMap<SegmentEntry, SegmentEntry> flushingMemtable = null;
+  private SegmentWriteAheadLog log;
+  private volatile List<SegmentFile> segments = Collections.emptyList();
+  private volatile long lastRefresh = 0;
+  private volatile boolean closed = false;
+
+  SegmentedTableStore(final Path directory) throws IOException {
+    this.directory = directory;
+    refresh();
+    final List<Path> recoveredLogs = new ArrayList<>();
+    try (Stream<Path> files = Files.list(directory)) {
+      for (final Path path : files.filter(SegmentWriteAheadLog::isLogFile).collect(
+          Collectors.toList())) {
+        if (SegmentWriteAheadLog.replayIfAbandoned(path, e -> memtable.put(e, e))) {
+          recoveredLogs.add(path);
+        }
+      }
+    }
+    log = newLog();
+    if (!recoveredLogs.isEmpty()) {
+      LOGGER.info("Recovered " + memtable.size() + " rows for '" + directory + "'");
+      flush();
+      for (final Path path : recoveredLogs) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  void put(final SegmentEntry entry) throws IOException {
+    lock.readLock().lock();
+    try {
+      log.append(entry);
+      memtable.put(entry, entry);
+    } finally {
+      lock.readLock().unlock();
+    }
+    if (memtableSize.addAndGet(entry.encodedLength()) >= MAX_MEMTABLE_SIZE) {
+      flush();
+    }
+  }
+
+  void delete(final byte[] key, final String name) throws IOException {
+    put(SegmentEntry.tombstone(key, name));
+  }
+
+  /**
+   * Get a row by its identity.
+   *
+   * @return the row, or {@code null} if it doesn't exist or has been deleted
+   */
+  SegmentEntry get(final byte[] key, final String name) {
+    refreshIfStale();
+    final SegmentEntry probe = SegmentEntry.tombstone(key, name);
+    final NavigableMap<SegmentEntry, SegmentEntry> currentMemtable;
+    final NavigableMap<SegmentEntry, SegmentEntry> currentFlushingMemtable;
+    final List<SegmentFile> currentSegments;
+    lock.readLock().lock();
+    try {
+      currentMemtable = memtable;
+      currentFlushingMemtable = flushingMemtable;
+      currentSegments = segments;
+    } finally {
+      lock.readLock().unlock();
+    }
+    SegmentEntry entry = currentMemtable.get(probe);
+    if ((entry == null) && (currentFlushingMemtable != null)) {
+      entry = currentFlushingMemtable.get(probe);
+    }
+    if (entry == null) {
+      final byte[] endKey = Bytes.concat(key, new byte[] {0});
+      for (final SegmentFile segment : currentSegments) {
+        if (segment.mightContain(key)) {
+          final Iterator<SegmentEntry> it = segment.iterator(key, endKey);
+          while (it.hasNext()) {
+            final SegmentEntry next = it.next();
+            if (next.getName().equals(name)) {
+              entry = next;
+              break;
+            }
+          }
+          if (entry != null) {
+            break;
+          }
+        }
+      }
+    }
+    return (entry == null) || entry.isTombstone() ? null : entry;
+  }
+
+  /**
+   * Iterate over the rows that have not been deleted in sort order.
+   *
+   * @param startKey the start key (inclusive), or {@code null} to start from the first row
+   * @param endKey the end key (exclusive), or {@code null} to iterate to the last row
+   * @return the rows
+   */
+  Iterator<SegmentEntry> iterator(final byte[] startKey, final byte[] endKey) {
+    refreshIfStale();
+    final List<Iterator<SegmentEntry>> sources = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      sources.add(subMap(memtable, startKey, endKey).values().iterator());
+      if (flushingMemtable != null) {
+        sources.add(subMap(flushingMemtable, startKey, endKey).values().iterator());
+      }
+      for (final SegmentFile segment : segments) {
+        sources.add(segment.iterator(startKey, endKey));
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return new MergingIterator(sources);
+  }
+
+  /**
+   * Iterate over the rows within any of the given ranges in sort order, each row is returned once
+   * even if ranges overlap.
+   *
+   * @param ranges the ranges, a {@code null} or empty collection will iterate over every row
+   * @return the rows
+   */
+  Iterator<SegmentEntry> iterator(final Collection<ByteArrayRange> ranges) {
+    if ((ranges == null) || ranges.isEmpty()) {
+      return iterator(null, null);
+    }
+    final List<ByteArrayRange> sortedRanges = new ArrayList<>(ranges);
+    sortedRanges.sort(
+        (r1, r2) -> r1.getStart() == null ? (r2.getStart() == null ? 0 : -1)
+            : r2.getStart() == null ? 1
+                : UnsignedBytes.lexicographicalComparator().compare(
+                    r1.getStart(),
+                    r2.getStart()));
+    final List<Pair<byte[], byte[]>> scans = new ArrayList<>();
+    byte[] covered = null;
+    for (final ByteArrayRange range : sortedRanges) {
+      byte[] start = range.getStart();
+      final byte[] end = range.getEndAsNextPrefix();
+      if ((covered != null)
+          && ((start == null)
+              || (UnsignedBytes.lexicographicalComparator().compare(start, covered) < 0))) {
+        start = covered;
+      }
+      if ((start != null)
+          && (end != null)
+          && (UnsignedBytes.lexicographicalComparator().compare(start, end) >= 0)) {
+        continue;
+      }
+      scans.add(Pair.of(start, end));
+      if (end == null) {
+        break;
+      }
+      covered = end;
+    }
+    return Iterators.concat(
+        Iterators.transform(scans.iterator(), s -> iterator(s.getLeft(), s.getRight())));
+  }
+
+  /**
+   * Make every row written so far durable without writing a new segment.
+   */
+  void sync() throws IOException {
+    lock.readLock().lock();
+    try {
+      log.sync();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Write the memtable to a new segment.
+   */
+  void flush() throws IOException {
+    synchronized (flushLock) {
+      final NavigableMap<SegmentEntry, SegmentEntry> toFlush;
+      lock.writeLock().lock();
+      try {
+        if (memtable.isEmpty()) {
+          return;
+        }
+        toFlush = memtable;
+        flushingMemtable = toFlush;
+        memtable = new ConcurrentSkipListMap<>(SegmentEntry.IDENTITY_ORDER);
+        memtableSize.set(0);
+        unflushedLogs.add(log);
+        log = newLog();
+      } finally {
+        lock.writeLock().unlock();
+      }
+      try {
+        final List<SegmentFile> flushed =
+            openAll(
+                SegmentFile.write(
+                    directory,
+                    nextSequence(),
+                    UUID.randomUUID().toString(),
+                    toFlush.values().iterator(),
+                    toFlush.size(),
+                    MAX_SEGMENT_SIZE));
+        lock.writeLock().lock();
+        try {
+          setSegments(flushed, Collections.emptyList());
+          flushingMemtable = null;
+        } finally {
+          lock.writeLock().unlock();
+        }
+      } catch (final IOException e) {
+        // keep the rows in memory and keep their logs, a later flush will try again
+        lock.writeLock().lock();
+        try {
+          for (final SegmentEntry entry : toFlush.values()) {
+            memtable.putIfAbsent(entry, entry);
+          }
+          flushingMemtable = null;
+        } finally {
+          lock.writeLock().unlock();
+        }
+        throw e;
+      }
+      for (final SegmentWriteAheadLog flushedLog : unflushedLogs) {
+        flushedLog.closeAndDelete();
+      }
+      unflushedLogs.clear();
+    }
+    if (!closed
+        && (segments.size() >= COMPACTION_THRESHOLD)
+        && compacting.compareAndSet(false, true)) {
+      COMPACTION_POOL.submit(() -> {
+        try {
+          compact();
+        } catch (final Exception e) {
+          LOGGER.warn("Unable to compact segments of '" + directory + "'", e);
+        } finally {
+          compacting.set(false);
+        }
+      });
+    }
+  }
+
+  /**
+   * Merge all segments into one, dropping deleted rows.
+   */
+  void compact() throws IOException {
+    final List<SegmentFile> toCompact = segments;
+    if (closed || (toCompact.size() < 2)) {
+      return;
+    }
+    // every segment is being compacted so tombstones no longer have anything to supersede
+    final long expectedEntries = toCompact.stream().mapToLong(SegmentFile::getEntryCount).sum();
+    final List<SegmentFile> compacted =
+        openAll(
+            SegmentFile.write(
+                directory,
+                toCompact.get(0).getSequence(),
+                UUID.randomUUID().toString(),
+                new MergingIterator(
+                    toCompact.stream().map(s -> s.iterator(null, null)).collect(
+                        Collectors.toList())),
+                expectedEntries,
+                MAX_SEGMENT_SIZE));
+    lock.writeLock().lock();
+    try {
+      setSegments(compacted, toCompact);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    // delete the oldest first so that a tombstone is never removed before the rows it deletes
+    for (int i = toCompact.size() - 1; i >= 0; i--) {
+      try {
+        Files.deleteIfExists(toCompact.get(i).getPath());
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to delete compacted segment '" + toCompact.get(i).getPath() + "'", e);
+      }
+    }
+  }
+
+  void close() {
+    if (closed) {
+      return;
+    }
+    try {
+      flush();
+    } catch (final IOException e) {
+      LOGGER.warn("Unable to flush rows of '" + directory + "'", e);
+      return;
+    } finally {
+      closed = true;
+    }
+    log.closeAndDelete();
+  }
+
+  private SegmentWriteAheadLog newLog() throws IOException {
+    return new SegmentWriteAheadLog(
+        directory.resolve(UUID.randomUUID().toString() + SegmentWriteAheadLog.LOG_SUFFIX));
+  }
+
+  private long nextSequence() {
+    refresh();
+    final List<SegmentFile> currentSegments = segments;
+    return currentSegments.isEmpty() ? 0 : currentSegments.get(0).getSequence() + 1;
+  }
+
+  private void refreshIfStale() {
+    if ((System.currentTimeMillis() - lastRefresh) > REFRESH_INTERVAL_MILLIS) {
+      refresh();
+    }
+  }
+
+  /**
+   * Pick up segments written or removed by other processes.
+   */
+  private void refresh() {
+    lastRefresh = System.currentTimeMillis();
+    final Set<Path> paths;
+    try (Stream<Path> files = Files.list(directory)) {
+      paths = files.filter(SegmentFile::isSegmentFile).collect(Collectors.toSet());
+    } catch (final IOException e) {
+      LOGGER.warn("Unable to list segments of '" + directory + "'", e);
+      return;
+    }
+    final List<SegmentFile> currentSegments = segments;
+    final Set<Path> knownPaths =
+        currentSegments.stream().map(SegmentFile::getPath).collect(Collectors.toSet());
+    final List<SegmentFile> removed =
+        currentSegments.stream().filter(s -> !paths.contains(s.getPath())).collect(
+            Collectors.toList());
+    paths.removeAll(knownPaths);
+    if (paths.isEmpty() && removed.isEmpty()) {
+      return;
+    }
+    final List<SegmentFile> added = new ArrayList<>();
+    for (final Path path : paths) {
+      try {
+        added.add(SegmentFile.open(path));
+      } catch (final IOException e) {
+        LOGGER.debug("Unable to open segment '" + path + "'", e);
+      }
+    }
+    lock.writeLock().lock();
+    try {
+      setSegments(added, removed);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void setSegments(
+      final Collection<SegmentFile> added,
+      final Collection<SegmentFile> removed) {
+    final Map<Path, SegmentFile> newSegments = new LinkedHashMap<>();
+    final Set<Path> removedPaths = new HashSet<>();
+    removed.forEach(s -> removedPaths.add(s.getPath()));
+    for (final SegmentFile segment : segments) {
+      if (!removedPaths.contains(segment.getPath())) {
+        newSegments.put(segment.getPath(), segment);
+      }
+    }
+    added.forEach(s -> newSegments.putIfAbsent(s.getPath(), s));
+    final List<SegmentFile> sorted = new ArrayList<>(newSegments.values());
+    sorted.sort(NEWEST_FIRST);
+    segments = Collections.unmodifiableList(sorted);
+  }
+
+  private static List<SegmentFile> openAll(final List<Path> paths) throws IOException {
+    final List<SegmentFile> segments = new ArrayList<>(paths.size());
+    for (final Path path : paths) {
+      segments.add(SegmentFile.open(path));
+    }
+    return segments;
+  }
+
+  private static NavigableMap<SegmentEntry, SegmentEntry> subMap(
+      final NavigableMap<SegmentEntry, SegmentEntry> map,
+      final byte[] startKey,
+      final byte[] endKey) {
+    // the empty name sorts before any other name with the same key
+    NavigableMap<SegmentEntry, SegmentEntry> subMap = map;
+    if (startKey != null) {
+      subMap = subMap.tailMap(SegmentEntry.tombstone(startKey, ""), true);
+    }
+    if (endKey != null) {
+      subMap = subMap.headMap(SegmentEntry.tombstone(endKey, ""), false);
+    }
+    return subMap;
+  }
+
+  /**
+   * Merges sorted sources, ordered from newest to oldest, into a single sorted iterator. When more
+   * than one source contains a row with the same identity only the newest is used, and rows that
+   * have been deleted are skipped.
+   */
+  private static class MergingIterator implements Iterator<SegmentEntry> {
+    private final PriorityQueue<Pair<PeekingIterator<SegmentEntry>, Integer>> queue;
+    private SegmentEntry next;
+
+    private MergingIterator(final List<Iterator<SegmentEntry>> sources) {
+      queue =
+          new PriorityQueue<>(
+              Math.max(1, sources.size()),
+              (s1, s2) -> {
+                final int comp =
+                    SegmentEntry.IDENTITY_ORDER.compare(s1.getLeft().peek(), s2.getLeft().peek());
+                if (comp != 0) {
+                  return comp;
+                }
+                return Integer.compare(s1.getRight(), s2.getRight());
+              });
+      for (int i = 0; i < sources.size(); i++) {
+        final PeekingIterator<SegmentEntry> source = Iterators.peekingIterator(sources.get(i));
+        if (source.hasNext()) {
+          queue.add(Pair.of(source, i));
+        }
+      }
+      next = computeNext();
+    }
+
+    private SegmentEntry computeNext() {
+      while (!queue.isEmpty()) {
+        final SegmentEntry entry = advance(queue.poll());
+        // skip older versions of the same row
+        while (!queue.isEmpty()
+            && (SegmentEntry.IDENTITY_ORDER.compare(queue.peek().getLeft().peek(), entry) == 0)) {
+          advance(queue.poll());
+        }
+        if (!entry.isTombstone()) {
+          return entry;
+        }
+      }
+      return null;
+    }
+
+    private SegmentEntry advance(final Pair<PeekingIterator<SegmentEntry>, Integer> source) {
+      final SegmentEntry entry = source.getLeft().next();
+      if (source.getLeft().hasNext()) {
+        queue.add(source);
+      }
+      return entry;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public SegmentEntry next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      final SegmentEntry retVal = next;
+      next = computeNext();
+      return retVal;
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.filesystem.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveValueImpl;
+import com.google.common.primitives.Ints;
+
+public class FileSystemIndexTableTest {
+  private static final int ENTRIES = 100;
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testBinaryFormat() throws IOException {
+    testTable(GeoWaveBinaryDataFormatter.DEFAULT_BINARY_FORMATTER);
+  }
+
+  @Test
+  public void testSegmentFormat() throws IOException {
+    testTable(GeoWaveSegmentDataFormatter.SEGMENT_FORMATTER);
+  }
+
+  /**
+   * Both layouts must behave the same way, the segment layout only changes how rows are stored.
+   */
+  private void testTable(final String format) throws IOException {
+    FileSystemIndexTable table = createTable(format);
+    for (int i = 0; i < ENTRIES; i++) {
+      table.add(
+          Ints.toByteArray(i),
+          new byte[] {(byte) i},
+          (short) 0,
+          new GeoWaveValueImpl(new byte[] {1}, new byte[0], Ints.toByteArray(-i)));
+    }
+    assertEquals(range(0, ENTRIES), read(table.iterator()));
+
+    final List<ByteArrayRange> ranges =
+        Arrays.asList(
+            new ByteArrayRange(Ints.toByteArray(50), Ints.toByteArray(59)),
+            new ByteArrayRange(Ints.toByteArray(10), Ints.toByteArray(19)));
+    final List<Integer> expected = new ArrayList<>();
+    expected.addAll(range(10, 20));
+    expected.addAll(range(50, 60));
+    assertEquals(expected, read(table.iterator(ranges)));
+
+    for (int i = 0; i < 10; i++) {
+      table.delete(Ints.toByteArray(i), new byte[] {(byte) i});
+    }
+    assertEquals(range(10, ENTRIES), read(table.iterator()));
+    table.flush();
+    table.close();
+
+    table = createTable(format);
+    assertEquals(range(10, ENTRIES), read(table.iterator()));
+    assertEquals(range(50, 60), read(table.iterator(ranges.subList(0, 1))));
+    table.close();
+  }
+
+  private FileSystemIndexTable createTable(final String format) throws IOException {
+    return new FileSystemIndexTable(
+        tempFolder.getRoot().getAbsolutePath(),
+        (short) 0,
+        "type",
+        "index",
+        new byte[0],
+        format,
+        false,
+        false);
+  }
+
+  private static List<Integer> read(final CloseableIterator<GeoWaveRow> it) {
+    final List<Integer> keys = new ArrayList<>();
+    while (it.hasNext()) {
+      final GeoWaveRow row = it.next();
+      final int key = Ints.fromByteArray(row.getSortKey());
+      assertArrayEquals(new byte[] {(byte) key}, row.getDataId());
+      assertArrayEquals(Ints.toByteArray(-key), row.getFieldValues()[0].getValue());
+      keys.add(key);
+    }
+    it.close();
+    return keys;
+  }
+
+  private static List<Integer> range(final int start, final int end) {
+    final List<Integer> range = new ArrayList<>();
+    for (int i = start; i < end; i++) {
+      range.add(i);
+    }
+    return range;
+  }
+}
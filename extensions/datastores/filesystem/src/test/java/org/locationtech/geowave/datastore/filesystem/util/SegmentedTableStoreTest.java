@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.filesystem.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import com.google.common.primitives.Ints;
+
+public class SegmentedTableStoreTest {
+  private static final int ENTRIES = 100;
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    final SegmentedTableStore store = new SegmentedTableStore(tempFolder.getRoot().toPath());
+    write(store, 0, ENTRIES);
+    // rows are read from the memtable, then from a segment once flushed
+    assertRows(store, 0, ENTRIES);
+    store.flush();
+    assertEquals(1, countFiles(SegmentFile.SEGMENT_SUFFIX));
+    assertRows(store, 0, ENTRIES);
+    assertNull(store.get(Ints.toByteArray(ENTRIES), name(ENTRIES)));
+    assertNull(store.get(Ints.toByteArray(0), name(1)));
+
+    // a newer version of a row supersedes the one in the segment
+    store.put(new SegmentEntry(Ints.toByteArray(5), name(5), new byte[] {1, 2, 3}));
+    assertArrayEquals(new byte[] {1, 2, 3}, store.get(Ints.toByteArray(5), name(5)).getValue());
+    assertEquals(ENTRIES, keys(store.iterator(null, null)).size());
+    store.close();
+  }
+
+  @Test
+  public void testRangeReads() throws IOException {
+    final SegmentedTableStore store = new SegmentedTableStore(tempFolder.getRoot().toPath());
+    // spread the rows over two segments and the memtable
+    write(store, 0, 40);
+    store.flush();
+    write(store, 40, 70);
+    store.flush();
+    write(store, 70, ENTRIES);
+
+    assertEquals(range(20, 50), keys(store.iterator(Ints.toByteArray(20), Ints.toByteArray(50))));
+    assertEquals(range(0, 10), keys(store.iterator(null, Ints.toByteArray(10))));
+    assertEquals(range(90, ENTRIES), keys(store.iterator(Ints.toByteArray(90), null)));
+
+    // the ranges are out of order, the first two overlap and the last is past the end of the table
+    final List<ByteArrayRange> ranges =
+        Arrays.asList(
+            new ByteArrayRange(Ints.toByteArray(50), Ints.toByteArray(59)),
+            new ByteArrayRange(Ints.toByteArray(15), Ints.toByteArray(24)),
+            new ByteArrayRange(Ints.toByteArray(10), Ints.toByteArray(19)),
+            new ByteArrayRange(Ints.toByteArray(90), null),
+            new ByteArrayRange(Ints.toByteArray(200), Ints.toByteArray(210)));
+    final List<Integer> expected = new ArrayList<>();
+    expected.addAll(range(10, 25));
+    expected.addAll(range(50, 60));
+    expected.addAll(range(90, ENTRIES));
+    assertEquals(expected, keys(store.iterator(ranges)));
+    assertEquals(range(0, ENTRIES), keys(store.iterator(new ArrayList<>())));
+    store.close();
+  }
+
+  @Test
+  public void testDeletes() throws IOException {
+    final SegmentedTableStore store = new SegmentedTableStore(tempFolder.getRoot().toPath());
+    write(store, 0, ENTRIES);
+    store.flush();
+
+    // delete rows that are in a segment and a row that is only in the memtable
+    store.put(new SegmentEntry(Ints.toByteArray(ENTRIES), name(ENTRIES), new byte[] {1}));
+    for (int i = 0; i < 10; i++) {
+      store.delete(Ints.toByteArray(i), name(i));
+    }
+    store.delete(Ints.toByteArray(ENTRIES), name(ENTRIES));
+    for (int i = 0; i < 10; i++) {
+      assertNull(store.get(Ints.toByteArray(i), name(i)));
+    }
+    assertNull(store.get(Ints.toByteArray(ENTRIES), name(ENTRIES)));
+    assertEquals(range(10, ENTRIES), keys(store.iterator(null, null)));
+
+    // the tombstones are written to a segment of their own and still hide the older rows
+    store.flush();
+    assertEquals(2, countFiles(SegmentFile.SEGMENT_SUFFIX));
+    assertNull(store.get(Ints.toByteArray(0), name(0)));
+    assertEquals(range(10, ENTRIES), keys(store.iterator(null, null)));
+
+    // compaction drops the deleted rows entirely
+    store.compact();
+    assertEquals(1, countFiles(SegmentFile.SEGMENT_SUFFIX));
+    assertNull(store.get(Ints.toByteArray(0), name(0)));
+    assertEquals(range(10, ENTRIES), keys(store.iterator(null, null)));
+    final Path segment = listFiles(SegmentFile.SEGMENT_SUFFIX).get(0);
+    assertEquals(ENTRIES - 10, SegmentFile.open(segment).getEntryCount());
+
+    // a deleted row can be written again
+    store.put(new SegmentEntry(Ints.toByteArray(0), name(0), new byte[] {1}));
+    assertNotNull(store.get(Ints.toByteArray(0), name(0)));
+    store.close();
+  }
+
+  @Test
+  public void testReopen() throws IOException {
+    final Path directory = tempFolder.getRoot().toPath();
+    SegmentedTableStore store = new SegmentedTableStore(directory);
+    write(store, 0, 50);
+    store.flush();
+    write(store, 50, ENTRIES);
+    store.delete(Ints.toByteArray(0), name(0));
+    // closing flushes the memtable and removes the write-ahead log
+    store.close();
+    assertEquals(0, countFiles(SegmentWriteAheadLog.LOG_SUFFIX));
+
+    store = new SegmentedTableStore(directory);
+    assertNull(store.get(Ints.toByteArray(0), name(0)));
+    assertRows(store, 1, ENTRIES);
+    assertEquals(range(1, ENTRIES), keys(store.iterator(null, null)));
+
+    // new segments are written after the existing ones, so they take precedence
+    store.put(new SegmentEntry(Ints.toByteArray(1), name(1), new byte[] {1, 2, 3}));
+    store.close();
+    store = new SegmentedTableStore(directory);
+    assertArrayEquals(new byte[] {1, 2, 3}, store.get(Ints.toByteArray(1), name(1)).getValue());
+    store.close();
+  }
+
+  @Test
+  public void testRecoverAbandonedLog() throws IOException {
+    final Path directory = tempFolder.newFolder("original").toPath();
+    final SegmentedTableStore store = new SegmentedTableStore(directory);
+    write(store, 0, ENTRIES);
+    store.delete(Ints.toByteArray(0), name(0));
+    store.sync();
+    assertEquals(0, countFiles(directory, SegmentFile.SEGMENT_SUFFIX));
+
+    // a copy of the log isn't locked, just like the log of a process that exited without flushing
+    final Path recovered = tempFolder.newFolder("recovered").toPath();
+    for (final Path log : listFiles(directory, SegmentWriteAheadLog.LOG_SUFFIX)) {
+      Files.copy(log, recovered.resolve(log.getFileName()));
+    }
+    final SegmentedTableStore recoveredStore = new SegmentedTableStore(recovered);
+    assertEquals(1, countFiles(recovered, SegmentFile.SEGMENT_SUFFIX));
+    // only the log of the new store remains
+    assertEquals(1, countFiles(recovered, SegmentWriteAheadLog.LOG_SUFFIX));
+    assertNull(recoveredStore.get(Ints.toByteArray(0), name(0)));
+    assertRows(recoveredStore, 1, ENTRIES);
+    recoveredStore.close();
+
+    // the log of an open store is in use, so it is left alone
+    final SegmentedTableStore concurrentStore = new SegmentedTableStore(directory);
+    assertEquals(0, countFiles(directory, SegmentFile.SEGMENT_SUFFIX));
+    assertNull(concurrentStore.get(Ints.toByteArray(1), name(1)));
+    concurrentStore.close();
+    store.close();
+  }
+
+  private static void write(final SegmentedTableStore store, final int start, final int end)
+      throws IOException {
+    for (int i = start; i < end; i++) {
+      store.put(new SegmentEntry(Ints.toByteArray(i), name(i), Ints.toByteArray(-i)));
+    }
+  }
+
+  private static void assertRows(final SegmentedTableStore store, final int start, final int end) {
+    for (int i = start; i < end; i++) {
+      final SegmentEntry entry = store.get(Ints.toByteArray(i), name(i));
+      assertNotNull("Missing row " + i, entry);
+      assertArrayEquals(Ints.toByteArray(-i), entry.getValue());
+    }
+  }
+
+  private static String name(final int i) {
+    return "row" + i;
+  }
+
+  private static List<Integer> keys(final Iterator<SegmentEntry> it) {
+    final List<Integer> keys = new ArrayList<>();
+    while (it.hasNext()) {
+      keys.add(Ints.fromByteArray(it.next().getKey()));
+    }
+    return keys;
+  }
+
+  private static List<Integer> range(final int start, final int end) {
+    final List<Integer> range = new ArrayList<>();
+    for (int i = start; i < end; i++) {
+      range.add(i);
+    }
+    return range;
+  }
+
+  private int countFiles(final String suffix) throws IOException {
+    return countFiles(tempFolder.getRoot().toPath(), suffix);
+  }
+
+  private static int countFiles(final Path directory, final String suffix) throws IOException {
+    return listFiles(directory, suffix).size();
+  }
+
+  private List<Path> listFiles(final String suffix) throws IOException {
+    return listFiles(tempFolder.getRoot().toPath(), suffix);
+  }
+
+  private static List<Path> listFiles(final Path directory, final String suffix)
+      throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(p -> p.getFileName().toString().endsWith(suffix)).collect(
+          Collectors.toList());
+    }
+  }
+}
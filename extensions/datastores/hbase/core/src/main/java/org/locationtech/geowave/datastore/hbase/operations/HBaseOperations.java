@@ -649,6 +649,10 @@ public class HBaseOperations implements MapReduceDataStoreOperations, ServerSide
     return true;
   }
 
+  public int getDecodeThreads() {
+    return options.getDecodeThreads();
+  }
+
   public Table getTable(final String tableName) throws IOException {
     return conn.getTable(getTableName(tableName));
   }
@@ -59,7 +59,23 @@ public class HBaseParallelDecoder<T> extends ParallelDecoder<T> {
       final HBaseOperations operations,
       final List<ByteArrayRange> ranges,
       final int partitionKeyLength) {
-    super(rowTransformer);
+    this(
+        rowTransformer,
+        scanProvider,
+        operations,
+        ranges,
+        partitionKeyLength,
+        ParallelDecoder.DEFAULT_NUM_THREADS);
+  }
+
+  public HBaseParallelDecoder(
+      final GeoWaveRowIteratorTransformer<T> rowTransformer,
+      final Supplier<Scan> scanProvider,
+      final HBaseOperations operations,
+      final List<ByteArrayRange> ranges,
+      final int partitionKeyLength,
+      final int numThreads) {
+    super(rowTransformer, numThreads);
     this.scanProvider = scanProvider;
     this.operations = operations;
     this.ranges = ranges;
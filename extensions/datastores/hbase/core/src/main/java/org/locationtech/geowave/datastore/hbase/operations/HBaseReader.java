@@ -199,7 +199,8 @@ public class HBaseReader<T> implements RowReader<T> {
               scanProvider,
               operations,
               readerParams.getQueryRanges().getCompositeQueryRanges(),
-              partitionKeyLength);
+              partitionKeyLength,
+              operations.getDecodeThreads());
 
       if (!filterList.getFilters().isEmpty()) {
         if (filterList.getFilters().size() > 1) {
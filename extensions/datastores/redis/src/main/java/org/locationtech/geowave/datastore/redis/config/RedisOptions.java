@@ -43,6 +43,12 @@ public class RedisOptions extends StoreFactoryOptions {
       description = "Can be \"fst\" or \"jdk\". Defaults to fst. Note that this serialization codec is only used for the data index when secondary indexing.",
       converter = SerializationConverter.class)
   private Serialization serialization = Serialization.FST;
+
+  @Parameter(
+      names = "--sortKeyLayout",
+      description = "Can be \"score\" or \"lex\". Defaults to score. The score layout stores the sort key as a score which loses precision beyond 52 bits, requiring inexact range reads that are filtered client-side. The lex layout stores the full sort key at the start of each member so ranges are read exactly using ZRANGEBYLEX.",
+      converter = SortKeyLayoutConverter.class)
+  private SortKeyLayout sortKeyLayout = SortKeyLayout.SCORE;
   @ParametersDelegate
   protected BaseDataStoreOptions baseOptions = new BaseDataStoreOptions() {
     @Override
@@ -108,6 +114,14 @@ public class RedisOptions extends StoreFactoryOptions {
     this.serialization = serialization;
   }
 
+  public SortKeyLayout getSortKeyLayout() {
+    return sortKeyLayout;
+  }
+
+  public void setSortKeyLayout(final SortKeyLayout sortKeyLayout) {
+    this.sortKeyLayout = sortKeyLayout;
+  }
+
   public static enum Compression {
     SNAPPY(c -> new SnappyCodec(c)), L4Z(c -> new LZ4Codec(c)), NONE(c -> c);
     private transient Function<Codec, Codec> compressionTransform;
@@ -134,6 +148,22 @@ public class RedisOptions extends StoreFactoryOptions {
     }
   };
 
+  public static enum SortKeyLayout {
+    SCORE, LEX;
+
+    public boolean isLexicographic() {
+      return LEX.equals(this);
+    }
+  };
+
+  public static class SortKeyLayoutConverter implements IStringConverter<SortKeyLayout> {
+
+    @Override
+    public SortKeyLayout convert(final String value) {
+      return SortKeyLayout.valueOf(value.toUpperCase());
+    }
+  }
+
   public static class SerializationConverter implements IStringConverter<Serialization> {
 
     @Override
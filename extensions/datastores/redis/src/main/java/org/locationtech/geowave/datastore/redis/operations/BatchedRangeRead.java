@@ -22,6 +22,7 @@ import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.lang3.tuple.Pair;
 import org.locationtech.geowave.core.index.ByteArray;
 import org.locationtech.geowave.core.index.SinglePartitionQueryRanges;
@@ -31,11 +32,15 @@ import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowIteratorTransformer;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowMergingIterator;
 import org.locationtech.geowave.core.store.util.RowConsumer;
+import org.locationtech.geowave.core.store.util.SortedMergeIterator;
 import org.locationtech.geowave.datastore.redis.config.RedisOptions.Compression;
+import org.locationtech.geowave.datastore.redis.config.RedisOptions.SortKeyLayout;
 import org.locationtech.geowave.datastore.redis.util.GeoWaveRedisPersistedRow;
 import org.locationtech.geowave.datastore.redis.util.GeoWaveRedisRow;
 import org.locationtech.geowave.datastore.redis.util.RedisScoredSetWrapper;
 import org.locationtech.geowave.datastore.redis.util.RedisUtils;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
 import org.redisson.api.RFuture;
 import org.redisson.api.RedissonClient;
 import org.redisson.client.protocol.ScoredEntry;
@@ -72,7 +77,30 @@ public class BatchedRangeRead<T> {
     }
   }
 
+  private static class LexOrderComparator implements Comparator<RangeReadInfo>, Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final LexOrderComparator SINGLETON = new LexOrderComparator();
+
+    @Override
+    public int compare(final RangeReadInfo o1, final RangeReadInfo o2) {
+      int comp = UnsignedBytes.lexicographicalComparator().compare(o1.lexStart, o2.lexStart);
+      if (comp != 0) {
+        return comp;
+      }
+      comp = UnsignedBytes.lexicographicalComparator().compare(o1.lexEnd, o2.lexEnd);
+      if (comp != 0) {
+        return comp;
+      }
+      final byte[] otherComp = o2.partitionKey == null ? new byte[0] : o2.partitionKey;
+      final byte[] thisComp = o1.partitionKey == null ? new byte[0] : o1.partitionKey;
+
+      return UnsignedBytes.lexicographicalComparator().compare(thisComp, otherComp);
+    }
+  }
+
   private static final int MAX_CONCURRENT_READ = 100;
+  // the number of lexicographic range reads to pipeline in a single round trip
+  private static final int LEX_READ_BATCH_SIZE = 100;
   private static final int MAX_BOUNDED_READS_ENQUEUED = 1000000;
   private static ByteArray EMPTY_PARTITION_KEY = new ByteArray();
   private final LoadingCache<ByteArray, RedisScoredSetWrapper<GeoWaveRedisPersistedRow>> setCache =
@@ -91,12 +119,14 @@ public class BatchedRangeRead<T> {
   private final Pair<Boolean, Boolean> groupByRowAndSortByTimePair;
   private final boolean isSortFinalResultsBySortKey;
   private final Compression compression;
+  private final SortKeyLayout sortKeyLayout;
   private final boolean rowMerging;
   private final boolean visibilityEnabled;
 
   protected BatchedRangeRead(
       final RedissonClient client,
       final Compression compression,
+      final SortKeyLayout sortKeyLayout,
       final String setNamePrefix,
       final short adapterId,
       final Collection<SinglePartitionQueryRanges> ranges,
@@ -109,6 +139,7 @@ public class BatchedRangeRead<T> {
       final boolean visibilityEnabled) {
     this.client = client;
     this.compression = compression;
+    this.sortKeyLayout = sortKeyLayout;
     this.setNamePrefix = setNamePrefix;
     this.adapterId = adapterId;
     this.ranges = ranges;
@@ -126,6 +157,7 @@ public class BatchedRangeRead<T> {
     return RedisUtils.getRowSet(
         client,
         compression,
+        sortKeyLayout,
         setNamePrefix,
         partitionKey,
         groupByRowAndSortByTimePair.getRight(),
@@ -135,6 +167,11 @@ public class BatchedRangeRead<T> {
   public CloseableIterator<T> results() {
     final List<RangeReadInfo> reads = new ArrayList<>();
     for (final SinglePartitionQueryRanges r : ranges) {
+      if (sortKeyLayout.isLexicographic()) {
+        r.getSortKeyRanges().forEach(
+            range -> reads.add(new RangeReadInfo(r.getPartitionKey(), range)));
+        continue;
+      }
       reads.addAll(
           r.getSortKeyRanges().stream().flatMap(
               range -> RedisUtils.getScoreRangesFromByteArrays(range).map(
@@ -152,12 +189,15 @@ public class BatchedRangeRead<T> {
   }
 
   private CloseableIterator<T> executeQuery(final List<RangeReadInfo> reads) {
+    if (sortKeyLayout.isLexicographic()) {
+      return executeLexQuery(reads);
+    }
     if (isSortFinalResultsBySortKey) {
       // order the reads by sort keys
       reads.sort(ScoreOrderComparator.SINGLETON);
     }
-    final Iterator<ScoredEntry<GeoWaveRedisPersistedRow>> result =
-        Iterators.concat(reads.stream().map(r -> {
+    final Stream<Iterator<ScoredEntry<GeoWaveRedisPersistedRow>>> results =
+        reads.stream().map(r -> {
           ByteArray partitionKey;
           if ((r.partitionKey == null) || (r.partitionKey.length == 0)) {
             partitionKey = EMPTY_PARTITION_KEY;
@@ -175,10 +215,68 @@ public class BatchedRangeRead<T> {
                       ((r.endScore <= r.startScore) || (r.explicitEndCheck != null)))).filter(
                           e -> r.passesExplicitRowChecks(e)).iterator(),
               r.partitionKey);
-        }).iterator());
+        });
+    if (isSortFinalResultsBySortKey) {
+      return new CloseableIterator.Wrapper<>(
+          mergeAndTransform(results.collect(Collectors.toList())));
+    }
+    return new CloseableIterator.Wrapper<>(
+        transformAndFilter(Iterators.concat(results.iterator())));
+  }
+
+  private CloseableIterator<T> executeLexQuery(final List<RangeReadInfo> reads) {
+    if (isSortFinalResultsBySortKey) {
+      // order the reads by sort keys
+      reads.sort(LexOrderComparator.SINGLETON);
+    }
+    // lexicographic ranges are exact so there is no need for client-side filtering, and batches of
+    // reads are pipelined to avoid a round trip per range
+    if (isSortFinalResultsBySortKey) {
+      final List<Iterator<ScoredEntry<GeoWaveRedisPersistedRow>>> results =
+          Lists.newArrayListWithExpectedSize(reads.size());
+      Lists.partition(reads, LEX_READ_BATCH_SIZE).forEach(
+          batch -> results.addAll(executeLexBatch(batch)));
+      return new CloseableIterator.Wrapper<>(mergeAndTransform(results));
+    }
+    final Iterator<ScoredEntry<GeoWaveRedisPersistedRow>> result =
+        Iterators.concat(
+            Iterators.concat(
+                Iterators.transform(
+                    Lists.partition(reads, LEX_READ_BATCH_SIZE).iterator(),
+                    batch -> executeLexBatch(batch).iterator())));
     return new CloseableIterator.Wrapper<>(transformAndFilter(result));
   }
 
+  private List<Iterator<ScoredEntry<GeoWaveRedisPersistedRow>>> executeLexBatch(
+      final List<RangeReadInfo> reads) {
+    final RBatch batch = client.createBatch(BatchOptions.defaults());
+    final List<RFuture<Collection<ScoredEntry<GeoWaveRedisPersistedRow>>>> futures =
+        reads.stream().map(
+            r -> getSetForRead(r).entryLexRangeAsync(batch, r.lexStart, r.lexEnd)).collect(
+                Collectors.toList());
+    batch.execute();
+    final List<Iterator<ScoredEntry<GeoWaveRedisPersistedRow>>> results =
+        Lists.newArrayListWithExpectedSize(reads.size());
+    for (int i = 0; i < reads.size(); i++) {
+      final RangeReadInfo r = reads.get(i);
+      results.add(
+          new PartitionIteratorWrapper(
+              getSetForRead(r).entryLexRange(
+                  r.lexStart,
+                  r.lexEnd,
+                  futures.get(i).syncUninterruptibly().getNow()),
+              r.partitionKey));
+    }
+    return results;
+  }
+
+  private RedisScoredSetWrapper<GeoWaveRedisPersistedRow> getSetForRead(final RangeReadInfo r) {
+    if ((r.partitionKey == null) || (r.partitionKey.length == 0)) {
+      return setCache.get(EMPTY_PARTITION_KEY);
+    }
+    return setCache.get(new ByteArray(r.partitionKey));
+  }
+
   private static class PartitionIteratorWrapper implements
       Iterator<ScoredEntry<GeoWaveRedisPersistedRow>> {
     private final byte[] partitionKey;
@@ -227,13 +325,15 @@ public class BatchedRangeRead<T> {
             }
             readSemaphore.acquire();
             final RFuture<Collection<ScoredEntry<GeoWaveRedisPersistedRow>>> f =
-                setCache.get(partitionKey).entryRangeAsync(
-                    r.startScore,
-                    true,
-                    r.endScore,
-                    // because we have a finite precision we need to make
-                    // sure the end is inclusive and do more precise client-side filtering
-                    ((r.endScore <= r.startScore) || (r.explicitEndCheck != null)));
+                sortKeyLayout.isLexicographic()
+                    ? setCache.get(partitionKey).entryLexRangeAsync(r.lexStart, r.lexEnd)
+                    : setCache.get(partitionKey).entryRangeAsync(
+                        r.startScore,
+                        true,
+                        r.endScore,
+                        // because we have a finite precision we need to make
+                        // sure the end is inclusive and do more precise client-side filtering
+                        ((r.endScore <= r.startScore) || (r.explicitEndCheck != null)));
             queryCount.incrementAndGet();
             f.handle((result, throwable) -> {
               if (!f.isSuccess()) {
@@ -301,32 +401,44 @@ public class BatchedRangeRead<T> {
 
   private Iterator<T> transformAndFilter(
       final Iterator<ScoredEntry<GeoWaveRedisPersistedRow>> result) {
-    final Iterator<GeoWaveRow> iterator =
-        (Iterator) Streams.stream(
-            groupByRowAndSortByTimePair.getLeft()
-                ? RedisUtils.groupByRow(result, groupByRowAndSortByTimePair.getRight())
-                : result).map(
-                    entry -> new GeoWaveRedisRow(
-                        entry.getValue(),
-                        adapterId,
-                        entry.getValue().getPartitionKey(),
-                        RedisUtils.getFullSortKey(
-                            entry.getScore(),
-                            entry.getValue().getSortKeyPrecisionBeyondScore()))).filter(
-                                filter).iterator();
-    return rowTransformer.apply(
-        sortByKeyIfRequired(
-            isSortFinalResultsBySortKey,
-            rowMerging ? new GeoWaveRowMergingIterator(iterator) : iterator));
+    return filterAndTransform(toRows(groupByRowIfRequired(result)));
   }
 
-  private static Iterator<GeoWaveRow> sortByKeyIfRequired(
-      final boolean isRequired,
-      final Iterator<GeoWaveRow> it) {
-    if (isRequired) {
-      return RedisUtils.sortBySortKey(it);
-    }
-    return it;
+  private Iterator<T> mergeAndTransform(
+      final List<Iterator<ScoredEntry<GeoWaveRedisPersistedRow>>> results) {
+    // once each read is ordered by sort key the reads can be merged rather than buffering and
+    // sorting all of the results
+    final List<Iterator<GeoWaveRow>> sortedResults =
+        results.stream().map(
+            r -> toRows(
+                RedisUtils.sortBySortKey(
+                    groupByRowIfRequired(r),
+                    sortKeyLayout,
+                    groupByRowAndSortByTimePair.getLeft()))).collect(Collectors.toList());
+    return filterAndTransform(SortedMergeIterator.mergeBySortKey(sortedResults, null));
+  }
+
+  private Iterator<ScoredEntry<GeoWaveRedisPersistedRow>> groupByRowIfRequired(
+      final Iterator<ScoredEntry<GeoWaveRedisPersistedRow>> result) {
+    return groupByRowAndSortByTimePair.getLeft()
+        ? RedisUtils.groupByRow(result, groupByRowAndSortByTimePair.getRight())
+        : result;
+  }
+
+  private Iterator<GeoWaveRow> toRows(
+      final Iterator<ScoredEntry<GeoWaveRedisPersistedRow>> result) {
+    return Iterators.transform(
+        result,
+        entry -> new GeoWaveRedisRow(
+            entry.getValue(),
+            adapterId,
+            entry.getValue().getPartitionKey(),
+            RedisUtils.getFullSortKey(entry)));
+  }
+
+  private Iterator<T> filterAndTransform(final Iterator<GeoWaveRow> rows) {
+    final Iterator<GeoWaveRow> iterator = Streams.stream(rows).filter(filter).iterator();
+    return rowTransformer.apply(rowMerging ? new GeoWaveRowMergingIterator(iterator) : iterator);
   }
 
   private static void checkFinalize(
@@ -9,9 +9,11 @@
 package org.locationtech.geowave.datastore.redis.operations;
 
 import java.util.Arrays;
+import org.apache.commons.lang3.tuple.Pair;
 import org.locationtech.geowave.core.index.ByteArrayRange;
 import org.locationtech.geowave.core.store.entities.GeoWaveMetadata;
 import org.locationtech.geowave.datastore.redis.util.GeoWaveRedisPersistedRow;
+import org.locationtech.geowave.datastore.redis.util.RedisUtils;
 import org.redisson.client.protocol.ScoredEntry;
 import com.google.common.primitives.UnsignedBytes;
 
@@ -20,6 +22,7 @@ class RangeReadInfo {
   protected double startScore;
   protected double endScore;
   protected byte[] explicitStartCheck, explicitEndCheck;
+  protected byte[] lexStart, lexEnd;
 
   public RangeReadInfo(
       final byte[] partitionKey,
@@ -39,6 +42,15 @@ class RangeReadInfo {
         (end != null) && (end.length > 6) ? Arrays.copyOfRange(end, 6, end.length) : null;
   }
 
+  public RangeReadInfo(final byte[] partitionKey, final ByteArrayRange originalRange) {
+    // this is used for index rows using the lexicographic layout, which are read exactly so there
+    // are no explicit checks
+    this.partitionKey = partitionKey;
+    final Pair<byte[], byte[]> lexRange = RedisUtils.getLexRangeFromByteArrays(originalRange);
+    lexStart = lexRange.getLeft();
+    lexEnd = lexRange.getRight();
+  }
+
   public RangeReadInfo(
       final double startScore,
       final double endScore,
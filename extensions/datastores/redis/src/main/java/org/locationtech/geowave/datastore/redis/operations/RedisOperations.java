@@ -95,6 +95,7 @@ public class RedisOperations implements MapReduceDataStoreOperations {
     return new RedisWriter(
         client,
         options.getCompression(),
+        options.getSortKeyLayout(),
         gwNamespace,
         adapter.getTypeName(),
         index.getName(),
@@ -154,6 +155,7 @@ public class RedisOperations implements MapReduceDataStoreOperations {
     return new RedisReader<>(
         client,
         options.getCompression(),
+        options.getSortKeyLayout(),
         readerParams,
         gwNamespace,
         options.getStoreOptions().isVisibilityEnabled(),
@@ -173,6 +175,7 @@ public class RedisOperations implements MapReduceDataStoreOperations {
         new RedisReader<>(
             client,
             options.getCompression(),
+            options.getSortKeyLayout(),
             readerParams,
             gwNamespace,
             options.getStoreOptions().isVisibilityEnabled(),
@@ -184,6 +187,7 @@ public class RedisOperations implements MapReduceDataStoreOperations {
     return new RedisReader<>(
         client,
         options.getCompression(),
+        options.getSortKeyLayout(),
         readerParams,
         gwNamespace,
         options.getStoreOptions().isVisibilityEnabled());
@@ -198,6 +202,7 @@ public class RedisOperations implements MapReduceDataStoreOperations {
     return new RedisRowDeleter(
         client,
         options.getCompression(),
+        options.getSortKeyLayout(),
         adapterStore,
         internalAdapterStore,
         indexName,
@@ -10,10 +10,12 @@ package org.locationtech.geowave.datastore.redis.operations;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
@@ -34,8 +36,10 @@ import org.locationtech.geowave.core.store.operations.ReaderParams;
 import org.locationtech.geowave.core.store.operations.RowReader;
 import org.locationtech.geowave.core.store.query.filter.ClientVisibilityFilter;
 import org.locationtech.geowave.core.store.util.DataStoreUtils;
+import org.locationtech.geowave.core.store.util.SortedMergeIterator;
 import org.locationtech.geowave.datastore.redis.config.RedisOptions.Compression;
 import org.locationtech.geowave.datastore.redis.config.RedisOptions.Serialization;
+import org.locationtech.geowave.datastore.redis.config.RedisOptions.SortKeyLayout;
 import org.locationtech.geowave.datastore.redis.util.GeoWaveRedisPersistedRow;
 import org.locationtech.geowave.datastore.redis.util.GeoWaveRedisRow;
 import org.locationtech.geowave.datastore.redis.util.RedisUtils;
@@ -53,6 +57,7 @@ public class RedisReader<T> implements RowReader<T> {
   public RedisReader(
       final RedissonClient client,
       final Compression compression,
+      final SortKeyLayout sortKeyLayout,
       final ReaderParams<T> readerParams,
       final String namespace,
       final boolean visibilityEnabled,
@@ -61,6 +66,7 @@ public class RedisReader<T> implements RowReader<T> {
         createIteratorForReader(
             client,
             compression,
+            sortKeyLayout,
             readerParams,
             readerParams.getRowTransformer(),
             namespace,
@@ -89,6 +95,7 @@ public class RedisReader<T> implements RowReader<T> {
   public RedisReader(
       final RedissonClient client,
       final Compression compression,
+      final SortKeyLayout sortKeyLayout,
       final RecordReaderParams recordReaderParams,
       final String namespace,
       final boolean visibilityEnabled) {
@@ -96,6 +103,7 @@ public class RedisReader<T> implements RowReader<T> {
         createIteratorForRecordReader(
             client,
             compression,
+            sortKeyLayout,
             recordReaderParams,
             namespace,
             visibilityEnabled);
@@ -104,6 +112,7 @@ public class RedisReader<T> implements RowReader<T> {
   private CloseableIterator<T> createIteratorForReader(
       final RedissonClient client,
       final Compression compression,
+      final SortKeyLayout sortKeyLayout,
       final ReaderParams<T> readerParams,
       final GeoWaveRowIteratorTransformer<T> rowTransformer,
       final String namespace,
@@ -117,6 +126,7 @@ public class RedisReader<T> implements RowReader<T> {
       return createIterator(
           client,
           compression,
+          sortKeyLayout,
           readerParams,
           readerParams.getRowTransformer(),
           namespace,
@@ -125,9 +135,8 @@ public class RedisReader<T> implements RowReader<T> {
           visibilityEnabled,
           async);
     } else {
-      final Iterator<GeoWaveRedisRow>[] iterators =
-          new Iterator[readerParams.getAdapterIds().length];
-      int i = 0;
+      final boolean sortByKey = RedisUtils.isSortByKeyRequired(readerParams);
+      final List<Iterator<GeoWaveRow>> iterators = new ArrayList<>();
       for (final short adapterId : readerParams.getAdapterIds()) {
         final Pair<Boolean, Boolean> groupByRowAndSortByTime =
             RedisUtils.isGroupByRowAndIsSortByTime(readerParams, adapterId);
@@ -142,6 +151,7 @@ public class RedisReader<T> implements RowReader<T> {
                   RedisUtils.getRowSet(
                       client,
                       compression,
+                      sortKeyLayout,
                       setNamePrefix,
                       p.getBytes(),
                       groupByRowAndSortByTime.getRight(),
@@ -150,27 +160,34 @@ public class RedisReader<T> implements RowReader<T> {
                           true,
                           Double.POSITIVE_INFINITY,
                           true);
-              final Iterator<ScoredEntry<GeoWaveRedisPersistedRow>> it =
+              Iterator<ScoredEntry<GeoWaveRedisPersistedRow>> it =
                   groupByRowAndSortByTime.getLeft()
                       ? RedisUtils.groupByRow(result, groupByRowAndSortByTime.getRight())
                       : result;
+              if (sortByKey) {
+                it = RedisUtils.sortBySortKey(it, sortKeyLayout, groupByRowAndSortByTime.getLeft());
+              }
               return ImmutablePair.of(p, it);
             });
-        iterators[i++] =
-            Iterators.concat(
-                streamIt.map(
-                    p -> Iterators.transform(
-                        p.getRight(),
-                        pr -> new GeoWaveRedisRow(
-                            pr.getValue(),
-                            adapterId,
-                            p.getLeft().getBytes(),
-                            RedisUtils.getFullSortKey(
-                                pr.getScore(),
-                                pr.getValue().getSortKeyPrecisionBeyondScore())))).iterator());
+        final Stream<Iterator<GeoWaveRow>> rowIt =
+            streamIt.map(
+                p -> Iterators.transform(
+                    p.getRight(),
+                    pr -> new GeoWaveRedisRow(
+                        pr.getValue(),
+                        adapterId,
+                        p.getLeft().getBytes(),
+                        RedisUtils.getFullSortKey(pr))));
+        if (sortByKey) {
+          // each partition is in sort key order so they can be merged rather than sorted
+          rowIt.forEach(iterators::add);
+        } else {
+          iterators.add(Iterators.concat(rowIt.iterator()));
+        }
       }
       return wrapResults(
-          Iterators.concat(iterators),
+          sortByKey ? SortedMergeIterator.mergeBySortKey(iterators, null)
+              : Iterators.concat(iterators.iterator()),
           readerParams,
           rowTransformer,
           authorizations,
@@ -181,6 +198,7 @@ public class RedisReader<T> implements RowReader<T> {
   private CloseableIterator<T> createIterator(
       final RedissonClient client,
       final Compression compression,
+      final SortKeyLayout sortKeyLayout,
       final RangeReaderParams<T> readerParams,
       final GeoWaveRowIteratorTransformer<T> rowTransformer,
       final String namespace,
@@ -193,6 +211,7 @@ public class RedisReader<T> implements RowReader<T> {
             adapterId -> new BatchedRangeRead(
                 client,
                 compression,
+                sortKeyLayout,
                 RedisUtils.getRowSetPrefix(
                     namespace,
                     readerParams.getInternalAdapterStore().getTypeName(adapterId),
@@ -266,6 +285,7 @@ public class RedisReader<T> implements RowReader<T> {
   private CloseableIterator<T> createIteratorForRecordReader(
       final RedissonClient client,
       final Compression compression,
+      final SortKeyLayout sortKeyLayout,
       final RecordReaderParams recordReaderParams,
       final String namespace,
       final boolean visibilityEnabled) {
@@ -281,6 +301,7 @@ public class RedisReader<T> implements RowReader<T> {
     return createIterator(
         client,
         compression,
+        sortKeyLayout,
         (RangeReaderParams<T>) recordReaderParams,
         (GeoWaveRowIteratorTransformer<T>) GeoWaveRowIteratorTransformer.NO_OP_TRANSFORMER,
         namespace,
@@ -292,32 +313,19 @@ public class RedisReader<T> implements RowReader<T> {
         false);
   }
 
-  @SuppressWarnings("unchecked")
   private CloseableIterator<T> wrapResults(
-      final Iterator<GeoWaveRedisRow> results,
+      final Iterator<GeoWaveRow> results,
       final RangeReaderParams<T> params,
       final GeoWaveRowIteratorTransformer<T> rowTransformer,
       final Set<String> authorizations,
       final boolean visibilityEnabled) {
     final Iterator<GeoWaveRow> iterator =
-        (Iterator) Streams.stream(results).filter(
-            new ClientVisibilityFilter(authorizations)).iterator();
+        Streams.stream(results).filter(new ClientVisibilityFilter(authorizations)).iterator();
     return new CloseableIterator.Wrapper<>(
         rowTransformer.apply(
-            sortBySortKeyIfRequired(
-                params,
-                DataStoreUtils.isMergingIteratorRequired(params, visibilityEnabled)
-                    ? new GeoWaveRowMergingIterator(iterator)
-                    : iterator)));
-  }
-
-  private static Iterator<GeoWaveRow> sortBySortKeyIfRequired(
-      final RangeReaderParams<?> params,
-      final Iterator<GeoWaveRow> it) {
-    if (RedisUtils.isSortByKeyRequired(params)) {
-      return RedisUtils.sortBySortKey(it);
-    }
-    return it;
+            DataStoreUtils.isMergingIteratorRequired(params, visibilityEnabled)
+                ? new GeoWaveRowMergingIterator(iterator)
+                : iterator));
   }
 
   @Override
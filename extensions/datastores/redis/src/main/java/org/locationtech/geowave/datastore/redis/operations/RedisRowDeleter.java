@@ -15,6 +15,7 @@ import org.locationtech.geowave.core.store.adapter.PersistentAdapterStore;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.operations.RowDeleter;
 import org.locationtech.geowave.datastore.redis.config.RedisOptions.Compression;
+import org.locationtech.geowave.datastore.redis.config.RedisOptions.SortKeyLayout;
 import org.locationtech.geowave.datastore.redis.util.GeoWaveRedisPersistedRow;
 import org.locationtech.geowave.datastore.redis.util.GeoWaveRedisRow;
 import org.locationtech.geowave.datastore.redis.util.RedisScoredSetWrapper;
@@ -29,6 +30,7 @@ public class RedisRowDeleter implements RowDeleter {
       Caffeine.newBuilder().build(nameAndAdapterId -> getSet(nameAndAdapterId));
   private final RedissonClient client;
   private final Compression compression;
+  private final SortKeyLayout sortKeyLayout;
   private final PersistentAdapterStore adapterStore;
   private final InternalAdapterStore internalAdapterStore;
   private final String indexName;
@@ -38,6 +40,7 @@ public class RedisRowDeleter implements RowDeleter {
   public RedisRowDeleter(
       final RedissonClient client,
       final Compression compression,
+      final SortKeyLayout sortKeyLayout,
       final PersistentAdapterStore adapterStore,
       final InternalAdapterStore internalAdapterStore,
       final String indexName,
@@ -45,6 +48,7 @@ public class RedisRowDeleter implements RowDeleter {
       final boolean visibilityEnabled) {
     this.client = client;
     this.compression = compression;
+    this.sortKeyLayout = sortKeyLayout;
     this.adapterStore = adapterStore;
     this.internalAdapterStore = internalAdapterStore;
     this.indexName = indexName;
@@ -60,6 +64,7 @@ public class RedisRowDeleter implements RowDeleter {
     return RedisUtils.getRowSet(
         client,
         compression,
+        sortKeyLayout,
         setNameAndAdapterId.getLeft(),
         RedisUtils.isSortByTime(adapterStore.getAdapter(setNameAndAdapterId.getRight())),
         visibilityEnabled);
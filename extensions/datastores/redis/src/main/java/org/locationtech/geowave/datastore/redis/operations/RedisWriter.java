@@ -14,6 +14,7 @@ import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveValue;
 import org.locationtech.geowave.core.store.operations.RowWriter;
 import org.locationtech.geowave.datastore.redis.config.RedisOptions.Compression;
+import org.locationtech.geowave.datastore.redis.config.RedisOptions.SortKeyLayout;
 import org.locationtech.geowave.datastore.redis.util.GeoWaveRedisPersistedRow;
 import org.locationtech.geowave.datastore.redis.util.GeoWaveRedisPersistedTimestampRow;
 import org.locationtech.geowave.datastore.redis.util.RedisScoredSetWrapper;
@@ -26,6 +27,7 @@ public class RedisWriter implements RowWriter {
   private static ByteArray EMPTY_PARTITION_KEY = new ByteArray();
   private final RedissonClient client;
   private final Compression compression;
+  private final SortKeyLayout sortKeyLayout;
   private final String setNamePrefix;
   private final LoadingCache<ByteArray, RedisScoredSetWrapper<GeoWaveRedisPersistedRow>> setCache =
       Caffeine.newBuilder().build(partitionKey -> getSet(partitionKey.getBytes()));
@@ -35,6 +37,7 @@ public class RedisWriter implements RowWriter {
   public RedisWriter(
       final RedissonClient client,
       final Compression compression,
+      final SortKeyLayout sortKeyLayout,
       final String namespace,
       final String typeName,
       final String indexName,
@@ -42,6 +45,7 @@ public class RedisWriter implements RowWriter {
       final boolean visibilityEnabled) {
     this.client = client;
     this.compression = compression;
+    this.sortKeyLayout = sortKeyLayout;
     setNamePrefix = RedisUtils.getRowSetPrefix(namespace, typeName, indexName);
     this.isTimestampRequired = isTimestampRequired;
     this.visibilityEnabled = visibilityEnabled;
@@ -51,6 +55,7 @@ public class RedisWriter implements RowWriter {
     return RedisUtils.getRowSet(
         client,
         compression,
+        sortKeyLayout,
         setNamePrefix,
         partitionKey,
         isTimestampRequired,
@@ -80,7 +85,7 @@ public class RedisWriter implements RowWriter {
     }
     for (final GeoWaveValue value : row.getFieldValues()) {
       setCache.get(partitionKey).add(
-          RedisUtils.getScore(row.getSortKey()),
+          getScore(row),
           isTimestampRequired
               ? new GeoWaveRedisPersistedTimestampRow(
                   (short) row.getNumberOfDuplicates(),
@@ -106,7 +111,7 @@ public class RedisWriter implements RowWriter {
     }
     for (final GeoWaveValue value : row.getFieldValues()) {
       setCache.get(partitionKey).add(
-          RedisUtils.getScore(row.getSortKey()),
+          getScore(row),
           isTimestampRequired
               ? new GeoWaveRedisPersistedTimestampRow(
                   (short) row.getNumberOfDuplicates(),
@@ -124,6 +129,11 @@ public class RedisWriter implements RowWriter {
     }
   }
 
+  private double getScore(final GeoWaveRow row) {
+    // with the lexicographic layout the sort key is part of the member and the score is constant
+    return sortKeyLayout.isLexicographic() ? 0 : RedisUtils.getScore(row.getSortKey());
+  }
+
   @Override
   public void flush() {
     setCache.asMap().forEach((k, v) -> v.flush());
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.redis.util;
+
+import java.io.IOException;
+import org.redisson.client.codec.BaseCodec;
+import org.redisson.client.codec.Codec;
+import org.redisson.client.handler.State;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Prefixes each row with its full sort key so that the members of a sorted set with a constant
+ * score are ordered by sort key and can be read exactly using ZRANGEBYLEX. The sort key is written
+ * uncompressed using {@link RedisUtils#getLexSortKey(byte[])} and the rest of the row is encoded by
+ * the wrapped codec. Byte arrays are passed through as-is so that lexicographic range bounds can be
+ * sent as script arguments using this codec.
+ */
+public class GeoWaveRedisLexRowCodec extends BaseCodec {
+  private final Codec innerCodec;
+  private final ClassLoader classLoader;
+
+  private final Decoder<Object> decoder = new Decoder<Object>() {
+    @Override
+    public Object decode(final ByteBuf buf, final State state) throws IOException {
+      final byte[] sortKey = RedisUtils.readLexSortKey(buf);
+      final Object retVal = innerCodec.getValueDecoder().decode(buf, state);
+      if (retVal instanceof GeoWaveRedisPersistedRow) {
+        ((GeoWaveRedisPersistedRow) retVal).setSortKey(sortKey);
+      }
+      return retVal;
+    }
+  };
+  private final Encoder encoder = new Encoder() {
+    @Override
+    public ByteBuf encode(final Object in) throws IOException {
+      if (in instanceof byte[]) {
+        return Unpooled.wrappedBuffer((byte[]) in);
+      }
+      if (in instanceof GeoWaveRedisPersistedRow) {
+        final GeoWaveRedisPersistedRow row = (GeoWaveRedisPersistedRow) in;
+        if (row.getSortKey() == null) {
+          throw new IOException("The full sort key is required to encode a lexicographic row");
+        }
+        return Unpooled.wrappedBuffer(
+            Unpooled.wrappedBuffer(RedisUtils.getLexSortKey(row.getSortKey())),
+            innerCodec.getValueEncoder().encode(in));
+      }
+      throw new IOException("Encoder only supports GeoWaveRedisRow");
+    }
+  };
+
+  public GeoWaveRedisLexRowCodec(final Codec innerCodec) {
+    this(null, innerCodec);
+  }
+
+  public GeoWaveRedisLexRowCodec(final ClassLoader classLoader, final GeoWaveRedisLexRowCodec codec)
+      throws ReflectiveOperationException {
+    this(classLoader, copy(classLoader, codec.innerCodec));
+  }
+
+  private GeoWaveRedisLexRowCodec(final ClassLoader classLoader, final Codec innerCodec) {
+    this.classLoader = classLoader;
+    this.innerCodec = innerCodec;
+  }
+
+  @Override
+  public ClassLoader getClassLoader() {
+    if (classLoader != null) {
+      return classLoader;
+    }
+    return super.getClassLoader();
+  }
+
+  @Override
+  public Decoder<Object> getValueDecoder() {
+    return decoder;
+  }
+
+  @Override
+  public Encoder getValueEncoder() {
+    return encoder;
+  }
+}
@@ -21,6 +21,8 @@ public class GeoWaveRedisPersistedRow {
   private byte[] sortKeyPrecisionBeyondScore;
 
   private transient byte[] partitionKey;
+  // the full sort key, which is only known when writing or when it was stored in the member
+  private transient byte[] sortKey;
 
   public GeoWaveRedisPersistedRow(
       final short numDuplicates,
@@ -48,6 +50,7 @@ public class GeoWaveRedisPersistedRow {
     this.dataId = dataId;
     this.value = value;
     this.duplicateId = duplicateId;
+    this.sortKey = sortKey;
     if (sortKey != null) {
       if (sortKey.length > 6) {
         sortKeyPrecisionBeyondScore = Arrays.copyOfRange(sortKey, 6, sortKey.length);
@@ -65,6 +68,14 @@ public class GeoWaveRedisPersistedRow {
     return sortKeyPrecisionBeyondScore;
   }
 
+  public byte[] getSortKey() {
+    return sortKey;
+  }
+
+  public void setSortKey(final byte[] sortKey) {
+    this.sortKey = sortKey;
+  }
+
   public byte[] getPartitionKey() {
     return partitionKey;
   }
@@ -8,24 +8,45 @@
  */
 package org.locationtech.geowave.datastore.redis.util;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.redisson.api.RBatch;
 import org.redisson.api.RFuture;
 import org.redisson.api.RScoredSortedSet;
 import org.redisson.api.RScoredSortedSetAsync;
+import org.redisson.api.RScript.Mode;
+import org.redisson.api.RScript.ReturnType;
+import org.redisson.api.RScriptAsync;
 import org.redisson.api.RedissonClient;
 import org.redisson.client.codec.Codec;
 import org.redisson.client.protocol.ScoredEntry;
+import org.redisson.misc.RPromise;
+import org.redisson.misc.RedissonPromise;
 
 public class RedisScoredSetWrapper<V> extends
     AbstractRedisSetWrapper<RScoredSortedSetAsync<V>, RScoredSortedSet<V>> {
+  // Redisson only supports ZRANGEBYLEX for string members so binary members are read with a script
+  private static final String ENTRY_LEX_RANGE_SCRIPT =
+      "return redis.call('ZRANGEBYLEX', KEYS[1], ARGV[1], ARGV[2], 'LIMIT', ARGV[3], ARGV[4])";
+  private static final byte[] PAGE_SIZE =
+      Integer.toString(RedisUtils.MAX_ROWS_FOR_PAGINATION).getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] UNLIMITED = "-1".getBytes(StandardCharsets.US_ASCII);
+  private final RedissonClient client;
+  private final String setName;
+  private final Codec codec;
 
   public RedisScoredSetWrapper(
       final RedissonClient client,
       final String setName,
       final Codec codec) {
     super(client, setName, codec);
+    this.client = client;
+    this.setName = setName;
+    this.codec = codec;
   }
 
   public boolean remove(final Object o) {
@@ -77,6 +98,97 @@ public class RedisScoredSetWrapper<V> extends
         endScoreInclusive);
   }
 
+  /**
+   * Read the members between lexicographic bounds as returned by
+   * {@link RedisUtils#getLexRangeFromByteArrays(org.locationtech.geowave.core.index.ByteArrayRange)}.
+   * This is only meaningful when every member has the same score and the codec passes byte arrays
+   * through unchanged, such as {@link GeoWaveRedisLexRowCodec}.
+   */
+  public Iterator<ScoredEntry<V>> entryLexRange(final byte[] min, final byte[] max) {
+    return entryLexRange(
+        min,
+        max,
+        entryLexRangeAsync(
+            client.getScript(codec),
+            min,
+            max,
+            0,
+            PAGE_SIZE).syncUninterruptibly().getNow());
+  }
+
+  /**
+   * Continue reading a lexicographic range given its first page of results, which may have been
+   * read as part of a batch.
+   */
+  public Iterator<ScoredEntry<V>> entryLexRange(
+      final byte[] min,
+      final byte[] max,
+      final Collection<ScoredEntry<V>> firstPage) {
+    if (firstPage.size() >= RedisUtils.MAX_ROWS_FOR_PAGINATION) {
+      return new LazyPaginatedLexEntryRange<>(
+          offset -> entryLexRangeAsync(
+              client.getScript(codec),
+              min,
+              max,
+              offset,
+              PAGE_SIZE).syncUninterruptibly().getNow(),
+          firstPage);
+    }
+    return firstPage.iterator();
+  }
+
+  public RFuture<Collection<ScoredEntry<V>>> entryLexRangeAsync(
+      final byte[] min,
+      final byte[] max) {
+    return entryLexRangeAsync(client.getScript(codec), min, max, 0, UNLIMITED);
+  }
+
+  /**
+   * Add the first page of a lexicographic range read to a batch so that many ranges can be
+   * pipelined in a single round trip. The rest of the range can be read using
+   * {@link #entryLexRange(byte[], byte[], Collection)}.
+   */
+  public RFuture<Collection<ScoredEntry<V>>> entryLexRangeAsync(
+      final RBatch batch,
+      final byte[] min,
+      final byte[] max) {
+    return entryLexRangeAsync(batch.getScript(codec), min, max, 0, PAGE_SIZE);
+  }
+
+  private RFuture<Collection<ScoredEntry<V>>> entryLexRangeAsync(
+      final RScriptAsync script,
+      final byte[] min,
+      final byte[] max,
+      final int offset,
+      final byte[] count) {
+    final RFuture<List<V>> members =
+        script.evalAsync(
+            Mode.READ_ONLY,
+            ENTRY_LEX_RANGE_SCRIPT,
+            ReturnType.MULTI,
+            Collections.singletonList(setName),
+            min,
+            max,
+            Integer.toString(offset).getBytes(StandardCharsets.US_ASCII),
+            count);
+    final RPromise<Collection<ScoredEntry<V>>> retVal = new RedissonPromise<>();
+    members.onComplete((r, t) -> {
+      if (t != null) {
+        retVal.tryFailure(t);
+      } else {
+        // members of a lexicographic set all share the same score
+        retVal.trySuccess(
+            r.stream().map(v -> new ScoredEntry<>(0.0, v)).collect(Collectors.toList()));
+      }
+    });
+    retVal.onComplete((r, t) -> {
+      if (retVal.isCancelled()) {
+        members.cancel(true);
+      }
+    });
+    return retVal;
+  }
+
   @Override
   protected RScoredSortedSetAsync<V> initAsyncCollection(
       final RBatch batch,
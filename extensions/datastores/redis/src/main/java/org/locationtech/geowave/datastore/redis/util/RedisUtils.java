@@ -8,7 +8,9 @@
  */
 package org.locationtech.geowave.datastore.redis.util;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -25,24 +27,34 @@ import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
 import org.locationtech.geowave.core.store.adapter.RowMergingDataAdapter;
 import org.locationtech.geowave.core.store.base.dataidx.DataIndexUtils;
 import org.locationtech.geowave.core.store.entities.GeoWaveMetadata;
-import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.operations.MetadataType;
 import org.locationtech.geowave.core.store.operations.RangeReaderParams;
 import org.locationtech.geowave.datastore.redis.config.RedisOptions.Compression;
 import org.locationtech.geowave.datastore.redis.config.RedisOptions.Serialization;
+import org.locationtech.geowave.datastore.redis.config.RedisOptions.SortKeyLayout;
 import org.redisson.api.RScoredSortedSet;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
 import org.redisson.client.protocol.ScoredEntry;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.MultimapBuilder;
+import com.google.common.collect.PeekingIterator;
 import com.google.common.collect.Streams;
 import com.google.common.primitives.Bytes;
 import com.google.common.primitives.UnsignedBytes;
+import io.netty.buffer.ByteBuf;
 
 public class RedisUtils {
   protected static final int MAX_ROWS_FOR_PAGINATION = 1000000;
   public static int REDIS_DEFAULT_MAX_RANGE_DECOMPOSITION = 250;
   public static int REDIS_DEFAULT_AGGREGATION_MAX_RANGE_DECOMPOSITION = 250;
+  private static final byte LEX_ESCAPE = 0x00;
+  private static final byte LEX_ESCAPED_ZERO = (byte) 0xFF;
+  private static final byte LEX_TERMINATOR = 0x01;
+  private static final byte[] LEX_MIN = new byte[] {'-'};
+  private static final byte[] LEX_MAX = new byte[] {'+'};
 
   public static Stream<Range<Double>> getScoreRangesFromByteArrays(final ByteArrayRange range) {
     final double start =
@@ -65,6 +77,78 @@ public class RedisUtils {
     }
   }
 
+  /**
+   * Get the ZRANGEBYLEX bounds of a sort key range for a set using the lexicographic layout. The
+   * escaped start key sorts before any member with a sort key greater than or equal to the start,
+   * and the escaped end key sorts before any member with a sort key that isn't within the range.
+   *
+   * @return the inclusive minimum and exclusive maximum
+   */
+  public static Pair<byte[], byte[]> getLexRangeFromByteArrays(final ByteArrayRange range) {
+    final byte[] min =
+        range.getStart() != null ? Bytes.concat(new byte[] {'['}, escapeLex(range.getStart()))
+            : LEX_MIN;
+    final byte[] max =
+        range.getEnd() != null
+            ? Bytes.concat(new byte[] {'('}, escapeLex(range.getEndAsNextPrefix()))
+            : LEX_MAX;
+    return Pair.of(min, max);
+  }
+
+  /**
+   * Encode a sort key so that the unsigned byte order of the encoded keys, followed by any other
+   * bytes, is the same as the order of the sort keys. Zero bytes are escaped and the key is
+   * terminated by an escape byte that sorts before any escaped byte.
+   */
+  public static byte[] getLexSortKey(final byte[] sortKey) {
+    final byte[] escaped = escapeLex(sortKey);
+    final byte[] retVal = new byte[escaped.length + 2];
+    System.arraycopy(escaped, 0, retVal, 0, escaped.length);
+    retVal[escaped.length] = LEX_ESCAPE;
+    retVal[escaped.length + 1] = LEX_TERMINATOR;
+    return retVal;
+  }
+
+  /**
+   * Read a sort key written by {@link #getLexSortKey(byte[])}, leaving the buffer positioned after
+   * the terminator.
+   */
+  public static byte[] readLexSortKey(final ByteBuf buf) {
+    final ByteArrayOutputStream sortKey = new ByteArrayOutputStream();
+    while (buf.isReadable()) {
+      final byte b = buf.readByte();
+      if (b != LEX_ESCAPE) {
+        sortKey.write(b);
+      } else if (buf.readByte() == LEX_ESCAPED_ZERO) {
+        sortKey.write(0);
+      } else {
+        break;
+      }
+    }
+    return sortKey.toByteArray();
+  }
+
+  private static byte[] escapeLex(final byte[] sortKey) {
+    int zeros = 0;
+    for (final byte b : sortKey) {
+      if (b == 0) {
+        zeros++;
+      }
+    }
+    if (zeros == 0) {
+      return sortKey;
+    }
+    final byte[] retVal = new byte[sortKey.length + zeros];
+    int i = 0;
+    for (final byte b : sortKey) {
+      retVal[i++] = b;
+      if (b == 0) {
+        retVal[i++] = LEX_ESCAPED_ZERO;
+      }
+    }
+    return retVal;
+  }
+
   public static RScoredSortedSet<GeoWaveMetadata> getMetadataSet(
       final RedissonClient client,
       final Compression compression,
@@ -94,6 +178,7 @@ public class RedisUtils {
   public static RedisScoredSetWrapper<GeoWaveRedisPersistedRow> getRowSet(
       final RedissonClient client,
       final Compression compression,
+      final SortKeyLayout sortKeyLayout,
       final String setNamePrefix,
       final byte[] partitionKey,
       final boolean requiresTimestamp,
@@ -101,6 +186,7 @@ public class RedisUtils {
     return getRowSet(
         client,
         compression,
+        sortKeyLayout,
         getRowSetName(setNamePrefix, partitionKey),
         requiresTimestamp,
         visibilityEnabled);
@@ -141,23 +227,28 @@ public class RedisUtils {
   public static RedisScoredSetWrapper<GeoWaveRedisPersistedRow> getRowSet(
       final RedissonClient client,
       final Compression compression,
+      final SortKeyLayout sortKeyLayout,
       final String setName,
       final boolean requiresTimestamp,
       final boolean visibilityEnabled) {
-    return new RedisScoredSetWrapper<>(
-        client,
-        setName,
+    final Codec codec =
         compression.getCodec(
             requiresTimestamp
                 ? visibilityEnabled ? GeoWaveRedisRowWithTimestampCodec.SINGLETON_WITH_VISIBILITY
                     : GeoWaveRedisRowWithTimestampCodec.SINGLETON_WITH_VISIBILITY
                 : visibilityEnabled ? GeoWaveRedisRowCodec.SINGLETON_WITH_VISIBILITY
-                    : GeoWaveRedisRowCodec.SINGLETON_WITHOUT_VISIBILITY));
+                    : GeoWaveRedisRowCodec.SINGLETON_WITHOUT_VISIBILITY);
+    return new RedisScoredSetWrapper<>(
+        client,
+        setName,
+        // the sort key prefix must not be compressed to keep the members in sort key order
+        sortKeyLayout.isLexicographic() ? new GeoWaveRedisLexRowCodec(codec) : codec);
   }
 
   public static RedisScoredSetWrapper<GeoWaveRedisPersistedRow> getRowSet(
       final RedissonClient client,
       final Compression compression,
+      final SortKeyLayout sortKeyLayout,
       final String namespace,
       final String typeName,
       final String indexName,
@@ -167,6 +258,7 @@ public class RedisUtils {
     return getRowSet(
         client,
         compression,
+        sortKeyLayout,
         getRowSetPrefix(namespace, typeName, indexName),
         partitionKey,
         requiresTimestamp,
@@ -190,6 +282,18 @@ public class RedisUtils {
     return getSortKey(score);
   }
 
+  /**
+   * Get the full sort key of an entry, which is stored in the member when using the lexicographic
+   * layout and otherwise is reconstructed from the score.
+   */
+  public static byte[] getFullSortKey(final ScoredEntry<GeoWaveRedisPersistedRow> entry) {
+    final GeoWaveRedisPersistedRow row = entry.getValue();
+    if (row.getSortKey() != null) {
+      return row.getSortKey();
+    }
+    return getFullSortKey(entry.getScore(), row.getSortKeyPrecisionBeyondScore());
+  }
+
   private static byte[] appendBytes(final byte[] a, final byte[] b, final int length) {
     final byte[] rv = new byte[length + b.length];
 
@@ -255,10 +359,12 @@ public class RedisUtils {
   public static Iterator<ScoredEntry<GeoWaveRedisPersistedRow>> groupByRow(
       final Iterator<ScoredEntry<GeoWaveRedisPersistedRow>> result,
       final boolean sortByTime) {
-    final ListMultimap<Pair<Double, ByteArray>, ScoredEntry<GeoWaveRedisPersistedRow>> multimap =
+    final ListMultimap<Pair<ByteArray, ByteArray>, ScoredEntry<GeoWaveRedisPersistedRow>> multimap =
         MultimapBuilder.hashKeys().arrayListValues().build();
     result.forEachRemaining(
-        r -> multimap.put(Pair.of(r.getScore(), new ByteArray(r.getValue().getDataId())), r));
+        r -> multimap.put(
+            Pair.of(new ByteArray(getFullSortKey(r)), new ByteArray(r.getValue().getDataId())),
+            r));
     if (sortByTime) {
       multimap.asMap().forEach(
           (k, v) -> Collections.sort(
@@ -278,8 +384,47 @@ public class RedisUtils {
         && (params.getMaxResolutionSubsamplingPerDimension().length > 0);
   }
 
-  public static Iterator<GeoWaveRow> sortBySortKey(final Iterator<GeoWaveRow> it) {
-    return Streams.stream(it).sorted(SortKeyOrder.SINGLETON).iterator();
+  /**
+   * Order the entries of a single read by their full sort key so that reads can be merged rather
+   * than sorting the entire result. Entries read with the lexicographic layout are already in sort
+   * key order. Entries read by score are in score order, but the score only holds the leading
+   * bytes of the sort key, so only runs of entries that share a score need to be sorted. Entries
+   * that have been grouped by row are buffered in no particular order and are sorted entirely, the
+   * sort is stable so the entries of a row stay together in timestamp order.
+   */
+  public static Iterator<ScoredEntry<GeoWaveRedisPersistedRow>> sortBySortKey(
+      final Iterator<ScoredEntry<GeoWaveRedisPersistedRow>> entries,
+      final SortKeyLayout sortKeyLayout,
+      final boolean groupedByRow) {
+    if (groupedByRow) {
+      return Streams.stream(entries).sorted(SORT_KEY_COMPARATOR).iterator();
+    }
+    if (sortKeyLayout.isLexicographic()) {
+      return entries;
+    }
+    final PeekingIterator<ScoredEntry<GeoWaveRedisPersistedRow>> it =
+        Iterators.peekingIterator(entries);
+    final Iterator<Iterator<ScoredEntry<GeoWaveRedisPersistedRow>>> runs =
+        new AbstractIterator<Iterator<ScoredEntry<GeoWaveRedisPersistedRow>>>() {
+          @Override
+          protected Iterator<ScoredEntry<GeoWaveRedisPersistedRow>> computeNext() {
+            if (!it.hasNext()) {
+              return endOfData();
+            }
+            final ScoredEntry<GeoWaveRedisPersistedRow> first = it.next();
+            if (!it.hasNext() || !first.getScore().equals(it.peek().getScore())) {
+              return Iterators.singletonIterator(first);
+            }
+            final List<ScoredEntry<GeoWaveRedisPersistedRow>> run = new ArrayList<>();
+            run.add(first);
+            while (it.hasNext() && first.getScore().equals(it.peek().getScore())) {
+              run.add(it.next());
+            }
+            run.sort(SORT_KEY_COMPARATOR);
+            return run.iterator();
+          }
+        };
+    return Iterators.concat(runs);
   }
 
   public static Pair<Boolean, Boolean> isGroupByRowAndIsSortByTime(
@@ -289,6 +434,9 @@ public class RedisUtils {
     return Pair.of(readerParams.isMixedVisibility() || sortByTime, sortByTime);
   }
 
+  private static final Comparator<ScoredEntry<GeoWaveRedisPersistedRow>> SORT_KEY_COMPARATOR =
+      Comparator.comparing(RedisUtils::getFullSortKey, UnsignedBytes.lexicographicalComparator());
+
   private static final ReverseTimestampComparator TIMESTAMP_COMPARATOR =
       new ReverseTimestampComparator();
 
@@ -314,49 +462,4 @@ public class RedisUtils {
       return Integer.compare(row2.getNanoOfSecond(), row1.getNanoOfSecond());
     }
   }
-
-  private static class SortKeyOrder implements Comparator<GeoWaveRow>, Serializable {
-    private static SortKeyOrder SINGLETON = new SortKeyOrder();
-    private static final long serialVersionUID = 23275155231L;
-
-    @Override
-    public int compare(final GeoWaveRow o1, final GeoWaveRow o2) {
-      if (o1 == o2) {
-        return 0;
-      }
-      if (o1 == null) {
-        return 1;
-      }
-      if (o2 == null) {
-        return -1;
-      }
-      byte[] otherComp = o2.getSortKey() == null ? new byte[0] : o2.getSortKey();
-      byte[] thisComp = o1.getSortKey() == null ? new byte[0] : o1.getSortKey();
-
-      int comp = UnsignedBytes.lexicographicalComparator().compare(thisComp, otherComp);
-      if (comp != 0) {
-        return comp;
-      }
-      otherComp = o2.getPartitionKey() == null ? new byte[0] : o2.getPartitionKey();
-      thisComp = o1.getPartitionKey() == null ? new byte[0] : o1.getPartitionKey();
-
-      comp = UnsignedBytes.lexicographicalComparator().compare(thisComp, otherComp);
-      if (comp != 0) {
-        return comp;
-      }
-      comp = Short.compare(o1.getAdapterId(), o2.getAdapterId());
-      if (comp != 0) {
-        return comp;
-      }
-      otherComp = o2.getDataId() == null ? new byte[0] : o2.getDataId();
-      thisComp = o1.getDataId() == null ? new byte[0] : o1.getDataId();
-
-      comp = UnsignedBytes.lexicographicalComparator().compare(thisComp, otherComp);
-
-      if (comp != 0) {
-        return comp;
-      }
-      return Integer.compare(o1.getNumberOfDuplicates(), o2.getNumberOfDuplicates());
-    }
-  }
 }
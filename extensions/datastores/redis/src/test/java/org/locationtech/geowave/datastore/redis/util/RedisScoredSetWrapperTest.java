@@ -8,13 +8,23 @@
  */
 package org.locationtech.geowave.datastore.redis.util;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.locationtech.geowave.core.store.entities.GeoWaveValueImpl;
+import org.locationtech.geowave.datastore.redis.config.RedisOptions.Compression;
+import org.locationtech.geowave.datastore.redis.config.RedisOptions.SortKeyLayout;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
 import org.redisson.api.RScoredSortedSet;
 import org.redisson.api.RedissonClient;
 import org.redisson.client.codec.IntegerCodec;
@@ -27,6 +37,7 @@ public class RedisScoredSetWrapperTest {
       "test_entry_range_nonpaginated_set";
   private static final String TEST_ENTRY_RANGE_PAGINATED_SET = "test_entry_range_paginated_set";
   private static final String TEST_ADD_REMOVE_SET = "test_add_remove_set";
+  private static final String TEST_ENTRY_LEX_RANGE_SET = "test_entry_lex_range_set";
   private static RedissonClient client;
   private static RedisServer server;
 
@@ -51,6 +62,7 @@ public class RedisScoredSetWrapperTest {
     client.getScoredSortedSet(TEST_ENTRY_RANGE_NONPAGINATED_SET, IntegerCodec.INSTANCE).clear();
     client.getScoredSortedSet(TEST_ENTRY_RANGE_PAGINATED_SET, IntegerCodec.INSTANCE).clear();
     client.getScoredSortedSet(TEST_ADD_REMOVE_SET, IntegerCodec.INSTANCE).clear();
+    client.getScoredSortedSet(TEST_ENTRY_LEX_RANGE_SET, IntegerCodec.INSTANCE).clear();
   }
 
   /**
@@ -94,6 +106,86 @@ public class RedisScoredSetWrapperTest {
     }
   }
 
+  /**
+   * Tests that {@link RedisScoredSetWrapper#entryLexRange(byte[], byte[])} reads exactly the rows
+   * within a sort key range, including sort keys that differ beyond the precision of a score.
+   */
+  @Test
+  public void testEntryLexRange() throws Exception {
+    final int NUM_ENTRIES = 2000;
+    try (RedisScoredSetWrapper<GeoWaveRedisPersistedRow> wrapper =
+        RedisUtils.getRowSet(
+            client,
+            Compression.SNAPPY,
+            SortKeyLayout.LEX,
+            TEST_ENTRY_LEX_RANGE_SET,
+            false,
+            false)) {
+      for (int i = 0; i < NUM_ENTRIES; ++i) {
+        wrapper.add(0, lexRow(i));
+      }
+    }
+    try (RedisScoredSetWrapper<GeoWaveRedisPersistedRow> wrapper =
+        RedisUtils.getRowSet(
+            client,
+            Compression.SNAPPY,
+            SortKeyLayout.LEX,
+            TEST_ENTRY_LEX_RANGE_SET,
+            false,
+            false)) {
+      final Pair<byte[], byte[]> range =
+          RedisUtils.getLexRangeFromByteArrays(
+              new ByteArrayRange(lexSortKey(256), lexSortKey(511)));
+      assertLexRange(256, 511, wrapper.entryLexRange(range.getLeft(), range.getRight()));
+
+      final Pair<byte[], byte[]> allRange =
+          RedisUtils.getLexRangeFromByteArrays(new ByteArrayRange(null, null));
+      assertLexRange(
+          0,
+          NUM_ENTRIES - 1,
+          wrapper.entryLexRange(allRange.getLeft(), allRange.getRight()));
+
+      // pipeline both reads in a single batch
+      final RBatch batch = client.createBatch(BatchOptions.defaults());
+      final RFuture<Collection<ScoredEntry<GeoWaveRedisPersistedRow>>> f1 =
+          wrapper.entryLexRangeAsync(batch, range.getLeft(), range.getRight());
+      final RFuture<Collection<ScoredEntry<GeoWaveRedisPersistedRow>>> f2 =
+          wrapper.entryLexRangeAsync(batch, allRange.getLeft(), allRange.getRight());
+      batch.execute();
+      assertLexRange(256, 511, f1.syncUninterruptibly().getNow().iterator());
+      assertLexRange(0, NUM_ENTRIES - 1, f2.syncUninterruptibly().getNow().iterator());
+
+      for (int i = 0; i < NUM_ENTRIES; ++i) {
+        wrapper.remove(lexRow(i));
+      }
+      assertEquals(0, rangeLength(wrapper.entryLexRange(allRange.getLeft(), allRange.getRight())));
+    }
+  }
+
+  private static byte[] lexSortKey(final int i) {
+    // only the last 2 bytes differ, which is beyond the precision of a score
+    return new byte[] {1, 0, 0, 0, 0, 0, (byte) (i >> 8), (byte) i};
+  }
+
+  private static GeoWaveRedisPersistedRow lexRow(final int i) {
+    return new GeoWaveRedisPersistedRow(
+        (short) 0,
+        new byte[] {(byte) (i >> 8), (byte) i},
+        lexSortKey(i),
+        new GeoWaveValueImpl(new byte[] {1}, new byte[0], new byte[] {(byte) i}));
+  }
+
+  private void assertLexRange(
+      final int start,
+      final int end,
+      final Iterator<ScoredEntry<GeoWaveRedisPersistedRow>> entryRange) {
+    int expected = start;
+    while (entryRange.hasNext()) {
+      assertArrayEquals(lexSortKey(expected++), RedisUtils.getFullSortKey(entryRange.next()));
+    }
+    assertEquals(end + 1, expected);
+  }
+
   private <V> long rangeLength(final Iterator<ScoredEntry<V>> entryRange) {
     long numEntries = 0;
     while (entryRange.hasNext()) {
@@ -12,9 +12,14 @@ import static org.junit.Assert.assertEquals;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Random;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Assert;
 import org.junit.Test;
 import org.locationtech.geowave.core.index.ByteArray;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import com.google.common.primitives.UnsignedBytes;
+import io.netty.buffer.Unpooled;
 
 public class RedisUtilsTest {
   private static final int NUM_ITERATIONS = 10000;
@@ -52,6 +57,61 @@ public class RedisUtilsTest {
     }
   }
 
+  @Test
+  public void testLexSortKeyOrder() {
+    final Random rand = new Random(SEED);
+    for (int i = 0; i < NUM_ITERATIONS; i++) {
+      final byte[] key1 = randomSortKey(rand);
+      final byte[] key2 = randomSortKey(rand);
+      final byte[] suffix = randomSortKey(rand);
+      // the encoded key followed by the rest of the member must sort the same as the sort keys
+      final byte[] member1 = ArrayUtils.addAll(RedisUtils.getLexSortKey(key1), suffix);
+      final byte[] member2 = ArrayUtils.addAll(RedisUtils.getLexSortKey(key2), suffix);
+      assertEquals(
+          Integer.signum(UnsignedBytes.lexicographicalComparator().compare(key1, key2)),
+          Integer.signum(UnsignedBytes.lexicographicalComparator().compare(member1, member2)));
+      Assert.assertArrayEquals(
+          key1,
+          RedisUtils.readLexSortKey(Unpooled.wrappedBuffer(member1)));
+    }
+  }
+
+  @Test
+  public void testLexRange() {
+    final Random rand = new Random(SEED);
+    for (int i = 0; i < NUM_ITERATIONS; i++) {
+      final byte[] start = randomSortKey(rand);
+      final byte[] end = randomSortKey(rand);
+      final byte[] key = randomSortKey(rand);
+      final ByteArrayRange range = new ByteArrayRange(start, end);
+      final boolean inRange =
+          (UnsignedBytes.lexicographicalComparator().compare(key, start) >= 0)
+              && (UnsignedBytes.lexicographicalComparator().compare(
+                  key,
+                  range.getEndAsNextPrefix()) < 0);
+      final byte[] member = RedisUtils.getLexSortKey(key);
+      final Pair<byte[], byte[]> lexRange =
+          RedisUtils.getLexRangeFromByteArrays(range);
+      // strip the inclusive '[' and exclusive '(' prefixes
+      final byte[] min = Arrays.copyOfRange(lexRange.getLeft(), 1, lexRange.getLeft().length);
+      final byte[] max = Arrays.copyOfRange(lexRange.getRight(), 1, lexRange.getRight().length);
+      assertEquals(
+          "key '" + new ByteArray(key).getHexString() + "' range check failed",
+          inRange,
+          (UnsignedBytes.lexicographicalComparator().compare(member, min) >= 0)
+              && (UnsignedBytes.lexicographicalComparator().compare(member, max) < 0));
+    }
+  }
+
+  private static byte[] randomSortKey(final Random rand) {
+    // favor zero bytes to exercise escaping
+    final byte[] key = new byte[rand.nextInt(10)];
+    for (int i = 0; i < key.length; i++) {
+      key[i] = rand.nextBoolean() ? 0 : (byte) rand.nextInt(256);
+    }
+    return key;
+  }
+
   private static void assertRepeatedTransform(final double originalScore, byte[] originalSortKey) {
     // we try to remove trailing 0's
     int i = originalSortKey.length;
@@ -16,6 +16,8 @@ import org.locationtech.geowave.core.store.StoreFactoryFamilySpi;
 import org.locationtech.geowave.core.store.StoreFactoryOptions;
 import org.locationtech.geowave.datastore.rocksdb.RocksDBStoreFactoryFamily;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBUtils;
+import org.locationtech.geowave.datastore.rocksdb.util.RocksDBWorkloadProfile;
+import com.beust.jcommander.IStringConverter;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 import com.beust.jcommander.ParametersDelegate;
@@ -39,6 +41,42 @@ public class RocksDBOptions extends StoreFactoryOptions {
       names = "--walOnBatchWrite",
       description = "Whether to enable write-ahead-log on batched writes.")
   private boolean walOnBatchWrite = true;
+  @Parameter(
+      names = "--columnFamilies",
+      description = "Whether to keep every table in a column family of a single RocksDB instance for the store rather than opening a RocksDB instance per table. Tables that have an instance of their own are migrated when the store is opened. Defaults to false.",
+      arity = 1)
+  private boolean columnFamilies = false;
+  @Parameter(
+      names = "--blockCacheSize",
+      description = "The size in MB of the block cache shared by every table when using column families. Defaults to 256.")
+  private int blockCacheSize = 256;
+  @Parameter(
+      names = "--writeBufferBudget",
+      description = "The total memory in MB that the memtables of every table may use when using column families. Defaults to 256.")
+  private int writeBufferBudget = 256;
+  @Parameter(
+      names = "--workloadProfile",
+      description = "Can be \"bulk_ingest\", \"mixed\" or \"read_optimized\". Defaults to bulk_ingest. The profile tunes compaction, level sizing, block size, bloom filters and read ahead of the index tables. Bulk ingest disables automatic compaction so data is only compacted on write or merge, mixed compacts in the background as data is written, and read optimized keeps the fewest files to read with larger blocks and read ahead for range scans.",
+      converter = WorkloadProfileConverter.class)
+  private RocksDBWorkloadProfile workloadProfile = RocksDBWorkloadProfile.BULK_INGEST;
+  @Parameter(
+      names = "--mergedWorkloadProfile",
+      description = "The workload profile to switch to once the data of the store has been merged, for example \"read_optimized\" to serve queries after a bulk ingest. The store is reopened with this profile once its data has been merged, for as long as this option is set. Defaults to keeping the workload profile.",
+      converter = WorkloadProfileConverter.class)
+  private RocksDBWorkloadProfile mergedWorkloadProfile = null;
+  @Parameter(
+      names = "--sstFileIngest",
+      description = "Whether to load index and data index tables by sorting the data into SST files that are ingested when the writer is flushed or closed, rather than writing it through the memtable. The data is written fewer times, but it can't be read until it is ingested, so this is meant for loading data into tables that are not queried during the load. Defaults to false.",
+      arity = 1)
+  private boolean sstFileIngest = false;
+  @Parameter(
+      names = "--sstFileRunSize",
+      description = "The size in MB of the data that each table sorts in memory for each SST file when using SST file ingest. Defaults to 64.")
+  private int sstFileRunSize = 64;
+  @Parameter(
+      names = "--partitionScanThreads",
+      description = "The number of threads shared by queries that read the partitions of an index concurrently when the results don't need to be sorted. Defaults to 1, which reads the partitions one after another.")
+  private int partitionScanThreads = 1;
 
   @ParametersDelegate
   protected BaseDataStoreOptions baseOptions = new BaseDataStoreOptions() {
@@ -127,4 +165,76 @@ public class RocksDBOptions extends StoreFactoryOptions {
   public void setWalOnBatchWrite(final boolean walOnBatchWrite) {
     this.walOnBatchWrite = walOnBatchWrite;
   }
+
+  public boolean isColumnFamilies() {
+    return columnFamilies;
+  }
+
+  public void setColumnFamilies(final boolean columnFamilies) {
+    this.columnFamilies = columnFamilies;
+  }
+
+  public int getBlockCacheSize() {
+    return blockCacheSize;
+  }
+
+  public void setBlockCacheSize(final int blockCacheSize) {
+    this.blockCacheSize = blockCacheSize;
+  }
+
+  public int getWriteBufferBudget() {
+    return writeBufferBudget;
+  }
+
+  public void setWriteBufferBudget(final int writeBufferBudget) {
+    this.writeBufferBudget = writeBufferBudget;
+  }
+
+  public RocksDBWorkloadProfile getWorkloadProfile() {
+    return workloadProfile;
+  }
+
+  public void setWorkloadProfile(final RocksDBWorkloadProfile workloadProfile) {
+    this.workloadProfile = workloadProfile;
+  }
+
+  public RocksDBWorkloadProfile getMergedWorkloadProfile() {
+    return mergedWorkloadProfile;
+  }
+
+  public void setMergedWorkloadProfile(final RocksDBWorkloadProfile mergedWorkloadProfile) {
+    this.mergedWorkloadProfile = mergedWorkloadProfile;
+  }
+
+  public boolean isSstFileIngest() {
+    return sstFileIngest;
+  }
+
+  public void setSstFileIngest(final boolean sstFileIngest) {
+    this.sstFileIngest = sstFileIngest;
+  }
+
+  public int getSstFileRunSize() {
+    return sstFileRunSize;
+  }
+
+  public void setSstFileRunSize(final int sstFileRunSize) {
+    this.sstFileRunSize = sstFileRunSize;
+  }
+
+  public int getPartitionScanThreads() {
+    return partitionScanThreads;
+  }
+
+  public void setPartitionScanThreads(final int partitionScanThreads) {
+    this.partitionScanThreads = partitionScanThreads;
+  }
+
+  public static class WorkloadProfileConverter implements IStringConverter<RocksDBWorkloadProfile> {
+
+    @Override
+    public RocksDBWorkloadProfile convert(final String value) {
+      return RocksDBWorkloadProfile.valueOf(value.toUpperCase().replace('-', '_'));
+    }
+  }
 }
@@ -11,6 +11,7 @@ package org.locationtech.geowave.datastore.rocksdb.operations;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import org.apache.commons.io.FileUtils;
 import org.locationtech.geowave.core.store.adapter.AdapterIndexMappingStore;
@@ -36,6 +37,7 @@ import org.locationtech.geowave.datastore.rocksdb.util.RocksDBClient;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBClientCache;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBDataIndexTable;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBUtils;
+import org.locationtech.geowave.datastore.rocksdb.util.RocksDBWorkloadProfile;
 import org.locationtech.geowave.mapreduce.MapReduceDataStoreOperations;
 import org.locationtech.geowave.mapreduce.splits.RecordReaderParams;
 import org.slf4j.Logger;
@@ -43,6 +45,9 @@ import org.slf4j.LoggerFactory;
 
 public class RocksDBOperations implements MapReduceDataStoreOperations, Closeable {
   private static final Logger LOGGER = LoggerFactory.getLogger(RocksDBOperations.class);
+  // records, in the directory of the store, the workload profile it switched to once its data was
+  // merged, so that it is reopened with that profile rather than the one it was loaded with
+  private static final String MERGED_WORKLOAD_PROFILE_FILE = ".merged_workload_profile";
   private static final boolean READER_ASYNC = true;
   private final RocksDBClient client;
   private final String directory;
@@ -50,6 +55,13 @@ public class RocksDBOperations implements MapReduceDataStoreOperations, Closeabl
   private final boolean compactOnWrite;
   private final boolean walOnBatchWrite;
   private final int batchWriteSize;
+  private final boolean columnFamilies;
+  private final int blockCacheSize;
+  private final int writeBufferBudget;
+  private final RocksDBWorkloadProfile workloadProfile;
+  private final RocksDBWorkloadProfile mergedWorkloadProfile;
+  private final int sstFileRunSize;
+  private final int partitionScanThreads;
 
   public RocksDBOperations(final RocksDBOptions options) {
     directory =
@@ -64,6 +76,13 @@ public class RocksDBOperations implements MapReduceDataStoreOperations, Closeabl
     compactOnWrite = options.isCompactOnWrite();
     batchWriteSize = options.getBatchWriteSize();
     walOnBatchWrite = options.isWalOnBatchWrite();
+    columnFamilies = options.isColumnFamilies();
+    blockCacheSize = options.getBlockCacheSize();
+    writeBufferBudget = options.getWriteBufferBudget();
+    workloadProfile = options.getWorkloadProfile();
+    mergedWorkloadProfile = options.getMergedWorkloadProfile();
+    sstFileRunSize = options.isSstFileIngest() ? options.getSstFileRunSize() : 0;
+    partitionScanThreads = options.getPartitionScanThreads();
     // a factory method that returns a RocksDB instance
     client =
         RocksDBClientCache.getInstance().getClient(
@@ -71,7 +90,17 @@ public class RocksDBOperations implements MapReduceDataStoreOperations, Closeabl
             visibilityEnabled,
             compactOnWrite,
             batchWriteSize,
-            walOnBatchWrite);
+            walOnBatchWrite,
+            columnFamilies,
+            blockCacheSize,
+            writeBufferBudget,
+            workloadProfile,
+            sstFileRunSize);
+    if ((mergedWorkloadProfile != null)
+        && new File(directory, MERGED_WORKLOAD_PROFILE_FILE).exists()) {
+      // the data was merged before the store was last closed
+      client.setWorkloadProfile(mergedWorkloadProfile);
+    }
   }
 
   @Override
@@ -94,6 +123,18 @@ public class RocksDBOperations implements MapReduceDataStoreOperations, Closeabl
 
   public void compactData() {
     client.mergeData();
+    // compaction is done, so the tables can now be tuned for what follows the load
+    if (mergedWorkloadProfile != null) {
+      client.setWorkloadProfile(mergedWorkloadProfile);
+      try {
+        FileUtils.writeStringToFile(
+            new File(directory, MERGED_WORKLOAD_PROFILE_FILE),
+            mergedWorkloadProfile.name(),
+            StandardCharsets.UTF_8);
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to record the merged workload profile of '" + directory + "'", e);
+      }
+    }
   }
 
   public void compactMetadata() {
@@ -131,6 +172,10 @@ public class RocksDBOperations implements MapReduceDataStoreOperations, Closeabl
       final String... additionalAuthorizations) {
     final String prefix = RocksDBUtils.getTablePrefix(typeName, indexName);
     client.close(indexName, typeName);
+    if (client.isColumnFamilyLayout()) {
+      client.dropTables(prefix);
+      return true;
+    }
     Arrays.stream(new File(directory).listFiles((dir, name) -> name.startsWith(prefix))).forEach(
         f -> {
           try {
@@ -183,7 +228,7 @@ public class RocksDBOperations implements MapReduceDataStoreOperations, Closeabl
 
   @Override
   public <T> RowReader<T> createReader(final ReaderParams<T> readerParams) {
-    return new RocksDBReader<>(client, readerParams, READER_ASYNC);
+    return new RocksDBReader<>(client, readerParams, READER_ASYNC, partitionScanThreads);
   }
 
   @Override
@@ -201,7 +246,7 @@ public class RocksDBOperations implements MapReduceDataStoreOperations, Closeabl
             readerParams.getAdditionalAuthorizations()),
         // intentionally don't run this reader as async because it does
         // not work well while simultaneously deleting rows
-        new RocksDBReader<>(client, readerParams, false));
+        new RocksDBReader<>(client, readerParams, false, 1));
   }
 
   @Override
@@ -246,7 +291,12 @@ public class RocksDBOperations implements MapReduceDataStoreOperations, Closeabl
         visibilityEnabled,
         compactOnWrite,
         batchWriteSize,
-        walOnBatchWrite);
+        walOnBatchWrite,
+        columnFamilies,
+        blockCacheSize,
+        writeBufferBudget,
+        workloadProfile,
+        sstFileRunSize);
   }
 
   public RocksDBClient getClient() {
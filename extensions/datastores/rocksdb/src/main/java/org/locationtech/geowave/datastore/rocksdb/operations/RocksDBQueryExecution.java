@@ -8,14 +8,12 @@
  */
 package org.locationtech.geowave.datastore.rocksdb.operations;
 
-import java.io.Closeable;
-import java.io.IOException;
-import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
@@ -24,9 +22,12 @@ import org.locationtech.geowave.core.index.ByteArrayRange;
 import org.locationtech.geowave.core.index.SinglePartitionQueryRanges;
 import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.CloseableIteratorWrapper;
+import org.locationtech.geowave.core.store.base.ParallelScanIterator;
+import org.locationtech.geowave.core.store.base.ParallelScanIterator.ScanType;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowIteratorTransformer;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowMergingIterator;
+import org.locationtech.geowave.core.store.util.SortedMergeIterator;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBClient;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBIndexTable;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBUtils;
@@ -36,48 +37,10 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Streams;
-import com.google.common.primitives.UnsignedBytes;
 
 public class RocksDBQueryExecution<T> {
   private static final Logger LOGGER = LoggerFactory.getLogger(RocksDBQueryExecution.class);
 
-  private static class RangeReadInfo {
-    byte[] partitionKey;
-    ByteArrayRange sortKeyRange;
-
-    public RangeReadInfo(final byte[] partitionKey, final ByteArrayRange sortKeyRange) {
-      this.partitionKey = partitionKey;
-      this.sortKeyRange = sortKeyRange;
-    }
-  }
-
-  private static class ScoreOrderComparator implements Comparator<RangeReadInfo>, Serializable {
-    private static final long serialVersionUID = 1L;
-    private static final ScoreOrderComparator SINGLETON = new ScoreOrderComparator();
-
-    @Override
-    public int compare(final RangeReadInfo o1, final RangeReadInfo o2) {
-      int comp =
-          UnsignedBytes.lexicographicalComparator().compare(
-              o1.sortKeyRange.getStart(),
-              o2.sortKeyRange.getStart());
-      if (comp != 0) {
-        return comp;
-      }
-      comp =
-          UnsignedBytes.lexicographicalComparator().compare(
-              o1.sortKeyRange.getEnd(),
-              o2.sortKeyRange.getEnd());
-      if (comp != 0) {
-        return comp;
-      }
-      final byte[] otherComp = o2.partitionKey == null ? new byte[0] : o2.partitionKey;
-      final byte[] thisComp = o1.partitionKey == null ? new byte[0] : o1.partitionKey;
-
-      return UnsignedBytes.lexicographicalComparator().compare(thisComp, otherComp);
-    }
-  }
-
   private static ByteArray EMPTY_PARTITION_KEY = new ByteArray();
   private final LoadingCache<ByteArray, RocksDBIndexTable> setCache =
       Caffeine.newBuilder().build(partitionKey -> getTable(partitionKey.getBytes()));
@@ -88,6 +51,7 @@ public class RocksDBQueryExecution<T> {
   private final GeoWaveRowIteratorTransformer<T> rowTransformer;
   private final Predicate<GeoWaveRow> filter;
   private final boolean rowMerging;
+  private final int partitionScanThreads;
 
   private final Pair<Boolean, Boolean> groupByRowAndSortByTimePair;
   private final boolean isSortFinalResultsBySortKey;
@@ -100,7 +64,7 @@ public class RocksDBQueryExecution<T> {
       final Collection<SinglePartitionQueryRanges> ranges,
       final Predicate<GeoWaveRow> filter,
       final boolean rowMerging,
-      final boolean async,
+      final int partitionScanThreads,
       final Pair<Boolean, Boolean> groupByRowAndSortByTimePair,
       final boolean isSortFinalResultsBySortKey) {
     this.client = client;
@@ -110,6 +74,7 @@ public class RocksDBQueryExecution<T> {
     this.ranges = ranges;
     this.filter = filter;
     this.rowMerging = rowMerging;
+    this.partitionScanThreads = partitionScanThreads;
     this.groupByRowAndSortByTimePair = groupByRowAndSortByTimePair;
     this.isSortFinalResultsBySortKey = isSortFinalResultsBySortKey;
   }
@@ -124,53 +89,52 @@ public class RocksDBQueryExecution<T> {
   }
 
   public CloseableIterator<T> results() {
-    final List<RangeReadInfo> reads = new ArrayList<>();
+    // every range of a partition is read with a single iterator, which seeks from one range to the
+    // next in sort key order
+    final Map<ByteArray, List<ByteArrayRange>> partitionRanges = new LinkedHashMap<>();
     for (final SinglePartitionQueryRanges r : ranges) {
-      for (final ByteArrayRange range : r.getSortKeyRanges()) {
-        reads.add(new RangeReadInfo(r.getPartitionKey(), range));
+      final ByteArray partitionKey;
+      if ((r.getPartitionKey() == null) || (r.getPartitionKey().length == 0)) {
+        partitionKey = EMPTY_PARTITION_KEY;
+      } else {
+        partitionKey = new ByteArray(r.getPartitionKey());
       }
+      partitionRanges.computeIfAbsent(partitionKey, k -> new ArrayList<>()).addAll(
+          r.getSortKeyRanges());
     }
-    return executeQuery(reads);
-  }
-
-  public CloseableIterator<T> executeQuery(final List<RangeReadInfo> reads) {
+    final List<CloseableIterator<GeoWaveRow>> iterators =
+        partitionRanges.entrySet().stream().map(
+            e -> setCache.get(e.getKey()).iterator(e.getValue())).collect(Collectors.toList());
     if (isSortFinalResultsBySortKey) {
-      // order the reads by sort keys
-      reads.sort(ScoreOrderComparator.SINGLETON);
+      // each partition is read in sort key order so they can be merged rather than sorted
+      return transformAndFilter(
+          SortedMergeIterator.mergeBySortKey(iterators, () -> closeAll(iterators)));
     }
-    final List<CloseableIterator<GeoWaveRow>> iterators = reads.stream().map(r -> {
-      ByteArray partitionKey;
-      if ((r.partitionKey == null) || (r.partitionKey.length == 0)) {
-        partitionKey = EMPTY_PARTITION_KEY;
-      } else {
-        partitionKey = new ByteArray(r.partitionKey);
-      }
-      return setCache.get(partitionKey).iterator(r.sortKeyRange);
-    }).collect(Collectors.toList());
-    return transformAndFilter(new CloseableIteratorWrapper<>(new Closeable() {
-      @Override
-      public void close() throws IOException {
-        iterators.forEach(i -> i.close());
-      }
-    }, Iterators.concat(iterators.iterator())));
+    if ((partitionScanThreads > 1) && (iterators.size() > 1)) {
+      // the partitions are independent so read them concurrently, on threads of their own because
+      // this may itself be one of the scans of a query that are read concurrently
+      final ParallelScanIterator<GeoWaveRow> parallelScan =
+          new ParallelScanIterator<>(iterators, ScanType.PARTITION, partitionScanThreads, false);
+      return transformAndFilter(new CloseableIteratorWrapper<>(() -> {
+        // stop any scans that are still running before closing them
+        parallelScan.close();
+        closeAll(iterators);
+      }, parallelScan));
+    }
+    return transformAndFilter(
+        new CloseableIteratorWrapper<>(
+            () -> closeAll(iterators),
+            Iterators.concat(iterators.iterator())));
+  }
+
+  private static void closeAll(final List<CloseableIterator<GeoWaveRow>> iterators) {
+    iterators.forEach(i -> i.close());
   }
 
   private CloseableIterator<T> transformAndFilter(final CloseableIterator<GeoWaveRow> result) {
     final Iterator<GeoWaveRow> iterator = Streams.stream(result).filter(filter).iterator();
     return new CloseableIteratorWrapper<>(
         result,
-        rowTransformer.apply(
-            sortByKeyIfRequired(
-                isSortFinalResultsBySortKey,
-                rowMerging ? new GeoWaveRowMergingIterator(iterator) : iterator)));
-  }
-
-  private static Iterator<GeoWaveRow> sortByKeyIfRequired(
-      final boolean isRequired,
-      final Iterator<GeoWaveRow> it) {
-    if (isRequired) {
-      return RocksDBUtils.sortBySortKey(it);
-    }
-    return it;
+        rowTransformer.apply(rowMerging ? new GeoWaveRowMergingIterator(iterator) : iterator));
   }
 }
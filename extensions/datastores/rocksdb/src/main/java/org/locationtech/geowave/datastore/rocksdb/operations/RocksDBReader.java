@@ -35,6 +35,7 @@ import org.locationtech.geowave.core.store.operations.ReaderParams;
 import org.locationtech.geowave.core.store.operations.RowReader;
 import org.locationtech.geowave.core.store.query.filter.ClientVisibilityFilter;
 import org.locationtech.geowave.core.store.util.DataStoreUtils;
+import org.locationtech.geowave.core.store.util.SortedMergeIterator;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBClient;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBDataIndexTable;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBUtils;
@@ -50,9 +51,14 @@ public class RocksDBReader<T> implements RowReader<T> {
   public RocksDBReader(
       final RocksDBClient client,
       final ReaderParams<T> readerParams,
-      final boolean async) {
+      final boolean async,
+      final int partitionScanThreads) {
     this.iterator =
-        createIteratorForReader(client, readerParams, readerParams.getRowTransformer(), false);
+        createIteratorForReader(
+            client,
+            readerParams,
+            readerParams.getRowTransformer(),
+            async ? partitionScanThreads : 1);
   }
 
   public RocksDBReader(final RocksDBClient client, final RecordReaderParams recordReaderParams) {
@@ -69,7 +75,7 @@ public class RocksDBReader<T> implements RowReader<T> {
       final RocksDBClient client,
       final ReaderParams<T> readerParams,
       final GeoWaveRowIteratorTransformer<T> rowTransformer,
-      final boolean async) {
+      final int partitionScanThreads) {
     final Collection<SinglePartitionQueryRanges> ranges =
         readerParams.getQueryRanges().getPartitionQueryRanges();
 
@@ -81,7 +87,7 @@ public class RocksDBReader<T> implements RowReader<T> {
           readerParams.getRowTransformer(),
           ranges,
           authorizations,
-          async);
+          partitionScanThreads);
     } else {
       final List<CloseableIterator<GeoWaveRow>> iterators = new ArrayList<>();
       for (final short adapterId : readerParams.getAdapterIds()) {
@@ -92,7 +98,7 @@ public class RocksDBReader<T> implements RowReader<T> {
                 readerParams.getInternalAdapterStore().getTypeName(adapterId),
                 readerParams.getIndex().getName());
         final Stream<CloseableIterator<GeoWaveRow>> streamIt =
-            RocksDBUtils.getPartitions(client.getSubDirectory(), indexNamePrefix).stream().map(
+            RocksDBUtils.getPartitions(client, indexNamePrefix).stream().map(
                 p -> RocksDBUtils.getIndexTableFromPrefix(
                     client,
                     indexNamePrefix,
@@ -111,7 +117,10 @@ public class RocksDBReader<T> implements RowReader<T> {
           }
         }
       },
-          Iterators.concat(iterators.iterator()),
+          // each partition is read in sort key order so they can be merged rather than sorted
+          RocksDBUtils.isSortByKeyRequired(readerParams)
+              ? SortedMergeIterator.mergeBySortKey(iterators, null)
+              : Iterators.concat(iterators.iterator()),
           readerParams,
           rowTransformer,
           authorizations,
@@ -125,7 +134,7 @@ public class RocksDBReader<T> implements RowReader<T> {
       final GeoWaveRowIteratorTransformer<T> rowTransformer,
       final Collection<SinglePartitionQueryRanges> ranges,
       final Set<String> authorizations,
-      final boolean async) {
+      final int partitionScanThreads) {
     final Iterator<CloseableIterator> it =
         Arrays.stream(ArrayUtils.toObject(readerParams.getAdapterIds())).map(
             adapterId -> new RocksDBQueryExecution(
@@ -140,7 +149,7 @@ public class RocksDBReader<T> implements RowReader<T> {
                 DataStoreUtils.isMergingIteratorRequired(
                     readerParams,
                     client.isVisibilityEnabled()),
-                async,
+                partitionScanThreads,
                 RocksDBUtils.isGroupByRowAndIsSortByTime(readerParams, adapterId),
                 RocksDBUtils.isSortByKeyRequired(readerParams)).results()).iterator();
     final CloseableIterator<T>[] itArray = Iterators.toArray(it, CloseableIterator.class);
@@ -176,7 +185,7 @@ public class RocksDBReader<T> implements RowReader<T> {
         authorizations,
         // there should already be sufficient parallelism created by
         // input splits for record reader use cases
-        false);
+        1);
   }
 
   private Iterator<GeoWaveRow> createIteratorForDataIndexReader(
@@ -224,20 +233,9 @@ public class RocksDBReader<T> implements RowReader<T> {
     return new CloseableIteratorWrapper<>(
         closeable,
         rowTransformer.apply(
-            sortBySortKeyIfRequired(
-                params,
-                DataStoreUtils.isMergingIteratorRequired(params, visibilityEnabled)
-                    ? new GeoWaveRowMergingIterator(iterator)
-                    : iterator)));
-  }
-
-  private static Iterator<GeoWaveRow> sortBySortKeyIfRequired(
-      final RangeReaderParams<?> params,
-      final Iterator<GeoWaveRow> it) {
-    if (RocksDBUtils.isSortByKeyRequired(params)) {
-      return RocksDBUtils.sortBySortKey(it);
-    }
-    return it;
+            DataStoreUtils.isMergingIteratorRequired(params, visibilityEnabled)
+                ? new GeoWaveRowMergingIterator(iterator)
+                : iterator));
   }
 
   @Override
@@ -14,6 +14,8 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
+import org.locationtech.geowave.datastore.rocksdb.util.RocksDBColumnFamilyStore.TableType;
+import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.Options;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
@@ -39,14 +41,24 @@ abstract public class AbstractRocksDBTable {
   private WriteBatch currentBatch;
   private final int batchSize;
   private RocksDB writeDb;
+  private ColumnFamilyHandle columnFamily;
   private final Options writeOptions;
   private final WriteOptions batchWriteOptions;
   protected final String subDirectory;
+  private final RocksDBColumnFamilyStore columnFamilyStore;
+  private final TableType tableType;
+  private final String tableName;
   private boolean exists;
   protected final short adapterId;
   protected boolean visibilityEnabled;
   protected boolean compactOnWrite;
   private final boolean batchWrite;
+  // the profile of the options the table is opened with and the profile it currently uses
+  private RocksDBWorkloadProfile openWorkloadProfile;
+  private volatile RocksDBWorkloadProfile workloadProfile;
+  private long sstFileRunSize = 0;
+  private RocksDBSstFileLoader sstFileLoader;
+  private Options sstFileOptions;
 
   public AbstractRocksDBTable(
       final Options writeOptions,
@@ -66,16 +78,49 @@ abstract public class AbstractRocksDBTable {
     this.compactOnWrite = compactOnWrite;
     this.batchSize = batchSize;
     batchWrite = batchSize > 1;
+    columnFamilyStore = null;
+    tableType = null;
+    tableName = null;
+  }
+
+  /**
+   * Create a table that is stored as a column family of the single RocksDB instance of the store.
+   */
+  public AbstractRocksDBTable(
+      final RocksDBColumnFamilyStore columnFamilyStore,
+      final TableType tableType,
+      final String tableName,
+      final WriteOptions batchWriteOptions,
+      final short adapterId,
+      final boolean visibilityEnabled,
+      final boolean compactOnWrite,
+      final int batchSize) {
+    super();
+    writeOptions = null;
+    this.batchWriteOptions = batchWriteOptions;
+    subDirectory = columnFamilyStore.getDirectory() + "/" + tableName;
+    this.adapterId = adapterId;
+    exists = columnFamilyStore.hasTable(tableType, tableName);
+    this.visibilityEnabled = visibilityEnabled;
+    this.compactOnWrite = compactOnWrite;
+    this.batchSize = batchSize;
+    batchWrite = batchSize > 1;
+    this.columnFamilyStore = columnFamilyStore;
+    this.tableType = tableType;
+    this.tableName = tableName;
   }
 
   public void delete(final byte[] key) {
+    if (!ingestSstFiles()) {
+      throw new RuntimeException("Unable to delete key before the SST files are ingested");
+    }
     final RocksDB db = getDb(true);
     if (db == null) {
       LOGGER.warn("Unable to delete key because directory '" + subDirectory + "' doesn't exist");
       return;
     }
     try {
-      db.singleDelete(key);
+      db.singleDelete(columnFamily, key);
     } catch (final RocksDBException e) {
       LOGGER.warn("Unable to delete key", e);
     }
@@ -84,7 +129,16 @@ abstract public class AbstractRocksDBTable {
   @SuppressFBWarnings(
       justification = "The null check outside of the synchronized block is intentional to minimize the need for synchronization.")
   protected void put(final byte[] key, final byte[] value) {
-    if (batchWrite) {
+    // the column family is only known once the table has been opened
+    final RocksDB db = getDb(false);
+    if (sstFileRunSize > 0) {
+      try {
+        getSstFileLoader().put(key, value);
+      } catch (final RocksDBException e) {
+        // the entry isn't in the table, so a write that carries on would silently lose it
+        throw new RuntimeException("Unable to add data to SST file", e);
+      }
+    } else if (batchWrite) {
       WriteBatch thisBatch = currentBatch;
       if (thisBatch == null) {
         synchronized (BATCH_WRITE_MUTEX) {
@@ -95,7 +149,7 @@ abstract public class AbstractRocksDBTable {
         }
       }
       try {
-        thisBatch.put(key, value);
+        thisBatch.put(columnFamily, key, value);
       } catch (final RocksDBException e) {
         LOGGER.warn("Unable to add data to batched write", e);
       }
@@ -106,12 +160,9 @@ abstract public class AbstractRocksDBTable {
           }
         }
       }
-    } else
-
-    {
-      final RocksDB db = getDb(false);
+    } else {
       try {
-        db.put(key, value);
+        db.put(columnFamily, key, value);
       } catch (final RocksDBException e) {
         LOGGER.warn("Unable to write key-value", e);
       }
@@ -142,9 +193,90 @@ abstract public class AbstractRocksDBTable {
         waitForBatchWrite();
       }
     }
+    if (!ingestSstFiles()) {
+      // the entries in the SST files aren't in the table, so a flush that succeeded would lose them
+      throw new RuntimeException(
+          "Unable to flush '" + subDirectory + "' because its SST files couldn't be ingested");
+    }
     internalFlush();
   }
 
+  /**
+   * Write the data of this table to SST files that are ingested when the table is flushed, rather
+   * than writing it through the memtable. This is meant for loading data that is not read until the
+   * load completes.
+   *
+   * @param maxRunSize the size in bytes of the data to sort in memory for each SST file
+   */
+  public synchronized void setSstFileRunSize(final long maxRunSize) {
+    sstFileRunSize = maxRunSize;
+    if (sstFileLoader != null) {
+      sstFileLoader.setMaxRunSize(maxRunSize);
+    }
+  }
+
+  private synchronized RocksDBSstFileLoader getSstFileLoader() throws RocksDBException {
+    if (sstFileLoader == null) {
+      final Options options;
+      if (columnFamilyStore == null) {
+        options = writeOptions;
+      } else {
+        sstFileOptions = columnFamilyStore.createOptions(tableType);
+        options = sstFileOptions;
+      }
+      sstFileLoader =
+          new RocksDBSstFileLoader(
+              subDirectory + "/" + RocksDBSstFileLoader.DIRECTORY_NAME,
+              options,
+              sstFileRunSize);
+    }
+    return sstFileLoader;
+  }
+
+  /**
+   * Ingest the data that has been written to SST files so far. Deletes have to be preceded by this,
+   * otherwise the deleted entries of files that are ingested later would reappear.
+   *
+   * @return {@code false} if the files couldn't be ingested
+   */
+  protected boolean ingestSstFiles() {
+    final RocksDBSstFileLoader loader;
+    synchronized (this) {
+      loader = sstFileLoader;
+    }
+    if (loader == null) {
+      return true;
+    }
+    final RocksDB db = getDb(false);
+    if (db == null) {
+      return true;
+    }
+    try {
+      loader.ingest(db, columnFamily);
+    } catch (final RocksDBException e) {
+      LOGGER.error("Unable to ingest SST files into '" + subDirectory + "'", e);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Ingest the SST files that an earlier load of the table wrote but couldn't ingest. This is done
+   * as soon as the table is opened so that the entries in them are never missing from the table.
+   */
+  private void ingestLeftoverSstFiles() {
+    final String directory = subDirectory + "/" + RocksDBSstFileLoader.DIRECTORY_NAME;
+    if (!RocksDBSstFileLoader.hasFiles(directory)) {
+      return;
+    }
+    try {
+      getSstFileLoader().ingest(writeDb, columnFamily);
+    } catch (final RocksDBException e) {
+      // the loader keeps the files, which makes the next flush, delete or close try again
+      LOGGER.error("Unable to ingest the SST files left in '" + directory + "'", e);
+    }
+  }
+
   protected void internalFlush() {
     if (compactOnWrite) {
       final RocksDB db = getDb(true);
@@ -152,7 +284,7 @@ abstract public class AbstractRocksDBTable {
         return;
       }
       try {
-        db.compactRange();
+        db.compactRange(columnFamily);
       } catch (final RocksDBException e) {
         LOGGER.warn("Unable to compact range", e);
       }
@@ -165,7 +297,7 @@ abstract public class AbstractRocksDBTable {
       return;
     }
     try {
-      db.compactRange();
+      db.compactRange(columnFamily);
     } catch (final RocksDBException e) {
       LOGGER.warn("Unable to force compacting range", e);
     }
@@ -186,18 +318,79 @@ abstract public class AbstractRocksDBTable {
 
   public void close() {
     waitForBatchWrite();
+    final boolean ingested = ingestSstFiles();
     synchronized (this) {
       if (writeDb != null) {
-        writeDb.close();
+        // a shared instance is closed along with the column family store
+        if (columnFamilyStore == null) {
+          writeDb.close();
+        }
         writeDb = null;
+        columnFamily = null;
+      }
+      sstFileLoader = null;
+      if (sstFileOptions != null) {
+        sstFileOptions.close();
+        sstFileOptions = null;
       }
     }
+    if (!ingested) {
+      // the files that were written stay on disk and are ingested when the table is next opened
+      throw new RuntimeException(
+          "Unable to ingest the SST files of '"
+              + subDirectory
+              + "' before closing it, they are ingested when it is next opened");
+    }
   }
 
   public String getSubDirectory() {
     return subDirectory;
   }
 
+  /**
+   * Set the workload profile of the table. The table is opened with the options of the first
+   * profile it is given, after which the options that can be changed while it is open follow the
+   * profile.
+   * Tables stored as column families are updated by the column family store instead.
+   */
+  public synchronized void setWorkloadProfile(final RocksDBWorkloadProfile workloadProfile) {
+    if (this.workloadProfile == null) {
+      openWorkloadProfile = workloadProfile;
+    } else if ((writeDb != null) && !workloadProfile.equals(this.workloadProfile)) {
+      applyWorkloadProfile(writeDb, workloadProfile);
+    }
+    this.workloadProfile = workloadProfile;
+  }
+
+  private void applyWorkloadProfile(
+      final RocksDB db,
+      final RocksDBWorkloadProfile workloadProfile) {
+    if (columnFamilyStore != null) {
+      return;
+    }
+    try {
+      db.setOptions(columnFamily, workloadProfile.getMutableOptions());
+    } catch (final RocksDBException e) {
+      LOGGER.warn("Unable to set options of '" + subDirectory + "'", e);
+    }
+  }
+
+  /**
+   * @return the read ahead size in bytes for range scans, 0 leaves it to RocksDB
+   */
+  protected long getReadaheadSize() {
+    final RocksDBWorkloadProfile profile = workloadProfile;
+    return profile == null ? 0 : profile.getReadaheadSize();
+  }
+
+  /**
+   * @return the column family of this table, which is only valid once {@link #getDb(boolean)} has
+   *         returned the RocksDB instance
+   */
+  protected ColumnFamilyHandle getColumnFamily() {
+    return columnFamily;
+  }
+
   @SuppressFBWarnings(
       justification = "double check for null is intentional to avoid synchronized blocks when not needed.")
   public RocksDB getDb(final boolean read) {
@@ -207,13 +400,23 @@ abstract public class AbstractRocksDBTable {
       synchronized (this) {
         // check again within synchronized block
         if (writeDb == null) {
+          if (columnFamilyStore != null) {
+            return openColumnFamily(read);
+          }
           if (read && !exists) {
             return null;
           }
           try {
             if (exists || new File(subDirectory).mkdirs()) {
               exists = true;
-              writeDb = RocksDB.open(writeOptions, subDirectory);
+              final RocksDB db = RocksDB.open(writeOptions, subDirectory);
+              columnFamily = db.getDefaultColumnFamily();
+              // the profile may have changed since the options of this table were chosen
+              if ((workloadProfile != null) && !workloadProfile.equals(openWorkloadProfile)) {
+                applyWorkloadProfile(db, workloadProfile);
+              }
+              writeDb = db;
+              ingestLeftoverSstFiles();
             } else {
               LOGGER.error("Unable to open to create directory '" + subDirectory + "'");
             }
@@ -226,6 +429,22 @@ abstract public class AbstractRocksDBTable {
     return writeDb;
   }
 
+  private RocksDB openColumnFamily(final boolean read) {
+    try {
+      final ColumnFamilyHandle handle =
+          columnFamilyStore.getColumnFamily(tableType, tableName, !read);
+      if (handle != null) {
+        exists = true;
+        columnFamily = handle;
+        writeDb = columnFamilyStore.getDb();
+        ingestLeftoverSstFiles();
+      }
+    } catch (final RocksDBException e) {
+      LOGGER.error("Unable to open column family for table '" + tableName + "'", e);
+    }
+    return writeDb;
+  }
+
   private static class BatchWriter implements Runnable {
     private final WriteBatch dataToWrite;
     private final RocksDB db;
@@ -10,12 +10,20 @@ package org.locationtech.geowave.datastore.rocksdb.util;
 
 import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.locationtech.geowave.core.store.base.dataidx.DataIndexUtils;
 import org.locationtech.geowave.core.store.operations.MetadataType;
+import org.locationtech.geowave.datastore.rocksdb.util.RocksDBColumnFamilyStore.TableType;
 import org.rocksdb.Options;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
@@ -25,6 +33,7 @@ import org.slf4j.LoggerFactory;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.google.common.collect.Iterables;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 public class RocksDBClient implements Closeable {
@@ -173,8 +182,16 @@ public class RocksDBClient implements Closeable {
   private final boolean compactOnWrite;
   private final int batchWriteSize;
   private final boolean walOnBatchWrite;
+  private final RocksDBColumnFamilyStore columnFamilyStore;
+  private boolean columnFamilyStoreOpened = false;
+  private RocksDBWorkloadProfile workloadProfile;
+  private final long sstFileRunSize;
+  // the options of tables with a RocksDB instance of their own by the profile they are opened with
+  private final Map<RocksDBWorkloadProfile, Options> indexOptions =
+      new EnumMap<>(RocksDBWorkloadProfile.class);
+  private final Map<RocksDBWorkloadProfile, Options> dataIndexOptions =
+      new EnumMap<>(RocksDBWorkloadProfile.class);
 
-  protected static Options indexWriteOptions = null;
   protected WriteOptions batchWriteOptions = null;
   protected static Options metadataOptions = null;
 
@@ -183,15 +200,100 @@ public class RocksDBClient implements Closeable {
       final boolean visibilityEnabled,
       final boolean compactOnWrite,
       final int batchWriteSize,
-      final boolean walOnBatchWrite) {
+      final boolean walOnBatchWrite,
+      final boolean columnFamilies,
+      final int blockCacheSize,
+      final int writeBufferBudget,
+      final RocksDBWorkloadProfile workloadProfile,
+      final int sstFileRunSize) {
     this.subDirectory = subDirectory;
     this.visibilityEnabled = visibilityEnabled;
     this.compactOnWrite = compactOnWrite;
     this.batchWriteSize = batchWriteSize;
     this.walOnBatchWrite = walOnBatchWrite;
+    this.workloadProfile = workloadProfile;
+    this.sstFileRunSize = sstFileRunSize * 1024L * 1024L;
+    columnFamilyStore =
+        columnFamilies
+            ? new RocksDBColumnFamilyStore(
+                subDirectory + "/" + RocksDBColumnFamilyStore.DIRECTORY_NAME,
+                blockCacheSize,
+                writeBufferBudget,
+                workloadProfile)
+            : null;
+  }
+
+  /**
+   * Opens the shared RocksDB instance the first time it is needed, migrating any tables that were
+   * written with a RocksDB instance per table into column families of the shared instance.
+   */
+  private synchronized RocksDBColumnFamilyStore getColumnFamilyStore() {
+    if (!columnFamilyStoreOpened) {
+      columnFamilyStoreOpened = true;
+      try {
+        columnFamilyStore.getDb();
+        migrateTables();
+      } catch (final RocksDBException e) {
+        LOGGER.error("Unable to open rocksdb store '" + columnFamilyStore.getDirectory() + "'", e);
+      }
+    }
+    return columnFamilyStore;
+  }
+
+  /**
+   * Copies each table that has a RocksDB instance of its own into a column family and removes the
+   * original once it has been copied and flushed, so a migration that is interrupted continues with
+   * the remaining tables the next time the store is opened.
+   */
+  private void migrateTables() {
+    final File[] tableDirectories =
+        new File(subDirectory).listFiles(
+            f -> f.isDirectory()
+                && !RocksDBColumnFamilyStore.DIRECTORY_NAME.equals(f.getName())
+                && new File(f, "CURRENT").exists());
+    if (tableDirectories == null) {
+      return;
+    }
+    for (final File tableDirectory : tableDirectories) {
+      final String tableName = tableDirectory.getName();
+      try {
+        final long count =
+            columnFamilyStore.importTable(
+                getTableType(tableName),
+                tableName,
+                tableDirectory.getAbsolutePath());
+        FileUtils.deleteDirectory(tableDirectory);
+        LOGGER.info("Migrated {} entries of table '{}' to a column family", count, tableName);
+      } catch (final RocksDBException | IOException e) {
+        LOGGER.error("Unable to migrate table '" + tableName + "' to a column family", e);
+      }
+    }
+  }
+
+  private static TableType getTableType(final String tableName) {
+    if (Arrays.stream(MetadataType.values()).anyMatch(t -> t.id().equals(tableName))) {
+      return TableType.METADATA;
+    }
+    if (tableName.endsWith("_" + DataIndexUtils.DATA_ID_INDEX.getName())) {
+      return TableType.DATA_INDEX;
+    }
+    return TableType.INDEX;
+  }
+
+  private String getTableName(final CacheKey key) {
+    return key.directory.substring(subDirectory.length() + 1);
   }
 
   private RocksDBMetadataTable loadMetadataTable(final CacheKey key) throws RocksDBException {
+    if (columnFamilyStore != null) {
+      final RocksDBColumnFamilyStore store = getColumnFamilyStore();
+      return new RocksDBMetadataTable(
+          store.getDb(),
+          store.getColumnFamily(TableType.METADATA, getTableName(key), true),
+          key.requiresTimestamp,
+          visibilityEnabled,
+          compactOnWrite);
+    }
     final File dir = new File(key.directory);
     if (!dir.exists() && !dir.mkdirs()) {
       LOGGER.error("Unable to create directory for rocksdb store '" + key.directory + "'");
@@ -207,30 +309,105 @@ public class RocksDBClient implements Closeable {
       value = "IS2_INCONSISTENT_SYNC",
       justification = "This is only called from the loading cache which is synchronized")
   private RocksDBIndexTable loadIndexTable(final IndexCacheKey key) {
-    return new RocksDBIndexTable(
-        indexWriteOptions,
-        batchWriteOptions,
-        key.directory,
-        key.adapterId,
-        key.partition,
-        key.requiresTimestamp,
-        visibilityEnabled,
-        compactOnWrite,
-        batchWriteSize);
+    final RocksDBIndexTable table;
+    if (columnFamilyStore != null) {
+      table =
+          new RocksDBIndexTable(
+              getColumnFamilyStore(),
+              getTableName(key),
+              batchWriteOptions,
+              key.adapterId,
+              key.partition,
+              key.requiresTimestamp,
+              visibilityEnabled,
+              compactOnWrite,
+              batchWriteSize);
+    } else {
+      table =
+          new RocksDBIndexTable(
+              getTableOptions(indexOptions, false),
+              batchWriteOptions,
+              key.directory,
+              key.adapterId,
+              key.partition,
+              key.requiresTimestamp,
+              visibilityEnabled,
+              compactOnWrite,
+              batchWriteSize);
+    }
+    table.setWorkloadProfile(workloadProfile);
+    if (sstFileRunSize > 0) {
+      table.setSstFileRunSize(sstFileRunSize);
+    }
+    return table;
   }
 
   @SuppressFBWarnings(
       value = "IS2_INCONSISTENT_SYNC",
       justification = "This is only called from the loading cache which is synchronized")
   private RocksDBDataIndexTable loadDataIndexTable(final DataIndexCacheKey key) {
-    return new RocksDBDataIndexTable(
-        indexWriteOptions,
-        batchWriteOptions,
-        key.directory,
-        key.adapterId,
-        visibilityEnabled,
-        compactOnWrite,
-        batchWriteSize);
+    final RocksDBDataIndexTable table;
+    if (columnFamilyStore != null) {
+      table =
+          new RocksDBDataIndexTable(
+              getColumnFamilyStore(),
+              getTableName(key),
+              batchWriteOptions,
+              key.adapterId,
+              visibilityEnabled,
+              compactOnWrite,
+              batchWriteSize);
+    } else {
+      table =
+          new RocksDBDataIndexTable(
+              getTableOptions(dataIndexOptions, true),
+              batchWriteOptions,
+              key.directory,
+              key.adapterId,
+              visibilityEnabled,
+              compactOnWrite,
+              batchWriteSize);
+    }
+    table.setWorkloadProfile(workloadProfile);
+    if (sstFileRunSize > 0) {
+      table.setSstFileRunSize(sstFileRunSize);
+    }
+    return table;
+  }
+
+  @SuppressFBWarnings(
+      value = "IS2_INCONSISTENT_SYNC",
+      justification = "This is only called from the loading cache which is synchronized")
+  private Options getTableOptions(
+      final Map<RocksDBWorkloadProfile, Options> options,
+      final boolean pointLookups) {
+    return options.computeIfAbsent(workloadProfile, p -> {
+      RocksDB.loadLibrary();
+      return p.createOptions(pointLookups);
+    });
+  }
+
+  public synchronized RocksDBWorkloadProfile getWorkloadProfile() {
+    return workloadProfile;
+  }
+
+  /**
+   * Switch the index and data index tables to another workload profile, such as from a bulk ingest
+   * profile to a read optimized profile once the data has been loaded and compacted. Tables that
+   * are open keep the block size and bloom filters they were opened with but change every other
+   * option, tables that are opened from now on use every option of the profile.
+   */
+  public synchronized void setWorkloadProfile(final RocksDBWorkloadProfile workloadProfile) {
+    if (this.workloadProfile.equals(workloadProfile)) {
+      return;
+    }
+    LOGGER.info("Switching rocksdb store '{}' to the {} profile", subDirectory, workloadProfile);
+    this.workloadProfile = workloadProfile;
+    if (columnFamilyStore != null) {
+      columnFamilyStore.setWorkloadProfile(workloadProfile);
+    }
+    indexTableCache.asMap().values().forEach(t -> t.setWorkloadProfile(workloadProfile));
+    dataIndexTableCache.asMap().values().forEach(t -> t.setWorkloadProfile(workloadProfile));
   }
 
   public String getSubDirectory() {
@@ -242,12 +419,6 @@ public class RocksDBClient implements Closeable {
       final short adapterId,
       final byte[] partition,
       final boolean requiresTimestamp) {
-    if (indexWriteOptions == null) {
-      RocksDB.loadLibrary();
-      final int cores = Runtime.getRuntime().availableProcessors();
-      indexWriteOptions =
-          new Options().setCreateIfMissing(true).prepareForBulkLoad().setIncreaseParallelism(cores);
-    }
     if (batchWriteOptions == null) {
       batchWriteOptions =
           new WriteOptions().setDisableWAL(!walOnBatchWrite).setNoSlowdown(false).setSync(false);
@@ -262,12 +433,6 @@ public class RocksDBClient implements Closeable {
   public synchronized RocksDBDataIndexTable getDataIndexTable(
       final String tableName,
       final short adapterId) {
-    if (indexWriteOptions == null) {
-      RocksDB.loadLibrary();
-      final int cores = Runtime.getRuntime().availableProcessors();
-      indexWriteOptions =
-          new Options().setCreateIfMissing(true).prepareForBulkLoad().setIncreaseParallelism(cores);
-    }
     if (batchWriteOptions == null) {
       batchWriteOptions =
           new WriteOptions().setDisableWAL(!walOnBatchWrite).setNoSlowdown(false).setSync(false);
@@ -278,7 +443,7 @@ public class RocksDBClient implements Closeable {
   }
 
   public synchronized RocksDBMetadataTable getMetadataTable(final MetadataType type) {
-    if (metadataOptions == null) {
+    if ((metadataOptions == null) && (columnFamilyStore == null)) {
       RocksDB.loadLibrary();
       metadataOptions = new Options().setCreateIfMissing(true).optimizeForSmallDb();
     }
@@ -287,7 +452,44 @@ public class RocksDBClient implements Closeable {
         keyCache.get(directory, d -> new CacheKey(d, type.isStatValues())));
   }
 
+  public boolean isColumnFamilyLayout() {
+    return columnFamilyStore != null;
+  }
+
+  /**
+   * @param tableNamePrefix the prefix of the table names
+   * @return the names of the index tables, including every partition, that start with the prefix
+   */
+  public List<String> getIndexTableNames(final String tableNamePrefix) {
+    if (columnFamilyStore != null) {
+      return getColumnFamilyStore().getTableNames(TableType.INDEX).stream().filter(
+          name -> name.startsWith(tableNamePrefix)).collect(Collectors.toList());
+    }
+    final String[] listing =
+        new File(subDirectory).list((dir, name) -> name.startsWith(tableNamePrefix));
+    return listing == null ? Collections.emptyList() : Arrays.asList(listing);
+  }
+
+  /**
+   * Drop the column families of every index and data index table that starts with the prefix, this
+   * should only be called once the tables have been closed.
+   */
+  public void dropTables(final String tableNamePrefix) {
+    final RocksDBColumnFamilyStore store = getColumnFamilyStore();
+    for (final TableType type : new TableType[] {TableType.INDEX, TableType.DATA_INDEX}) {
+      store.getTableNames(type).stream().filter(name -> name.startsWith(tableNamePrefix)).forEach(
+          name -> store.dropTable(type, name));
+    }
+  }
+
   public boolean indexTableExists(final String indexName) {
+    if (columnFamilyStore != null) {
+      final RocksDBColumnFamilyStore store = getColumnFamilyStore();
+      return Stream.concat(
+          store.getTableNames(TableType.INDEX).stream(),
+          store.getTableNames(TableType.DATA_INDEX).stream()).anyMatch(
+              name -> name.contains(indexName));
+    }
     // then look for prefixes of this index directory in which case there is
     // a partition key
     for (final String key : keyCache.asMap().keySet()) {
@@ -302,6 +504,9 @@ public class RocksDBClient implements Closeable {
   }
 
   public boolean metadataTableExists(final MetadataType type) {
+    if (columnFamilyStore != null) {
+      return getColumnFamilyStore().hasTable(TableType.METADATA, type.id());
+    }
     // this could have been created by a different process so check the
     // directory listing
     return (keyCache.getIfPresent(subDirectory + "/" + type.id()) != null)
@@ -362,17 +567,41 @@ public class RocksDBClient implements Closeable {
   @Override
   public void close() {
     keyCache.invalidateAll();
-    indexTableCache.asMap().values().forEach(db -> db.close());
+    // every table is closed even if closing one of them fails, the first failure is thrown after
+    RuntimeException failure = null;
+    for (final AbstractRocksDBTable table : Iterables.<AbstractRocksDBTable>concat(
+        indexTableCache.asMap().values(),
+        dataIndexTableCache.asMap().values())) {
+      try {
+        table.close();
+      } catch (final RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
     indexTableCache.invalidateAll();
-    dataIndexTableCache.asMap().values().forEach(db -> db.close());
     dataIndexTableCache.invalidateAll();
     metadataTableCache.asMap().values().forEach(db -> db.close());
     metadataTableCache.invalidateAll();
     synchronized (this) {
+      if (columnFamilyStore != null) {
+        columnFamilyStore.close();
+        columnFamilyStoreOpened = false;
+      }
       if (batchWriteOptions != null) {
         batchWriteOptions.close();
         batchWriteOptions = null;
       }
+      indexOptions.values().forEach(Options::close);
+      indexOptions.clear();
+      dataIndexOptions.values().forEach(Options::close);
+      dataIndexOptions.clear();
+    }
+    if (failure != null) {
+      throw failure;
     }
   }
 }
@@ -33,7 +33,12 @@ public class RocksDBClientCache {
             subDirectoryVisiblityPair.visibilityEnabled,
             subDirectoryVisiblityPair.compactOnWrite,
             subDirectoryVisiblityPair.batchSize,
-            subDirectoryVisiblityPair.walOnBatchWrite);
+            subDirectoryVisiblityPair.walOnBatchWrite,
+            subDirectoryVisiblityPair.columnFamilies,
+            subDirectoryVisiblityPair.blockCacheSize,
+            subDirectoryVisiblityPair.writeBufferBudget,
+            subDirectoryVisiblityPair.workloadProfile,
+            subDirectoryVisiblityPair.sstFileRunSize);
       });
 
   protected RocksDBClientCache() {}
@@ -43,14 +48,24 @@ public class RocksDBClientCache {
       final boolean visibilityEnabled,
       final boolean compactOnWrite,
       final int batchWriteSize,
-      final boolean walOnBatchWrite) {
+      final boolean walOnBatchWrite,
+      final boolean columnFamilies,
+      final int blockCacheSize,
+      final int writeBufferBudget,
+      final RocksDBWorkloadProfile workloadProfile,
+      final int sstFileRunSize) {
     return clientCache.get(
         new ClientKey(
             directory,
             visibilityEnabled,
             compactOnWrite,
             batchWriteSize,
-            walOnBatchWrite));
+            walOnBatchWrite,
+            columnFamilies,
+            blockCacheSize,
+            writeBufferBudget,
+            workloadProfile,
+            sstFileRunSize));
   }
 
   public synchronized void close(
@@ -58,14 +73,24 @@ public class RocksDBClientCache {
       final boolean visibilityEnabled,
       final boolean compactOnWrite,
       final int batchWriteSize,
-      final boolean walOnBatchWrite) {
+      final boolean walOnBatchWrite,
+      final boolean columnFamilies,
+      final int blockCacheSize,
+      final int writeBufferBudget,
+      final RocksDBWorkloadProfile workloadProfile,
+      final int sstFileRunSize) {
     final ClientKey key =
         new ClientKey(
             directory,
             visibilityEnabled,
             compactOnWrite,
             batchWriteSize,
-            walOnBatchWrite);
+            walOnBatchWrite,
+            columnFamilies,
+            blockCacheSize,
+            writeBufferBudget,
+            workloadProfile,
+            sstFileRunSize);
     final RocksDBClient client = clientCache.getIfPresent(key);
     if (client != null) {
       clientCache.invalidate(key);
@@ -76,10 +101,6 @@ public class RocksDBClientCache {
         RocksDBClient.metadataOptions.close();
         RocksDBClient.metadataOptions = null;
       }
-      if (RocksDBClient.indexWriteOptions != null) {
-        RocksDBClient.indexWriteOptions.close();
-        RocksDBClient.indexWriteOptions = null;
-      }
     }
   }
 
@@ -90,10 +111,6 @@ public class RocksDBClientCache {
       RocksDBClient.metadataOptions.close();
       RocksDBClient.metadataOptions = null;
     }
-    if (RocksDBClient.indexWriteOptions != null) {
-      RocksDBClient.indexWriteOptions.close();
-      RocksDBClient.indexWriteOptions = null;
-    }
   }
 
   private static class ClientKey {
@@ -102,13 +119,23 @@ public class RocksDBClientCache {
     private final boolean compactOnWrite;;
     private final int batchSize;
     private final boolean walOnBatchWrite;
+    private final boolean columnFamilies;
+    private final int blockCacheSize;
+    private final int writeBufferBudget;
+    private final RocksDBWorkloadProfile workloadProfile;
+    private final int sstFileRunSize;
 
     public ClientKey(
         final String directory,
         final boolean visibilityEnabled,
         final boolean compactOnWrite,
         final int batchSize,
-        final boolean walOnBatchWrite) {
+        final boolean walOnBatchWrite,
+        final boolean columnFamilies,
+        final int blockCacheSize,
+        final int writeBufferBudget,
+        final RocksDBWorkloadProfile workloadProfile,
+        final int sstFileRunSize) {
       super();
       String path = directory;
       try {
@@ -121,6 +148,11 @@ public class RocksDBClientCache {
       this.compactOnWrite = compactOnWrite;
       this.batchSize = batchSize;
       this.walOnBatchWrite = walOnBatchWrite;
+      this.columnFamilies = columnFamilies;
+      this.blockCacheSize = blockCacheSize;
+      this.writeBufferBudget = writeBufferBudget;
+      this.workloadProfile = workloadProfile;
+      this.sstFileRunSize = sstFileRunSize;
     }
 
     @Override
@@ -128,10 +160,15 @@ public class RocksDBClientCache {
       final int prime = 31;
       int result = 1;
       result = (prime * result) + batchSize;
+      result = (prime * result) + blockCacheSize;
+      result = (prime * result) + (columnFamilies ? 1231 : 1237);
       result = (prime * result) + (compactOnWrite ? 1231 : 1237);
       result = (prime * result) + ((directory == null) ? 0 : directory.hashCode());
+      result = (prime * result) + sstFileRunSize;
       result = (prime * result) + (visibilityEnabled ? 1231 : 1237);
       result = (prime * result) + (walOnBatchWrite ? 1231 : 1237);
+      result = (prime * result) + ((workloadProfile == null) ? 0 : workloadProfile.hashCode());
+      result = (prime * result) + writeBufferBudget;
       return result;
     }
 
@@ -150,6 +187,12 @@ public class RocksDBClientCache {
       if (batchSize != other.batchSize) {
         return false;
       }
+      if (blockCacheSize != other.blockCacheSize) {
+        return false;
+      }
+      if (columnFamilies != other.columnFamilies) {
+        return false;
+      }
       if (compactOnWrite != other.compactOnWrite) {
         return false;
       }
@@ -160,12 +203,21 @@ public class RocksDBClientCache {
       } else if (!directory.equals(other.directory)) {
         return false;
       }
+      if (sstFileRunSize != other.sstFileRunSize) {
+        return false;
+      }
       if (visibilityEnabled != other.visibilityEnabled) {
         return false;
       }
       if (walOnBatchWrite != other.walOnBatchWrite) {
         return false;
       }
+      if (workloadProfile != other.workloadProfile) {
+        return false;
+      }
+      if (writeBufferBudget != other.writeBufferBudget) {
+        return false;
+      }
       return true;
     }
 
@@ -0,0 +1,366 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.rocksdb.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.locationtech.geowave.core.index.StringUtils;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.Cache;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.DBOptions;
+import org.rocksdb.FlushOptions;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteBufferManager;
+import org.rocksdb.WriteOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single RocksDB instance that holds every table of a store in a column family of its own. Every
+ * column family shares one LRU block cache, and the memory used by the memtables of all of them is
+ * limited by a single write buffer manager which is charged against that cache, so the memory used
+ * by the store no longer grows with the number of indices, types and partitions.
+ */
+public class RocksDBColumnFamilyStore implements Closeable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RocksDBColumnFamilyStore.class);
+  /** The directory, within the directory of the store, that holds the RocksDB instance */
+  public static final String DIRECTORY_NAME = "column_families";
+  private static final long MB = 1024L * 1024L;
+  private static final long METADATA_WRITE_BUFFER_SIZE = 4 * MB;
+  private static final int IMPORT_BATCH_SIZE = 10000;
+
+  /**
+   * The kind of table held by a column family, which is stored as a prefix of the column family
+   * name so that the options of each column family are known when the instance is opened.
+   */
+  public static enum TableType {
+    METADATA("m_"), INDEX("i_"), DATA_INDEX("d_");
+
+    private final String prefix;
+
+    private TableType(final String prefix) {
+      this.prefix = prefix;
+    }
+
+    private String getColumnFamilyName(final String tableName) {
+      return prefix + tableName;
+    }
+
+    private static TableType fromColumnFamilyName(final String columnFamilyName) {
+      for (final TableType type : values()) {
+        if (columnFamilyName.startsWith(type.prefix)) {
+          return type;
+        }
+      }
+      return null;
+    }
+  }
+
+  private final String directory;
+  private final long blockCacheSize;
+  private final long writeBufferBudget;
+  private final Map<String, ColumnFamilyHandle> columnFamilies = new ConcurrentHashMap<>();
+  private final Map<TableType, ColumnFamilyOptions> columnFamilyOptions =
+      new EnumMap<>(TableType.class);
+  private final List<ColumnFamilyOptions> retiredOptions = new ArrayList<>();
+  private RocksDBWorkloadProfile workloadProfile;
+  private Cache blockCache;
+  private WriteBufferManager writeBufferManager;
+  private DBOptions dbOptions;
+  private ColumnFamilyOptions defaultOptions;
+  private ColumnFamilyHandle defaultColumnFamily;
+  private volatile RocksDB db;
+
+  /**
+   * @param directory the directory of the RocksDB instance
+   * @param blockCacheSizeMB the size of the shared block cache in MB
+   * @param writeBufferBudgetMB the memory in MB that the memtables of every column family may use
+   * @param workloadProfile the workload profile of the index and data index tables
+   */
+  public RocksDBColumnFamilyStore(
+      final String directory,
+      final int blockCacheSizeMB,
+      final int writeBufferBudgetMB,
+      final RocksDBWorkloadProfile workloadProfile) {
+    this.directory = directory;
+    blockCacheSize = blockCacheSizeMB * MB;
+    writeBufferBudget = writeBufferBudgetMB * MB;
+    this.workloadProfile = workloadProfile;
+  }
+
+  public String getDirectory() {
+    return directory;
+  }
+
+  public boolean exists() {
+    return new File(directory, "CURRENT").exists();
+  }
+
+  /**
+   * Get the RocksDB instance, opening it along with every existing column family if necessary.
+   */
+  public RocksDB getDb() throws RocksDBException {
+    if (db == null) {
+      synchronized (this) {
+        if (db == null) {
+          open();
+        }
+      }
+    }
+    return db;
+  }
+
+  private void open() throws RocksDBException {
+    RocksDB.loadLibrary();
+    final File dir = new File(directory);
+    if (!dir.exists() && !dir.mkdirs()) {
+      LOGGER.error("Unable to create directory for rocksdb store '" + directory + "'");
+    }
+    blockCache = new LRUCache(blockCacheSize);
+    writeBufferManager = new WriteBufferManager(writeBufferBudget, blockCache);
+    dbOptions = new DBOptions();
+    dbOptions.setCreateIfMissing(true);
+    dbOptions.setCreateMissingColumnFamilies(true);
+    dbOptions.setIncreaseParallelism(Runtime.getRuntime().availableProcessors());
+    dbOptions.setWriteBufferManager(writeBufferManager);
+    defaultOptions = new ColumnFamilyOptions();
+    final List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+    descriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, defaultOptions));
+    if (exists()) {
+      try (Options options = new Options()) {
+        for (final byte[] name : RocksDB.listColumnFamilies(options, directory)) {
+          final TableType type = TableType.fromColumnFamilyName(StringUtils.stringFromBinary(name));
+          if (type != null) {
+            descriptors.add(new ColumnFamilyDescriptor(name, getColumnFamilyOptions(type)));
+          }
+        }
+      }
+    }
+    final List<ColumnFamilyHandle> handles = new ArrayList<>(descriptors.size());
+    final RocksDB newDb = RocksDB.open(dbOptions, directory, descriptors, handles);
+    // the default column family isn't used, but its handle still needs to be closed with the rest
+    defaultColumnFamily = handles.get(0);
+    for (int i = 1; i < handles.size(); i++) {
+      columnFamilies.put(
+          StringUtils.stringFromBinary(descriptors.get(i).getName()),
+          handles.get(i));
+    }
+    db = newDb;
+  }
+
+  private ColumnFamilyOptions getColumnFamilyOptions(final TableType type) {
+    return columnFamilyOptions.computeIfAbsent(type, t -> {
+      if (TableType.METADATA.equals(t)) {
+        final BlockBasedTableConfig tableConfig = new BlockBasedTableConfig();
+        tableConfig.setBlockCache(blockCache);
+        tableConfig.setCacheIndexAndFilterBlocks(true);
+        tableConfig.setPinL0FilterAndIndexBlocksInCache(true);
+        final ColumnFamilyOptions options = new ColumnFamilyOptions();
+        options.setWriteBufferSize(METADATA_WRITE_BUFFER_SIZE);
+        options.setTableFormatConfig(tableConfig);
+        return options;
+      }
+      // the data index is read by data ID so a bloom filter on the whole key lets lookups skip
+      // files that can't contain the ID
+      return workloadProfile.createColumnFamilyOptions(
+          blockCache,
+          TableType.DATA_INDEX.equals(t));
+    });
+  }
+
+  /**
+   * Create options with the table format of a type of table, for writing SST files that are to be
+   * ingested into its column families. The caller is responsible for closing the options.
+   */
+  public Options createOptions(final TableType type) throws RocksDBException {
+    // the column family options refer to the block cache, which is created when the instance opens
+    getDb();
+    synchronized (this) {
+      try (DBOptions options = new DBOptions()) {
+        return new Options(options, getColumnFamilyOptions(type));
+      }
+    }
+  }
+
+  /**
+   * Set the workload profile of the index and data index tables. Column families that are created
+   * from now on use every option of the profile, while existing column families only change the
+   * options that can be changed while the instance is open.
+   */
+  public synchronized void setWorkloadProfile(final RocksDBWorkloadProfile workloadProfile) {
+    if (this.workloadProfile.equals(workloadProfile)) {
+      return;
+    }
+    this.workloadProfile = workloadProfile;
+    // open column families still refer to the options they were created with
+    for (final TableType type : new TableType[] {TableType.INDEX, TableType.DATA_INDEX}) {
+      final ColumnFamilyOptions options = columnFamilyOptions.remove(type);
+      if (options != null) {
+        retiredOptions.add(options);
+      }
+    }
+    if (db == null) {
+      return;
+    }
+    for (final Entry<String, ColumnFamilyHandle> e : columnFamilies.entrySet()) {
+      final TableType type = TableType.fromColumnFamilyName(e.getKey());
+      if (!TableType.METADATA.equals(type)) {
+        try {
+          db.setOptions(e.getValue(), workloadProfile.getMutableOptions());
+        } catch (final RocksDBException ex) {
+          LOGGER.warn("Unable to set options of column family '" + e.getKey() + "'", ex);
+        }
+      }
+    }
+  }
+
+  /**
+   * Get the column family of a table.
+   *
+   * @param type the type of table
+   * @param tableName the name of the table
+   * @param create whether to create the column family if it doesn't exist
+   * @return the column family or null if it doesn't exist and should not be created
+   */
+  public ColumnFamilyHandle getColumnFamily(
+      final TableType type,
+      final String tableName,
+      final boolean create) throws RocksDBException {
+    final String name = type.getColumnFamilyName(tableName);
+    ColumnFamilyHandle handle = columnFamilies.get(name);
+    if ((handle == null) && create) {
+      synchronized (this) {
+        handle = columnFamilies.get(name);
+        if (handle == null) {
+          handle =
+              getDb().createColumnFamily(
+                  new ColumnFamilyDescriptor(
+                      StringUtils.stringToBinary(name),
+                      getColumnFamilyOptions(type)));
+          columnFamilies.put(name, handle);
+        }
+      }
+    }
+    return handle;
+  }
+
+  public boolean hasTable(final TableType type, final String tableName) {
+    return columnFamilies.containsKey(type.getColumnFamilyName(tableName));
+  }
+
+  /**
+   * @return the names of the tables of the given type that have a column family
+   */
+  public Set<String> getTableNames(final TableType type) {
+    return columnFamilies.keySet().stream().filter(name -> name.startsWith(type.prefix)).map(
+        name -> name.substring(type.prefix.length())).collect(Collectors.toSet());
+  }
+
+  public synchronized void dropTable(final TableType type, final String tableName) {
+    final ColumnFamilyHandle handle = columnFamilies.remove(type.getColumnFamilyName(tableName));
+    if (handle != null) {
+      try {
+        db.dropColumnFamily(handle);
+      } catch (final RocksDBException e) {
+        LOGGER.warn("Unable to drop column family for table '" + tableName + "'", e);
+      }
+      handle.close();
+    }
+  }
+
+  /**
+   * Copy every entry of a table that was written to a RocksDB instance of its own into the column
+   * family of the table. The column family is flushed once the copy completes so that the caller
+   * can safely remove the original table.
+   *
+   * @param type the type of the table
+   * @param tableName the name of the table
+   * @param tableDirectory the directory of the RocksDB instance of the table
+   * @return the number of entries that were copied
+   */
+  public long importTable(
+      final TableType type,
+      final String tableName,
+      final String tableDirectory) throws RocksDBException {
+    final ColumnFamilyHandle handle = getColumnFamily(type, tableName, true);
+    long count = 0;
+    try (Options options = new Options();
+        RocksDB tableDb = RocksDB.openReadOnly(options, tableDirectory);
+        ReadOptions readOptions = new ReadOptions().setFillCache(false);
+        RocksIterator it = tableDb.newIterator(readOptions);
+        WriteOptions writeOptions = new WriteOptions();
+        WriteBatch batch = new WriteBatch();
+        FlushOptions flushOptions = new FlushOptions().setWaitForFlush(true)) {
+      for (it.seekToFirst(); it.isValid(); it.next()) {
+        batch.put(handle, it.key(), it.value());
+        count++;
+        if (batch.count() >= IMPORT_BATCH_SIZE) {
+          db.write(writeOptions, batch);
+          batch.clear();
+        }
+      }
+      if (batch.count() > 0) {
+        db.write(writeOptions, batch);
+      }
+      db.flush(flushOptions, handle);
+    }
+    return count;
+  }
+
+  @Override
+  public synchronized void close() {
+    columnFamilies.values().forEach(ColumnFamilyHandle::close);
+    columnFamilies.clear();
+    if (defaultColumnFamily != null) {
+      defaultColumnFamily.close();
+      defaultColumnFamily = null;
+    }
+    if (db != null) {
+      db.close();
+      db = null;
+    }
+    columnFamilyOptions.values().forEach(ColumnFamilyOptions::close);
+    columnFamilyOptions.clear();
+    retiredOptions.forEach(ColumnFamilyOptions::close);
+    retiredOptions.clear();
+    if (defaultOptions != null) {
+      defaultOptions.close();
+      defaultOptions = null;
+    }
+    if (dbOptions != null) {
+      dbOptions.close();
+      dbOptions = null;
+    }
+    if (writeBufferManager != null) {
+      writeBufferManager.close();
+      writeBufferManager = null;
+    }
+    if (blockCache != null) {
+      blockCache.close();
+      blockCache = null;
+    }
+  }
+}
@@ -9,6 +9,7 @@
 package org.locationtech.geowave.datastore.rocksdb.util;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import org.locationtech.geowave.core.index.ByteArrayUtils;
@@ -16,6 +17,7 @@ import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.base.dataidx.DataIndexUtils;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import org.locationtech.geowave.datastore.rocksdb.util.RocksDBColumnFamilyStore.TableType;
 import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
@@ -48,6 +50,25 @@ public class RocksDBDataIndexTable extends AbstractRocksDBTable {
         batchSize);
   }
 
+  public RocksDBDataIndexTable(
+      final RocksDBColumnFamilyStore columnFamilyStore,
+      final String tableName,
+      final WriteOptions batchWriteOptions,
+      final short adapterId,
+      final boolean visibilityEnabled,
+      final boolean compactOnWrite,
+      final int batchSize) {
+    super(
+        columnFamilyStore,
+        TableType.DATA_INDEX,
+        tableName,
+        batchWriteOptions,
+        adapterId,
+        visibilityEnabled,
+        compactOnWrite,
+        batchSize);
+  }
+
   public synchronized void add(final byte[] dataId, final GeoWaveValue value) {
     put(dataId, DataIndexUtils.serializeDataIndexValue(value, visibilityEnabled));
   }
@@ -63,7 +84,10 @@ public class RocksDBDataIndexTable extends AbstractRocksDBTable {
 
     try {
       final List<byte[]> dataIdsList = Arrays.asList(dataIds);
-      final List<byte[]> dataIdxResults = readDb.multiGetAsList(dataIdsList);
+      final List<byte[]> dataIdxResults =
+          readDb.multiGetAsList(
+              Collections.nCopies(dataIdsList.size(), getColumnFamily()),
+              dataIdsList);
       if (dataIdsList.size() != dataIdxResults.size()) {
         LOGGER.warn("Result size differs from original keys");
       } else {
@@ -94,7 +118,7 @@ public class RocksDBDataIndexTable extends AbstractRocksDBTable {
     }
     final RocksIterator it;
     if (reverse) {
-      it = readDb.newIterator();
+      it = readDb.newIterator(getColumnFamily());
       if (endDataId == null) {
         it.seekToLast();
       } else {
@@ -105,16 +129,11 @@ public class RocksDBDataIndexTable extends AbstractRocksDBTable {
       }
       return new DataIndexBoundedReverseRowIterator(startDataId, it, adapterId, visibilityEnabled);
     } else {
-      final ReadOptions options;
-      if (endDataId == null) {
-        options = null;
-        it = readDb.newIterator();
-      } else {
-        options =
-            new ReadOptions().setIterateUpperBound(
-                new Slice(ByteArrayUtils.getNextPrefix(endDataId)));
-        it = readDb.newIterator(options);
+      final ReadOptions options = new ReadOptions().setReadaheadSize(getReadaheadSize());
+      if (endDataId != null) {
+        options.setIterateUpperBound(new Slice(ByteArrayUtils.getNextPrefix(endDataId)));
       }
+      it = readDb.newIterator(getColumnFamily(), options);
       if (startDataId == null) {
         it.seekToFirst();
       } else {
@@ -8,11 +8,18 @@
  */
 package org.locationtech.geowave.datastore.rocksdb.util;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import org.locationtech.geowave.core.index.ByteArrayRange;
 import org.locationtech.geowave.core.index.ByteArrayUtils;
 import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import org.locationtech.geowave.datastore.rocksdb.util.RocksDBColumnFamilyStore.TableType;
 import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
@@ -24,9 +31,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.common.primitives.Bytes;
 import com.google.common.primitives.Longs;
+import com.google.common.primitives.UnsignedBytes;
 
 public class RocksDBIndexTable extends AbstractRocksDBTable {
   private static final Logger LOGGER = LoggerFactory.getLogger(RocksDBIndexTable.class);
+  private static final Comparator<byte[]> KEY_COMPARATOR =
+      UnsignedBytes.lexicographicalComparator();
   private long prevTime = Long.MAX_VALUE;
   private final boolean requiresTimestamp;
   private final byte[] partition;
@@ -53,7 +63,33 @@ public class RocksDBIndexTable extends AbstractRocksDBTable {
     this.partition = partition;
   }
 
+  public RocksDBIndexTable(
+      final RocksDBColumnFamilyStore columnFamilyStore,
+      final String tableName,
+      final WriteOptions batchWriteOptions,
+      final short adapterId,
+      final byte[] partition,
+      final boolean requiresTimestamp,
+      final boolean visibilityEnabled,
+      final boolean compactOnWrite,
+      final int batchSize) {
+    super(
+        columnFamilyStore,
+        TableType.INDEX,
+        tableName,
+        batchWriteOptions,
+        adapterId,
+        visibilityEnabled,
+        compactOnWrite,
+        batchSize);
+    this.requiresTimestamp = requiresTimestamp;
+    this.partition = partition;
+  }
+
   public void delete(final byte[] sortKey, final byte[] dataId) {
+    if (!ingestSstFiles()) {
+      throw new RuntimeException("Unable to delete rows before the SST files are ingested");
+    }
     final RocksDB db = getDb(false);
     if (db == null) {
       LOGGER.warn("Unable to delete key because directory '" + subDirectory + "' doesn't exist");
@@ -61,7 +97,7 @@ public class RocksDBIndexTable extends AbstractRocksDBTable {
     }
     try {
       final byte[] prefix = Bytes.concat(sortKey, dataId);
-      db.deleteRange(prefix, ByteArrayUtils.getNextPrefix(prefix));
+      db.deleteRange(getColumnFamily(), prefix, ByteArrayUtils.getNextPrefix(prefix));
     } catch (final RocksDBException e) {
       LOGGER.warn("Unable to delete by sort key and data ID", e);
     }
@@ -113,8 +149,9 @@ public class RocksDBIndexTable extends AbstractRocksDBTable {
     if (readDb == null) {
       return new CloseableIterator.Empty<>();
     }
-    final ReadOptions options = new ReadOptions().setFillCache(false);
-    final RocksIterator it = readDb.newIterator(options);
+    final ReadOptions options =
+        new ReadOptions().setFillCache(false).setReadaheadSize(getReadaheadSize());
+    final RocksIterator it = readDb.newIterator(getColumnFamily(), options);
     it.seekToFirst();
     return new RocksDBRowIterator(
         options,
@@ -130,15 +167,11 @@ public class RocksDBIndexTable extends AbstractRocksDBTable {
     if (readDb == null) {
       return new CloseableIterator.Empty<>();
     }
-    final ReadOptions options;
-    final RocksIterator it;
-    if (range.getEnd() == null) {
-      options = null;
-      it = readDb.newIterator();
-    } else {
-      options = new ReadOptions().setIterateUpperBound(new Slice(range.getEndAsNextPrefix()));
-      it = readDb.newIterator(options);
+    final ReadOptions options = new ReadOptions().setReadaheadSize(getReadaheadSize());
+    if (range.getEnd() != null) {
+      options.setIterateUpperBound(new Slice(range.getEndAsNextPrefix()));
     }
+    final RocksIterator it = readDb.newIterator(getColumnFamily(), options);
     if (range.getStart() == null) {
       it.seekToFirst();
     } else {
@@ -153,4 +186,142 @@ public class RocksDBIndexTable extends AbstractRocksDBTable {
         requiresTimestamp,
         visibilityEnabled);
   }
+
+  /**
+   * Read several ranges of sort keys with a single iterator rather than an iterator per range. The
+   * iterator is only created once the results are first read, it moves from one range to the next
+   * by seeking forward, or not at all when it is already within the next range, and it is closed as
+   * soon as the last range has been read.
+   *
+   * @param ranges the ranges to read
+   * @return the rows of the ranges in key order
+   */
+  public CloseableIterator<GeoWaveRow> iterator(final Collection<ByteArrayRange> ranges) {
+    final List<ByteArrayRange> sortedRanges = new ArrayList<>(ranges);
+    sortedRanges.sort(
+        Comparator.comparing(
+            ByteArrayRange::getStart,
+            Comparator.nullsFirst(KEY_COMPARATOR)));
+    return new MultiRangeIterator(sortedRanges);
+  }
+
+  private class MultiRangeIterator implements CloseableIterator<GeoWaveRow> {
+    private final Iterator<ByteArrayRange> ranges;
+    private final byte[] upperBound;
+    private ReadOptions options;
+    private Slice upperBoundSlice;
+    private RocksIterator it;
+    // the exclusive end of the range being read, null if the range has no end
+    private byte[] rangeEnd;
+    private boolean inRange = false;
+    private boolean closed = false;
+
+    private MultiRangeIterator(final List<ByteArrayRange> sortedRanges) {
+      ranges = sortedRanges.iterator();
+      // the end of the last range bounds the iterator as long as every range has an end
+      byte[] end = null;
+      for (final ByteArrayRange range : sortedRanges) {
+        if (range.getEnd() == null) {
+          end = null;
+          break;
+        }
+        final byte[] rangeEnd = range.getEndAsNextPrefix();
+        if ((end == null) || (KEY_COMPARATOR.compare(rangeEnd, end) > 0)) {
+          end = rangeEnd;
+        }
+      }
+      upperBound = end;
+    }
+
+    private boolean open() {
+      final RocksDB readDb = getDb(true);
+      if (readDb == null) {
+        return false;
+      }
+      options = new ReadOptions().setReadaheadSize(getReadaheadSize());
+      if (upperBound != null) {
+        upperBoundSlice = new Slice(upperBound);
+        options.setIterateUpperBound(upperBoundSlice);
+      }
+      it = readDb.newIterator(getColumnFamily(), options);
+      return true;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!closed) {
+        if (inRange) {
+          if (it.isValid()
+              && ((rangeEnd == null)
+                  || (KEY_COMPARATOR.compare(it.key(), rangeEnd) < 0))) {
+            return true;
+          }
+          inRange = false;
+          if (!it.isValid()) {
+            // the end of the table has been reached so none of the remaining ranges have rows
+            close();
+            break;
+          }
+        }
+        if (!ranges.hasNext()) {
+          close();
+          break;
+        }
+        final ByteArrayRange range = ranges.next();
+        if (it == null) {
+          if (!open()) {
+            close();
+            break;
+          }
+          if (range.getStart() == null) {
+            it.seekToFirst();
+          } else {
+            it.seek(range.getStart());
+          }
+        } else if ((range.getStart() != null)
+            && (KEY_COMPARATOR.compare(it.key(), range.getStart()) < 0)) {
+          it.seek(range.getStart());
+        }
+        // if the iterator is already past the start of this range, the rows before it have been
+        // read as part of the previous range, which starts no later than this one
+        rangeEnd = range.getEnd() == null ? null : range.getEndAsNextPrefix();
+        inRange = true;
+      }
+      return false;
+    }
+
+    @Override
+    public GeoWaveRow next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final GeoWaveRow row =
+          new RocksDBRow(
+              adapterId,
+              partition,
+              it.key(),
+              it.value(),
+              requiresTimestamp,
+              visibilityEnabled);
+      it.next();
+      return row;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+      if (it != null) {
+        it.close();
+        it = null;
+      }
+      if (options != null) {
+        options.close();
+        options = null;
+      }
+      if (upperBoundSlice != null) {
+        upperBoundSlice.close();
+        upperBoundSlice = null;
+      }
+    }
+  }
 }
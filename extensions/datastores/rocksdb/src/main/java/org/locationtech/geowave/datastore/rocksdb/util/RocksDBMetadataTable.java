@@ -12,6 +12,7 @@ import org.locationtech.geowave.core.index.ByteArrayRange;
 import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.entities.GeoWaveMetadata;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
@@ -25,6 +26,7 @@ import com.google.common.primitives.Longs;
 public class RocksDBMetadataTable {
   private static final Logger LOGGER = LoggerFactory.getLogger(RocksDBMetadataTable.class);
   private final RocksDB db;
+  private final ColumnFamilyHandle columnFamily;
   private final boolean requiresTimestamp;
   private final boolean visibilityEnabled;
   private final boolean compactOnWrite;
@@ -35,8 +37,23 @@ public class RocksDBMetadataTable {
       final boolean requiresTimestamp,
       final boolean visibilityEnabled,
       final boolean compactOnWrite) {
+    this(db, null, requiresTimestamp, visibilityEnabled, compactOnWrite);
+  }
+
+  /**
+   * @param db the RocksDB instance
+   * @param columnFamily the column family of the table within a shared instance, or null if the
+   *        instance holds only this table
+   */
+  public RocksDBMetadataTable(
+      final RocksDB db,
+      final ColumnFamilyHandle columnFamily,
+      final boolean requiresTimestamp,
+      final boolean visibilityEnabled,
+      final boolean compactOnWrite) {
     super();
     this.db = db;
+    this.columnFamily = columnFamily;
     this.requiresTimestamp = requiresTimestamp;
     this.visibilityEnabled = visibilityEnabled;
     this.compactOnWrite = compactOnWrite;
@@ -44,7 +61,11 @@ public class RocksDBMetadataTable {
 
   public void remove(final byte[] key) {
     try {
-      db.singleDelete(key);
+      if (columnFamily == null) {
+        db.singleDelete(key);
+      } else {
+        db.singleDelete(columnFamily, key);
+      }
     } catch (final RocksDBException e) {
       LOGGER.warn("Unable to delete metadata", e);
     }
@@ -85,7 +106,7 @@ public class RocksDBMetadataTable {
 
   public void compact() {
     try {
-      db.compactRange();
+      compactRange();
     } catch (final RocksDBException e) {
       LOGGER.warn("Unable to force compacting metadata", e);
     }
@@ -96,10 +117,10 @@ public class RocksDBMetadataTable {
     final RocksIterator it;
     if (range.getEnd() == null) {
       options = null;
-      it = db.newIterator();
+      it = newIterator(null);
     } else {
       options = new ReadOptions().setIterateUpperBound(new Slice(range.getEndAsNextPrefix()));
-      it = db.newIterator(options);
+      it = newIterator(options);
     }
     if (range.getStart() == null) {
       it.seekToFirst();
@@ -122,20 +143,24 @@ public class RocksDBMetadataTable {
 
   private CloseableIterator<GeoWaveMetadata> prefixIterator(final byte[] prefix) {
     final ReadOptions options = new ReadOptions().setPrefixSameAsStart(true);
-    final RocksIterator it = db.newIterator(options);
+    final RocksIterator it = newIterator(options);
     it.seek(prefix);
     return new RocksDBMetadataIterator(options, it, requiresTimestamp, visibilityEnabled);
   }
 
   public CloseableIterator<GeoWaveMetadata> iterator() {
-    final RocksIterator it = db.newIterator();
+    final RocksIterator it = newIterator(null);
     it.seekToFirst();
     return new RocksDBMetadataIterator(it, requiresTimestamp, visibilityEnabled);
   }
 
   public void put(final byte[] key, final byte[] value) {
     try {
-      db.put(key, value);
+      if (columnFamily == null) {
+        db.put(key, value);
+      } else {
+        db.put(columnFamily, key, value);
+      }
     } catch (final RocksDBException e) {
       LOGGER.warn("Unable to add metadata", e);
     }
@@ -144,14 +169,32 @@ public class RocksDBMetadataTable {
   public void flush() {
     if (compactOnWrite) {
       try {
-        db.compactRange();
+        compactRange();
       } catch (final RocksDBException e) {
         LOGGER.warn("Unable to compact metadata", e);
       }
     }
   }
 
+  private RocksIterator newIterator(final ReadOptions options) {
+    if (columnFamily == null) {
+      return options == null ? db.newIterator() : db.newIterator(options);
+    }
+    return options == null ? db.newIterator(columnFamily) : db.newIterator(columnFamily, options);
+  }
+
+  private void compactRange() throws RocksDBException {
+    if (columnFamily == null) {
+      db.compactRange();
+    } else {
+      db.compactRange(columnFamily);
+    }
+  }
+
   public void close() {
-    db.close();
+    // a shared instance is closed along with the column family store
+    if (columnFamily == null) {
+      db.close();
+    }
   }
 }
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.rocksdb.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import org.apache.commons.io.FileUtils;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.IngestExternalFileOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.SstFileWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * Loads the entries written to a table by sorting them into runs of bounded size in memory and
+ * writing each run to an SST file, which is then ingested into the table. Unlike writes through the
+ * write ahead log and memtable, which are rewritten by every flush and compaction, the data of an
+ * ingested file is written once, and a file that doesn't overlap the data of the table is placed
+ * directly in the bottommost level that it can be.
+ *
+ * <p> Entries are only visible once they have been ingested, and a later entry with the same key
+ * replaces an earlier one, so this is meant for loading data rather than for tables that are being
+ * queried or deleted from while they are written. Files that were written but not ingested, for
+ * example because ingesting them failed before the table was closed, are picked up by the next
+ * loader of the directory and ingested ahead of its own files.
+ */
+public class RocksDBSstFileLoader {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RocksDBSstFileLoader.class);
+  /** The directory, within the directory of a table, that holds the files waiting to be ingested */
+  public static final String DIRECTORY_NAME = "sst_ingest";
+  private static final String FILE_PREFIX = "run_";
+  private static final String FILE_SUFFIX = ".sst";
+
+  private final String directory;
+  private final Options options;
+  private long maxRunSize;
+  private TreeMap<byte[], byte[]> run = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+  private long runSize = 0;
+  private int fileCount = 0;
+  private final List<String> files = new ArrayList<>();
+
+  /**
+   * @param directory the directory to write the SST files to
+   * @param options the options of the table, which determine the format of the files
+   * @param maxRunSize the size in bytes of the keys and values to sort in memory for each file
+   */
+  public RocksDBSstFileLoader(
+      final String directory,
+      final Options options,
+      final long maxRunSize) {
+    this.directory = directory;
+    this.options = options;
+    this.maxRunSize = maxRunSize;
+    final TreeMap<Integer, String> existingFiles = getFiles(directory);
+    if (!existingFiles.isEmpty()) {
+      files.addAll(existingFiles.values());
+      fileCount = existingFiles.lastKey() + 1;
+    }
+  }
+
+  /**
+   * @param directory the directory of SST files
+   * @return the files in the directory that are waiting to be ingested, by the order they were
+   *         written in
+   */
+  private static TreeMap<Integer, String> getFiles(final String directory) {
+    final TreeMap<Integer, String> retVal = new TreeMap<>();
+    final File[] existingFiles = new File(directory).listFiles();
+    if (existingFiles == null) {
+      return retVal;
+    }
+    for (final File file : existingFiles) {
+      final String name = file.getName();
+      if (name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX)) {
+        try {
+          retVal.put(
+              Integer.parseInt(
+                  name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length())),
+              file.getAbsolutePath());
+        } catch (final NumberFormatException e) {
+          LOGGER.warn("Ignoring unexpected file '" + file.getAbsolutePath() + "'", e);
+        }
+      }
+    }
+    return retVal;
+  }
+
+  /**
+   * @param directory the directory of SST files
+   * @return whether the directory has files that are waiting to be ingested
+   */
+  public static boolean hasFiles(final String directory) {
+    return !getFiles(directory).isEmpty();
+  }
+
+  /**
+   * @param maxRunSize the size in bytes of the keys and values to sort in memory for each file
+   */
+  public synchronized void setMaxRunSize(final long maxRunSize) {
+    this.maxRunSize = maxRunSize;
+  }
+
+  /**
+   * Add an entry to the current run, writing the run to a file once it is full.
+   */
+  public synchronized void put(final byte[] key, final byte[] value) throws RocksDBException {
+    final byte[] previous = run.put(key, value);
+    runSize += (previous == null) ? key.length + value.length : value.length - previous.length;
+    if (runSize >= maxRunSize) {
+      writeRun();
+    }
+  }
+
+  private void writeRun() throws RocksDBException {
+    if (run.isEmpty()) {
+      return;
+    }
+    final File dir = new File(directory);
+    if (!dir.exists() && !dir.mkdirs()) {
+      LOGGER.error("Unable to create directory for SST files '" + directory + "'");
+    }
+    final String file =
+        new File(dir, FILE_PREFIX + (fileCount++) + FILE_SUFFIX).getAbsolutePath();
+    try (EnvOptions envOptions = new EnvOptions();
+        SstFileWriter writer = new SstFileWriter(envOptions, options)) {
+      writer.open(file);
+      for (final Entry<byte[], byte[]> e : run.entrySet()) {
+        writer.put(e.getKey(), e.getValue());
+      }
+      writer.finish();
+    }
+    files.add(file);
+    run = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+    runSize = 0;
+  }
+
+  /**
+   * Write the current run and ingest every file that has been written into the table. If ingesting
+   * a file fails, it and the files after it are ingested by the next call.
+   *
+   * @param db the RocksDB instance of the table
+   * @param columnFamily the column family of the table
+   */
+  public synchronized void ingest(final RocksDB db, final ColumnFamilyHandle columnFamily)
+      throws RocksDBException {
+    writeRun();
+    if (files.isEmpty()) {
+      return;
+    }
+    try (IngestExternalFileOptions ingestOptions = new IngestExternalFileOptions()) {
+      // the files are only needed until they are ingested, so link them rather than copying them
+      ingestOptions.setMoveFiles(true);
+      // the runs may overlap one another, ingesting them in the order they were written keeps the
+      // latest value of a key that is in more than one of them
+      while (!files.isEmpty()) {
+        db.ingestExternalFile(columnFamily, Collections.singletonList(files.get(0)), ingestOptions);
+        files.remove(0);
+      }
+    }
+    FileUtils.deleteQuietly(new File(directory));
+  }
+}
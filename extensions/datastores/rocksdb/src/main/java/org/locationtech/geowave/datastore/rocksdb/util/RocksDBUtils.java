@@ -8,11 +8,6 @@
  */
 package org.locationtech.geowave.datastore.rocksdb.util;
 
-import java.io.File;
-import java.io.Serializable;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.Iterator;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
@@ -21,11 +16,8 @@ import org.locationtech.geowave.core.index.ByteArrayUtils;
 import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
 import org.locationtech.geowave.core.store.adapter.RowMergingDataAdapter;
 import org.locationtech.geowave.core.store.base.dataidx.DataIndexUtils;
-import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.operations.MetadataType;
 import org.locationtech.geowave.core.store.operations.RangeReaderParams;
-import com.google.common.collect.Streams;
-import com.google.common.primitives.UnsignedBytes;
 
 public class RocksDBUtils {
   protected static final int MAX_ROWS_FOR_PAGINATION = 1000000;
@@ -110,10 +102,11 @@ public class RocksDBUtils {
         requiresTimestamp);
   }
 
-  public static Set<ByteArray> getPartitions(final String directory, final String tableNamePrefix) {
-    return Arrays.stream(
-        new File(directory).list((dir, name) -> name.startsWith(tableNamePrefix))).map(
-            str -> str.length() > (tableNamePrefix.length() + 1)
+  public static Set<ByteArray> getPartitions(
+      final RocksDBClient client,
+      final String tableNamePrefix) {
+    return client.getIndexTableNames(tableNamePrefix).stream().map(
+        str -> str.length() > (tableNamePrefix.length() + 1)
                 ? new ByteArray(
                     ByteArrayUtils.byteArrayFromString(str.substring(tableNamePrefix.length() + 1)))
                 : new ByteArray()).collect(Collectors.toSet());
@@ -129,59 +122,10 @@ public class RocksDBUtils {
         && (params.getMaxResolutionSubsamplingPerDimension().length > 0);
   }
 
-  public static Iterator<GeoWaveRow> sortBySortKey(final Iterator<GeoWaveRow> it) {
-    return Streams.stream(it).sorted(SortKeyOrder.SINGLETON).iterator();
-  }
-
   public static Pair<Boolean, Boolean> isGroupByRowAndIsSortByTime(
       final RangeReaderParams<?> readerParams,
       final short adapterId) {
     final boolean sortByTime = isSortByTime(readerParams.getAdapterStore().getAdapter(adapterId));
     return Pair.of(readerParams.isMixedVisibility() || sortByTime, sortByTime);
   }
-
-  private static class SortKeyOrder implements Comparator<GeoWaveRow>, Serializable {
-    private static SortKeyOrder SINGLETON = new SortKeyOrder();
-    private static final long serialVersionUID = 23275155231L;
-
-    @Override
-    public int compare(final GeoWaveRow o1, final GeoWaveRow o2) {
-      if (o1 == o2) {
-        return 0;
-      }
-      if (o1 == null) {
-        return 1;
-      }
-      if (o2 == null) {
-        return -1;
-      }
-      byte[] otherComp = o2.getSortKey() == null ? new byte[0] : o2.getSortKey();
-      byte[] thisComp = o1.getSortKey() == null ? new byte[0] : o1.getSortKey();
-
-      int comp = UnsignedBytes.lexicographicalComparator().compare(thisComp, otherComp);
-      if (comp != 0) {
-        return comp;
-      }
-      otherComp = o2.getPartitionKey() == null ? new byte[0] : o2.getPartitionKey();
-      thisComp = o1.getPartitionKey() == null ? new byte[0] : o1.getPartitionKey();
-
-      comp = UnsignedBytes.lexicographicalComparator().compare(thisComp, otherComp);
-      if (comp != 0) {
-        return comp;
-      }
-      comp = Short.compare(o1.getAdapterId(), o2.getAdapterId());
-      if (comp != 0) {
-        return comp;
-      }
-      otherComp = o2.getDataId() == null ? new byte[0] : o2.getDataId();
-      thisComp = o1.getDataId() == null ? new byte[0] : o1.getDataId();
-
-      comp = UnsignedBytes.lexicographicalComparator().compare(thisComp, otherComp);
-
-      if (comp != 0) {
-        return comp;
-      }
-      return Integer.compare(o1.getNumberOfDuplicates(), o2.getNumberOfDuplicates());
-    }
-  }
 }
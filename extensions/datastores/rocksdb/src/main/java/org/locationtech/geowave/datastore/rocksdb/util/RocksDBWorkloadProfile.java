@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.rocksdb.util;
+
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.DBOptions;
+import org.rocksdb.MutableColumnFamilyOptions;
+import org.rocksdb.MutableColumnFamilyOptionsInterface;
+import org.rocksdb.Options;
+
+/**
+ * Tuning of index and data index tables for the kind of workload a store serves. Every profile uses
+ * level style compaction so that a store can switch between profiles while it is open, in which
+ * case the compaction triggers, level sizing and memtables of the open tables are changed in place.
+ * The block size and bloom filters are part of the table format, so they apply to tables opened
+ * under the profile and to the files those tables write from then on.
+ */
+public enum RocksDBWorkloadProfile {
+  /**
+   * Write-once loads: automatic compaction and write stalls are disabled and compactions aren't
+   * limited in size as they are by {@code Options.prepareForBulkLoad()}, so data is only compacted
+   * on write or when the store is merged. Unlike {@code prepareForBulkLoad()} the tables keep the
+   * default number of levels rather than 2, because the number of levels can't be changed on open
+   * tables and a table with files on more levels than its options allow fails to open.
+   */
+  BULK_INGEST(false, 1 << 30, 256, 4, 0, 0),
+  /** Concurrent writes and queries: automatic compaction with the default RocksDB triggers. */
+  MIXED(true, 4, 64, 16, 10, 0),
+  /**
+   * Stores that are mostly queried: compaction keeps few files at L0, and larger blocks and read
+   * ahead favor the range scans of index queries.
+   */
+  READ_OPTIMIZED(true, 2, 128, 32, 10, 2);
+
+  private static final long KB = 1024L;
+  private static final long MB = 1024L * KB;
+  private static final int LEVEL_SIZE_MULTIPLIER = 10;
+  private static final int BULK_INGEST_WRITE_BUFFERS = 6;
+  private static final int WRITE_BUFFERS = 3;
+  // the RocksDB defaults for tables with automatic compaction
+  private static final int LEVEL0_SLOWDOWN_WRITES_TRIGGER = 20;
+  private static final int LEVEL0_STOP_WRITES_TRIGGER = 36;
+  private static final long SOFT_PENDING_COMPACTION_BYTES_LIMIT = 64 * 1024 * MB;
+  private static final long HARD_PENDING_COMPACTION_BYTES_LIMIT = 256 * 1024 * MB;
+  // the limit of Options.prepareForBulkLoad(), 0 leaves it at 25 times the target file size
+  private static final long BULK_INGEST_MAX_COMPACTION_BYTES = 1L << 60;
+
+  private final boolean autoCompactions;
+  private final int level0FileNumCompactionTrigger;
+  private final long targetFileSize;
+  private final long blockSize;
+  private final int bloomBitsPerKey;
+  private final long readaheadSize;
+
+  private RocksDBWorkloadProfile(
+      final boolean autoCompactions,
+      final int level0FileNumCompactionTrigger,
+      final int targetFileSizeMB,
+      final int blockSizeKB,
+      final int bloomBitsPerKey,
+      final int readaheadSizeMB) {
+    this.autoCompactions = autoCompactions;
+    this.level0FileNumCompactionTrigger = level0FileNumCompactionTrigger;
+    targetFileSize = targetFileSizeMB * MB;
+    blockSize = blockSizeKB * KB;
+    this.bloomBitsPerKey = bloomBitsPerKey;
+    readaheadSize = readaheadSizeMB * MB;
+  }
+
+  public boolean isAutoCompactions() {
+    return autoCompactions;
+  }
+
+  /**
+   * @return the read ahead size in bytes for range scans, 0 leaves it to RocksDB
+   */
+  public long getReadaheadSize() {
+    return readaheadSize;
+  }
+
+  /**
+   * Create the options of a table that has a RocksDB instance of its own.
+   *
+   * @param pointLookups whether the table is read by key, in which case it gets a bloom filter
+   * @return the options
+   */
+  public Options createOptions(final boolean pointLookups) {
+    final int cores = Runtime.getRuntime().availableProcessors();
+    try (DBOptions dbOptions = new DBOptions();
+        ColumnFamilyOptions columnFamilyOptions = createColumnFamilyOptions(null, pointLookups)) {
+      dbOptions.setCreateIfMissing(true);
+      dbOptions.setIncreaseParallelism(cores);
+      return new Options(dbOptions, columnFamilyOptions);
+    }
+  }
+
+  /**
+   * Create the options of a table.
+   *
+   * @param blockCache the block cache to use, or null for a block cache per table
+   * @param pointLookups whether the table is read by key, in which case it gets a bloom filter
+   * @return the options
+   */
+  public ColumnFamilyOptions createColumnFamilyOptions(
+      final Cache blockCache,
+      final boolean pointLookups) {
+    final BlockBasedTableConfig tableConfig = new BlockBasedTableConfig();
+    if (blockCache != null) {
+      tableConfig.setBlockCache(blockCache);
+      tableConfig.setCacheIndexAndFilterBlocks(true);
+      tableConfig.setPinL0FilterAndIndexBlocksInCache(true);
+    }
+    tableConfig.setBlockSize(blockSize);
+    // index tables are read by sort key range, which a bloom filter can't help with
+    if (pointLookups && (bloomBitsPerKey > 0)) {
+      tableConfig.setFilterPolicy(new BloomFilter(bloomBitsPerKey, false));
+    }
+    final ColumnFamilyOptions options = new ColumnFamilyOptions();
+    options.setMinWriteBufferNumberToMerge(1);
+    options.setTableFormatConfig(tableConfig);
+    return applyMutableOptions(options);
+  }
+
+  /**
+   * @return the options that can be changed on tables that are already open
+   */
+  public MutableColumnFamilyOptions getMutableOptions() {
+    return applyMutableOptions(MutableColumnFamilyOptions.builder()).build();
+  }
+
+  private <T extends MutableColumnFamilyOptionsInterface<T>> T applyMutableOptions(
+      final T options) {
+    options.setDisableAutoCompactions(!autoCompactions);
+    options.setLevel0FileNumCompactionTrigger(level0FileNumCompactionTrigger);
+    options.setTargetFileSizeBase(targetFileSize);
+    options.setMaxBytesForLevelBase(targetFileSize * LEVEL_SIZE_MULTIPLIER);
+    if (autoCompactions) {
+      options.setLevel0SlowdownWritesTrigger(LEVEL0_SLOWDOWN_WRITES_TRIGGER);
+      options.setLevel0StopWritesTrigger(LEVEL0_STOP_WRITES_TRIGGER);
+      options.setSoftPendingCompactionBytesLimit(SOFT_PENDING_COMPACTION_BYTES_LIMIT);
+      options.setHardPendingCompactionBytesLimit(HARD_PENDING_COMPACTION_BYTES_LIMIT);
+      options.setMaxWriteBufferNumber(WRITE_BUFFERS);
+      options.setMaxCompactionBytes(0);
+    } else {
+      // never stall writes waiting on compactions that won't run
+      options.setLevel0SlowdownWritesTrigger(1 << 30);
+      options.setLevel0StopWritesTrigger(1 << 30);
+      options.setSoftPendingCompactionBytesLimit(0);
+      options.setHardPendingCompactionBytesLimit(0);
+      options.setMaxWriteBufferNumber(BULK_INGEST_WRITE_BUFFERS);
+      // merging a store compacts all of a table's files at once
+      options.setMaxCompactionBytes(BULK_INGEST_MAX_COMPACTION_BYTES);
+    }
+    return options;
+  }
+}
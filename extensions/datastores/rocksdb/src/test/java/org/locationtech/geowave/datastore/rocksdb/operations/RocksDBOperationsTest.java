@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.rocksdb.operations;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBOptions;
+import org.locationtech.geowave.datastore.rocksdb.util.RocksDBWorkloadProfile;
+
+public class RocksDBOperationsTest {
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static RocksDBWorkloadProfile getOpenWorkloadProfile(final RocksDBOptions options) {
+    final RocksDBOperations operations = new RocksDBOperations(options);
+    try {
+      return operations.getClient().getWorkloadProfile();
+    } finally {
+      operations.close();
+    }
+  }
+
+  @Test
+  public void testMergedWorkloadProfile() {
+    final RocksDBOptions options = new RocksDBOptions("test");
+    options.setDirectory(tempFolder.getRoot().getAbsolutePath());
+    options.setWorkloadProfile(RocksDBWorkloadProfile.BULK_INGEST);
+    options.setMergedWorkloadProfile(RocksDBWorkloadProfile.READ_OPTIMIZED);
+    assertEquals(RocksDBWorkloadProfile.BULK_INGEST, getOpenWorkloadProfile(options));
+
+    final RocksDBOperations operations = new RocksDBOperations(options);
+    try {
+      operations.compactData();
+      assertEquals(
+          RocksDBWorkloadProfile.READ_OPTIMIZED,
+          operations.getClient().getWorkloadProfile());
+    } finally {
+      operations.close();
+    }
+    // the store is reopened with the profile it switched to once it was merged
+    assertEquals(RocksDBWorkloadProfile.READ_OPTIMIZED, getOpenWorkloadProfile(options));
+
+    options.setMergedWorkloadProfile(null);
+    assertEquals(RocksDBWorkloadProfile.BULK_INGEST, getOpenWorkloadProfile(options));
+  }
+}
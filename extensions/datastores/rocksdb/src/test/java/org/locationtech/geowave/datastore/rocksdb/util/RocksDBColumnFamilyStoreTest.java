@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.rocksdb.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.locationtech.geowave.datastore.rocksdb.util.RocksDBColumnFamilyStore.TableType;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import com.google.common.primitives.Ints;
+
+public class RocksDBColumnFamilyStoreTest {
+  private static final int BLOCK_CACHE_SIZE_MB = 8;
+  private static final int WRITE_BUFFER_BUDGET_MB = 8;
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private RocksDBColumnFamilyStore createStore() throws IOException {
+    return new RocksDBColumnFamilyStore(
+        new File(tempFolder.getRoot(), RocksDBColumnFamilyStore.DIRECTORY_NAME).getAbsolutePath(),
+        BLOCK_CACHE_SIZE_MB,
+        WRITE_BUFFER_BUDGET_MB,
+        RocksDBWorkloadProfile.BULK_INGEST);
+  }
+
+  @Test
+  public void testReopen() throws IOException, RocksDBException {
+    RocksDBColumnFamilyStore store = createStore();
+    try {
+      assertNull(store.getColumnFamily(TableType.INDEX, "type_index", false));
+      final ColumnFamilyHandle handle = store.getColumnFamily(TableType.INDEX, "type_index", true);
+      store.getDb().put(handle, new byte[] {1}, new byte[] {2});
+      store.getColumnFamily(TableType.METADATA, "ADAPTER", true);
+    } finally {
+      store.close();
+    }
+
+    store = createStore();
+    try {
+      store.getDb();
+      assertTrue(store.hasTable(TableType.INDEX, "type_index"));
+      assertTrue(store.hasTable(TableType.METADATA, "ADAPTER"));
+      assertFalse(store.hasTable(TableType.DATA_INDEX, "type_index"));
+      assertEquals(Collections.singleton("type_index"), store.getTableNames(TableType.INDEX));
+      final ColumnFamilyHandle handle = store.getColumnFamily(TableType.INDEX, "type_index", false);
+      assertArrayEquals(new byte[] {2}, store.getDb().get(handle, new byte[] {1}));
+
+      store.dropTable(TableType.INDEX, "type_index");
+      assertFalse(store.hasTable(TableType.INDEX, "type_index"));
+      assertTrue(store.getTableNames(TableType.INDEX).isEmpty());
+    } finally {
+      store.close();
+    }
+  }
+
+  @Test
+  public void testWorkloadProfile() throws IOException, RocksDBException {
+    final RocksDBColumnFamilyStore store = createStore();
+    try {
+      final ColumnFamilyHandle bulkHandle =
+          store.getColumnFamily(TableType.INDEX, "type_index", true);
+      store.getDb().put(bulkHandle, new byte[] {1}, new byte[] {2});
+      store.setWorkloadProfile(RocksDBWorkloadProfile.READ_OPTIMIZED);
+      // tables created before and after the switch are both usable
+      final ColumnFamilyHandle readHandle =
+          store.getColumnFamily(TableType.DATA_INDEX, "type_index", true);
+      store.getDb().put(readHandle, new byte[] {3}, new byte[] {4});
+      store.getDb().compactRange(bulkHandle);
+      assertArrayEquals(new byte[] {2}, store.getDb().get(bulkHandle, new byte[] {1}));
+      assertArrayEquals(new byte[] {4}, store.getDb().get(readHandle, new byte[] {3}));
+    } finally {
+      store.close();
+    }
+  }
+
+  @Test
+  public void testImportTable() throws IOException, RocksDBException {
+    final int entries = 25000;
+    final File tableDirectory = tempFolder.newFolder("type_index");
+    RocksDB.loadLibrary();
+    try (Options options = new Options().setCreateIfMissing(true);
+        RocksDB tableDb = RocksDB.open(options, tableDirectory.getAbsolutePath())) {
+      for (int i = 0; i < entries; i++) {
+        tableDb.put(Ints.toByteArray(i), Ints.toByteArray(-i));
+      }
+    }
+    final RocksDBColumnFamilyStore store = createStore();
+    try {
+      assertEquals(
+          entries,
+          store.importTable(TableType.INDEX, "type_index", tableDirectory.getAbsolutePath()));
+      final ColumnFamilyHandle handle = store.getColumnFamily(TableType.INDEX, "type_index", false);
+      int count = 0;
+      try (RocksIterator it = store.getDb().newIterator(handle)) {
+        for (it.seekToFirst(); it.isValid(); it.next()) {
+          assertEquals(count, Ints.fromByteArray(it.key()));
+          assertEquals(-count, Ints.fromByteArray(it.value()));
+          count++;
+        }
+      }
+      assertEquals(entries, count);
+    } finally {
+      store.close();
+    }
+  }
+}
@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.rocksdb.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveValueImpl;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteOptions;
+import com.google.common.primitives.Ints;
+
+public class RocksDBIndexTableTest {
+  private static final int ENTRIES = 100;
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @BeforeClass
+  public static void loadLibrary() {
+    RocksDB.loadLibrary();
+  }
+
+  @Test
+  public void testMultiRangeIterator() throws IOException {
+    final File directory = new File(tempFolder.getRoot(), RocksDBColumnFamilyStore.DIRECTORY_NAME);
+    final RocksDBColumnFamilyStore store =
+        new RocksDBColumnFamilyStore(
+            directory.getAbsolutePath(),
+            8,
+            8,
+            RocksDBWorkloadProfile.MIXED);
+    try (WriteOptions writeOptions = new WriteOptions()) {
+      final RocksDBIndexTable table =
+          new RocksDBIndexTable(
+              store,
+              "type_index",
+              writeOptions,
+              (short) 0,
+              new byte[0],
+              false,
+              false,
+              false,
+              1);
+      for (int i = 0; i < ENTRIES; i++) {
+        table.add(
+            Ints.toByteArray(i),
+            new byte[] {(byte) i},
+            (short) 0,
+            new GeoWaveValueImpl(new byte[] {1}, new byte[0], Ints.toByteArray(-i)));
+      }
+      // the ranges are out of order, the first two overlap and the last is past the end of the
+      // table
+      final List<ByteArrayRange> ranges =
+          Arrays.asList(
+              new ByteArrayRange(Ints.toByteArray(50), Ints.toByteArray(59)),
+              new ByteArrayRange(Ints.toByteArray(15), Ints.toByteArray(24)),
+              new ByteArrayRange(Ints.toByteArray(10), Ints.toByteArray(19)),
+              new ByteArrayRange(Ints.toByteArray(90), null),
+              new ByteArrayRange(Ints.toByteArray(200), Ints.toByteArray(210)));
+      final List<Integer> expected = new ArrayList<>();
+      for (int i = 10; i < 25; i++) {
+        expected.add(i);
+      }
+      for (int i = 50; i < 60; i++) {
+        expected.add(i);
+      }
+      for (int i = 90; i < ENTRIES; i++) {
+        expected.add(i);
+      }
+      final List<Integer> actual = new ArrayList<>();
+      try (CloseableIterator<GeoWaveRow> it = table.iterator(ranges)) {
+        while (it.hasNext()) {
+          final GeoWaveRow row = it.next();
+          final int sortKey = Ints.fromByteArray(row.getSortKey());
+          assertEquals(-sortKey, Ints.fromByteArray(row.getFieldValues()[0].getValue()));
+          actual.add(sortKey);
+        }
+        assertFalse(it.hasNext());
+      }
+      // each row is returned once, in sort key order, even though the ranges overlap
+      assertEquals(expected, actual);
+      table.close();
+    } finally {
+      store.close();
+    }
+  }
+
+  @Test
+  public void testSstFileDeletes() throws IOException {
+    final File directory = new File(tempFolder.getRoot(), RocksDBColumnFamilyStore.DIRECTORY_NAME);
+    final RocksDBColumnFamilyStore store =
+        new RocksDBColumnFamilyStore(
+            directory.getAbsolutePath(),
+            8,
+            8,
+            RocksDBWorkloadProfile.BULK_INGEST);
+    try (WriteOptions writeOptions = new WriteOptions()) {
+      final RocksDBIndexTable table =
+          new RocksDBIndexTable(
+              store,
+              "type_index",
+              writeOptions,
+              (short) 0,
+              new byte[0],
+              false,
+              false,
+              false,
+              1);
+      // a small run size so that some of the rows are in files and some are still in memory
+      table.setSstFileRunSize(1024);
+      for (int i = 0; i < ENTRIES; i++) {
+        table.add(
+            Ints.toByteArray(i),
+            new byte[] {(byte) i},
+            (short) 0,
+            new GeoWaveValueImpl(new byte[] {1}, new byte[0], Ints.toByteArray(-i)));
+      }
+      // none of the rows have been ingested yet, the deletes must not be undone by ingesting them
+      table.delete(Ints.toByteArray(0), new byte[] {0});
+      table.delete(Ints.toByteArray(ENTRIES - 1), new byte[] {(byte) (ENTRIES - 1)});
+      table.add(
+          Ints.toByteArray(ENTRIES),
+          new byte[] {(byte) ENTRIES},
+          (short) 0,
+          new GeoWaveValueImpl(new byte[] {1}, new byte[0], Ints.toByteArray(-ENTRIES)));
+      table.flush();
+      final List<Integer> expected = new ArrayList<>();
+      for (int i = 1; i < (ENTRIES - 1); i++) {
+        expected.add(i);
+      }
+      expected.add(ENTRIES);
+      final List<Integer> actual = new ArrayList<>();
+      try (CloseableIterator<GeoWaveRow> it = table.iterator()) {
+        while (it.hasNext()) {
+          actual.add(Ints.fromByteArray(it.next().getSortKey()));
+        }
+      }
+      assertEquals(expected, actual);
+      table.close();
+    } finally {
+      store.close();
+    }
+  }
+
+  @Test
+  public void testLeftoverSstFiles() throws IOException, RocksDBException {
+    final File directory = new File(tempFolder.getRoot(), RocksDBColumnFamilyStore.DIRECTORY_NAME);
+    final String sstDirectory;
+    RocksDBColumnFamilyStore store =
+        new RocksDBColumnFamilyStore(
+            directory.getAbsolutePath(),
+            8,
+            8,
+            RocksDBWorkloadProfile.BULK_INGEST);
+    try (WriteOptions writeOptions = new WriteOptions()) {
+      final RocksDBIndexTable table =
+          new RocksDBIndexTable(
+              store,
+              "type_index",
+              writeOptions,
+              (short) 0,
+              new byte[0],
+              false,
+              false,
+              false,
+              1);
+      table.setSstFileRunSize(1024);
+      for (int i = 0; i < ENTRIES; i++) {
+        table.add(
+            Ints.toByteArray(i),
+            new byte[] {(byte) i},
+            (short) 0,
+            new GeoWaveValueImpl(new byte[] {1}, new byte[0], Ints.toByteArray(-i)));
+      }
+      sstDirectory = table.getSubDirectory() + "/" + RocksDBSstFileLoader.DIRECTORY_NAME;
+      // the table is never flushed or closed, as if the process had stopped during the load
+    } finally {
+      store.close();
+    }
+    assertTrue(RocksDBSstFileLoader.hasFiles(sstDirectory));
+
+    store =
+        new RocksDBColumnFamilyStore(
+            directory.getAbsolutePath(),
+            8,
+            8,
+            RocksDBWorkloadProfile.MIXED);
+    // the store is opened before its tables, as the client does, so that they find their data
+    store.getDb();
+    try (WriteOptions writeOptions = new WriteOptions()) {
+      final RocksDBIndexTable table =
+          new RocksDBIndexTable(
+              store,
+              "type_index",
+              writeOptions,
+              (short) 0,
+              new byte[0],
+              false,
+              false,
+              false,
+              1);
+      // the files that were written are ingested as soon as the table is opened again
+      final List<Integer> actual = new ArrayList<>();
+      try (CloseableIterator<GeoWaveRow> it = table.iterator()) {
+        while (it.hasNext()) {
+          actual.add(Ints.fromByteArray(it.next().getSortKey()));
+        }
+      }
+      assertFalse(RocksDBSstFileLoader.hasFiles(sstDirectory));
+      assertFalse(actual.isEmpty());
+      for (int i = 0; i < actual.size(); i++) {
+        assertEquals(i, actual.get(i).intValue());
+      }
+      table.close();
+    } finally {
+      store.close();
+    }
+  }
+}
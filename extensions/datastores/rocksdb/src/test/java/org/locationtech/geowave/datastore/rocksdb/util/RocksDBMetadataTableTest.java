@@ -11,6 +11,7 @@ package org.locationtech.geowave.datastore.rocksdb.util;
 import org.junit.Test;
 import org.locationtech.geowave.core.store.entities.GeoWaveMetadata;
 import org.mockito.Mockito;
+import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 
@@ -55,4 +56,20 @@ public class RocksDBMetadataTableTest {
     Mockito.verify(db).singleDelete(keyToRemove);
   }
 
+  @Test
+  public void testColumnFamily() throws RocksDBException {
+    final RocksDB db = Mockito.mock(RocksDB.class);
+    final ColumnFamilyHandle columnFamily = Mockito.mock(ColumnFamilyHandle.class);
+    final RocksDBMetadataTable metadataTable =
+        new RocksDBMetadataTable(db, columnFamily, false, false, false);
+    final byte[] value = new byte[] {123};
+    metadataTable.add(new GeoWaveMetadata(new byte[] {4}, new byte[] {2}, null, value));
+    Mockito.verify(db).put(columnFamily, new byte[] {4, 2, 1}, value);
+    metadataTable.remove(new byte[] {1, 2, 3});
+    Mockito.verify(db).singleDelete(columnFamily, new byte[] {1, 2, 3});
+    // the shared instance must outlive the table
+    metadataTable.close();
+    Mockito.verify(db, Mockito.never()).close();
+  }
+
 }
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.rocksdb.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import com.google.common.primitives.Ints;
+
+public class RocksDBSstFileLoaderTest {
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testIngest() throws IOException, RocksDBException {
+    final int entries = 10000;
+    final List<Integer> keys = new ArrayList<>();
+    for (int i = 0; i < entries; i++) {
+      keys.add(i);
+    }
+    Collections.shuffle(keys, new Random(42));
+    final File tableDirectory = tempFolder.newFolder("type_index");
+    final File sstDirectory = new File(tableDirectory, RocksDBSstFileLoader.DIRECTORY_NAME);
+    RocksDB.loadLibrary();
+    try (Options options = new Options().setCreateIfMissing(true);
+        RocksDB db = RocksDB.open(options, tableDirectory.getAbsolutePath())) {
+      // a small run size so that the entries are split across many overlapping files
+      final RocksDBSstFileLoader loader =
+          new RocksDBSstFileLoader(sstDirectory.getAbsolutePath(), options, 8 * 1024);
+      for (final int key : keys) {
+        loader.put(Ints.toByteArray(key), Ints.toByteArray(-key));
+      }
+      // later values of a key replace earlier ones, even when they are in different files
+      loader.put(Ints.toByteArray(keys.get(0)), Ints.toByteArray(entries));
+      loader.ingest(db, db.getDefaultColumnFamily());
+      assertFalse(sstDirectory.exists());
+
+      int count = 0;
+      try (RocksIterator it = db.newIterator()) {
+        for (it.seekToFirst(); it.isValid(); it.next()) {
+          assertEquals(count, Ints.fromByteArray(it.key()));
+          final int expected = count == keys.get(0) ? entries : -count;
+          assertEquals(expected, Ints.fromByteArray(it.value()));
+          count++;
+        }
+      }
+      assertEquals(entries, count);
+    }
+  }
+
+  @Test
+  public void testLeftoverFiles() throws IOException, RocksDBException {
+    final int entries = 1000;
+    final File tableDirectory = tempFolder.newFolder("type_index");
+    final File sstDirectory = new File(tableDirectory, RocksDBSstFileLoader.DIRECTORY_NAME);
+    RocksDB.loadLibrary();
+    try (Options options = new Options().setCreateIfMissing(true);
+        RocksDB db = RocksDB.open(options, tableDirectory.getAbsolutePath())) {
+      final RocksDBSstFileLoader loader =
+          new RocksDBSstFileLoader(sstDirectory.getAbsolutePath(), options, 1024);
+      for (int i = 0; i < entries; i++) {
+        loader.put(Ints.toByteArray(i), Ints.toByteArray(-i));
+      }
+      // the loader is dropped before its files are ingested, as if the table had failed to close
+      assertTrue(RocksDBSstFileLoader.hasFiles(sstDirectory.getAbsolutePath()));
+
+      final RocksDBSstFileLoader nextLoader =
+          new RocksDBSstFileLoader(sstDirectory.getAbsolutePath(), options, 1024);
+      // the files of the next loader are ingested after the ones that were left behind
+      nextLoader.put(Ints.toByteArray(0), Ints.toByteArray(entries));
+      nextLoader.ingest(db, db.getDefaultColumnFamily());
+      assertFalse(sstDirectory.exists());
+
+      int count = 0;
+      try (RocksIterator it = db.newIterator()) {
+        for (it.seekToFirst(); it.isValid(); it.next()) {
+          assertEquals(count, Ints.fromByteArray(it.key()));
+          assertEquals(count == 0 ? entries : -count, Ints.fromByteArray(it.value()));
+          count++;
+        }
+      }
+      // only the entries of the last run of the first loader were never written to a file
+      assertTrue(count > 0);
+      assertTrue(count < entries);
+    }
+  }
+}
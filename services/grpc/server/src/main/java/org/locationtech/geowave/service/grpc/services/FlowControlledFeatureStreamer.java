@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.service.grpc.services;
+
+import java.util.Date;
+import org.locationtech.geowave.core.geotime.util.TWKBWriter;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.service.grpc.protobuf.FeatureAttributeProtos;
+import org.locationtech.geowave.service.grpc.protobuf.FeatureBatchProtos;
+import org.locationtech.geowave.service.grpc.protobuf.FeatureProtos;
+import org.locationtech.geowave.service.grpc.protobuf.FeatureValuesProtos;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKBWriter;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.util.Timestamps;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Streams the results of a query to a gRPC client while respecting flow control. Messages are only
+ * produced while the call is ready to accept them, and the rest of the results are sent from the
+ * call's on-ready handler, so a slow client holds back the query rather than forcing the server to
+ * buffer every result. The query iterator is closed when the stream completes, fails, or is
+ * cancelled by the client.
+ *
+ * @param <T> the type of message sent to the client
+ */
+abstract class FlowControlledFeatureStreamer<T extends MessageLite> implements Runnable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FlowControlledFeatureStreamer.class);
+
+  private final String callName;
+  private final ServerCallStreamObserver<T> observer;
+  private final CloseableIterator<SimpleFeature> iterator;
+  private boolean finished = false;
+  private long startTime;
+  private long featureCount = 0;
+  private long messageCount = 0;
+  private long byteCount = 0;
+
+  protected FlowControlledFeatureStreamer(
+      final String callName,
+      final StreamObserver<T> responseObserver,
+      final CloseableIterator<SimpleFeature> iterator) {
+    this.callName = callName;
+    observer = (ServerCallStreamObserver<T>) responseObserver;
+    this.iterator = iterator;
+  }
+
+  /**
+   * Registers the flow control handlers and sends as many messages as the call is currently ready
+   * for. This must be called from the service method before it returns.
+   */
+  public void start() {
+    startTime = System.currentTimeMillis();
+    observer.setOnCancelHandler(this::cancel);
+    observer.setOnReadyHandler(this);
+    run();
+  }
+
+  @Override
+  public synchronized void run() {
+    if (finished) {
+      return;
+    }
+    try {
+      while (observer.isReady() && hasNextMessage()) {
+        final T message = nextMessage();
+        messageCount++;
+        byteCount += message.getSerializedSize();
+        observer.onNext(message);
+      }
+      if (!hasNextMessage()) {
+        finish();
+        observer.onCompleted();
+      }
+    } catch (final RuntimeException e) {
+      LOGGER.error("Exception encountered streaming results of " + callName, e);
+      finish();
+      observer.onError(e);
+    }
+  }
+
+  private synchronized void cancel() {
+    if (!finished) {
+      LOGGER.debug("{} cancelled by client", callName);
+      finish();
+    }
+  }
+
+  private void finish() {
+    finished = true;
+    iterator.close();
+    if (LOGGER.isDebugEnabled()) {
+      final long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+      LOGGER.debug(
+          "{} sent {} features in {} messages ({} bytes) in {} ms ({} features/sec)",
+          callName,
+          featureCount,
+          messageCount,
+          byteCount,
+          elapsed,
+          (featureCount * 1000) / elapsed);
+    }
+  }
+
+  protected boolean hasNextMessage() {
+    return hasNextFeature();
+  }
+
+  protected final boolean hasNextFeature() {
+    return iterator.hasNext();
+  }
+
+  protected final SimpleFeature nextFeature() {
+    featureCount++;
+    return iterator.next();
+  }
+
+  /**
+   * Builds the next message to send, this is only called when {@link #hasNextMessage()} is true.
+   */
+  protected abstract T nextMessage();
+
+  protected abstract void setGeometryValue(
+      Geometry geometry,
+      FeatureAttributeProtos.Builder attBuilder);
+
+  protected void setAttributeValue(
+      final Object value,
+      final FeatureAttributeProtos.Builder attBuilder) {
+    if (value instanceof String) {
+      attBuilder.setValString((String) value);
+    } else if (value instanceof Integer) {
+      attBuilder.setValInt32((Integer) value);
+    } else if (value instanceof Long) {
+      attBuilder.setValInt64((Long) value);
+    } else if (value instanceof Float) {
+      attBuilder.setValFloat((Float) value);
+    } else if (value instanceof Double) {
+      attBuilder.setValDouble((Double) value);
+    } else if (value instanceof Date) {
+      attBuilder.setValDate(Timestamps.fromMillis(((Date) value).getTime()));
+    } else if (value instanceof Geometry) {
+      setGeometryValue((Geometry) value, attBuilder);
+    }
+  }
+
+  /**
+   * Sends each feature as its own message with attributes keyed by name and WKB geometries.
+   */
+  static class SingleFeatureStreamer extends FlowControlledFeatureStreamer<FeatureProtos> {
+    private final WKBWriter wkbWriter = new WKBWriter();
+    private final FeatureProtos.Builder featureBuilder = FeatureProtos.newBuilder();
+    private final FeatureAttributeProtos.Builder attBuilder = FeatureAttributeProtos.newBuilder();
+
+    public SingleFeatureStreamer(
+        final String callName,
+        final StreamObserver<FeatureProtos> responseObserver,
+        final CloseableIterator<SimpleFeature> iterator) {
+      super(callName, responseObserver, iterator);
+    }
+
+    @Override
+    protected FeatureProtos nextMessage() {
+      final SimpleFeature feature = nextFeature();
+      final SimpleFeatureType type = feature.getFeatureType();
+      featureBuilder.clear();
+      for (int i = 0; i < type.getAttributeCount(); i++) {
+        attBuilder.clear();
+        setAttributeValue(feature.getAttribute(i), attBuilder);
+        featureBuilder.putAttributes(type.getDescriptor(i).getLocalName(), attBuilder.build());
+      }
+      return featureBuilder.build();
+    }
+
+    @Override
+    protected void setGeometryValue(
+        final Geometry geometry,
+        final FeatureAttributeProtos.Builder attBuilder) {
+      attBuilder.setValGeometry(ByteString.copyFrom(wkbWriter.write(geometry)));
+    }
+  }
+
+  /**
+   * Packs features of the same type into batches with the attribute names sent once per batch and
+   * geometries encoded as TWKB. A batch ends when it reaches the requested number of features, when
+   * its encoded size exceeds {@link #MAX_BATCH_BYTES}, or when the type of the results changes.
+   */
+  static class FeatureBatchStreamer extends FlowControlledFeatureStreamer<FeatureBatchProtos> {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 10000;
+    // keep each message well below the default 4 MB gRPC message limit
+    static final int MAX_BATCH_BYTES = 1024 * 1024;
+
+    private final int batchSize;
+    private final TWKBWriter twkbWriter = new TWKBWriter();
+    private final FeatureBatchProtos.Builder batchBuilder = FeatureBatchProtos.newBuilder();
+    private final FeatureValuesProtos.Builder valuesBuilder = FeatureValuesProtos.newBuilder();
+    private final FeatureAttributeProtos.Builder attBuilder = FeatureAttributeProtos.newBuilder();
+    // a feature of a different type that ended the previous batch
+    private SimpleFeature pending = null;
+
+    public FeatureBatchStreamer(
+        final String callName,
+        final StreamObserver<FeatureBatchProtos> responseObserver,
+        final CloseableIterator<SimpleFeature> iterator,
+        final int batchSize) {
+      super(callName, responseObserver, iterator);
+      this.batchSize = batchSize <= 0 ? DEFAULT_BATCH_SIZE : Math.min(batchSize, MAX_BATCH_SIZE);
+    }
+
+    @Override
+    protected boolean hasNextMessage() {
+      return (pending != null) || hasNextFeature();
+    }
+
+    @Override
+    protected FeatureBatchProtos nextMessage() {
+      batchBuilder.clear();
+      String typeName = null;
+      int batchBytes = 0;
+      while ((batchBuilder.getFeaturesCount() < batchSize)
+          && (batchBytes < MAX_BATCH_BYTES)
+          && hasNextMessage()) {
+        final SimpleFeature feature = pending != null ? pending : nextFeature();
+        pending = null;
+        final SimpleFeatureType type = feature.getFeatureType();
+        if (typeName == null) {
+          typeName = type.getTypeName();
+          batchBuilder.setTypeName(typeName);
+          for (int i = 0; i < type.getAttributeCount(); i++) {
+            batchBuilder.addAttributeNames(type.getDescriptor(i).getLocalName());
+          }
+        } else if (!typeName.equals(type.getTypeName())) {
+          pending = feature;
+          break;
+        }
+        valuesBuilder.clear();
+        valuesBuilder.setId(feature.getID());
+        for (int i = 0; i < type.getAttributeCount(); i++) {
+          attBuilder.clear();
+          setAttributeValue(feature.getAttribute(i), attBuilder);
+          valuesBuilder.addValues(attBuilder.build());
+        }
+        final FeatureValuesProtos values = valuesBuilder.build();
+        batchBytes += values.getSerializedSize();
+        batchBuilder.addFeatures(values);
+      }
+      return batchBuilder.build();
+    }
+
+    @Override
+    protected void setGeometryValue(
+        final Geometry geometry,
+        final FeatureAttributeProtos.Builder attBuilder) {
+      attBuilder.setValTwkbGeometry(ByteString.copyFrom(twkbWriter.write(geometry)));
+    }
+  }
+}
@@ -13,6 +13,7 @@ import java.time.Instant;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import org.geotools.data.DataUtilities;
 import org.geotools.data.simple.SimpleFeatureIterator;
 import org.geotools.data.store.ContentFeatureCollection;
 import org.geotools.feature.simple.SimpleFeatureBuilder;
@@ -29,6 +30,7 @@ import org.locationtech.geowave.core.geotime.store.query.api.SpatialTemporalCons
 import org.locationtech.geowave.core.geotime.store.query.api.VectorQueryBuilder;
 import org.locationtech.geowave.core.geotime.store.query.filter.SpatialQueryFilter.CompareOperation;
 import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.CloseableIteratorWrapper;
 import org.locationtech.geowave.core.store.adapter.InternalAdapterStore;
 import org.locationtech.geowave.core.store.adapter.PersistentAdapterStore;
 import org.locationtech.geowave.core.store.api.DataStore;
@@ -41,6 +43,7 @@ import org.locationtech.geowave.service.grpc.GeoWaveGrpcServiceOptions;
 import org.locationtech.geowave.service.grpc.GeoWaveGrpcServiceSpi;
 import org.locationtech.geowave.service.grpc.protobuf.CQLQueryParametersProtos;
 import org.locationtech.geowave.service.grpc.protobuf.FeatureAttributeProtos;
+import org.locationtech.geowave.service.grpc.protobuf.FeatureBatchProtos;
 import org.locationtech.geowave.service.grpc.protobuf.FeatureProtos;
 import org.locationtech.geowave.service.grpc.protobuf.GeoWaveReturnTypesProtos.StringResponseProtos;
 import org.locationtech.geowave.service.grpc.protobuf.SpatialQueryParametersProtos;
@@ -49,9 +52,10 @@ import org.locationtech.geowave.service.grpc.protobuf.TemporalConstraintsProtos;
 import org.locationtech.geowave.service.grpc.protobuf.VectorGrpc;
 import org.locationtech.geowave.service.grpc.protobuf.VectorIngestParametersProtos;
 import org.locationtech.geowave.service.grpc.protobuf.VectorQueryParametersProtos;
+import org.locationtech.geowave.service.grpc.services.FlowControlledFeatureStreamer.FeatureBatchStreamer;
+import org.locationtech.geowave.service.grpc.services.FlowControlledFeatureStreamer.SingleFeatureStreamer;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.io.WKBReader;
-import org.locationtech.jts.io.WKBWriter;
 import org.opengis.feature.simple.SimpleFeature;
 import org.opengis.feature.simple.SimpleFeatureType;
 import org.opengis.filter.Filter;
@@ -59,7 +63,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.threeten.extra.Interval;
 import com.beust.jcommander.ParameterException;
-import com.google.protobuf.ByteString;
 import com.google.protobuf.util.Timestamps;
 import io.grpc.BindableService;
 import io.grpc.stub.StreamObserver;
@@ -78,63 +81,52 @@ public class GeoWaveGrpcVectorService extends VectorGrpc.VectorImplBase implemen
   public void vectorQuery(
       final VectorQueryParametersProtos request,
       final StreamObserver<FeatureProtos> responseObserver) {
-    final String storeName = request.getStoreName();
-    final StoreLoader storeLoader = new StoreLoader(storeName);
-    // first check to make sure the data store exists
-    if (!storeLoader.loadFromConfig(GeoWaveGrpcServiceOptions.geowaveConfigFile)) {
-      throw new ParameterException("Cannot find store name: " + storeLoader.getStoreName());
-    }
-
-    GeoWaveGTDataStore gtStore = null;
+    final CloseableIterator<SimpleFeature> iterator;
     try {
-      gtStore = new GeoWaveGTDataStore(new GeoWavePluginConfig(storeLoader.getDataStorePlugin()));
-    } catch (final IOException | GeoWavePluginException e) {
-      LOGGER.error("Exception encountered instantiating GeoWaveGTDataStore", e);
+      iterator = queryFeatures(request);
+    } catch (final IOException | GeoWavePluginException | CQLException e) {
+      LOGGER.error("Exception encountered performing vector query", e);
       responseObserver.onError(e);
+      return;
     }
+    new SingleFeatureStreamer("vectorQuery", responseObserver, iterator).start();
+  }
 
-    Filter filter = null;
+  @Override
+  public void vectorQueryBatch(
+      final VectorQueryParametersProtos request,
+      final StreamObserver<FeatureBatchProtos> responseObserver) {
+    final CloseableIterator<SimpleFeature> iterator;
     try {
-      filter = ECQL.toFilter(request.getQuery());
-    } catch (final CQLException e) {
-      LOGGER.error("Exception encountered creating filter from CQL", e);
+      iterator = queryFeatures(request);
+    } catch (final IOException | GeoWavePluginException | CQLException e) {
+      LOGGER.error("Exception encountered performing vector query", e);
       responseObserver.onError(e);
+      return;
     }
+    new FeatureBatchStreamer(
+        "vectorQueryBatch",
+        responseObserver,
+        iterator,
+        request.getBatchSize()).start();
+  }
 
-    ContentFeatureCollection featureCollection = null;
-    try {
-      final String typeName = request.getTypeName();
-      featureCollection = gtStore.getFeatureSource(typeName).getFeatures(filter);
-    } catch (final IOException | NullPointerException e) {
-      LOGGER.error("Exception encountered getting feature collection", e);
-      responseObserver.onError(e);
+  private CloseableIterator<SimpleFeature> queryFeatures(final VectorQueryParametersProtos request)
+      throws IOException, GeoWavePluginException, CQLException {
+    final String storeName = request.getStoreName();
+    final StoreLoader storeLoader = new StoreLoader(storeName);
+    // first check to make sure the data store exists
+    if (!storeLoader.loadFromConfig(GeoWaveGrpcServiceOptions.geowaveConfigFile)) {
+      throw new ParameterException("Cannot find store name: " + storeLoader.getStoreName());
     }
 
-    try (final SimpleFeatureIterator iterator = featureCollection.features()) {
-
-      while (iterator.hasNext()) {
-        final SimpleFeature simpleFeature = iterator.next();
-        final SimpleFeatureType type = simpleFeature.getType();
-        final FeatureProtos.Builder b = FeatureProtos.newBuilder();
-        final FeatureAttributeProtos.Builder attBuilder = FeatureAttributeProtos.newBuilder();
-
-        for (int i = 0; i < type.getAttributeDescriptors().size(); i++) {
-          setAttributeBuilderValue(simpleFeature.getAttribute(i), attBuilder);
-          b.putAttributes(type.getAttributeDescriptors().get(i).getLocalName(), attBuilder.build());
-          /*
-           * b.putAttributes( type.getAttributeDescriptors().get( i).getLocalName(),
-           * simpleFeature.getAttribute(i) == null ? "" : simpleFeature.getAttribute(
-           * i).toString());
-           */
-        }
-        final FeatureProtos f = b.build();
-        responseObserver.onNext(f);
-      }
-      responseObserver.onCompleted();
-    } catch (final NullPointerException e) {
-      LOGGER.error("Exception encountered", e);
-      responseObserver.onError(e);
-    }
+    final GeoWaveGTDataStore gtStore =
+        new GeoWaveGTDataStore(new GeoWavePluginConfig(storeLoader.getDataStorePlugin()));
+    final Filter filter = ECQL.toFilter(request.getQuery());
+    final ContentFeatureCollection featureCollection =
+        gtStore.getFeatureSource(request.getTypeName()).getFeatures(filter);
+    final SimpleFeatureIterator iterator = featureCollection.features();
+    return new CloseableIteratorWrapper<>(() -> iterator.close(), DataUtilities.iterator(iterator));
   }
 
   @Override
@@ -348,7 +340,21 @@ public class GeoWaveGrpcVectorService extends VectorGrpc.VectorImplBase implemen
   public void cqlQuery(
       final CQLQueryParametersProtos request,
       final StreamObserver<FeatureProtos> responseObserver) {
+    new SingleFeatureStreamer("cqlQuery", responseObserver, queryFeatures(request)).start();
+  }
 
+  @Override
+  public void cqlQueryBatch(
+      final CQLQueryParametersProtos request,
+      final StreamObserver<FeatureBatchProtos> responseObserver) {
+    new FeatureBatchStreamer(
+        "cqlQueryBatch",
+        responseObserver,
+        queryFeatures(request),
+        request.getBaseParams().getBatchSize()).start();
+  }
+
+  private CloseableIterator<SimpleFeature> queryFeatures(final CQLQueryParametersProtos request) {
     final String cql = request.getCql();
     final String storeName = request.getBaseParams().getStoreName();
     final StoreLoader storeLoader = new StoreLoader(storeName);
@@ -379,31 +385,29 @@ public class GeoWaveGrpcVectorService extends VectorGrpc.VectorImplBase implemen
     if (indexName != null) {
       bldr = bldr.indexName(indexName);
     }
-    try (final CloseableIterator<SimpleFeature> iterator =
-        dataStore.query(bldr.constraints(bldr.constraintsFactory().cqlConstraints(cql)).build())) {
-
-      while (iterator.hasNext()) {
-        final SimpleFeature simpleFeature = iterator.next();
-        final SimpleFeatureType type = simpleFeature.getType();
-        final FeatureProtos.Builder b = FeatureProtos.newBuilder();
-        final FeatureAttributeProtos.Builder attBuilder = FeatureAttributeProtos.newBuilder();
-
-        for (int i = 0; i < type.getAttributeDescriptors().size(); i++) {
-          setAttributeBuilderValue(simpleFeature.getAttribute(i), attBuilder);
-          b.putAttributes(type.getAttributeDescriptors().get(i).getLocalName(), attBuilder.build());
-        }
-        final FeatureProtos f = b.build();
-        responseObserver.onNext(f);
-      }
-      responseObserver.onCompleted();
-    }
+    return dataStore.query(bldr.constraints(bldr.constraintsFactory().cqlConstraints(cql)).build());
   }
 
   @Override
   public void spatialQuery(
       final SpatialQueryParametersProtos request,
       final StreamObserver<FeatureProtos> responseObserver) {
+    new SingleFeatureStreamer("spatialQuery", responseObserver, queryFeatures(request)).start();
+  }
 
+  @Override
+  public void spatialQueryBatch(
+      final SpatialQueryParametersProtos request,
+      final StreamObserver<FeatureBatchProtos> responseObserver) {
+    new FeatureBatchStreamer(
+        "spatialQueryBatch",
+        responseObserver,
+        queryFeatures(request),
+        request.getBaseParams().getBatchSize()).start();
+  }
+
+  private CloseableIterator<SimpleFeature> queryFeatures(
+      final SpatialQueryParametersProtos request) {
     final String storeName = request.getBaseParams().getStoreName();
     final StoreLoader storeLoader = new StoreLoader(storeName);
 
@@ -438,33 +442,35 @@ public class GeoWaveGrpcVectorService extends VectorGrpc.VectorImplBase implemen
       LOGGER.error("Exception encountered creating query geometry", e);
     }
 
-    try (final CloseableIterator<SimpleFeature> iterator =
-        dataStore.query(
-            bldr.constraints(
-                bldr.constraintsFactory().spatialTemporalConstraints().spatialConstraints(
-                    queryGeom).build()).build())) {
-      while (iterator.hasNext()) {
-        final SimpleFeature simpleFeature = iterator.next();
-        final SimpleFeatureType type = simpleFeature.getType();
-        final FeatureProtos.Builder b = FeatureProtos.newBuilder();
-        final FeatureAttributeProtos.Builder attBuilder = FeatureAttributeProtos.newBuilder();
-
-        for (int i = 0; i < type.getAttributeDescriptors().size(); i++) {
-          setAttributeBuilderValue(simpleFeature.getAttribute(i), attBuilder);
-          b.putAttributes(type.getAttributeDescriptors().get(i).getLocalName(), attBuilder.build());
-        }
-        final FeatureProtos f = b.build();
-        responseObserver.onNext(f);
-      }
-      responseObserver.onCompleted();
-    }
+    return dataStore.query(
+        bldr.constraints(
+            bldr.constraintsFactory().spatialTemporalConstraints().spatialConstraints(
+                queryGeom).build()).build());
   }
 
   @Override
   public void spatialTemporalQuery(
       final SpatialTemporalQueryParametersProtos request,
       final StreamObserver<FeatureProtos> responseObserver) {
+    new SingleFeatureStreamer(
+        "spatialTemporalQuery",
+        responseObserver,
+        queryFeatures(request)).start();
+  }
+
+  @Override
+  public void spatialTemporalQueryBatch(
+      final SpatialTemporalQueryParametersProtos request,
+      final StreamObserver<FeatureBatchProtos> responseObserver) {
+    new FeatureBatchStreamer(
+        "spatialTemporalQueryBatch",
+        responseObserver,
+        queryFeatures(request),
+        request.getSpatialParams().getBaseParams().getBatchSize()).start();
+  }
 
+  private CloseableIterator<SimpleFeature> queryFeatures(
+      final SpatialTemporalQueryParametersProtos request) {
     final String storeName = request.getSpatialParams().getBaseParams().getStoreName();
     final StoreLoader storeLoader = new StoreLoader(storeName);
 
@@ -516,64 +522,6 @@ public class GeoWaveGrpcVectorService extends VectorGrpc.VectorImplBase implemen
       LOGGER.error("Exception encountered creating query geometry", e);
     }
 
-    try (final CloseableIterator<SimpleFeature> iterator =
-        dataStore.query(bldr.constraints(stBldr.build()).build())) {
-      while (iterator.hasNext()) {
-        final SimpleFeature simpleFeature = iterator.next();
-        final SimpleFeatureType type = simpleFeature.getType();
-        final FeatureProtos.Builder b = FeatureProtos.newBuilder();
-        final FeatureAttributeProtos.Builder attBuilder = FeatureAttributeProtos.newBuilder();
-
-        for (int i = 0; i < type.getAttributeDescriptors().size(); i++) {
-          setAttributeBuilderValue(simpleFeature.getAttribute(i), attBuilder);
-          b.putAttributes(type.getAttributeDescriptors().get(i).getLocalName(), attBuilder.build());
-        }
-        final FeatureProtos f = b.build();
-        responseObserver.onNext(f);
-      }
-      responseObserver.onCompleted();
-    }
-  }
-
-  private void setAttributeBuilderValue(
-      final Object simpleFeatureAttribute,
-      final FeatureAttributeProtos.Builder attBuilder) {
-    if (simpleFeatureAttribute != null) {
-      switch (simpleFeatureAttribute.getClass().getSimpleName()) {
-        case "String":
-          attBuilder.setValString((String) simpleFeatureAttribute);
-          break;
-
-        case "Integer":
-          attBuilder.setValInt32((Integer) simpleFeatureAttribute);
-          break;
-
-        case "Long":
-          attBuilder.setValInt64((Long) simpleFeatureAttribute);
-          break;
-
-        case "Float":
-          attBuilder.setValFloat((Float) simpleFeatureAttribute);
-          break;
-
-        case "Double":
-          attBuilder.setValDouble((Double) simpleFeatureAttribute);
-          break;
-
-        case "Date":
-          attBuilder.setValDate(Timestamps.fromMillis(((Date) simpleFeatureAttribute).getTime()));
-          break;
-        case "Geometry":
-        case "Point":
-        case "LineString":
-        case "Polygon":
-        case "GeometryCollection":
-          attBuilder.setValGeometry(
-              ByteString.copyFrom((new WKBWriter().write((Geometry) simpleFeatureAttribute))));
-          break;
-        default:
-          break;
-      };
-    }
+    return dataStore.query(bldr.constraints(stBldr.build()).build());
   }
 }
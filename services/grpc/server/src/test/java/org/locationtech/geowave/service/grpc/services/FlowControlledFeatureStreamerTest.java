@@ -0,0 +1,396 @@
+/**
+ * Copyright (c) 2013-2020 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.service.grpc.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.geotools.data.DataUtilities;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.service.grpc.protobuf.FeatureBatchProtos;
+import org.locationtech.geowave.service.grpc.protobuf.FeatureProtos;
+import org.locationtech.geowave.service.grpc.services.FlowControlledFeatureStreamer.FeatureBatchStreamer;
+import org.locationtech.geowave.service.grpc.services.FlowControlledFeatureStreamer.SingleFeatureStreamer;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+import com.google.common.base.Strings;
+import com.google.protobuf.Empty;
+import com.google.protobuf.Message;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.Server;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+
+public class FlowControlledFeatureStreamerTest {
+  private static final String SERVICE_NAME = "test.FeatureStreamer";
+  private static final long TIMEOUT_SECONDS = 30;
+  private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+  private static SimpleFeatureType typeA;
+  private static SimpleFeatureType typeB;
+
+  private Server server;
+  private ManagedChannel channel;
+
+  @BeforeClass
+  public static void createTypes() throws Exception {
+    typeA = DataUtilities.createType("typeA", "geometry:Point:srid=4326,name:String,count:Integer");
+    typeB = DataUtilities.createType("typeB", "geometry:Point:srid=4326,label:String");
+  }
+
+  @After
+  public void shutdown() throws InterruptedException {
+    if (channel != null) {
+      channel.shutdownNow().awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+    if (server != null) {
+      server.shutdownNow().awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void testFlowControl() throws Exception {
+    final TestIterator iterator = new TestIterator(createFeatures(typeA, 0, 100, 0));
+    final StreamingCall<FeatureBatchProtos> call =
+        startCall(
+            FeatureBatchProtos.getDefaultInstance(),
+            observer -> new FeatureBatchStreamer("test", observer, iterator, 10));
+
+    // nothing is produced until the client asks for a message
+    assertFalse(call.awaitClosed(100, TimeUnit.MILLISECONDS));
+    assertEquals(0, iterator.getPulled());
+
+    // and only as much as the client has asked for is read from the query
+    for (int i = 1; i < 10; i++) {
+      final FeatureBatchProtos batch = call.next();
+      assertEquals(10, batch.getFeaturesCount());
+      assertEquals(i * 10, iterator.getPulled());
+      assertFalse(iterator.isClosed());
+    }
+    // the call completes as soon as the last batch has been sent
+    assertEquals(10, call.next().getFeaturesCount());
+    assertTrue(call.awaitClosed(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertEquals(Status.Code.OK, call.getStatus().getCode());
+    assertTrue(iterator.awaitClosed());
+  }
+
+  @Test
+  public void testCancellation() throws Exception {
+    final TestIterator iterator = new TestIterator(createFeatures(typeA, 0, 100, 0));
+    final StreamingCall<FeatureBatchProtos> call =
+        startCall(
+            FeatureBatchProtos.getDefaultInstance(),
+            observer -> new FeatureBatchStreamer("test", observer, iterator, 10));
+    call.next();
+    call.cancel();
+    // the query is closed without reading the rest of its results
+    assertTrue(iterator.awaitClosed());
+    assertEquals(10, iterator.getPulled());
+    assertTrue(call.awaitClosed(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertEquals(Status.Code.CANCELLED, call.getStatus().getCode());
+  }
+
+  @Test
+  public void testQueryFailure() throws Exception {
+    final TestIterator iterator = new TestIterator(createFeatures(typeA, 0, 15, 0), 12);
+    final StreamingCall<FeatureBatchProtos> call =
+        startCall(
+            FeatureBatchProtos.getDefaultInstance(),
+            observer -> new FeatureBatchStreamer("test", observer, iterator, 10));
+    final List<FeatureBatchProtos> batches = call.readAll();
+    assertEquals(1, batches.size());
+    assertEquals(Status.Code.UNKNOWN, call.getStatus().getCode());
+    assertTrue(iterator.awaitClosed());
+  }
+
+  @Test
+  public void testBatchSizeCap() throws Exception {
+    final int features = FeatureBatchStreamer.MAX_BATCH_SIZE + 500;
+    final TestIterator iterator = new TestIterator(createFeatures(typeA, 0, features, 0));
+    final StreamingCall<FeatureBatchProtos> call =
+        startCall(
+            FeatureBatchProtos.getDefaultInstance(),
+            observer -> new FeatureBatchStreamer(
+                "test",
+                observer,
+                iterator,
+                FeatureBatchStreamer.MAX_BATCH_SIZE * 2));
+    assertEquals(
+        Arrays.asList(FeatureBatchStreamer.MAX_BATCH_SIZE, 500),
+        getFeatureCounts(call.readAll()));
+    assertEquals(Status.Code.OK, call.getStatus().getCode());
+  }
+
+  @Test
+  public void testDefaultBatchSize() throws Exception {
+    final int features = FeatureBatchStreamer.DEFAULT_BATCH_SIZE + 1;
+    final TestIterator iterator = new TestIterator(createFeatures(typeA, 0, features, 0));
+    final StreamingCall<FeatureBatchProtos> call =
+        startCall(
+            FeatureBatchProtos.getDefaultInstance(),
+            observer -> new FeatureBatchStreamer("test", observer, iterator, 0));
+    assertEquals(
+        Arrays.asList(FeatureBatchStreamer.DEFAULT_BATCH_SIZE, 1),
+        getFeatureCounts(call.readAll()));
+  }
+
+  @Test
+  public void testBatchBytesCap() throws Exception {
+    // each feature is about 100 KB, so a batch is full long before it reaches the batch size
+    final int nameLength = 100 * 1024;
+    final TestIterator iterator = new TestIterator(createFeatures(typeA, 0, 50, nameLength));
+    final StreamingCall<FeatureBatchProtos> call =
+        startCall(
+            FeatureBatchProtos.getDefaultInstance(),
+            observer -> new FeatureBatchStreamer("test", observer, iterator, 1000));
+    final List<FeatureBatchProtos> batches = call.readAll();
+    assertTrue(batches.size() > 1);
+    int total = 0;
+    for (final FeatureBatchProtos batch : batches) {
+      // a batch only goes over the limit by the feature that filled it
+      assertTrue(
+          "Batch of " + batch.getSerializedSize() + " bytes",
+          batch.getSerializedSize() < (FeatureBatchStreamer.MAX_BATCH_BYTES + (2 * nameLength)));
+      total += batch.getFeaturesCount();
+    }
+    assertEquals(50, total);
+  }
+
+  @Test
+  public void testTypeChangeEndsBatch() throws Exception {
+    final List<SimpleFeature> features = new ArrayList<>();
+    features.addAll(createFeatures(typeA, 0, 5, 0));
+    features.addAll(createFeatures(typeB, 5, 3, 0));
+    features.addAll(createFeatures(typeA, 8, 2, 0));
+    final TestIterator iterator = new TestIterator(features);
+    final StreamingCall<FeatureBatchProtos> call =
+        startCall(
+            FeatureBatchProtos.getDefaultInstance(),
+            observer -> new FeatureBatchStreamer("test", observer, iterator, 100));
+    final List<FeatureBatchProtos> batches = call.readAll();
+    assertEquals(Arrays.asList(5, 3, 2), getFeatureCounts(batches));
+
+    final FeatureBatchProtos batchB = batches.get(1);
+    assertEquals("typeB", batchB.getTypeName());
+    assertEquals(Arrays.asList("geometry", "label"), batchB.getAttributeNamesList());
+    assertEquals("feature5", batchB.getFeatures(0).getId());
+    assertFalse(batchB.getFeatures(0).getValues(0).getValTwkbGeometry().isEmpty());
+    assertEquals("name5", batchB.getFeatures(0).getValues(1).getValString());
+    assertEquals("typeA", batches.get(2).getTypeName());
+    assertEquals("feature9", batches.get(2).getFeatures(1).getId());
+  }
+
+  @Test
+  public void testSingleFeatures() throws Exception {
+    final TestIterator iterator = new TestIterator(createFeatures(typeA, 0, 20, 0));
+    final StreamingCall<FeatureProtos> call =
+        startCall(
+            FeatureProtos.getDefaultInstance(),
+            observer -> new SingleFeatureStreamer("test", observer, iterator));
+    final FeatureProtos first = call.next();
+    assertEquals(1, iterator.getPulled());
+    assertEquals("name0", first.getAttributesOrThrow("name").getValString());
+    assertEquals(0, first.getAttributesOrThrow("count").getValInt32());
+    assertFalse(first.getAttributesOrThrow("geometry").getValGeometry().isEmpty());
+
+    final List<FeatureProtos> rest = call.readAll();
+    assertEquals(19, rest.size());
+    assertEquals(19, rest.get(18).getAttributesOrThrow("count").getValInt32());
+    assertEquals(Status.Code.OK, call.getStatus().getCode());
+    assertTrue(iterator.awaitClosed());
+  }
+
+  /**
+   * Start a server with a single server streaming method that streams the results of the given
+   * streamer, and call it.
+   */
+  private <T extends Message> StreamingCall<T> startCall(
+      final T defaultInstance,
+      final Function<StreamObserver<T>, FlowControlledFeatureStreamer<T>> streamerFactory)
+      throws IOException {
+    final MethodDescriptor<Empty, T> method =
+        MethodDescriptor.<Empty, T>newBuilder().setType(
+            MethodType.SERVER_STREAMING).setFullMethodName(
+                MethodDescriptor.generateFullMethodName(
+                    SERVICE_NAME,
+                    "Stream")).setRequestMarshaller(
+                        ProtoUtils.marshaller(Empty.getDefaultInstance())).setResponseMarshaller(
+                            ProtoUtils.marshaller(defaultInstance)).build();
+    final ServerServiceDefinition service =
+        ServerServiceDefinition.builder(SERVICE_NAME).addMethod(
+            method,
+            ServerCalls.<Empty, T>asyncServerStreamingCall(
+                (request, observer) -> streamerFactory.apply(observer).start())).build();
+    final String serverName = InProcessServerBuilder.generateName();
+    server = InProcessServerBuilder.forName(serverName).addService(service).build().start();
+    channel = InProcessChannelBuilder.forName(serverName).build();
+    return new StreamingCall<>(channel, method);
+  }
+
+  private static List<Integer> getFeatureCounts(final List<FeatureBatchProtos> batches) {
+    final List<Integer> counts = new ArrayList<>();
+    for (final FeatureBatchProtos batch : batches) {
+      counts.add(batch.getFeaturesCount());
+    }
+    return counts;
+  }
+
+  private static List<SimpleFeature> createFeatures(
+      final SimpleFeatureType type,
+      final int start,
+      final int count,
+      final int nameLength) {
+    final List<SimpleFeature> features = new ArrayList<>(count);
+    for (int i = start; i < (start + count); i++) {
+      final List<Object> values = new ArrayList<>();
+      values.add(GEOMETRY_FACTORY.createPoint(new Coordinate(i % 180, i % 90)));
+      values.add(Strings.padEnd("name" + i, nameLength, 'x'));
+      if (type.getAttributeCount() > 2) {
+        values.add(i);
+      }
+      features.add(SimpleFeatureBuilder.build(type, values, "feature" + i));
+    }
+    return features;
+  }
+
+  /**
+   * Query results that record how many features have been read and whether the query was closed,
+   * optionally failing after a number of features.
+   */
+  private static class TestIterator implements CloseableIterator<SimpleFeature> {
+    private final Iterator<SimpleFeature> features;
+    private final int failAfter;
+    private final AtomicInteger pulled = new AtomicInteger();
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    private TestIterator(final List<SimpleFeature> features) {
+      this(features, Integer.MAX_VALUE);
+    }
+
+    private TestIterator(final List<SimpleFeature> features, final int failAfter) {
+      this.features = features.iterator();
+      this.failAfter = failAfter;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return features.hasNext();
+    }
+
+    @Override
+    public SimpleFeature next() {
+      if (pulled.incrementAndGet() > failAfter) {
+        throw new IllegalStateException("Query failed");
+      }
+      return features.next();
+    }
+
+    @Override
+    public void close() {
+      closed.countDown();
+    }
+
+    private int getPulled() {
+      return pulled.get();
+    }
+
+    private boolean isClosed() {
+      return closed.getCount() == 0;
+    }
+
+    private boolean awaitClosed() throws InterruptedException {
+      return closed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * A server streaming call that only requests messages when asked to, so that the server has to
+   * respect flow control.
+   */
+  private static class StreamingCall<T> extends ClientCall.Listener<T> {
+    private final ClientCall<Empty, T> call;
+    private final BlockingQueue<T> messages = new LinkedBlockingQueue<>();
+    private final CountDownLatch closed = new CountDownLatch(1);
+    private volatile Status status;
+
+    private StreamingCall(final Channel channel, final MethodDescriptor<Empty, T> method) {
+      call = channel.newCall(method, CallOptions.DEFAULT);
+      call.start(this, new Metadata());
+      call.sendMessage(Empty.getDefaultInstance());
+      call.halfClose();
+    }
+
+    @Override
+    public void onMessage(final T message) {
+      messages.add(message);
+    }
+
+    @Override
+    public void onClose(final Status status, final Metadata trailers) {
+      this.status = status;
+      closed.countDown();
+    }
+
+    private T next() throws InterruptedException {
+      call.request(1);
+      final T message = messages.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      assertNotNull("No message received", message);
+      return message;
+    }
+
+    private List<T> readAll() throws InterruptedException {
+      call.request(Integer.MAX_VALUE);
+      assertTrue(awaitClosed(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      final List<T> retVal = new ArrayList<>();
+      messages.drainTo(retVal);
+      return retVal;
+    }
+
+    private void cancel() {
+      call.cancel("cancelled by test", null);
+    }
+
+    private boolean awaitClosed(final long timeout, final TimeUnit unit)
+        throws InterruptedException {
+      return closed.await(timeout, unit);
+    }
+
+    private Status getStatus() {
+      return status;
+    }
+  }
+}
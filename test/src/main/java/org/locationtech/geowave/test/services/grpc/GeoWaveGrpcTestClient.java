@@ -43,6 +43,7 @@ import org.locationtech.geowave.service.grpc.protobuf.CoreStoreGrpc.CoreStoreBlo
 import org.locationtech.geowave.service.grpc.protobuf.DBScanCommandParametersProtos;
 import org.locationtech.geowave.service.grpc.protobuf.DescribeTypeCommandParametersProtos;
 import org.locationtech.geowave.service.grpc.protobuf.FeatureAttributeProtos;
+import org.locationtech.geowave.service.grpc.protobuf.FeatureBatchProtos;
 import org.locationtech.geowave.service.grpc.protobuf.FeatureProtos;
 import org.locationtech.geowave.service.grpc.protobuf.GeoServerAddCoverageCommandParametersProtos;
 import org.locationtech.geowave.service.grpc.protobuf.GeoServerAddCoverageStoreCommandParametersProtos;
@@ -290,6 +291,21 @@ public class GeoWaveGrpcTestClient {
     return feature_list;
   }
 
+  public ArrayList<FeatureBatchProtos> vectorQueryBatch(final int batchSize) {
+    LOGGER.info("Performing Batched Vector Query...");
+    final VectorQueryParametersProtos request =
+        VectorQueryParametersProtos.newBuilder().setStoreName(
+            GeoWaveGrpcTestUtils.storeName).setTypeName(GeoWaveGrpcTestUtils.typeName).setQuery(
+                GeoWaveGrpcTestUtils.cqlSpatialQuery).setBatchSize(batchSize).build();
+
+    final Iterator<FeatureBatchProtos> batches = vectorBlockingStub.vectorQueryBatch(request);
+    final ArrayList<FeatureBatchProtos> batch_list = new ArrayList<>();
+    while (batches.hasNext()) {
+      batch_list.add(batches.next());
+    }
+    return batch_list;
+  }
+
   private static ByteString copyFrom(final byte[] bytes) {
     return ByteString.copyFrom(bytes);
   }
@@ -317,6 +333,25 @@ public class GeoWaveGrpcTestClient {
     return feature_list;
   }
 
+  public ArrayList<FeatureBatchProtos> cqlQueryBatch(final int batchSize) {
+    LOGGER.info("Performing Batched CQL Query...");
+    final VectorStoreParametersProtos baseParams =
+        VectorStoreParametersProtos.newBuilder().setStoreName(
+            GeoWaveGrpcTestUtils.storeName).setTypeName(GeoWaveGrpcTestUtils.typeName).setIndexName(
+                GeoWaveGrpcTestUtils.indexName).setBatchSize(batchSize).build();
+
+    final CQLQueryParametersProtos request =
+        CQLQueryParametersProtos.newBuilder().setBaseParams(baseParams).setCql(
+            GeoWaveGrpcTestUtils.cqlSpatialQuery).build();
+
+    final Iterator<FeatureBatchProtos> batches = vectorBlockingStub.cqlQueryBatch(request);
+    final ArrayList<FeatureBatchProtos> batch_list = new ArrayList<>();
+    while (batches.hasNext()) {
+      batch_list.add(batches.next());
+    }
+    return batch_list;
+  }
+
   public ArrayList<FeatureProtos> spatialQuery() throws UnsupportedEncodingException {
     LOGGER.info("Performing Spatial Query...");
     final VectorStoreParametersProtos baseParams =
@@ -262,6 +262,18 @@ public class GeoWaveTextIndexIT extends AbstractGeoWaveIT {
         false);
   }
 
+  @Test
+  public void testOnlyTokenSearches() throws IOException {
+    assertResults(
+        EnumSet.of(
+            TextSearchType.CONTAINS_WORDS,
+            TextSearchType.CONTAINS_PHRASE,
+            TextSearchType.WORD_BEGINS_WITH),
+        EnumSet.allOf(CaseSensitivity.class),
+        3,
+        false);
+  }
+
   private void assertResults(
       final EnumSet<TextSearchType> supportedSearchTypes,
       final EnumSet<CaseSensitivity> supportedCaseSensitivity,
@@ -445,6 +457,95 @@ public class GeoWaveTextIndexIT extends AbstractGeoWaveIT {
                   "salt Lake city"));
       Assert.assertEquals(0, results.size());
     }
+
+    if (supportedSearchTypes.contains(TextSearchType.CONTAINS_WORDS)
+        && supportedCaseSensitivity.contains(CaseSensitivity.CASE_INSENSITIVE)) {
+      results =
+          getResults(
+              new TextSearch(
+                  TextSearchType.CONTAINS_WORDS,
+                  CaseSensitivity.CASE_INSENSITIVE,
+                  "city"));
+      // there are 4 capitals with the word "City"
+      Assert.assertEquals(4, results.size());
+      for (final String r : results) {
+        Assert.assertTrue(r.endsWith(" City"));
+      }
+      results =
+          getResults(
+              new TextSearch(
+                  TextSearchType.CONTAINS_WORDS,
+                  CaseSensitivity.CASE_INSENSITIVE,
+                  "city SALT"));
+      Assert.assertEquals(1, results.size());
+      Assert.assertTrue(results.iterator().next().equals("Salt Lake City"));
+    }
+
+    if (supportedSearchTypes.contains(TextSearchType.CONTAINS_WORDS)
+        && supportedCaseSensitivity.contains(CaseSensitivity.CASE_SENSITIVE)) {
+      // words must match entirely
+      results =
+          getResults(
+              new TextSearch(TextSearchType.CONTAINS_WORDS, CaseSensitivity.CASE_SENSITIVE, "Cit"));
+      Assert.assertEquals(0, results.size());
+      results =
+          getResults(
+              new TextSearch(
+                  TextSearchType.CONTAINS_WORDS,
+                  CaseSensitivity.CASE_SENSITIVE,
+                  "city"));
+      Assert.assertEquals(0, results.size());
+    }
+
+    if (supportedSearchTypes.contains(TextSearchType.CONTAINS_PHRASE)
+        && supportedCaseSensitivity.contains(CaseSensitivity.CASE_INSENSITIVE)) {
+      results =
+          getResults(
+              new TextSearch(
+                  TextSearchType.CONTAINS_PHRASE,
+                  CaseSensitivity.CASE_INSENSITIVE,
+                  "lake city"));
+      Assert.assertEquals(1, results.size());
+      Assert.assertTrue(results.iterator().next().equals("Salt Lake City"));
+      results =
+          getResults(
+              new TextSearch(
+                  TextSearchType.CONTAINS_PHRASE,
+                  CaseSensitivity.CASE_INSENSITIVE,
+                  "city lake"));
+      Assert.assertEquals(0, results.size());
+    }
+
+    if (supportedSearchTypes.contains(TextSearchType.WORD_BEGINS_WITH)
+        && supportedCaseSensitivity.contains(CaseSensitivity.CASE_SENSITIVE)) {
+      results =
+          getResults(
+              new TextSearch(
+                  TextSearchType.WORD_BEGINS_WITH,
+                  CaseSensitivity.CASE_SENSITIVE,
+                  "Sa"));
+      // there are 5 capitals with a word beginning with "Sa"
+      Assert.assertEquals(5, results.size());
+      results =
+          getResults(
+              new TextSearch(
+                  TextSearchType.WORD_BEGINS_WITH,
+                  CaseSensitivity.CASE_SENSITIVE,
+                  "sa"));
+      Assert.assertEquals(0, results.size());
+    }
+
+    if (supportedSearchTypes.contains(TextSearchType.WORD_BEGINS_WITH)
+        && supportedCaseSensitivity.contains(CaseSensitivity.CASE_INSENSITIVE)) {
+      results =
+          getResults(
+              new TextSearch(
+                  TextSearchType.WORD_BEGINS_WITH,
+                  CaseSensitivity.CASE_INSENSITIVE,
+                  "ci"));
+      // only the 4 capitals with the word "City" have a word beginning with "ci"
+      Assert.assertEquals(4, results.size());
+    }
   }
 
   private Set<String> getResults(final TextSearch search) {
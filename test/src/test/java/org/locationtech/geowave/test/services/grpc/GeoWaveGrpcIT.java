@@ -12,6 +12,7 @@ import java.io.File;
 import java.io.UnsupportedEncodingException;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import org.apache.log4j.Level;
 import org.junit.AfterClass;
@@ -23,6 +24,7 @@ import org.locationtech.geowave.adapter.raster.util.ZipUtils;
 import org.locationtech.geowave.core.cli.operations.config.options.ConfigOptions;
 import org.locationtech.geowave.core.cli.parser.ManualOperationParams;
 import org.locationtech.geowave.core.geotime.index.api.SpatialIndexBuilder;
+import org.locationtech.geowave.core.geotime.util.TWKBReader;
 import org.locationtech.geowave.core.ingest.operations.ConfigAWSCommand;
 import org.locationtech.geowave.core.store.cli.store.AddStoreCommand;
 import org.locationtech.geowave.core.store.cli.store.DataStorePluginOptions;
@@ -30,7 +32,11 @@ import org.locationtech.geowave.service.grpc.GeoWaveGrpcServiceOptions;
 import org.locationtech.geowave.service.grpc.cli.StartGrpcServerCommand;
 import org.locationtech.geowave.service.grpc.cli.StartGrpcServerCommandOptions;
 import org.locationtech.geowave.service.grpc.cli.StopGrpcServerCommand;
+import org.locationtech.geowave.service.grpc.protobuf.FeatureAttributeProtos;
+import org.locationtech.geowave.service.grpc.protobuf.FeatureAttributeProtos.ValueCase;
+import org.locationtech.geowave.service.grpc.protobuf.FeatureBatchProtos;
 import org.locationtech.geowave.service.grpc.protobuf.FeatureProtos;
+import org.locationtech.geowave.service.grpc.protobuf.FeatureValuesProtos;
 import org.locationtech.geowave.test.GeoWaveITRunner;
 import org.locationtech.geowave.test.TestUtils;
 import org.locationtech.geowave.test.annotation.Environments;
@@ -67,6 +73,7 @@ public class GeoWaveGrpcIT extends AbstractGeoWaveBasicVectorIT {
   public static ManualOperationParams operationParams = null;
   private static long startMillis;
   private static final int NUM_THREADS = 1;
+  private static final int TEST_BATCH_SIZE = 7;
 
   protected static final String TEST_DATA_ZIP_RESOURCE_PATH =
       TestUtils.TEST_RESOURCE_PACKAGE + "mapreduce-testdata.zip";
@@ -266,6 +273,9 @@ public class GeoWaveGrpcIT extends AbstractGeoWaveBasicVectorIT {
 
     ArrayList<FeatureProtos> features = client.vectorQuery();
     Assert.assertTrue(features.size() > 0);
+    // the batched query should return the same features, packed into batches of at most the
+    // requested size
+    assertBatches(client.vectorQueryBatch(TEST_BATCH_SIZE), features.size());
     features.clear();
     LOGGER.warn("-----------------------------------------");
     LOGGER.warn("*                                       *");
@@ -279,6 +289,7 @@ public class GeoWaveGrpcIT extends AbstractGeoWaveBasicVectorIT {
 
     features = client.cqlQuery();
     Assert.assertTrue(features.size() > 0);
+    assertBatches(client.cqlQueryBatch(TEST_BATCH_SIZE), features.size());
     features.clear();
     LOGGER.warn("-----------------------------------------");
     LOGGER.warn("*                                       *");
@@ -436,6 +447,30 @@ public class GeoWaveGrpcIT extends AbstractGeoWaveBasicVectorIT {
     TestUtils.deleteAll(dataStore);
   }
 
+  private static void assertBatches(
+      final List<FeatureBatchProtos> batches,
+      final int expectedFeatures) {
+    int featureCount = 0;
+    for (final FeatureBatchProtos batch : batches) {
+      Assert.assertTrue(batch.getFeaturesCount() <= TEST_BATCH_SIZE);
+      for (final FeatureValuesProtos feature : batch.getFeaturesList()) {
+        Assert.assertEquals(batch.getAttributeNamesCount(), feature.getValuesCount());
+        for (final FeatureAttributeProtos value : feature.getValuesList()) {
+          if (value.getValueCase() == ValueCase.VALTWKBGEOMETRY) {
+            try {
+              Assert.assertNotNull(
+                  new TWKBReader().read(value.getValTwkbGeometry().toByteArray()));
+            } catch (final org.locationtech.jts.io.ParseException e) {
+              Assert.fail("Unable to read TWKB geometry: " + e.getMessage());
+            }
+          }
+        }
+      }
+      featureCount += batch.getFeaturesCount();
+    }
+    Assert.assertEquals(expectedFeatures, featureCount);
+  }
+
   private static int countLines(final String str) {
     final String[] lines = str.split("\r\n|\r|\n");
     return lines.length;